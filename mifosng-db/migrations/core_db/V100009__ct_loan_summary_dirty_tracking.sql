@@ -0,0 +1,10 @@
+CREATE TABLE `m_loan_summary_dirty` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`loan_id` BIGINT(20) NOT NULL,
+	PRIMARY KEY (`id`),
+	INDEX `idx_loan_summary_dirty_loan_id` (`loan_id`, `id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `m_loan_summary_dirty` (`loan_id`) SELECT `id` FROM `m_loan` WHERE `disbursedon_date` IS NOT NULL;
+
+INSERT INTO `c_configuration` (`name`, `value`, `enabled`) VALUES ('loan-summary-job-chunk-size', 500, 1);
@@ -0,0 +1,12 @@
+CREATE TABLE `job_checkpoint` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`job_name` VARCHAR(100) NOT NULL,
+	`run_date` DATE NOT NULL,
+	`last_processed_key` BIGINT(20) NULL DEFAULT NULL,
+	`processed_count` BIGINT(20) NOT NULL DEFAULT 0,
+	`failed_count` BIGINT(20) NOT NULL DEFAULT 0,
+	`is_completed` TINYINT(1) NOT NULL DEFAULT 0,
+	`lastmodified_date` DATETIME NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	UNIQUE KEY `uk_job_checkpoint_job_name` (`job_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
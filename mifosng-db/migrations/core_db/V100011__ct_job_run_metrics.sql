@@ -0,0 +1,15 @@
+CREATE TABLE `job_run_metrics` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`job_run_history_id` BIGINT(20) NOT NULL,
+	`elapsed_millis` BIGINT(20) NOT NULL DEFAULT 0,
+	`cpu_time_millis` BIGINT(20) NOT NULL DEFAULT 0,
+	`db_time_millis` BIGINT(20) NOT NULL DEFAULT 0,
+	`rows_read` BIGINT(20) NOT NULL DEFAULT 0,
+	`rows_written` BIGINT(20) NOT NULL DEFAULT 0,
+	`chunk_count` BIGINT(20) NOT NULL DEFAULT 0,
+	`max_chunk_latency_millis` BIGINT(20) NOT NULL DEFAULT 0,
+	`chunk_latency_histogram` VARCHAR(200) NULL DEFAULT NULL,
+	PRIMARY KEY (`id`),
+	UNIQUE KEY `uk_job_run_metrics_run_history` (`job_run_history_id`),
+	CONSTRAINT `FK_job_run_metrics_job_run_history` FOREIGN KEY (`job_run_history_id`) REFERENCES `job_run_history` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
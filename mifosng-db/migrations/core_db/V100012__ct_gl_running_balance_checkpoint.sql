@@ -0,0 +1,13 @@
+CREATE TABLE `acc_gl_running_balance_checkpoint` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`office_id` BIGINT(20) NOT NULL,
+	`account_id` BIGINT(20) NOT NULL,
+	`office_running_balance` DECIMAL(19,6) NOT NULL DEFAULT '0.000000',
+	`entry_date` DATE NOT NULL,
+	`journal_entry_id` BIGINT(20) NOT NULL,
+	PRIMARY KEY (`id`),
+	UNIQUE KEY `uk_acc_gl_running_balance_checkpoint` (`office_id`, `account_id`),
+	INDEX `idx_acc_gl_running_balance_checkpoint_position` (`entry_date`, `journal_entry_id`),
+	CONSTRAINT `FK_acc_gl_running_balance_checkpoint_office` FOREIGN KEY (`office_id`) REFERENCES `m_office` (`id`),
+	CONSTRAINT `FK_acc_gl_running_balance_checkpoint_account` FOREIGN KEY (`account_id`) REFERENCES `acc_gl_account` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,24 @@
+CREATE TABLE `acc_gl_balance_snapshot` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`office_id` BIGINT(20) NOT NULL,
+	`account_id` BIGINT(20) NOT NULL,
+	`currency_code` VARCHAR(3) NOT NULL,
+	`balance_date` DATE NOT NULL,
+	`debit_amount` DECIMAL(19,6) NOT NULL DEFAULT '0.000000',
+	`credit_amount` DECIMAL(19,6) NOT NULL DEFAULT '0.000000',
+	PRIMARY KEY (`id`),
+	UNIQUE KEY `uk_acc_gl_balance_snapshot` (`office_id`, `account_id`, `currency_code`, `balance_date`),
+	INDEX `idx_acc_gl_balance_snapshot_balance_date` (`balance_date`),
+	CONSTRAINT `FK_acc_gl_balance_snapshot_office` FOREIGN KEY (`office_id`) REFERENCES `m_office` (`id`),
+	CONSTRAINT `FK_acc_gl_balance_snapshot_account` FOREIGN KEY (`account_id`) REFERENCES `acc_gl_account` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+ALTER TABLE `acc_gl_journal_entry`
+	ADD INDEX `idx_acc_gl_journal_entry_entry_date` (`entry_date`),
+	ADD INDEX `idx_acc_gl_journal_entry_running_balance` (`is_running_balance_calculated`, `entry_date`);
+
+INSERT INTO `acc_gl_balance_snapshot` (`office_id`, `account_id`, `currency_code`, `balance_date`, `debit_amount`, `credit_amount`)
+SELECT je.office_id, je.account_id, je.currency_code, je.entry_date, SUM(IF(je.type_enum = 2, je.amount, 0)), SUM(IF(je.type_enum = 1, je.amount, 0))
+FROM `acc_gl_journal_entry` je
+WHERE je.is_running_balance_calculated = 1
+GROUP BY je.office_id, je.account_id, je.currency_code, je.entry_date;
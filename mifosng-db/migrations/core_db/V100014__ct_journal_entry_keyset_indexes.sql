@@ -0,0 +1,3 @@
+ALTER TABLE `acc_gl_journal_entry`
+	ADD INDEX `idx_acc_gl_journal_entry_office_entry_date` (`office_id`, `entry_date`),
+	ADD INDEX `idx_acc_gl_journal_entry_account_entry_date` (`account_id`, `entry_date`);
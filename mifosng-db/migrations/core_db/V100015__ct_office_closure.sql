@@ -0,0 +1,14 @@
+CREATE TABLE `m_office_closure` (
+	`ancestor_id` BIGINT(20) NOT NULL,
+	`descendant_id` BIGINT(20) NOT NULL,
+	`depth` INT(11) NOT NULL,
+	PRIMARY KEY (`ancestor_id`, `descendant_id`),
+	INDEX `idx_m_office_closure_descendant` (`descendant_id`),
+	CONSTRAINT `FK_m_office_closure_ancestor` FOREIGN KEY (`ancestor_id`) REFERENCES `m_office` (`id`),
+	CONSTRAINT `FK_m_office_closure_descendant` FOREIGN KEY (`descendant_id`) REFERENCES `m_office` (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+INSERT INTO `m_office_closure` (`ancestor_id`, `descendant_id`, `depth`)
+SELECT a.id, d.id, (LENGTH(d.hierarchy) - LENGTH(REPLACE(d.hierarchy, '.', ''))) - (LENGTH(a.hierarchy) - LENGTH(REPLACE(a.hierarchy, '.', '')))
+FROM `m_office` a
+JOIN `m_office` d ON d.hierarchy LIKE CONCAT(a.hierarchy, '%');
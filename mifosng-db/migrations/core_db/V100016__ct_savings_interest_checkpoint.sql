@@ -0,0 +1,5 @@
+ALTER TABLE `m_savings_account`
+	ADD COLUMN `interest_checkpoint_date` DATE NULL DEFAULT NULL AFTER `start_interest_calculation_date`,
+	ADD COLUMN `interest_checkpoint_balance` DECIMAL(19,6) NULL DEFAULT NULL AFTER `interest_checkpoint_date`,
+	ADD COLUMN `interest_checkpoint_posted` DECIMAL(19,6) NULL DEFAULT NULL AFTER `interest_checkpoint_balance`,
+	ADD COLUMN `interest_checkpoint_hash` BIGINT(20) NULL DEFAULT NULL AFTER `interest_checkpoint_posted`;
@@ -0,0 +1,5 @@
+CREATE TABLE `acc_gl_running_balance_recompute` (
+	`id` BIGINT(20) NOT NULL,
+	`recompute_from_date` DATE NOT NULL,
+	PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,9 @@
+CREATE TABLE `cache_invalidation` (
+	`id` BIGINT(20) NOT NULL AUTO_INCREMENT,
+	`node_id` VARCHAR(36) NOT NULL,
+	`cache_name` VARCHAR(100) NOT NULL,
+	`cache_key` VARCHAR(500) NULL DEFAULT NULL,
+	`recorded_on` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+	PRIMARY KEY (`id`),
+	INDEX `idx_cache_invalidation_recorded_on` (`recorded_on`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -0,0 +1,67 @@
+package org.mifosplatform.integrationtests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.integrationtests.common.ClientHelper;
+import org.mifosplatform.integrationtests.common.Utils;
+
+import com.jayway.restassured.builder.RequestSpecBuilder;
+import com.jayway.restassured.builder.ResponseSpecBuilder;
+import com.jayway.restassured.http.ContentType;
+import com.jayway.restassured.specification.RequestSpecification;
+import com.jayway.restassured.specification.ResponseSpecification;
+
+/**
+ * Pages through the audit entries with the <code>after</code> token, counting
+ * them with <code>approximateCount</code>.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class AuditIntegrationTest {
+
+    private static final String AUDITS_URL = "/mifosng-provider/api/v1/audits?paged=true&limit=1&approximateCount=true&"
+            + Utils.TENANT_IDENTIFIER;
+
+    private ResponseSpecification responseSpec;
+    private RequestSpecification requestSpec;
+
+    @Before
+    public void setup() {
+        Utils.initializeRESTAssured();
+        this.requestSpec = new RequestSpecBuilder().setContentType(ContentType.JSON).build();
+        this.requestSpec.header("Authorization", "Basic " + Utils.loginIntoServerAndGetBase64EncodedAuthenticationKey());
+        this.responseSpec = new ResponseSpecBuilder().expectStatusCode(200).build();
+    }
+
+    @Test
+    public void auditEntriesArePagedAfterATokenAndCounted() {
+        // creating clients makes sure there are at least two audit entries
+        ClientHelper.createClient(this.requestSpec, this.responseSpec);
+        ClientHelper.createClient(this.requestSpec, this.responseSpec);
+
+        final HashMap firstPage = Utils.performServerGet(this.requestSpec, this.responseSpec, AUDITS_URL + "&after=", "");
+        final List<HashMap> firstPageItems = (List<HashMap>) firstPage.get("pageItems");
+        final Integer totalFilteredRecords = (Integer) firstPage.get("totalFilteredRecords");
+        final String nextPageAfter = (String) firstPage.get("nextPageAfter");
+
+        assertEquals(1, firstPageItems.size());
+        assertTrue("Verify audit entries are counted", totalFilteredRecords >= 2);
+        assertNotNull("Verify there is a next page", nextPageAfter);
+
+        final HashMap secondPage = Utils.performServerGet(this.requestSpec, this.responseSpec, AUDITS_URL + "&after=" + nextPageAfter,
+                "");
+        final List<HashMap> secondPageItems = (List<HashMap>) secondPage.get("pageItems");
+
+        assertEquals(1, secondPageItems.size());
+        assertEquals(totalFilteredRecords, secondPage.get("totalFilteredRecords"));
+        final Integer firstPageId = (Integer) firstPageItems.get(0).get("id");
+        final Integer secondPageId = (Integer) secondPageItems.get(0).get("id");
+        assertTrue("Verify the second page carries on from the first", secondPageId < firstPageId);
+    }
+}
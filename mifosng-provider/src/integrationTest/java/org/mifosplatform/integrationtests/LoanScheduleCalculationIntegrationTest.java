@@ -0,0 +1,112 @@
+package org.mifosplatform.integrationtests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.integrationtests.common.ClientHelper;
+import org.mifosplatform.integrationtests.common.Utils;
+import org.mifosplatform.integrationtests.common.loans.LoanApplicationTestBuilder;
+import org.mifosplatform.integrationtests.common.loans.LoanProductTestBuilder;
+import org.mifosplatform.integrationtests.common.loans.LoanTransactionHelper;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.jayway.restassured.builder.RequestSpecBuilder;
+import com.jayway.restassured.builder.ResponseSpecBuilder;
+import com.jayway.restassured.http.ContentType;
+import com.jayway.restassured.path.json.JsonPath;
+import com.jayway.restassured.specification.RequestSpecification;
+import com.jayway.restassured.specification.ResponseSpecification;
+
+/**
+ * Checks that the schedules calculated in bulk by
+ * <code>loans/schedules:calculate</code> are the ones calculated one at a
+ * time by <code>loans?command=calculateLoanSchedule</code>.
+ */
+public class LoanScheduleCalculationIntegrationTest {
+
+    private static final int MAX_LOAN_SCHEDULE_QUERIES = 500;
+
+    private ResponseSpecification responseSpec;
+    private RequestSpecification requestSpec;
+    private LoanTransactionHelper loanTransactionHelper;
+
+    @Before
+    public void setup() {
+        Utils.initializeRESTAssured();
+        this.requestSpec = new RequestSpecBuilder().setContentType(ContentType.JSON).build();
+        this.requestSpec.header("Authorization", "Basic " + Utils.loginIntoServerAndGetBase64EncodedAuthenticationKey());
+        this.responseSpec = new ResponseSpecBuilder().expectStatusCode(200).build();
+
+        this.loanTransactionHelper = new LoanTransactionHelper(this.requestSpec, this.responseSpec);
+    }
+
+    @Test
+    public void bulkLoanSchedulesMatchSingleLoanSchedules() {
+        final Integer clientID = ClientHelper.createClient(this.requestSpec, this.responseSpec, "01 January 2012");
+        final Integer loanProductID = this.loanTransactionHelper.getLoanProductId(new LoanProductTestBuilder().build(null));
+
+        final List<String> loanApplications = new ArrayList<>();
+        loanApplications.add(new LoanApplicationTestBuilder().withPrincipal("5000").withLoanTermFrequency("5")
+                .withLoanTermFrequencyAsMonths().withNumberOfRepayments("5").withRepaymentEveryAfter("1")
+                .withRepaymentFrequencyTypeAsMonths().withInterestRatePerPeriod("2").withExpectedDisbursementDate("04 April 2012")
+                .withSubmittedOnDate("02 April 2012").build(clientID.toString(), loanProductID.toString(), null));
+        loanApplications.add(new LoanApplicationTestBuilder().withPrincipal("12,000.00").withLoanTermFrequency("12")
+                .withLoanTermFrequencyAsMonths().withNumberOfRepayments("12").withRepaymentEveryAfter("1")
+                .withRepaymentFrequencyTypeAsMonths().withInterestRatePerPeriod("2").withInterestTypeAsDecliningBalance()
+                .withAmortizationTypeAsEqualInstallments().withExpectedDisbursementDate("20 September 2012")
+                .withSubmittedOnDate("20 September 2012").build(clientID.toString(), loanProductID.toString(), null));
+        loanApplications.add(new LoanApplicationTestBuilder().withPrincipal("3000").withLoanTermFrequency("10")
+                .withLoanTermFrequencyAsWeeks().withNumberOfRepayments("10").withRepaymentEveryAfter("1")
+                .withRepaymentFrequencyTypeAsWeeks().withInterestRatePerPeriod("1").withInterestCalculationPeriodTypeAsDays()
+                .withExpectedDisbursementDate("31 January 2013").withSubmittedOnDate("31 January 2013")
+                .build(clientID.toString(), loanProductID.toString(), null));
+
+        final JsonParser parser = new JsonParser();
+        final JsonArray loanSchedules = parser.parse(this.loanTransactionHelper.calculateLoanSchedules(asJsonArray(loanApplications)))
+                .getAsJsonArray();
+
+        assertEquals(loanApplications.size(), loanSchedules.size());
+        for (int i = 0; i < loanApplications.size(); i++) {
+            assertEquals("Schedule of loan application " + i,
+                    parser.parse(this.loanTransactionHelper.calculateLoanSchedule(loanApplications.get(i))), loanSchedules.get(i));
+        }
+    }
+
+    @Test
+    public void bulkLoanSchedulesRejectBatchesLargerThanTheMaximum() {
+        final Integer clientID = ClientHelper.createClient(this.requestSpec, this.responseSpec, "01 January 2012");
+        final Integer loanProductID = this.loanTransactionHelper.getLoanProductId(new LoanProductTestBuilder().build(null));
+        final String loanApplication = new LoanApplicationTestBuilder().withPrincipal("5000").withLoanTermFrequency("5")
+                .withLoanTermFrequencyAsMonths().withNumberOfRepayments("5").withRepaymentEveryAfter("1")
+                .withRepaymentFrequencyTypeAsMonths().withInterestRatePerPeriod("2").withExpectedDisbursementDate("04 April 2012")
+                .withSubmittedOnDate("02 April 2012").build(clientID.toString(), loanProductID.toString(), null);
+
+        final List<String> loanApplications = new ArrayList<>();
+        for (int i = 0; i <= MAX_LOAN_SCHEDULE_QUERIES; i++) {
+            loanApplications.add(loanApplication);
+        }
+
+        final ResponseSpecification validationErrorSpec = new ResponseSpecBuilder().expectStatusCode(400).build();
+        final String response = new LoanTransactionHelper(this.requestSpec, validationErrorSpec)
+                .calculateLoanSchedules(asJsonArray(loanApplications));
+
+        assertEquals("validation.msg.loan.schedules.queries.is.greater.than.max",
+                JsonPath.from(response).getString("errors[0].userMessageGlobalisationCode"));
+    }
+
+    private static String asJsonArray(final List<String> loanApplications) {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < loanApplications.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(loanApplications.get(i));
+        }
+        return json.append(']').toString();
+    }
+}
@@ -21,6 +21,8 @@ public class LoanTransactionHelper {
 
     private static final String CREATE_LOAN_PRODUCT_URL = "/mifosng-provider/api/v1/loanproducts?tenantIdentifier=default";
     private static final String APPLY_LOAN_URL = "/mifosng-provider/api/v1/loans?tenantIdentifier=default";
+    private static final String CALCULATE_LOAN_SCHEDULE_URL = "/mifosng-provider/api/v1/loans?command=calculateLoanSchedule&tenantIdentifier=default";
+    private static final String CALCULATE_LOAN_SCHEDULES_URL = "/mifosng-provider/api/v1/loans/schedules:calculate?tenantIdentifier=default";
     private static final String APPROVE_LOAN_COMMAND = "approve";
     private static final String UNDO_APPROVAL_LOAN_COMMAND = "undoApproval";
     private static final String DISBURSE_LOAN_COMMAND = "disburse";
@@ -44,6 +46,14 @@ public class LoanTransactionHelper {
         return Utils.performServerPost(this.requestSpec, this.responseSpec, APPLY_LOAN_URL, loanApplicationJSON, "loanId");
     }
 
+    public String calculateLoanSchedule(final String loanApplicationJSON) {
+        return Utils.performServerPost(this.requestSpec, this.responseSpec, CALCULATE_LOAN_SCHEDULE_URL, loanApplicationJSON, null);
+    }
+
+    public String calculateLoanSchedules(final String loanApplicationsJSON) {
+        return Utils.performServerPost(this.requestSpec, this.responseSpec, CALCULATE_LOAN_SCHEDULES_URL, loanApplicationsJSON, null);
+    }
+
     public Integer updateLoan(final Integer id, final String loanApplicationJSON) {
         return Utils.performServerPut(this.requestSpec, this.responseSpec, "/mifosng-provider/api/v1/loans/" + id
                 + "?tenantIdentifier=default", loanApplicationJSON, "loanId");
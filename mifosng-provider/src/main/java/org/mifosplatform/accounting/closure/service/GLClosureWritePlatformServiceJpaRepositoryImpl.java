@@ -19,6 +19,7 @@ import org.mifosplatform.accounting.closure.exception.GLClosureInvalidException;
 import org.mifosplatform.accounting.closure.exception.GLClosureInvalidException.GL_CLOSURE_INVALID_REASON;
 import org.mifosplatform.accounting.closure.exception.GLClosureNotFoundException;
 import org.mifosplatform.accounting.closure.serialization.GLClosureCommandFromApiJsonDeserializer;
+import org.mifosplatform.accounting.journalentry.service.AccountingLookupCache;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
@@ -41,13 +42,16 @@ public class GLClosureWritePlatformServiceJpaRepositoryImpl implements GLClosure
     private final GLClosureRepository glClosureRepository;
     private final OfficeRepository officeRepository;
     private final GLClosureCommandFromApiJsonDeserializer fromApiJsonDeserializer;
+    private final AccountingLookupCache accountingLookupCache;
 
     @Autowired
     public GLClosureWritePlatformServiceJpaRepositoryImpl(final GLClosureRepository glClosureRepository,
-            final OfficeRepository officeRepository, final GLClosureCommandFromApiJsonDeserializer fromApiJsonDeserializer) {
+            final OfficeRepository officeRepository, final GLClosureCommandFromApiJsonDeserializer fromApiJsonDeserializer,
+            final AccountingLookupCache accountingLookupCache) {
         this.glClosureRepository = glClosureRepository;
         this.officeRepository = officeRepository;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
+        this.accountingLookupCache = accountingLookupCache;
     }
 
     @Transactional
@@ -76,6 +80,7 @@ public class GLClosureWritePlatformServiceJpaRepositoryImpl implements GLClosure
             final GLClosure glClosure = GLClosure.fromJson(office, command);
 
             this.glClosureRepository.saveAndFlush(glClosure);
+            this.accountingLookupCache.invalidateClosures(officeId);
 
             return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withOfficeId(officeId)
                     .withEntityId(glClosure.getId()).build();
@@ -99,6 +104,7 @@ public class GLClosureWritePlatformServiceJpaRepositoryImpl implements GLClosure
 
         if (!changesOnly.isEmpty()) {
             this.glClosureRepository.saveAndFlush(glClosure);
+            this.accountingLookupCache.invalidateClosures(glClosure.getOffice().getId());
         }
 
         return new CommandProcessingResultBuilder().withCommandId(command.commandId()).withOfficeId(glClosure.getOffice().getId())
@@ -122,6 +128,7 @@ public class GLClosureWritePlatformServiceJpaRepositoryImpl implements GLClosure
                 .getId(), latestGLClosure.getOffice().getName(), latestGLClosure.getClosingDate()); }
 
         this.glClosureRepository.delete(glClosure);
+        this.accountingLookupCache.invalidateClosures(glClosure.getOffice().getId());
 
         return new CommandProcessingResultBuilder().withOfficeId(glClosure.getOffice().getId()).withEntityId(glClosure.getId()).build();
     }
@@ -0,0 +1,224 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.Hibernate;
+import org.mifosplatform.accounting.closure.domain.GLClosure;
+import org.mifosplatform.accounting.closure.domain.GLClosureRepository;
+import org.mifosplatform.accounting.financialactivityaccount.domain.FinancialActivityAccountRepositoryWrapper;
+import org.mifosplatform.accounting.glaccount.domain.GLAccount;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.ProductToGLAccountMapping;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.ProductToGLAccountMappingRepository;
+import org.mifosplatform.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches the lookups {@link AccountingProcessorHelper} makes for every journal
+ * entry it creates: the GL accounts mapped to products, charges, payment types
+ * and financial activities, and the latest accounting closure of each branch.
+ *
+ * Entries live in the platform cache, so nothing is cached unless caching is
+ * switched on through the cache API. Keys are scoped by tenant and carry a
+ * version per product, per branch and for the financial activity mappings of
+ * the tenant; the write services invalidate an entry by moving its version on,
+ * which leaves the entries of other products, branches and tenants in place.
+ * The version is moved on again once the writing transaction completes so that
+ * a value read concurrently from the database before the commit is never
+ * served afterwards.
+ */
+@Component
+public class AccountingLookupCache {
+
+    public static final String CACHE_NAME = "accountingLookups";
+
+    private static final AtomicLong versionSequence = new AtomicLong(System.currentTimeMillis());
+
+    private final RuntimeDelegatingCacheManager cacheManager;
+    private final ProductToGLAccountMappingRepository accountMappingRepository;
+    private final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository;
+    private final GLClosureRepository closureRepository;
+
+    @Autowired
+    public AccountingLookupCache(final RuntimeDelegatingCacheManager cacheManager,
+            final ProductToGLAccountMappingRepository accountMappingRepository,
+            final FinancialActivityAccountRepositoryWrapper financialActivityAccountRepository,
+            final GLClosureRepository closureRepository) {
+        this.cacheManager = cacheManager;
+        this.accountMappingRepository = accountMappingRepository;
+        this.financialActivityAccountRepository = financialActivityAccountRepository;
+        this.closureRepository = closureRepository;
+    }
+
+    /**
+     * The GL account mapped to the placeholder <code>financialAccountType</code>
+     * of the product, or <code>null</code> when there is no such mapping.
+     */
+    public GLAccount findProductAccount(final Long productId, final PortfolioProductType productType, final int financialAccountType) {
+        final Cache cache = cache();
+        final String key = versionedKey(cache, productMappingsVersionKey(productType, productId)) + "|" + financialAccountType;
+        final ValueWrapper cached = cache.get(key);
+        if (cached != null) { return (GLAccount) cached.get(); }
+
+        final ProductToGLAccountMapping accountMapping = this.accountMappingRepository.findCoreProductToFinAccountMapping(productId,
+                productType.getValue(), financialAccountType);
+        return put(cache, key, accountMapping);
+    }
+
+    /**
+     * The GL account mapped to the placeholder <code>financialAccountType</code>
+     * of the product for the payment type, or <code>null</code> when payments
+     * of that type use the general mapping.
+     */
+    public GLAccount findPaymentTypeSpecificProductAccount(final Long productId, final PortfolioProductType productType,
+            final int financialAccountType, final Long paymentTypeId) {
+        final Cache cache = cache();
+        final String key = versionedKey(cache, productMappingsVersionKey(productType, productId)) + "|" + financialAccountType + "|P"
+                + paymentTypeId;
+        final ValueWrapper cached = cache.get(key);
+        if (cached != null) { return (GLAccount) cached.get(); }
+
+        final ProductToGLAccountMapping accountMapping = this.accountMappingRepository
+                .findByProductIdAndProductTypeAndFinancialAccountTypeAndPaymentTypeId(productId, productType.getValue(),
+                        financialAccountType, paymentTypeId);
+        return put(cache, key, accountMapping);
+    }
+
+    /**
+     * The GL account mapped to the placeholder <code>financialAccountType</code>
+     * of the product for the charge, or <code>null</code> when the charge uses
+     * the general mapping.
+     */
+    public GLAccount findChargeSpecificProductAccount(final Long productId, final PortfolioProductType productType,
+            final int financialAccountType, final Long chargeId) {
+        final Cache cache = cache();
+        final String key = versionedKey(cache, productMappingsVersionKey(productType, productId)) + "|" + financialAccountType + "|C"
+                + chargeId;
+        final ValueWrapper cached = cache.get(key);
+        if (cached != null) { return (GLAccount) cached.get(); }
+
+        final ProductToGLAccountMapping accountMapping = this.accountMappingRepository
+                .findByProductIdAndProductTypeAndFinancialAccountTypeAndChargeId(productId, productType.getValue(), financialAccountType,
+                        chargeId);
+        return put(cache, key, accountMapping);
+    }
+
+    /**
+     * The GL account mapped to the financial activity, a missing mapping is
+     * reported the same way as
+     * {@link FinancialActivityAccountRepositoryWrapper#findByFinancialActivityTypeWithNotFoundDetection(int)}
+     * does and is not cached.
+     */
+    public GLAccount findFinancialActivityAccount(final int financialActivityType) {
+        final Cache cache = cache();
+        final String key = versionedKey(cache, financialActivitiesVersionKey()) + "|" + financialActivityType;
+        final ValueWrapper cached = cache.get(key);
+        if (cached != null) { return (GLAccount) cached.get(); }
+
+        final GLAccount glAccount = initialized(this.financialActivityAccountRepository.findByFinancialActivityTypeWithNotFoundDetection(
+                financialActivityType).getGlAccount());
+        cache.put(key, glAccount);
+        return glAccount;
+    }
+
+    public GLClosure findLatestClosureByBranch(final long officeId) {
+        final Cache cache = cache();
+        final String key = versionedKey(cache, closuresVersionKey(officeId));
+        final ValueWrapper cached = cache.get(key);
+        if (cached != null) { return (GLClosure) cached.get(); }
+
+        final GLClosure latestGLClosure = this.closureRepository.getLatestGLClosureByBranch(officeId);
+        cache.put(key, latestGLClosure);
+        return latestGLClosure;
+    }
+
+    public void invalidateProductMappings(final PortfolioProductType productType, final Long productId) {
+        invalidate(productMappingsVersionKey(productType, productId));
+    }
+
+    public void invalidateFinancialActivityAccounts() {
+        invalidate(financialActivitiesVersionKey());
+    }
+
+    public void invalidateClosures(final Long officeId) {
+        invalidate(closuresVersionKey(officeId));
+    }
+
+    private Cache cache() {
+        return this.cacheManager.getCache(CACHE_NAME);
+    }
+
+    private GLAccount put(final Cache cache, final String key, final ProductToGLAccountMapping accountMapping) {
+        final GLAccount glAccount = accountMapping == null ? null : initialized(accountMapping.getGlAccount());
+        cache.put(key, glAccount);
+        return glAccount;
+    }
+
+    /**
+     * Mapped accounts are fetched lazily, cached ones are used outside of the
+     * session that loaded them and so have to be loaded up front.
+     */
+    private static GLAccount initialized(final GLAccount glAccount) {
+        Hibernate.initialize(glAccount);
+        return glAccount;
+    }
+
+    private synchronized String versionedKey(final Cache cache, final String versionKey) {
+        final ValueWrapper cached = cache.get(versionKey);
+        Long version = cached == null ? null : (Long) cached.get();
+        if (version == null) {
+            version = versionSequence.incrementAndGet();
+            cache.put(versionKey, version);
+        }
+        return versionKey + "|" + version;
+    }
+
+    private void invalidate(final String versionKey) {
+        moveVersionOn(versionKey);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    moveVersionOn(versionKey);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicting the version, rather than putting the next one, lets the other
+     * nodes of a multi node cache drop their version as well, the next lookup
+     * takes a new one.
+     */
+    private synchronized void moveVersionOn(final String versionKey) {
+        cache().evict(versionKey);
+    }
+
+    private static String productMappingsVersionKey(final PortfolioProductType productType, final Long productId) {
+        return tenantIdentifier() + "|PM|" + productType.getValue() + "|" + productId;
+    }
+
+    private static String financialActivitiesVersionKey() {
+        return tenantIdentifier() + "|FA";
+    }
+
+    private static String closuresVersionKey(final Long officeId) {
+        return tenantIdentifier() + "|GC|" + officeId;
+    }
+
+    private static String tenantIdentifier() {
+        return ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.accounting.closure.domain.GLClosure;
+import org.mifosplatform.accounting.common.AccountingConstants.ACCRUAL_ACCOUNTS_FOR_LOAN;
+import org.mifosplatform.accounting.glaccount.domain.GLAccount;
+import org.mifosplatform.accounting.journalentry.data.LoanDTO;
+import org.mifosplatform.accounting.journalentry.data.LoanTransactionDTO;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
+import org.mifosplatform.accounting.producttoaccountmapping.domain.PortfolioProductType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes the journal entries of loan accrual transactions for many loans as
+ * one unit of work of the {@link DeferredJournalEntryWriter}, so that they go
+ * to the database with one JDBC batch insert. Runs in the transaction of the
+ * caller.
+ */
+@Service
+public class AccrualJournalEntryBatchWriter {
+
+    private final AccountingProcessorHelper helper;
+    private final DeferredJournalEntryWriter journalEntryWriter;
+
+    @Autowired
+    public AccrualJournalEntryBatchWriter(final AccountingProcessorHelper accountingProcessorHelper,
+            final DeferredJournalEntryWriter journalEntryWriter) {
+        this.helper = accountingProcessorHelper;
+        this.journalEntryWriter = journalEntryWriter;
+    }
+
+    public void createJournalEntriesForLoanAccruals(final List<LoanDTO> loanDTOs) {
+        final Map<Long, GLClosure> latestClosureByOffice = new HashMap<>();
+        final Map<String, GLAccount> accountByProductMapping = new HashMap<>();
+
+        this.journalEntryWriter.begin();
+        boolean completed = false;
+        try {
+            for (final LoanDTO loanDTO : loanDTOs) {
+                final Long officeId = loanDTO.getOfficeId();
+                if (!latestClosureByOffice.containsKey(officeId)) {
+                    latestClosureByOffice.put(officeId, this.helper.getLatestClosureByBranch(officeId));
+                }
+                final GLClosure latestGLClosure = latestClosureByOffice.get(officeId);
+
+                for (final LoanTransactionDTO loanTransactionDTO : loanDTO.getNewLoanTransactions()) {
+                    this.helper.checkForBranchClosures(latestGLClosure, loanTransactionDTO.getTransactionDate());
+
+                    addJournalEntries(accountByProductMapping, loanDTO, loanTransactionDTO, ACCRUAL_ACCOUNTS_FOR_LOAN.INTEREST_RECEIVABLE,
+                            ACCRUAL_ACCOUNTS_FOR_LOAN.INTEREST_ON_LOANS, loanTransactionDTO.getInterest());
+                    addJournalEntries(accountByProductMapping, loanDTO, loanTransactionDTO, ACCRUAL_ACCOUNTS_FOR_LOAN.FEES_RECEIVABLE,
+                            ACCRUAL_ACCOUNTS_FOR_LOAN.INCOME_FROM_FEES, loanTransactionDTO.getFees());
+                    addJournalEntries(accountByProductMapping, loanDTO, loanTransactionDTO, ACCRUAL_ACCOUNTS_FOR_LOAN.PENALTIES_RECEIVABLE,
+                            ACCRUAL_ACCOUNTS_FOR_LOAN.INCOME_FROM_PENALTIES, loanTransactionDTO.getPenalties());
+                }
+            }
+            completed = true;
+        } finally {
+            if (completed) {
+                this.journalEntryWriter.end();
+            } else {
+                this.journalEntryWriter.discard();
+            }
+        }
+    }
+
+    /**
+     * Adds the debit and credit of one accrued portion, swapped for reversals
+     * as in {@link AccrualBasedAccountingProcessorForLoan}.
+     */
+    private void addJournalEntries(final Map<String, GLAccount> accountByProductMapping, final LoanDTO loanDTO,
+            final LoanTransactionDTO loanTransactionDTO, final ACCRUAL_ACCOUNTS_FOR_LOAN accountToDebit,
+            final ACCRUAL_ACCOUNTS_FOR_LOAN accountToCredit, final BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) == 0) { return; }
+
+        GLAccount debitAccount = linkedGLAccount(accountByProductMapping, loanDTO.getLoanProductId(), accountToDebit);
+        GLAccount creditAccount = linkedGLAccount(accountByProductMapping, loanDTO.getLoanProductId(), accountToCredit);
+        if (loanTransactionDTO.isReversed()) {
+            final GLAccount account = debitAccount;
+            debitAccount = creditAccount;
+            creditAccount = account;
+        }
+        addJournalEntry(debitAccount, JournalEntryType.DEBIT, loanDTO, loanTransactionDTO, amount);
+        addJournalEntry(creditAccount, JournalEntryType.CREDIT, loanDTO, loanTransactionDTO, amount);
+    }
+
+    private GLAccount linkedGLAccount(final Map<String, GLAccount> accountByProductMapping, final Long loanProductId,
+            final ACCRUAL_ACCOUNTS_FOR_LOAN accountMappingType) {
+        final String key = loanProductId + "_" + accountMappingType.getValue();
+        GLAccount account = accountByProductMapping.get(key);
+        if (account == null) {
+            account = this.helper.getLinkedGLAccountForLoanProduct(loanProductId, accountMappingType.getValue(), null);
+            accountByProductMapping.put(key, account);
+        }
+        return account;
+    }
+
+    private void addJournalEntry(final GLAccount account, final JournalEntryType type, final LoanDTO loanDTO,
+            final LoanTransactionDTO loanTransactionDTO, final BigDecimal amount) {
+        final String transactionId = loanTransactionDTO.getTransactionId();
+        this.journalEntryWriter.addJournalEntry(account, loanDTO.getOfficeId(), loanDTO.getCurrencyCode(),
+                AccountingProcessorHelper.LOAN_TRANSACTION_IDENTIFIER + transactionId, Long.valueOf(transactionId), null,
+                loanTransactionDTO.getTransactionDate(), type, amount, PortfolioProductType.LOAN.getValue(), loanDTO.getLoanId());
+    }
+}
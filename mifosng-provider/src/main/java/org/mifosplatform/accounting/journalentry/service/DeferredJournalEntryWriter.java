@@ -0,0 +1,146 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+
+import org.mifosplatform.accounting.glaccount.domain.GLAccount;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.useradministration.domain.AppUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Collects the system generated journal entries of a unit of work, such as the
+ * accounting of one portfolio transaction or of a chunk of a job, and inserts
+ * them with one JDBC batch when the unit ends instead of persisting every debit
+ * and credit through JPA.
+ *
+ * Units are bound to the calling thread and may be nested, the entries are
+ * written when the outermost unit ends. Discarding a unit drops the entries
+ * added since it began and leaves the units enclosing it open, so callers end
+ * or discard their unit in a finally block. Entries added while no unit is
+ * open are written straight away. Writes run in the transaction of the caller,
+ * which is also when the units of a transaction still open are dropped, so
+ * that they cannot leak into the next use of the thread.
+ */
+@Service
+public class DeferredJournalEntryWriter {
+
+    private static final String INSERT_JOURNAL_ENTRY_SQL = "INSERT INTO acc_gl_journal_entry (account_id, office_id, currency_code, transaction_id, "
+            + "loan_transaction_id, savings_transaction_id, reversed, manual_entry, entry_date, type_enum, amount, entity_type_enum, entity_id, "
+            + "createdby_id, lastmodifiedby_id, created_date, lastmodified_date) VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final ThreadLocal<UnitOfWork> unitOfWorkContext = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<AppUser> auditorAware;
+
+    @Autowired
+    public DeferredJournalEntryWriter(final RoutingDataSource dataSource, final AuditorAware<AppUser> auditorAware) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.auditorAware = auditorAware;
+    }
+
+    public void begin() {
+        UnitOfWork unitOfWork = unitOfWorkContext.get();
+        if (unitOfWork == null) {
+            unitOfWork = new UnitOfWork();
+            unitOfWorkContext.set(unitOfWork);
+            dropWhenTransactionCompletes(unitOfWork);
+        }
+        unitOfWork.firstRowOfUnits.push(unitOfWork.journalEntryRows.size());
+    }
+
+    /**
+     * Ends the current unit of work, writing the entries collected so far when
+     * it is the outermost one.
+     */
+    public void end() {
+        final UnitOfWork unitOfWork = unitOfWorkContext.get();
+        if (unitOfWork == null) { return; }
+
+        unitOfWork.firstRowOfUnits.pop();
+        if (unitOfWork.firstRowOfUnits.isEmpty()) {
+            unitOfWorkContext.remove();
+            write(unitOfWork.journalEntryRows);
+        }
+    }
+
+    /**
+     * Drops the entries added since the current unit of work began. The units
+     * enclosing it keep theirs, and are written or discarded as they end.
+     */
+    public void discard() {
+        final UnitOfWork unitOfWork = unitOfWorkContext.get();
+        if (unitOfWork == null) { return; }
+
+        final int firstRowOfUnit = unitOfWork.firstRowOfUnits.pop();
+        unitOfWork.journalEntryRows.subList(firstRowOfUnit, unitOfWork.journalEntryRows.size()).clear();
+        if (unitOfWork.firstRowOfUnits.isEmpty()) {
+            unitOfWorkContext.remove();
+        }
+    }
+
+    public void addJournalEntry(final GLAccount account, final Long officeId, final String currencyCode, final String transactionId,
+            final Long loanTransactionId, final Long savingsTransactionId, final Date transactionDate, final JournalEntryType type,
+            final BigDecimal amount, final Integer entityType, final Long entityId) {
+        final Long userId = this.auditorAware.getCurrentAuditor().getId();
+        final Date now = new Date();
+        final Object[] journalEntryRow = new Object[] { account.getId(), officeId, currencyCode, transactionId, loanTransactionId,
+                savingsTransactionId, transactionDate, type.getValue(), amount, entityType, entityId, userId, userId, now, now };
+
+        final UnitOfWork unitOfWork = unitOfWorkContext.get();
+        if (unitOfWork == null) {
+            final List<Object[]> journalEntryRows = new ArrayList<>(1);
+            journalEntryRows.add(journalEntryRow);
+            write(journalEntryRows);
+        } else {
+            unitOfWork.journalEntryRows.add(journalEntryRow);
+        }
+    }
+
+    /**
+     * Drops the unit of work, should it still be open once the transaction it
+     * began in completes, as its entries could only be written after the
+     * transaction they belong to.
+     */
+    private void dropWhenTransactionCompletes(final UnitOfWork unitOfWork) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(@SuppressWarnings("unused") final int status) {
+                    if (unitOfWorkContext.get() == unitOfWork) {
+                        unitOfWorkContext.remove();
+                    }
+                }
+            });
+        }
+    }
+
+    private void write(final List<Object[]> journalEntryRows) {
+        if (!journalEntryRows.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(INSERT_JOURNAL_ENTRY_SQL, journalEntryRows);
+        }
+    }
+
+    private static class UnitOfWork {
+
+        private final Deque<Integer> firstRowOfUnits = new ArrayDeque<>();
+        private final List<Object[]> journalEntryRows = new ArrayList<>();
+    }
+}
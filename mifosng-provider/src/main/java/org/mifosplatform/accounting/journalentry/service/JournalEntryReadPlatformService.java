@@ -5,7 +5,9 @@
  */
 package org.mifosplatform.accounting.journalentry.service;
 
+import java.math.BigDecimal;
 import java.util.Date;
+import java.util.Map;
 
 import org.mifosplatform.accounting.journalentry.data.JournalEntryAssociationParametersData;
 import org.mifosplatform.accounting.journalentry.data.JournalEntryData;
@@ -19,4 +21,11 @@ public interface JournalEntryReadPlatformService {
     Page<JournalEntryData> retrieveAll(SearchParameters searchParameters, Long glAccountId, Boolean onlyManualEntries, Date fromDate,
             Date toDate, String transactionId, Integer entityType, JournalEntryAssociationParametersData associationParametersData);
 
+    /**
+     * Net balance (debits less credits) of every GL account with entries dated
+     * after <code>fromDate</code> up to and including <code>toDate</code>,
+     * keyed by GL code.
+     */
+    Map<String, BigDecimal> retrieveGLAccountBalancesByGLCode(Date fromDate, Date toDate);
+
 }
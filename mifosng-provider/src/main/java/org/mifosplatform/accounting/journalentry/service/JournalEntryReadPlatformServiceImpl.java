@@ -12,6 +12,8 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.joda.time.LocalDate;
@@ -25,6 +27,7 @@ import org.mifosplatform.infrastructure.codes.data.CodeValueData;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.service.Page;
+import org.mifosplatform.infrastructure.core.service.PageCursor;
 import org.mifosplatform.infrastructure.core.service.PaginationHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.organisation.monetary.data.CurrencyData;
@@ -40,6 +43,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -214,9 +218,6 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
 
         GLJournalEntryMapper rm = new GLJournalEntryMapper(associationParametersData);
         final StringBuilder sqlBuilder = new StringBuilder(200);
-        sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
-        sqlBuilder.append(rm.schema());
-
         final Object[] objectArray = new Object[5];
         int arrayPos = 0;
         String whereClose = " where ";
@@ -295,6 +296,13 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
             }
         }
 
+        if (searchParameters.isKeysetPaginated()) {
+            return retrieveAllAfter(searchParameters, rm, sqlBuilder.toString(), whereClose, Arrays.copyOf(objectArray, arrayPos));
+        }
+
+        sqlBuilder.insert(0, rm.schema());
+        sqlBuilder.insert(0, "select SQL_CALC_FOUND_ROWS ");
+
         if (searchParameters.isOrderByRequested()) {
             sqlBuilder.append(" order by ").append(searchParameters.getOrderBy());
 
@@ -317,6 +325,43 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), finalObjectArray, rm);
     }
 
+    /**
+     * Pages through the filtered entries in the order of their entry date and
+     * id, <code>filterSql</code> being the where clause of the filters.
+     */
+    private Page<JournalEntryData> retrieveAllAfter(final SearchParameters searchParameters, final GLJournalEntryMapper rm,
+            final String filterSql, final String whereClose, final Object[] filterArgs) {
+
+        String sqlCountRows = null;
+        if (searchParameters.isApproximateCountRequested()) {
+            sqlCountRows = "select 1 from acc_gl_journal_entry as journalEntry " + filterSql;
+        }
+
+        final StringBuilder sqlBuilder = new StringBuilder(200);
+        sqlBuilder.append("select ").append(rm.schema()).append(filterSql);
+
+        Object[] args = filterArgs;
+        final String[] after = PageCursor.decode(searchParameters.getAfter(), 2);
+        if (after != null) {
+            sqlBuilder.append(whereClose).append(
+                    " (journalEntry.entry_date > ? or (journalEntry.entry_date = ? and journalEntry.id > ?))");
+            args = Arrays.copyOf(filterArgs, filterArgs.length + 3);
+            args[filterArgs.length] = after[0];
+            args[filterArgs.length + 1] = after[0];
+            args[filterArgs.length + 2] = after[1];
+        }
+        sqlBuilder.append(" order by journalEntry.entry_date, journalEntry.id");
+
+        return this.paginationHelper.fetchPageAfter(this.jdbcTemplate, sqlCountRows, filterArgs, sqlBuilder.toString(), args,
+                searchParameters.getLimit(), rm, new PageCursor.KeyExtractor<JournalEntryData>() {
+
+                    @Override
+                    public Object[] keyOf(final JournalEntryData journalEntry) {
+                        return new Object[] { journalEntry.getTransactionDate(), journalEntry.getId() };
+                    }
+                });
+    }
+
     @Override
     public JournalEntryData retrieveGLJournalEntryById(final long glJournalEntryId,
             JournalEntryAssociationParametersData associationParametersData) {
@@ -333,4 +378,30 @@ public class JournalEntryReadPlatformServiceImpl implements JournalEntryReadPlat
         }
     }
 
+    /**
+     * Sums the daily balance snapshots maintained by the running balance job
+     * and adds the entries that job has not folded into them yet, rather than
+     * aggregating the whole journal over the period.
+     */
+    @Override
+    public Map<String, BigDecimal> retrieveGLAccountBalancesByGLCode(final Date fromDate, final Date toDate) {
+        final String sql = "select gl.gl_code as glCode, sum(balances.debitAmount) - sum(balances.creditAmount) as balance "
+                + "from (select s.account_id as accountId, s.debit_amount as debitAmount, s.credit_amount as creditAmount "
+                + "from acc_gl_balance_snapshot s where s.balance_date > ? and s.balance_date <= ? "
+                + "union all select je.account_id as accountId, if(je.type_enum = 2, je.amount, 0) as debitAmount, "
+                + "if(je.type_enum = 1, je.amount, 0) as creditAmount from acc_gl_journal_entry je "
+                + "where je.is_running_balance_calculated = 0 and je.entry_date > ? and je.entry_date <= ?) balances "
+                + "join acc_gl_account gl on gl.id = balances.accountId group by gl.gl_code";
+
+        final DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
+        final String from = df.format(fromDate);
+        final String to = df.format(toDate);
+
+        final Map<String, BigDecimal> balances = new HashMap<>();
+        final SqlRowSet rs = this.jdbcTemplate.queryForRowSet(sql, new Object[] { from, to, from, to });
+        while (rs.next()) {
+            balances.put(rs.getString("glCode"), rs.getBigDecimal("balance"));
+        }
+        return balances;
+    }
 }
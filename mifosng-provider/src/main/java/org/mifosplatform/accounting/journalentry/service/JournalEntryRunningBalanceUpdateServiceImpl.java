@@ -8,11 +8,18 @@ package org.mifosplatform.accounting.journalentry.service;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.joda.time.LocalDate;
 import org.mifosplatform.accounting.common.AccountingEnumerations;
 import org.mifosplatform.accounting.glaccount.domain.GLAccountType;
 import org.mifosplatform.accounting.journalentry.api.JournalEntryJsonInputParams;
@@ -24,10 +31,15 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
 import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.TenantAwareTaskExecutor;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.service.JobExecutionMetrics;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.organisation.office.domain.Office;
 import org.mifosplatform.organisation.office.domain.OfficeRepository;
 import org.mifosplatform.organisation.office.exception.OfficeNotFoundException;
@@ -36,9 +48,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 @Service
 public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntryRunningBalanceUpdateService {
@@ -47,12 +65,18 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
 
     private final JdbcTemplate jdbcTemplate;
 
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
     private final OfficeRepository officeRepository;
 
     private final JournalEntryDataValidator dataValidator;
 
     private final FromJsonHelper fromApiJsonHelper;
 
+    private final JpaTransactionManager transactionManager;
+
+    private final TenantAwareTaskExecutor tenantAwareTaskExecutor;
+
     private final GLJournalEntryMapper entryMapper = new GLJournalEntryMapper();
     private final String officeRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId from acc_gl_journal_entry je "
             + "inner join (select max(id) as id from acc_gl_journal_entry where office_id=?  and entry_date < ? group by account_id,entry_date) je2 "
@@ -64,19 +88,61 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by account_id) je3 "
             + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC";
 
-    private final String officesRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId "
+    private final String officesRunningBalanceSql = "select je.office_running_balance as runningBalance,je.account_id as accountId,je.office_id as officeId, "
+            + "je.entry_date as entryDate,je.id as journalEntryId "
             + "from acc_gl_journal_entry je "
             + "inner join (select max(id) as id from acc_gl_journal_entry where entry_date < ? group by office_id,account_id,entry_date) je2 "
             + "inner join (select max(entry_date) as date from acc_gl_journal_entry where entry_date < ? group by office_id,account_id) je3 "
             + "where je2.id = je.id and je.entry_date = je3.date group by je.id order by je.entry_date DESC";
 
+    private final String checkpointPositionSql = "select cp.entry_date as entryDate, cp.journal_entry_id as journalEntryId "
+            + "from acc_gl_running_balance_checkpoint cp order by cp.entry_date desc, cp.journal_entry_id desc limit 1";
+
+    private final String pendingEntriesBeforeCheckpointSql = "select count(je.id) from acc_gl_journal_entry je "
+            + "where je.is_running_balance_calculated=0 and (je.entry_date < ? or (je.entry_date = ? and je.id < ?))";
+
+    private final String checkpointBalancesSql = "select cp.office_id as officeId, cp.account_id as accountId, "
+            + "cp.office_running_balance as runningBalance from acc_gl_running_balance_checkpoint cp";
+
+    private final String organizationRunningBalanceUpdateSql = "UPDATE acc_gl_journal_entry SET is_running_balance_calculated=1, "
+            + "organization_running_balance=?, office_running_balance=? WHERE id=?";
+
+    private final String officeRunningBalanceUpdateSql = "UPDATE acc_gl_journal_entry SET office_running_balance=? WHERE id=?";
+
+    private final String checkpointUpdateSql = "INSERT INTO acc_gl_running_balance_checkpoint "
+            + "(office_id, account_id, office_running_balance, entry_date, journal_entry_id) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE office_running_balance=VALUES(office_running_balance), entry_date=VALUES(entry_date), "
+            + "journal_entry_id=VALUES(journal_entry_id)";
+
+    private final String checkpointResetSql = "DELETE FROM acc_gl_running_balance_checkpoint WHERE entry_date >= ?";
+
+    private final String recomputeFromDateSql = "select rc.recompute_from_date as recomputeFromDate "
+            + "from acc_gl_running_balance_recompute rc where rc.id = 1";
+
+    private final String recomputeFromDateUpdateSql = "INSERT INTO acc_gl_running_balance_recompute (id, recompute_from_date) "
+            + "VALUES (1, ?) ON DUPLICATE KEY UPDATE recompute_from_date=VALUES(recompute_from_date)";
+
+    private final String recomputeFromDateDeleteSql = "DELETE FROM acc_gl_running_balance_recompute WHERE id = 1 AND recompute_from_date = ?";
+
+    private final String balanceSnapshotUpdateSql = "INSERT INTO acc_gl_balance_snapshot "
+            + "(office_id, account_id, currency_code, balance_date, debit_amount, credit_amount) "
+            + "SELECT je.office_id, je.account_id, je.currency_code, je.entry_date, SUM(IF(je.type_enum = 2, je.amount, 0)), "
+            + "SUM(IF(je.type_enum = 1, je.amount, 0)) FROM acc_gl_journal_entry je "
+            + "WHERE je.id IN (:entryIds) AND je.is_running_balance_calculated = 0 "
+            + "GROUP BY je.office_id, je.account_id, je.currency_code, je.entry_date "
+            + "ON DUPLICATE KEY UPDATE debit_amount = debit_amount + VALUES(debit_amount), credit_amount = credit_amount + VALUES(credit_amount)";
+
     @Autowired
     public JournalEntryRunningBalanceUpdateServiceImpl(final RoutingDataSource dataSource, final OfficeRepository officeRepository,
-            final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper) {
+            final JournalEntryDataValidator dataValidator, final FromJsonHelper fromApiJsonHelper,
+            final JpaTransactionManager transactionManager, final TenantAwareTaskExecutor tenantAwareTaskExecutor) {
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
         this.officeRepository = officeRepository;
         this.dataValidator = dataValidator;
         this.fromApiJsonHelper = fromApiJsonHelper;
+        this.transactionManager = transactionManager;
+        this.tenantAwareTaskExecutor = tenantAwareTaskExecutor;
     }
 
     @Override
@@ -86,7 +152,13 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
                 + "where je.is_running_balance_calculated=0 ";
         try {
             Date entityDate = this.jdbcTemplate.queryForObject(dateFinder, Date.class);
-            updateOrganizationRunningBalance(entityDate);
+            final Date recomputeFromDate = retrieveRecomputeFromDate();
+            if (recomputeFromDate != null && (entityDate == null || recomputeFromDate.before(entityDate))) {
+                entityDate = recomputeFromDate;
+            }
+            if (entityDate != null) {
+                updateOrganizationRunningBalance(entityDate, recomputeFromDate != null);
+            }
         } catch (EmptyResultDataAccessException e) {
             logger.debug("No results found for updation of running balance ");
         }
@@ -118,11 +190,236 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
         return commandProcessingResultBuilder.build();
     }
 
-    @Transactional
-    private void updateOrganizationRunningBalance(Date entityDate) {
-        Map<Long, BigDecimal> runningBalanceMap = new HashMap<>(5);
-        Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
+    /**
+     * Computes the running balances of the journal entries from
+     * <code>entityDate</code>, the date of the earliest entry pending or the
+     * date an earlier run left to recompute from, whichever comes first.
+     * 
+     * The office balance of every office and account as of its last entry
+     * computed is kept in acc_gl_running_balance_checkpoint, the organization
+     * balance of an account being the sum of its office balances. Unless an
+     * entry was posted before the last entry computed or an earlier run did
+     * not get to the end, the computation carries on from the checkpoint and
+     * so only reads the entries posted since. Otherwise it starts over from the
+     * balances of the entries preceding <code>entityDate</code>: in one
+     * transaction, <code>entityDate</code> is kept in
+     * acc_gl_running_balance_recompute and the checkpoint is reset to those
+     * balances, dropping the rows of entries on or after it. Entries are then
+     * read in windows and written by partitions of the offices in parallel,
+     * each along with its part of the checkpoint in its own transaction. The
+     * date to recompute from is only cleared once the last window is written,
+     * so should a partition fail, the next run starts over from it again
+     * rather than from the checkpoint rows written by the windows that did
+     * not fail.
+     */
+    private void updateOrganizationRunningBalance(final Date entityDate, final boolean recompute) {
+        final Map<Long, BigDecimal> runningBalanceMap = new HashMap<>();
+        final Map<Long, Map<Long, BigDecimal>> officesRunningBalance = new HashMap<>();
+
+        EntryPosition lastEntry = recompute ? null : retrieveCheckpointPosition();
+        final boolean resumeFromCheckpoint = lastEntry != null && !hasPendingEntriesBefore(lastEntry);
+        if (resumeFromCheckpoint) {
+            loadCheckpointBalances(runningBalanceMap, officesRunningBalance);
+        } else {
+            final Map<String, Object[]> checkpointParams = new LinkedHashMap<>();
+            loadRunningBalancesBefore(entityDate, runningBalanceMap, officesRunningBalance, checkpointParams);
+            resetCheckpoint(entityDate, checkpointParams);
+            lastEntry = new EntryPosition(entityDate, 0L);
+        }
+
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final JobExecutionMetrics metrics = JobExecutionMetrics.current();
+        final int workerCount = SchedulerServiceConstants.PARTITION_WORKER_THREAD_COUNT;
+        final int windowSize = SchedulerServiceConstants.RUNNING_BALANCE_CHUNK_SIZE * workerCount;
+        List<JournalEntryData> entryDatas;
+        do {
+            final long chunkStartNanos = System.nanoTime();
+            entryDatas = this.jdbcTemplate.query(this.entryMapper.organizationRunningBalanceSchema(), this.entryMapper, new Object[] {
+                    lastEntry.entryDate, lastEntry.entryDate, lastEntry.journalEntryId, windowSize });
+            if (!entryDatas.isEmpty()) {
+                updateOrganizationRunningBalance(entryDatas, runningBalanceMap, officesRunningBalance, tenant, metrics);
+                final JournalEntryData lastEntryData = entryDatas.get(entryDatas.size() - 1);
+                lastEntry = new EntryPosition(lastEntryData.getTransactionDate().toDate(), lastEntryData.getId());
+            }
+            metrics.recordChunk(entryDatas.size(), chunkStartNanos);
+        } while (entryDatas.size() == windowSize);
 
+        if (!resumeFromCheckpoint) {
+            this.jdbcTemplate.update(this.recomputeFromDateDeleteSql, entityDate);
+        }
+    }
+
+    /**
+     * Computes the running balances of a window of entries. The organization
+     * balances depend on the order of the entries of all offices and are
+     * computed here, from the amount of each entry in turn. The entries are
+     * then split into partitions by office, which compute the office balances
+     * and write the window on the shared {@link TenantAwareTaskExecutor}; as
+     * the entries, checkpoint and
+     * snapshot rows of different offices are distinct, the partitions run in
+     * parallel without contending for locks. The window is done once every
+     * partition is.
+     */
+    private void updateOrganizationRunningBalance(final List<JournalEntryData> entryDatas, final Map<Long, BigDecimal> runningBalanceMap,
+            final Map<Long, Map<Long, BigDecimal>> officesRunningBalance, final MifosPlatformTenant tenant,
+            final JobExecutionMetrics metrics) {
+        final int workerCount = SchedulerServiceConstants.PARTITION_WORKER_THREAD_COUNT;
+        final Map<Long, BigDecimal> organizationRunningBalances = new HashMap<>(entryDatas.size());
+        final Map<Long, List<JournalEntryData>> partitions = new TreeMap<>();
+        for (final JournalEntryData entryData : entryDatas) {
+            organizationRunningBalances.put(entryData.getId(), calculateRunningBalance(entryData, runningBalanceMap));
+
+            // office balances are only looked up by the partitions, which
+            // must not add to the map concurrently
+            if (!officesRunningBalance.containsKey(entryData.getOfficeId())) {
+                officesRunningBalance.put(entryData.getOfficeId(), new HashMap<Long, BigDecimal>());
+            }
+            final Long partitionKey = entryData.getOfficeId() % workerCount;
+            List<JournalEntryData> partition = partitions.get(partitionKey);
+            if (partition == null) {
+                partition = new ArrayList<>();
+                partitions.put(partitionKey, partition);
+            }
+            partition.add(entryData);
+        }
+
+        final List<OfficeRunningBalancePartition> tasks = new ArrayList<>(partitions.size());
+        for (final List<JournalEntryData> partition : partitions.values()) {
+            tasks.add(new OfficeRunningBalancePartition(metrics, partition, organizationRunningBalances, officesRunningBalance));
+        }
+        awaitPartitions(this.tenantAwareTaskExecutor.invokeAll(tenant, tasks));
+    }
+
+    /**
+     * Waits for every partition of a window, rethrowing the first failure once
+     * none of them is running any more.
+     */
+    private void awaitPartitions(final List<Future<Void>> futures) {
+        RuntimeException firstFailure = null;
+        for (final Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Running balance update was interrupted before all partitions completed.", e);
+            } catch (final ExecutionException e) {
+                logger.error("Running balance update failed for a partition of offices", e.getCause());
+                if (firstFailure == null) {
+                    firstFailure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(
+                            e.getCause());
+                }
+            }
+        }
+        if (firstFailure != null) { throw firstFailure; }
+    }
+
+    /**
+     * Writes the running balances of a chunk of entries along with the
+     * checkpoint. Entries computed for the first time are added to the daily
+     * GL balance snapshots in the same transaction, before they are flagged as
+     * computed, so that each entry is counted in the snapshots exactly once.
+     */
+    private void updateRunningBalances(final List<Long> entryIds, final List<Object[]> entryParams,
+            final Map<String, Object[]> checkpointParams) {
+        final TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            if (!entryIds.isEmpty()) {
+                this.namedParameterJdbcTemplate.update(this.balanceSnapshotUpdateSql, new MapSqlParameterSource("entryIds", entryIds));
+            }
+            if (!entryParams.isEmpty()) {
+                this.jdbcTemplate.batchUpdate(this.organizationRunningBalanceUpdateSql, entryParams);
+            }
+            if (!checkpointParams.isEmpty()) {
+                this.jdbcTemplate.batchUpdate(this.checkpointUpdateSql, new ArrayList<>(checkpointParams.values()));
+            }
+        } catch (final RuntimeException e) {
+            this.transactionManager.rollback(transactionStatus);
+            throw e;
+        }
+        this.transactionManager.commit(transactionStatus);
+    }
+
+    /**
+     * Keeps the date the running balances are recomputed from and resets the
+     * checkpoint to the balances preceding it, in one transaction.
+     */
+    private void resetCheckpoint(final Date entityDate, final Map<String, Object[]> checkpointParams) {
+        final TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            this.jdbcTemplate.update(this.recomputeFromDateUpdateSql, entityDate);
+            this.jdbcTemplate.update(this.checkpointResetSql, entityDate);
+            if (!checkpointParams.isEmpty()) {
+                this.jdbcTemplate.batchUpdate(this.checkpointUpdateSql, new ArrayList<>(checkpointParams.values()));
+            }
+        } catch (final RuntimeException e) {
+            this.transactionManager.rollback(transactionStatus);
+            throw e;
+        }
+        this.transactionManager.commit(transactionStatus);
+    }
+
+    /**
+     * The date a run that did not get to the end left the running balances to
+     * be recomputed from, or <code>null</code> when there is none.
+     */
+    private Date retrieveRecomputeFromDate() {
+        final List<Date> dates = this.jdbcTemplate.query(this.recomputeFromDateSql, new RowMapper<Date>() {
+
+            @Override
+            public Date mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                return rs.getDate("recomputeFromDate");
+            }
+        });
+        return dates.isEmpty() ? null : dates.get(0);
+    }
+
+    /**
+     * The position of the last entry whose running balance is kept in the
+     * checkpoint, or <code>null</code> when there is no checkpoint yet.
+     */
+    private EntryPosition retrieveCheckpointPosition() {
+        final List<EntryPosition> positions = this.jdbcTemplate.query(this.checkpointPositionSql, new RowMapper<EntryPosition>() {
+
+            @Override
+            public EntryPosition mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+                return new EntryPosition(rs.getDate("entryDate"), rs.getLong("journalEntryId"));
+            }
+        });
+        return positions.isEmpty() ? null : positions.get(0);
+    }
+
+    private boolean hasPendingEntriesBefore(final EntryPosition lastEntry) {
+        final Long pendingEntries = this.jdbcTemplate.queryForObject(this.pendingEntriesBeforeCheckpointSql, Long.class,
+                lastEntry.entryDate, lastEntry.entryDate, lastEntry.journalEntryId);
+        return pendingEntries != null && pendingEntries > 0;
+    }
+
+    private void loadCheckpointBalances(final Map<Long, BigDecimal> runningBalanceMap,
+            final Map<Long, Map<Long, BigDecimal>> officesRunningBalance) {
+        this.jdbcTemplate.query(this.checkpointBalancesSql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Long officeId = rs.getLong("officeId");
+                final Long accountId = rs.getLong("accountId");
+                final BigDecimal officeRunningBalance = rs.getBigDecimal("runningBalance");
+
+                Map<Long, BigDecimal> runningBalance = officesRunningBalance.get(officeId);
+                if (runningBalance == null) {
+                    runningBalance = new HashMap<>();
+                    officesRunningBalance.put(officeId, runningBalance);
+                }
+                runningBalance.put(accountId, officeRunningBalance);
+
+                final BigDecimal organizationRunningBalance = runningBalanceMap.get(accountId);
+                runningBalanceMap.put(accountId, organizationRunningBalance == null ? officeRunningBalance : organizationRunningBalance
+                        .add(officeRunningBalance));
+            }
+        });
+    }
+
+    private void loadRunningBalancesBefore(final Date entityDate, final Map<Long, BigDecimal> runningBalanceMap,
+            final Map<Long, Map<Long, BigDecimal>> officesRunningBalance, final Map<String, Object[]> checkpointParams) {
         List<Map<String, Object>> list = jdbcTemplate.queryForList(organizationRunningBalanceSql, entityDate, entityDate);
         for (Map<String, Object> entries : list) {
             Long accountId = (Long) entries.get("accountId");
@@ -144,31 +441,10 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             }
             if (!runningBalance.containsKey(accountId)) {
                 runningBalance.put(accountId, (BigDecimal) entries.get("runningBalance"));
+                checkpointParams.put(officeId + "_" + accountId, new Object[] { officeId, accountId, entries.get("runningBalance"),
+                        entries.get("entryDate"), entries.get("journalEntryId") });
             }
         }
-
-        List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.organizationRunningBalanceSchema(), entryMapper,
-                new Object[] { entityDate });
-        if (entryDatas.size() > 0) {
-            String[] updateSql = new String[entryDatas.size()];
-            int i = 0;
-            for (JournalEntryData entryData : entryDatas) {
-                Map<Long, BigDecimal> officeRunningBalanceMap = null;
-                if (officesRunningBalance.containsKey(entryData.getOfficeId())) {
-                    officeRunningBalanceMap = officesRunningBalance.get(entryData.getOfficeId());
-                } else {
-                    officeRunningBalanceMap = new HashMap<>();
-                    officesRunningBalance.put(entryData.getOfficeId(), officeRunningBalanceMap);
-                }
-                BigDecimal officeRunningBalance = calculateRunningBalance(entryData, officeRunningBalanceMap);
-                BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-                String sql = "UPDATE acc_gl_journal_entry je SET je.is_running_balance_calculated=1, je.organization_running_balance="
-                        + runningBalance + ",je.office_running_balance=" + officeRunningBalance + " WHERE  je.id=" + entryData.getId();
-                updateSql[i++] = sql;
-            }
-            this.jdbcTemplate.batchUpdate(updateSql);
-        }
-
     }
 
     @Transactional
@@ -184,15 +460,14 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
         }
         List<JournalEntryData> entryDatas = jdbcTemplate.query(entryMapper.officeRunningBalanceSchema(), entryMapper, new Object[] {
                 officeId, entityDate });
-        String[] updateSql = new String[entryDatas.size()];
-        int i = 0;
+        final List<Object[]> entryParams = new ArrayList<>(entryDatas.size());
         for (JournalEntryData entryData : entryDatas) {
             BigDecimal runningBalance = calculateRunningBalance(entryData, runningBalanceMap);
-            String sql = "UPDATE acc_gl_journal_entry je SET je.office_running_balance=" + runningBalance + " WHERE  je.id="
-                    + entryData.getId();
-            updateSql[i++] = sql;
+            entryParams.add(new Object[] { runningBalance, entryData.getId() });
+        }
+        if (!entryParams.isEmpty()) {
+            this.jdbcTemplate.batchUpdate(this.officeRunningBalanceUpdateSql, entryParams);
         }
-        this.jdbcTemplate.batchUpdate(updateSql);
     }
 
     private BigDecimal calculateRunningBalance(JournalEntryData entry, Map<Long, BigDecimal> runningBalanceMap) {
@@ -239,20 +514,76 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
         return runningBalance;
     }
 
+    /**
+     * Computes the office running balances of the entries of a window that
+     * belong to one partition of the offices and writes them along with the
+     * organization balances, in their own transaction on a worker thread,
+     * which has the tenant set.
+     */
+    private final class OfficeRunningBalancePartition implements Callable<Void> {
+
+        private final JobExecutionMetrics metrics;
+        private final List<JournalEntryData> entryDatas;
+        private final Map<Long, BigDecimal> organizationRunningBalances;
+        private final Map<Long, Map<Long, BigDecimal>> officesRunningBalance;
+
+        public OfficeRunningBalancePartition(final JobExecutionMetrics metrics, final List<JournalEntryData> entryDatas,
+                final Map<Long, BigDecimal> organizationRunningBalances, final Map<Long, Map<Long, BigDecimal>> officesRunningBalance) {
+            this.metrics = metrics;
+            this.entryDatas = entryDatas;
+            this.organizationRunningBalances = organizationRunningBalances;
+            this.officesRunningBalance = officesRunningBalance;
+        }
+
+        @Override
+        public Void call() {
+            final List<Long> entryIds = new ArrayList<>(this.entryDatas.size());
+            final List<Object[]> entryParams = new ArrayList<>(this.entryDatas.size());
+            final Map<String, Object[]> checkpointParams = new LinkedHashMap<>();
+            for (final JournalEntryData entryData : this.entryDatas) {
+                entryIds.add(entryData.getId());
+                final BigDecimal officeRunningBalance = calculateRunningBalance(entryData,
+                        this.officesRunningBalance.get(entryData.getOfficeId()));
+                entryParams.add(new Object[] { this.organizationRunningBalances.get(entryData.getId()), officeRunningBalance,
+                        entryData.getId() });
+                checkpointParams.put(entryData.getOfficeId() + "_" + entryData.getGlAccountId(), new Object[] { entryData.getOfficeId(),
+                        entryData.getGlAccountId(), officeRunningBalance, entryData.getTransactionDate().toDate(), entryData.getId() });
+            }
+            updateRunningBalances(entryIds, entryParams, checkpointParams);
+            this.metrics.recordRowsWritten(this.entryDatas.size());
+            return null;
+        }
+    }
+
+    private static final class EntryPosition {
+
+        private final Date entryDate;
+        private final Long journalEntryId;
+
+        EntryPosition(final Date entryDate, final Long journalEntryId) {
+            this.entryDate = entryDate;
+            this.journalEntryId = journalEntryId;
+        }
+    }
+
     private static final class GLJournalEntryMapper implements RowMapper<JournalEntryData> {
 
         public String officeRunningBalanceSchema() {
             return "select je.id as id,je.account_id as glAccountId,je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId "
+                    + "glAccount.classification_enum as classification,je.office_id as officeId,je.entry_date as entryDate "
                     + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
                     + "and je.office_id=? and je.entry_date >= ? order by je.entry_date,je.id";
         }
 
+        /**
+         * Reads a chunk of the entries following the entry of the given date
+         * and id, in the order their running balances are computed.
+         */
         public String organizationRunningBalanceSchema() {
             return "select je.id as id,je.account_id as glAccountId," + "je.type_enum as entryType,je.amount as amount, "
-                    + "glAccount.classification_enum as classification,je.office_id as officeId  "
+                    + "glAccount.classification_enum as classification,je.office_id as officeId,je.entry_date as entryDate "
                     + "from acc_gl_journal_entry je , acc_gl_account glAccount " + "where je.account_id = glAccount.id "
-                    + "and je.entry_date >= ? order by je.entry_date,je.id";
+                    + "and (je.entry_date > ? or (je.entry_date = ? and je.id > ?)) order by je.entry_date,je.id limit ?";
         }
 
         @Override
@@ -266,9 +597,10 @@ public class JournalEntryRunningBalanceUpdateServiceImpl implements JournalEntry
             final BigDecimal amount = rs.getBigDecimal("amount");
             final int entryTypeId = JdbcSupport.getInteger(rs, "entryType");
             final EnumOptionData entryType = AccountingEnumerations.journalEntryType(entryTypeId);
+            final LocalDate transactionDate = JdbcSupport.getLocalDate(rs, "entryDate");
 
-            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, null, entryType, amount, null, null,
-                    null, null, null, null, null, null, null, null, null, null, null, null, null);
+            return new JournalEntryData(id, officeId, null, null, glAccountId, null, accountType, transactionDate, entryType, amount, null,
+                    null, null, null, null, null, null, null, null, null, null, null, null, null, null);
         }
     }
 
@@ -5,8 +5,10 @@
  */
 package org.mifosplatform.accounting.journalentry.service;
 
+import java.util.List;
 import java.util.Map;
 
+import org.mifosplatform.accounting.journalentry.data.LoanDTO;
 import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 
@@ -19,4 +21,6 @@ public interface JournalEntryWritePlatformService {
     void createJournalEntriesForLoan(Map<String, Object> accountingBridgeData);
 
     void createJournalEntriesForSavings(Map<String, Object> accountingBridgeData);
+
+    void createJournalEntriesForLoanAccruals(List<LoanDTO> loanDTOs);
 }
@@ -73,6 +73,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
     private final OrganisationCurrencyRepositoryWrapper organisationCurrencyRepository;
     private final PlatformSecurityContext context;
     private final PaymentDetailWritePlatformService paymentDetailWritePlatformService;
+    private final AccrualJournalEntryBatchWriter accrualJournalEntryBatchWriter;
+    private final DeferredJournalEntryWriter journalEntryWriter;
 
     @Autowired
     public JournalEntryWritePlatformServiceJpaRepositoryImpl(final GLClosureRepository glClosureRepository,
@@ -83,7 +85,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
             final AccountingProcessorForSavingsFactory accountingProcessorForSavingsFactory,
             final GLAccountReadPlatformService glAccountReadPlatformService,
             final OrganisationCurrencyRepositoryWrapper organisationCurrencyRepository, final PlatformSecurityContext context,
-            final PaymentDetailWritePlatformService paymentDetailWritePlatformService) {
+            final PaymentDetailWritePlatformService paymentDetailWritePlatformService,
+            final AccrualJournalEntryBatchWriter accrualJournalEntryBatchWriter, final DeferredJournalEntryWriter journalEntryWriter) {
         this.glClosureRepository = glClosureRepository;
         this.officeRepository = officeRepository;
         this.glJournalEntryRepository = glJournalEntryRepository;
@@ -97,6 +100,8 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
         this.organisationCurrencyRepository = organisationCurrencyRepository;
         this.context = context;
         this.paymentDetailWritePlatformService = paymentDetailWritePlatformService;
+        this.accrualJournalEntryBatchWriter = accrualJournalEntryBatchWriter;
+        this.journalEntryWriter = journalEntryWriter;
     }
 
     @Transactional
@@ -318,7 +323,18 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     upfrontAccrualBasedAccountingEnabled, periodicAccrualBasedAccountingEnabled);
             final AccountingProcessorForLoan accountingProcessorForLoan = this.accountingProcessorForLoanFactory
                     .determineProcessor(loanDTO);
-            accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+            this.journalEntryWriter.begin();
+            boolean completed = false;
+            try {
+                accountingProcessorForLoan.createJournalEntriesForLoan(loanDTO);
+                completed = true;
+            } finally {
+                if (completed) {
+                    this.journalEntryWriter.end();
+                } else {
+                    this.journalEntryWriter.discard();
+                }
+            }
         }
     }
 
@@ -334,11 +350,28 @@ public class JournalEntryWritePlatformServiceJpaRepositoryImpl implements Journa
                     accrualBasedAccountingEnabled);
             final AccountingProcessorForSavings accountingProcessorForSavings = this.accountingProcessorForSavingsFactory
                     .determineProcessor(savingsDTO);
-            accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+            this.journalEntryWriter.begin();
+            boolean completed = false;
+            try {
+                accountingProcessorForSavings.createJournalEntriesForSavings(savingsDTO);
+                completed = true;
+            } finally {
+                if (completed) {
+                    this.journalEntryWriter.end();
+                } else {
+                    this.journalEntryWriter.discard();
+                }
+            }
         }
 
     }
 
+    @Transactional
+    @Override
+    public void createJournalEntriesForLoanAccruals(final List<LoanDTO> loanDTOs) {
+        this.accrualJournalEntryBatchWriter.createJournalEntriesForLoanAccruals(loanDTOs);
+    }
+
     private void validateBusinessRulesForJournalEntries(final JournalEntryCommand command) {
         /** check if date of Journal entry is valid ***/
         final LocalDate entryLocalDate = command.getTransactionDate();
@@ -79,6 +79,10 @@ public final class AuditData {
         this.url = url;
     }
 
+    public Long getId() {
+        return this.id;
+    }
+
     public void setCommandAsJson(final String commandAsJson) {
         this.commandAsJson = commandAsJson;
     }
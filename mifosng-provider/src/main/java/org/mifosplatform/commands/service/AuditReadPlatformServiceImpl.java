@@ -26,10 +26,12 @@ import org.mifosplatform.infrastructure.core.domain.JdbcSupport;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.infrastructure.core.service.Page;
+import org.mifosplatform.infrastructure.core.service.PageCursor;
 import org.mifosplatform.infrastructure.core.service.PaginationHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.office.data.OfficeData;
+import org.mifosplatform.organisation.office.domain.Office;
 import org.mifosplatform.organisation.office.service.OfficeReadPlatformService;
 import org.mifosplatform.organisation.staff.data.StaffData;
 import org.mifosplatform.organisation.staff.service.StaffReadPlatformService;
@@ -102,20 +104,33 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
     private static final class AuditMapper implements RowMapper<AuditData> {
 
-        public String schema(final boolean includeJson, final String hierarchy) {
+        public String schema(final boolean includeJson, final Office userOffice) {
+            return selectList(includeJson) + from(userOffice);
+        }
+
+        public String selectList(final boolean includeJson) {
 
             String commandAsJsonString = "";
             if (includeJson) {
                 commandAsJsonString = ", aud.command_as_json as commandAsJson ";
             }
 
-            String partSql = " aud.id as id, aud.action_name as actionName, aud.entity_name as entityName,"
+            return " aud.id as id, aud.action_name as actionName, aud.entity_name as entityName,"
                     + " aud.resource_id as resourceId, aud.subresource_id as subresourceId,aud.client_id as clientId, aud.loan_id as loanId,"
                     + " mk.username as maker, aud.made_on_date as madeOnDate, " + " aud.api_get_url as resourceGetUrl, "
                     + "ck.username as checker, aud.checked_on_date as checkedOnDate, ev.enum_message_property as processingResult "
                     + commandAsJsonString + ", "
                     + " o.name as officeName, gl.level_name as groupLevelName, g.display_name as groupName, c.display_name as clientName, "
-                    + " l.account_no as loanAccountNo, s.account_no as savingsAccountNo " + " from m_portfolio_command_source aud "
+                    + " l.account_no as loanAccountNo, s.account_no as savingsAccountNo ";
+        }
+
+        /**
+         * The tables of the audit entries, scoped to the office of the user,
+         * without the select list so that they can be counted.
+         */
+        public String from(final Office userOffice) {
+
+            String partSql = " from m_portfolio_command_source aud "
                     + " left join m_appuser mk on mk.id = aud.maker_id" + " left join m_appuser ck on ck.id = aud.checker_id"
                     + " left join m_office o on o.id = aud.office_id" + " left join m_group g on g.id = aud.group_id"
                     + " left join m_group_level gl on gl.id = g.level_id" + " left join m_client c on c.id = aud.client_id"
@@ -124,8 +139,8 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
             // data scoping: head office (hierarchy = ".") can see all audit
             // entries
-            if (!(hierarchy.equals("."))) {
-                partSql += " join m_office o2 on o2.id = aud.office_id and o2.hierarchy like '" + hierarchy + "%' ";
+            if (!(userOffice.getHierarchy().equals("."))) {
+                partSql += " join m_office_closure oc on oc.descendant_id = aud.office_id and oc.ancestor_id = " + userOffice.getId() + " ";
             }
 
             return partSql;
@@ -186,7 +201,7 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
 
         this.paginationParametersDataValidator.validateParameterValues(parameters, supportedOrderByValues, "audits");
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
+        final Office userOffice = currentUser.getOffice();
 
         String updatedExtraCriteria = "";
         if (StringUtils.isNotBlank(extraCriteria)) {
@@ -194,9 +209,13 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         }
 
         final AuditMapper rm = new AuditMapper();
+        if (parameters.isKeysetPaginated()) {
+            return retrievePaginatedAuditEntriesAfter(updatedExtraCriteria, includeJson, parameters, userOffice, rm);
+        }
+
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
-        sqlBuilder.append(rm.schema(includeJson, hierarchy));
+        sqlBuilder.append(rm.schema(includeJson, userOffice));
         sqlBuilder.append(' ').append(updatedExtraCriteria);
 
         if (parameters.isOrderByRequested()) {
@@ -215,6 +234,40 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
         return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), new Object[] {}, rm);
     }
 
+    /**
+     * Pages through the audit entries from the latest one backwards by id.
+     */
+    private Page<AuditData> retrievePaginatedAuditEntriesAfter(final String extraCriteria, final boolean includeJson,
+            final PaginationParameters parameters, final Office userOffice, final AuditMapper rm) {
+
+        final String filterSql = rm.from(userOffice) + " " + extraCriteria;
+
+        String sqlCountRows = null;
+        if (parameters.isApproximateCountRequested()) {
+            sqlCountRows = "select 1 " + filterSql;
+        }
+
+        final StringBuilder sqlBuilder = new StringBuilder(200);
+        sqlBuilder.append("select ").append(rm.selectList(includeJson)).append(filterSql);
+
+        Object[] args = new Object[] {};
+        final String[] after = PageCursor.decode(parameters.getAfter(), 1);
+        if (after != null) {
+            sqlBuilder.append(StringUtils.isBlank(extraCriteria) ? " where " : " and ").append("aud.id < ?");
+            args = new Object[] { after[0] };
+        }
+        sqlBuilder.append(" order by aud.id DESC");
+
+        return this.paginationHelper.fetchPageAfter(this.jdbcTemplate, sqlCountRows, new Object[] {}, sqlBuilder.toString(), args,
+                parameters.getLimit(), rm, new PageCursor.KeyExtractor<AuditData>() {
+
+                    @Override
+                    public Object[] keyOf(final AuditData auditEntry) {
+                        return new Object[] { auditEntry.getId() };
+                    }
+                });
+    }
+
     @Override
     public Collection<AuditData> retrieveAllEntriesToBeChecked(final String extraCriteria, final boolean includeJson) {
 
@@ -236,10 +289,10 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
                 "error.msg.invalid.auditSearchTemplate.useType", "Invalid Audit Search Template UseType: " + useType); }
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
+        final Office userOffice = currentUser.getOffice();
 
         final AuditMapper rm = new AuditMapper();
-        String sql = "select " + rm.schema(includeJson, hierarchy);
+        String sql = "select " + rm.schema(includeJson, userOffice);
 
         Boolean isLimitedChecker = false;
         if (useType.equals("makerchecker")) {
@@ -265,11 +318,11 @@ public class AuditReadPlatformServiceImpl implements AuditReadPlatformService {
     public AuditData retrieveAuditEntry(final Long auditId) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
+        final Office userOffice = currentUser.getOffice();
 
         final AuditMapper rm = new AuditMapper();
 
-        final String sql = "select " + rm.schema(true, hierarchy) + " where aud.id = " + auditId;
+        final String sql = "select " + rm.schema(true, userOffice) + " where aud.id = " + auditId;
 
         final AuditData auditResult = this.jdbcTemplate.queryForObject(sql, rm, new Object[] {});
 
@@ -0,0 +1,120 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * The log of cache invalidations shared by the nodes of a cluster, kept in the
+ * tenants database as caches are shared by all the tenants of a node. Each
+ * node records the evictions it makes and replays the ones recorded by the
+ * other nodes, see {@link MultiNodeCacheManager}.
+ */
+@Component
+public class CacheInvalidationLog {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CacheInvalidationLog(@Qualifier("tenantDataSourceJndi") final DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Records the eviction of <code>cacheKey</code>, or of every entry of the
+     * cache when it is <code>null</code>.
+     */
+    public void record(final String cacheName, final String cacheKey) {
+        this.jdbcTemplate.update("insert into cache_invalidation (node_id, cache_name, cache_key) values (?, ?, ?)", this.nodeId,
+                cacheName, cacheKey);
+    }
+
+    /**
+     * The invalidations recorded by the other nodes on or after
+     * <code>recordedOn</code>, in the order they were recorded.
+     */
+    public List<CacheInvalidation> findRecordedByOtherNodesSince(final Date recordedOn) {
+        final CacheInvalidationMapper rm = new CacheInvalidationMapper();
+        final String sql = "select " + rm.schema() + " where ci.recorded_on >= ? and ci.node_id <> ? order by ci.id";
+        return this.jdbcTemplate.query(sql, rm, recordedOn, this.nodeId);
+    }
+
+    /**
+     * The current time of the database, invalidations are timed by the
+     * database so that the clocks of the nodes do not have to agree.
+     */
+    public Date now() {
+        return this.jdbcTemplate.queryForObject("select now()", Date.class);
+    }
+
+    public void deleteRecordedBefore(final Date recordedOn) {
+        this.jdbcTemplate.update("delete from cache_invalidation where recorded_on < ?", recordedOn);
+    }
+
+    public static final class CacheInvalidation {
+
+        private final Long id;
+        private final String cacheName;
+        private final String cacheKey;
+        private final Date recordedOn;
+
+        CacheInvalidation(final Long id, final String cacheName, final String cacheKey, final Date recordedOn) {
+            this.id = id;
+            this.cacheName = cacheName;
+            this.cacheKey = cacheKey;
+            this.recordedOn = recordedOn;
+        }
+
+        public Long getId() {
+            return this.id;
+        }
+
+        public String getCacheName() {
+            return this.cacheName;
+        }
+
+        /**
+         * The evicted key, or <code>null</code> when the whole cache was
+         * cleared.
+         */
+        public String getCacheKey() {
+            return this.cacheKey;
+        }
+
+        public Date getRecordedOn() {
+            return this.recordedOn;
+        }
+    }
+
+    private static final class CacheInvalidationMapper implements RowMapper<CacheInvalidation> {
+
+        public String schema() {
+            return " ci.id as id, ci.cache_name as cacheName, ci.cache_key as cacheKey, ci.recorded_on as recordedOn from cache_invalidation ci ";
+        }
+
+        @Override
+        public CacheInvalidation mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long id = rs.getLong("id");
+            final String cacheName = rs.getString("cacheName");
+            final String cacheKey = rs.getString("cacheKey");
+            final Date recordedOn = rs.getTimestamp("recordedOn");
+            return new CacheInvalidation(id, cacheName, cacheKey, recordedOn);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.cache.service.CacheInvalidationLog.CacheInvalidation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.ehcache.EhCacheCacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches for a node running next to other nodes: entries are kept in the
+ * local ehcache caches as for a single node, and evictions are recorded in
+ * the {@link CacheInvalidationLog} and replayed by the other nodes, which poll
+ * the log every {@link #POLL_INTERVAL_MILLIS} milliseconds.
+ *
+ * An eviction made within a transaction is recorded once the transaction
+ * completes so that the other nodes do not reload the value before it is
+ * committed. Invalidations are read again for {@link #REREAD_MILLIS}
+ * milliseconds after they are first seen, which catches those whose insert
+ * committed after later ones, each invalidation is still applied once.
+ *
+ * State a node keeps outside of its caches, such as the snapshots of the
+ * global configuration, is invalidated through the log as well: the owner of
+ * the state registers an {@link InvalidationListener} under a name of its own
+ * and reports its changes with {@link #invalidate(String, String)}.
+ */
+@Component
+public class MultiNodeCacheManager implements CacheManager {
+
+    private final static Logger logger = LoggerFactory.getLogger(MultiNodeCacheManager.class);
+
+    public static final long POLL_INTERVAL_MILLIS = 1000;
+    public static final long REREAD_MILLIS = 5000;
+    public static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final EhCacheCacheManager ehcacheCacheManager;
+    private final CacheInvalidationLog invalidationLog;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, InvalidationListener> invalidationListeners = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService poller;
+    private Date pollFrom;
+    private Date purgedOn;
+    private final Map<Long, Date> appliedInvalidations = new HashMap<>();
+
+    @Autowired
+    public MultiNodeCacheManager(final EhCacheCacheManager ehcacheCacheManager, final CacheInvalidationLog invalidationLog) {
+        this.ehcacheCacheManager = ehcacheCacheManager;
+        this.invalidationLog = invalidationLog;
+    }
+
+    @Override
+    public Cache getCache(final String name) {
+        Cache cache = this.caches.get(name);
+        if (cache == null) {
+            final Cache localCache = this.ehcacheCacheManager.getCache(name);
+            if (localCache == null) { return null; }
+            cache = new InvalidationRecordingCache(localCache);
+            final Cache existing = this.caches.putIfAbsent(name, cache);
+            if (existing != null) {
+                cache = existing;
+            }
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return this.ehcacheCacheManager.getCacheNames();
+    }
+
+    /**
+     * Replays the invalidations recorded under <code>name</code> by the other
+     * nodes on <code>listener</code> instead of a cache.
+     */
+    public void addInvalidationListener(final String name, final InvalidationListener listener) {
+        this.invalidationListeners.put(name, listener);
+    }
+
+    /**
+     * Records the invalidation of <code>key</code>, or of everything when it
+     * is <code>null</code>, of the state kept under <code>name</code> for the
+     * listeners of the other nodes, while this node replays their
+     * invalidations as well.
+     */
+    public void invalidate(final String name, final String key) {
+        if (this.poller != null) {
+            record(name, key);
+        }
+    }
+
+    /**
+     * Starts replaying the invalidations of the other nodes. The local caches
+     * are cleared as the invalidations recorded while they were not polled
+     * are not replayed.
+     */
+    public synchronized void start() {
+        if (this.poller != null) { return; }
+
+        this.pollFrom = this.invalidationLog.now();
+        this.purgedOn = this.pollFrom;
+        this.appliedInvalidations.clear();
+        this.ehcacheCacheManager.getCacheManager().clearAll();
+
+        this.poller = Executors.newSingleThreadScheduledExecutor();
+        this.poller.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    poll();
+                } catch (final RuntimeException e) {
+                    logger.error("Failed to read the cache invalidations of the other nodes", e);
+                }
+            }
+        }, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (this.poller != null) {
+            this.poller.shutdownNow();
+            this.poller = null;
+        }
+    }
+
+    private synchronized void poll() {
+        final List<CacheInvalidation> invalidations = this.invalidationLog.findRecordedByOtherNodesSince(this.pollFrom);
+
+        Date lastRecordedOn = this.pollFrom;
+        for (final CacheInvalidation invalidation : invalidations) {
+            if (this.appliedInvalidations.put(invalidation.getId(), invalidation.getRecordedOn()) == null) {
+                apply(invalidation);
+            }
+            if (invalidation.getRecordedOn().after(lastRecordedOn)) {
+                lastRecordedOn = invalidation.getRecordedOn();
+            }
+        }
+
+        final Date rereadFrom = new Date(lastRecordedOn.getTime() - REREAD_MILLIS);
+        if (rereadFrom.after(this.pollFrom)) {
+            this.pollFrom = rereadFrom;
+            final Iterator<Date> appliedOn = this.appliedInvalidations.values().iterator();
+            while (appliedOn.hasNext()) {
+                if (appliedOn.next().before(rereadFrom)) {
+                    appliedOn.remove();
+                }
+            }
+        }
+
+        if (lastRecordedOn.getTime() - this.purgedOn.getTime() > RETENTION_MILLIS) {
+            this.invalidationLog.deleteRecordedBefore(new Date(lastRecordedOn.getTime() - RETENTION_MILLIS));
+            this.purgedOn = lastRecordedOn;
+        }
+    }
+
+    private void apply(final CacheInvalidation invalidation) {
+        final InvalidationListener listener = this.invalidationListeners.get(invalidation.getCacheName());
+        if (listener != null) {
+            listener.invalidated(invalidation.getCacheKey());
+            return;
+        }
+
+        final Cache localCache = this.ehcacheCacheManager.getCache(invalidation.getCacheName());
+        if (localCache == null) { return; }
+
+        if (invalidation.getCacheKey() == null) {
+            localCache.clear();
+        } else {
+            localCache.evict(invalidation.getCacheKey());
+        }
+    }
+
+    private void record(final String cacheName, final String cacheKey) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    recordNow(cacheName, cacheKey);
+                }
+            });
+        } else {
+            recordNow(cacheName, cacheKey);
+        }
+    }
+
+    /**
+     * A failure to record an eviction leaves the other nodes with stale
+     * entries but does not fail the change that caused it.
+     */
+    private void recordNow(final String cacheName, final String cacheKey) {
+        try {
+            this.invalidationLog.record(cacheName, cacheKey);
+        } catch (final RuntimeException e) {
+            logger.error("Failed to record the invalidation of cache " + cacheName + " for the other nodes", e);
+        }
+    }
+
+    public interface InvalidationListener {
+
+        /**
+         * Drops the state kept for <code>key</code>, or all of it when it is
+         * <code>null</code>.
+         */
+        void invalidated(String key);
+    }
+
+    /**
+     * A local cache that records its evictions for the other nodes. Only
+     * string keys are sent as they are, the eviction of any other key clears
+     * the cache on the other nodes.
+     */
+    private final class InvalidationRecordingCache implements Cache {
+
+        private final Cache localCache;
+
+        InvalidationRecordingCache(final Cache localCache) {
+            this.localCache = localCache;
+        }
+
+        @Override
+        public String getName() {
+            return this.localCache.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return this.localCache.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(final Object key) {
+            return this.localCache.get(key);
+        }
+
+        @Override
+        public <T> T get(final Object key, final Class<T> type) {
+            return this.localCache.get(key, type);
+        }
+
+        @Override
+        public void put(final Object key, final Object value) {
+            this.localCache.put(key, value);
+        }
+
+        @Override
+        public void evict(final Object key) {
+            this.localCache.evict(key);
+            record(getName(), key instanceof String ? (String) key : null);
+        }
+
+        @Override
+        public void clear() {
+            this.localCache.clear();
+            record(getName(), null);
+        }
+    }
+}
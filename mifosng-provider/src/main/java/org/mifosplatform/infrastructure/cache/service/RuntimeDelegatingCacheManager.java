@@ -29,12 +29,14 @@ import org.springframework.stereotype.Component;
 public class RuntimeDelegatingCacheManager implements CacheManager {
 
     private final EhCacheCacheManager ehcacheCacheManager;
+    private final MultiNodeCacheManager multiNodeCacheManager;
     private final CacheManager noOpCacheManager = new NoOpCacheManager();
     private CacheManager currentCacheManager;
 
     @Autowired
-    public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager) {
+    public RuntimeDelegatingCacheManager(final EhCacheCacheManager ehCacheCacheManager, final MultiNodeCacheManager multiNodeCacheManager) {
         this.ehcacheCacheManager = ehCacheCacheManager;
+        this.multiNodeCacheManager = multiNodeCacheManager;
         this.currentCacheManager = this.noOpCacheManager;
     }
 
@@ -52,29 +54,27 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
 
         final boolean noCacheEnabled = this.currentCacheManager instanceof NoOpCacheManager;
         final boolean ehcacheEnabled = this.currentCacheManager instanceof EhCacheCacheManager;
-
-        // final boolean distributedCacheEnabled = false;
+        final boolean distributedCacheEnabled = this.currentCacheManager instanceof MultiNodeCacheManager;
 
         final EnumOptionData noCacheType = CacheEnumerations.cacheType(CacheType.NO_CACHE);
         final EnumOptionData singleNodeCacheType = CacheEnumerations.cacheType(CacheType.SINGLE_NODE);
-        // final EnumOptionData multiNodeCacheType =
-        // CacheEnumerations.cacheType(CacheType.MULTI_NODE);
+        final EnumOptionData multiNodeCacheType = CacheEnumerations.cacheType(CacheType.MULTI_NODE);
 
         final CacheData noCache = CacheData.instance(noCacheType, noCacheEnabled);
         final CacheData singleNodeCache = CacheData.instance(singleNodeCacheType, ehcacheEnabled);
-        // final CacheData distributedCache =
-        // CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
+        final CacheData distributedCache = CacheData.instance(multiNodeCacheType, distributedCacheEnabled);
 
-        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache);
+        final Collection<CacheData> caches = Arrays.asList(noCache, singleNodeCache, distributedCache);
         return caches;
     }
 
-    public Map<String, Object> switchToCache(final boolean ehcacheEnabled, final CacheType toCacheType) {
+    public Map<String, Object> switchToCache(final CacheType currentCacheType, final CacheType toCacheType) {
 
         final Map<String, Object> changes = new HashMap<>();
 
-        final boolean noCacheEnabled = !ehcacheEnabled;
-        final boolean distributedCacheEnabled = !ehcacheEnabled;
+        final boolean ehcacheEnabled = currentCacheType.isEhcache();
+        final boolean distributedCacheEnabled = currentCacheType.isDistributedCache();
+        final boolean noCacheEnabled = !ehcacheEnabled && !distributedCacheEnabled;
 
         switch (toCacheType) {
             case INVALID:
@@ -83,6 +83,7 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                 if (!noCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                 }
+                this.multiNodeCacheManager.stop();
                 this.currentCacheManager = this.noOpCacheManager;
             break;
             case SINGLE_NODE:
@@ -90,12 +91,16 @@ public class RuntimeDelegatingCacheManager implements CacheManager {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                     clearEhCache();
                 }
+                this.multiNodeCacheManager.stop();
                 this.currentCacheManager = this.ehcacheCacheManager;
             break;
             case MULTI_NODE:
                 if (!distributedCacheEnabled) {
                     changes.put(CacheApiConstants.cacheTypeParameter, toCacheType.getValue());
                 }
+                // the local caches are cleared when the node starts polling
+                this.multiNodeCacheManager.start();
+                this.currentCacheManager = this.multiNodeCacheManager;
             break;
         }
 
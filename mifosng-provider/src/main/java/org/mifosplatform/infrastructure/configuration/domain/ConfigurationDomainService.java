@@ -29,8 +29,16 @@ public interface ConfigurationDomainService {
 
     boolean isEhcacheEnabled();
 
+    CacheType retrieveCacheType();
+
     void updateCache(CacheType cacheType);
 
+    /**
+     * Picks up changes to the global configuration and to the maker checker
+     * settings of permissions made by the calling transaction.
+     */
+    void refreshGlobalConfiguration();
+
     Long retrievePenaltyWaitPeriod();
 
     boolean isPasswordForcedResetEnable();
@@ -38,5 +46,7 @@ public interface ConfigurationDomainService {
     Long retrievePasswordLiveTime();
 
     Long retrieveGraceOnPenaltyPostingPeriod();
+
+    Long retrieveLoanSummaryJobChunkSize();
     
 }
\ No newline at end of file
@@ -5,56 +5,102 @@
  */
 package org.mifosplatform.infrastructure.configuration.domain;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+
 import org.apache.commons.lang.StringUtils;
 import org.mifosplatform.infrastructure.cache.domain.CacheType;
 import org.mifosplatform.infrastructure.cache.domain.PlatformCache;
 import org.mifosplatform.infrastructure.cache.domain.PlatformCacheRepository;
+import org.mifosplatform.infrastructure.cache.service.MultiNodeCacheManager;
+import org.mifosplatform.infrastructure.cache.service.MultiNodeCacheManager.InvalidationListener;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.useradministration.domain.Permission;
 import org.mifosplatform.useradministration.domain.PermissionRepository;
 import org.mifosplatform.useradministration.exception.PermissionNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Answers from a {@link GlobalConfigurationSnapshot} of the tenant, loaded
+ * on first use and replaced by {@link #refreshGlobalConfiguration()}, instead
+ * of querying the configuration for every check. Properties and permissions
+ * added since the snapshot was loaded are looked up in the database.
+ *
+ * A refresh replaces the snapshot of this node and, with the multi node cache,
+ * drops the snapshots of the other nodes through the cache invalidation log.
+ * In case they miss it, a snapshot is loaded again once it is older than
+ * {@link #SNAPSHOT_TIME_TO_LIVE_MILLIS}, so the other nodes of a cluster see a
+ * change to the configuration within that time whatever the cache.
+ */
 @Service
 public class ConfigurationDomainServiceJpa implements ConfigurationDomainService {
 
+    public static final long SNAPSHOT_TIME_TO_LIVE_MILLIS = 30000;
+    public static final String SNAPSHOT_INVALIDATION_NAME = "globalConfigurationSnapshots";
+
     private final PermissionRepository permissionRepository;
     private final GlobalConfigurationRepositoryWrapper globalConfigurationRepository;
     private final PlatformCacheRepository cacheTypeRepository;
+    private final MultiNodeCacheManager multiNodeCacheManager;
+    private final ConcurrentMap<String, GlobalConfigurationSnapshot> snapshotsByTenant = new ConcurrentHashMap<>();
 
     @Autowired
     public ConfigurationDomainServiceJpa(final PermissionRepository permissionRepository,
-            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository) {
+            final GlobalConfigurationRepositoryWrapper globalConfigurationRepository, final PlatformCacheRepository cacheTypeRepository,
+            final MultiNodeCacheManager multiNodeCacheManager) {
         this.permissionRepository = permissionRepository;
         this.globalConfigurationRepository = globalConfigurationRepository;
         this.cacheTypeRepository = cacheTypeRepository;
+        this.multiNodeCacheManager = multiNodeCacheManager;
+    }
+
+    @PostConstruct
+    public void dropSnapshotsInvalidatedByOtherNodes() {
+        this.multiNodeCacheManager.addInvalidationListener(SNAPSHOT_INVALIDATION_NAME, new InvalidationListener() {
+
+            @Override
+            public void invalidated(final String tenantIdentifier) {
+                if (tenantIdentifier == null) {
+                    ConfigurationDomainServiceJpa.this.snapshotsByTenant.clear();
+                } else {
+                    ConfigurationDomainServiceJpa.this.snapshotsByTenant.remove(tenantIdentifier);
+                }
+            }
+        });
     }
 
     @Override
     public boolean isMakerCheckerEnabledForTask(final String taskPermissionCode) {
         if (StringUtils.isBlank(taskPermissionCode)) { throw new PermissionNotFoundException(taskPermissionCode); }
 
-        final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
-        if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
+        Boolean makerCheckerEnabled = snapshot().isMakerCheckerEnabledFor(taskPermissionCode);
+        if (makerCheckerEnabled == null) {
+            final Permission thisTask = this.permissionRepository.findOneByCode(taskPermissionCode);
+            if (thisTask == null) { throw new PermissionNotFoundException(taskPermissionCode); }
+            makerCheckerEnabled = thisTask.hasMakerCheckerEnabled();
+        }
 
         final String makerCheckerConfigurationProperty = "maker-checker";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(makerCheckerConfigurationProperty);
+        final GlobalConfigurationProperty property = property(makerCheckerConfigurationProperty);
 
-        return thisTask.hasMakerCheckerEnabled() && property.isEnabled();
+        return makerCheckerEnabled && property.isEnabled();
     }
 
     @Override
     public boolean isAmazonS3Enabled() {
-        return this.globalConfigurationRepository.findOneByNameWithNotFoundDetection("amazon-S3").isEnabled();
+        return property("amazon-S3").isEnabled();
     }
 
     @Override
     public boolean isRescheduleFutureRepaymentsEnabled() {
         final String rescheduleRepaymentsConfigurationProperty = "reschedule-future-repayments";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(rescheduleRepaymentsConfigurationProperty);
+        final GlobalConfigurationProperty property = property(rescheduleRepaymentsConfigurationProperty);
         return property.isEnabled();
     }
 
@@ -67,52 +113,53 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isRescheduleRepaymentsOnHolidaysEnabled() {
         final String holidaysConfigurationProperty = "reschedule-repayments-on-holidays";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(holidaysConfigurationProperty);
+        final GlobalConfigurationProperty property = property(holidaysConfigurationProperty);
         return property.isEnabled();
     }
     
     @Override
     public boolean isRescheduleFutureInstallmentsEnabled() {
         final String rescheduleInstallmentsConfigurationProperty = "reschedule-future-installments";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(rescheduleInstallmentsConfigurationProperty);
+        final GlobalConfigurationProperty property = property(rescheduleInstallmentsConfigurationProperty);
         return property.isEnabled();
     }
     
     @Override
     public boolean isRescheduleInstallmentsOnHolidaysEnabled() {
         final String holidaysConfigurationProperty = "reschedule-installments-on-holidays";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(holidaysConfigurationProperty);
+        final GlobalConfigurationProperty property = property(holidaysConfigurationProperty);
         return property.isEnabled();
     }
 
     @Override
     public boolean allowTransactionsOnHolidayEnabled() {
         final String allowTransactionsOnHolidayProperty = "allow-transactions-on-holiday";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository
-                .findOneByNameWithNotFoundDetection(allowTransactionsOnHolidayProperty);
+        final GlobalConfigurationProperty property = property(allowTransactionsOnHolidayProperty);
         return property.isEnabled();
     }
 
     @Override
     public boolean allowTransactionsOnNonWorkingDayEnabled() {
         final String propertyName = "allow-transactions-on-non_workingday";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationProperty property = property(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public boolean isConstraintApproachEnabledForDatatables() {
         final String propertyName = "constraint_approach_for_datatables";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationProperty property = property(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public boolean isEhcacheEnabled() {
-        return this.cacheTypeRepository.findOne(Long.valueOf(1)).isEhcacheEnabled();
+        return snapshot().getCacheType().isEhcache();
+    }
+
+    @Override
+    public CacheType retrieveCacheType() {
+        return snapshot().getCacheType();
     }
 
     @Transactional
@@ -121,19 +168,27 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
         final PlatformCache cache = this.cacheTypeRepository.findOne(Long.valueOf(1));
         cache.update(cacheType);
         this.cacheTypeRepository.save(cache);
+        refreshGlobalConfiguration();
     }
 
     @Override
     public Long retrievePenaltyWaitPeriod() {
         final String propertyName = "penalty-wait-period";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationProperty property = property(propertyName);
         return property.getValue();
     }
     
     @Override
     public Long retrieveGraceOnPenaltyPostingPeriod() {
         final String propertyName = "grace-on-penalty-posting";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationProperty property = property(propertyName);
+        return property.getValue();
+    }
+
+    @Override
+    public Long retrieveLoanSummaryJobChunkSize() {
+        final String propertyName = "loan-summary-job-chunk-size";
+        final GlobalConfigurationProperty property = property(propertyName);
         return property.getValue();
     }
 
@@ -141,15 +196,73 @@ public class ConfigurationDomainServiceJpa implements ConfigurationDomainService
     @Override
     public boolean isPasswordForcedResetEnable() {
         final String propertyName = "force-password-reset-days";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationProperty property = property(propertyName);
         return property.isEnabled();
     }
 
     @Override
     public Long retrievePasswordLiveTime() {
         final String propertyName = "force-password-reset-days";
-        final GlobalConfigurationProperty property = this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+        final GlobalConfigurationProperty property = property(propertyName);
         return property.getValue();
     }
 
-}
\ No newline at end of file
+    /**
+     * Replaces the snapshot of the tenant once the calling transaction has
+     * committed, or straight away when there is none, so that checks never see
+     * the configuration of a transaction that may still roll back. The other
+     * nodes drop theirs once the transaction completes.
+     */
+    @Override
+    public void refreshGlobalConfiguration() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        this.multiNodeCacheManager.invalidate(SNAPSHOT_INVALIDATION_NAME, tenantIdentifier);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCommit() {
+                    replaceSnapshot(tenantIdentifier);
+                }
+            });
+        } else {
+            replaceSnapshot(tenantIdentifier);
+        }
+    }
+
+    /**
+     * Snapshots are replaced one at a time so that the one loaded last, which
+     * has seen every committed change, is the one kept.
+     */
+    private synchronized void replaceSnapshot(final String tenantIdentifier) {
+        this.snapshotsByTenant.put(tenantIdentifier, loadSnapshot());
+    }
+
+    private GlobalConfigurationSnapshot snapshot() {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        final GlobalConfigurationSnapshot snapshot = this.snapshotsByTenant.get(tenantIdentifier);
+        if (snapshot != null && !snapshot.isOlderThan(SNAPSHOT_TIME_TO_LIVE_MILLIS)) { return snapshot; }
+
+        final GlobalConfigurationSnapshot loaded = loadSnapshot();
+        // a snapshot put by a concurrent refresh is newer than this one
+        if (snapshot == null) {
+            final GlobalConfigurationSnapshot existing = this.snapshotsByTenant.putIfAbsent(tenantIdentifier, loaded);
+            return existing == null ? loaded : existing;
+        }
+        if (this.snapshotsByTenant.replace(tenantIdentifier, snapshot, loaded)) { return loaded; }
+        final GlobalConfigurationSnapshot current = this.snapshotsByTenant.get(tenantIdentifier);
+        return current == null ? loaded : current;
+    }
+
+    private GlobalConfigurationSnapshot loadSnapshot() {
+        final PlatformCache cache = this.cacheTypeRepository.findOne(Long.valueOf(1));
+        return GlobalConfigurationSnapshot.of(this.globalConfigurationRepository.findAll(), this.permissionRepository.findAll(),
+                cache.getCacheType());
+    }
+
+    private GlobalConfigurationProperty property(final String propertyName) {
+        final GlobalConfigurationProperty property = snapshot().property(propertyName);
+        if (property != null) { return property; }
+        return this.globalConfigurationRepository.findOneByNameWithNotFoundDetection(propertyName);
+    }
+}
@@ -40,6 +40,10 @@ public class GlobalConfigurationProperty extends AbstractPersistable<Long> {
         this.value = value;
     }
 
+    public String getName() {
+        return this.name;
+    }
+
     public boolean isEnabled() {
         return this.enabled;
     }
@@ -76,6 +80,14 @@ public class GlobalConfigurationProperty extends AbstractPersistable<Long> {
 
     }
 
+    /**
+     * A detached copy of the property, that is not tied to the session that
+     * loaded it.
+     */
+    public GlobalConfigurationProperty copy() {
+        return new GlobalConfigurationProperty(this.name, this.enabled, this.value);
+    }
+
     public static GlobalConfigurationProperty newSurveyConfiguration(final String name)
     {
         return new GlobalConfigurationProperty(name,false,null);
@@ -5,6 +5,8 @@
  */
 package org.mifosplatform.infrastructure.configuration.domain;
 
+import java.util.List;
+
 import org.mifosplatform.infrastructure.configuration.exception.GlobalConfigurationPropertyNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -31,6 +33,10 @@ public class GlobalConfigurationRepositoryWrapper {
         return property;
     }
 
+    public List<GlobalConfigurationProperty> findAll() {
+        return this.repository.findAll();
+    }
+
     public GlobalConfigurationProperty findOneWithNotFoundDetection(final Long configId) {
         final GlobalConfigurationProperty property = this.repository.findOne(configId);
         if (property == null) { throw new GlobalConfigurationPropertyNotFoundException(configId); }
@@ -0,0 +1,76 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.configuration.domain;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mifosplatform.infrastructure.cache.domain.CacheType;
+import org.mifosplatform.useradministration.domain.Permission;
+
+/**
+ * The global configuration of a tenant as it was when it was loaded: the
+ * properties of <code>c_configuration</code>, whether maker checker is enabled
+ * for each permission and the cache type. Snapshots are never changed, a
+ * change to the configuration replaces the snapshot of the tenant.
+ */
+public final class GlobalConfigurationSnapshot {
+
+    private final Map<String, GlobalConfigurationProperty> propertiesByName;
+    private final Map<String, Boolean> makerCheckerEnabledByPermissionCode;
+    private final CacheType cacheType;
+    private final long loadedOnNanos = System.nanoTime();
+
+    public static GlobalConfigurationSnapshot of(final Collection<GlobalConfigurationProperty> properties,
+            final Collection<Permission> permissions, final CacheType cacheType) {
+
+        final Map<String, GlobalConfigurationProperty> propertiesByName = new HashMap<>(properties.size() * 2);
+        for (final GlobalConfigurationProperty property : properties) {
+            propertiesByName.put(property.getName(), property.copy());
+        }
+
+        final Map<String, Boolean> makerCheckerEnabledByPermissionCode = new HashMap<>(permissions.size() * 2);
+        for (final Permission permission : permissions) {
+            makerCheckerEnabledByPermissionCode.put(permission.getCode(), permission.hasMakerCheckerEnabled());
+        }
+
+        return new GlobalConfigurationSnapshot(propertiesByName, makerCheckerEnabledByPermissionCode, cacheType);
+    }
+
+    private GlobalConfigurationSnapshot(final Map<String, GlobalConfigurationProperty> propertiesByName,
+            final Map<String, Boolean> makerCheckerEnabledByPermissionCode, final CacheType cacheType) {
+        this.propertiesByName = Collections.unmodifiableMap(propertiesByName);
+        this.makerCheckerEnabledByPermissionCode = Collections.unmodifiableMap(makerCheckerEnabledByPermissionCode);
+        this.cacheType = cacheType;
+    }
+
+    /**
+     * The property named <code>propertyName</code>, or <code>null</code> when
+     * it did not exist when the snapshot was loaded.
+     */
+    public GlobalConfigurationProperty property(final String propertyName) {
+        return this.propertiesByName.get(propertyName);
+    }
+
+    /**
+     * Whether maker checker is enabled for the permission, or
+     * <code>null</code> when it did not exist when the snapshot was loaded.
+     */
+    public Boolean isMakerCheckerEnabledFor(final String permissionCode) {
+        return this.makerCheckerEnabledByPermissionCode.get(permissionCode);
+    }
+
+    public CacheType getCacheType() {
+        return this.cacheType;
+    }
+
+    public boolean isOlderThan(final long millis) {
+        return System.nanoTime() - this.loadedOnNanos > TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
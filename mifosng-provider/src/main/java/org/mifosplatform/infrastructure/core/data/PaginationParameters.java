@@ -19,23 +19,37 @@ public class PaginationParameters {
     private final Integer limit;
     private final String orderBy;
     private final String sortOrder;
+    private final String after;
+    private final boolean approximateCount;
 
     public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
+        return instance(paged, offset, limit, orderBy, sortOrder, null, false);
+    }
+
+    /**
+     * Pagination parameters of a listing that can also be keyset paginated,
+     * which passing an <code>after</code> token asks for.
+     */
+    public static PaginationParameters instance(Boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder,
+            String after, boolean approximateCount) {
         if (null == paged) {
             paged = false;
         }
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
 
-        return new PaginationParameters(paged, offset, maxLimitAllowed, orderBy, sortOrder);
+        return new PaginationParameters(paged || after != null, offset, maxLimitAllowed, orderBy, sortOrder, after, approximateCount);
     }
 
-    private PaginationParameters(boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder) {
+    private PaginationParameters(boolean paged, Integer offset, Integer limit, String orderBy, String sortOrder, String after,
+            boolean approximateCount) {
         this.paged = paged;
         this.offset = offset;
         this.limit = limit;
         this.orderBy = orderBy;
         this.sortOrder = sortOrder;
+        this.after = after;
+        this.approximateCount = approximateCount;
     }
 
     public static Integer getCheckedLimit(final Integer limit) {
@@ -74,6 +88,23 @@ public class PaginationParameters {
         return this.sortOrder;
     }
 
+    public String getAfter() {
+        return this.after;
+    }
+
+    /**
+     * Keyset paginated pages follow the natural order of the listing, ignoring
+     * <code>offset</code> and <code>orderBy</code>; a blank token asks for the
+     * first page.
+     */
+    public boolean isKeysetPaginated() {
+        return this.after != null;
+    }
+
+    public boolean isApproximateCountRequested() {
+        return this.approximateCount;
+    }
+
     public boolean isOrderByRequested() {
         return StringUtils.isNotBlank(this.orderBy);
     }
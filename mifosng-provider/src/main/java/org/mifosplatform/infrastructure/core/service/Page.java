@@ -11,16 +11,31 @@ public class Page<E> {
 
     private final int totalFilteredRecords;
     private final List<E> pageItems;
+    private final String nextPageAfter;
 
     public Page(final List<E> pageItems, final int totalFilteredRecords) {
+        this(pageItems, totalFilteredRecords, null);
+    }
+
+    /**
+     * A page of a keyset paginated listing, <code>nextPageAfter</code> is the
+     * <code>after</code> token of the next page or <code>null</code> on the
+     * last one.
+     */
+    public Page(final List<E> pageItems, final int totalFilteredRecords, final String nextPageAfter) {
         this.pageItems = pageItems;
         this.totalFilteredRecords = totalFilteredRecords;
+        this.nextPageAfter = nextPageAfter;
     }
 
     public int getTotalFilteredRecords() {
         return this.totalFilteredRecords;
     }
 
+    public String getNextPageAfter() {
+        return this.nextPageAfter;
+    }
+
     public List<E> getPageItems() {
         return this.pageItems;
     }
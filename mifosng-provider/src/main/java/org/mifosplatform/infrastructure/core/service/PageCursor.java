@@ -0,0 +1,58 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.nio.charset.Charset;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.apache.commons.lang.StringUtils;
+import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
+
+/**
+ * The opaque <code>after</code> token of keyset pagination: the sort key of
+ * the last item of a page, from which the next page carries on.
+ */
+public final class PageCursor {
+
+    public static final String AFTER_PARAM = "after";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String KEY_SEPARATOR = "|";
+
+    /**
+     * Provides the sort key of a listed item, most significant part first.
+     */
+    public interface KeyExtractor<E> {
+
+        Object[] keyOf(E item);
+    }
+
+    private PageCursor() {
+        //
+    }
+
+    public static String encode(final Object... key) {
+        return DatatypeConverter.printHexBinary(StringUtils.join(key, KEY_SEPARATOR).getBytes(UTF_8)).toLowerCase();
+    }
+
+    /**
+     * The <code>keyLength</code> parts of the sort key in the token, or
+     * <code>null</code> for a blank token, which asks for the first page.
+     */
+    public static String[] decode(final String after, final int keyLength) {
+        if (StringUtils.isBlank(after)) { return null; }
+
+        try {
+            final String[] key = StringUtils.splitPreserveAllTokens(new String(DatatypeConverter.parseHexBinary(after), UTF_8),
+                    KEY_SEPARATOR);
+            if (key.length == keyLength) { return key; }
+        } catch (final IllegalArgumentException e) {
+            // not a token handed out by a previous page
+        }
+        throw new UnrecognizedQueryParamException(AFTER_PARAM, after);
+    }
+}
@@ -12,6 +12,17 @@ import org.springframework.jdbc.core.RowMapper;
 
 public class PaginationHelper<E> {
 
+    /**
+     * Rows counted at most for the approximate count of a keyset paginated
+     * listing.
+     */
+    public static final int APPROXIMATE_COUNT_LIMIT = 10000;
+
+    /**
+     * Total of a keyset paginated listing for which no count was requested.
+     */
+    public static final int UNCOUNTED = -1;
+
     public Page<E> fetchPage(final JdbcTemplate jt, final String sqlCountRows, final String sqlFetchRows, final Object args[],
             final RowMapper<E> rowMapper) {
 
@@ -22,4 +33,39 @@ public class PaginationHelper<E> {
 
         return new Page<>(items, totalFilteredRecords);
     }
-}
\ No newline at end of file
+
+    /**
+     * Fetches a page of a keyset paginated listing. <code>sqlFetchRows</code>
+     * selects the rows following the <code>after</code> token in the order of
+     * their sort key and has no limit clause, so that a page costs the same
+     * however deep it is.
+     * 
+     * <code>sqlCountRows</code> selects the filtered rows regardless of the
+     * token; they are counted up to {@link #APPROXIMATE_COUNT_LIMIT} and when
+     * it is <code>null</code> the total is reported as {@link #UNCOUNTED}.
+     */
+    public Page<E> fetchPageAfter(final JdbcTemplate jt, final String sqlCountRows, final Object countArgs[], final String sqlFetchRows,
+            final Object args[], final Integer limit, final RowMapper<E> rowMapper, final PageCursor.KeyExtractor<E> keyExtractor) {
+
+        String sql = sqlFetchRows;
+        if (limit != null) {
+            // one row over the page tells whether there is a next one
+            sql += " limit " + (limit + 1);
+        }
+        final List<E> items = jt.query(sql, args, rowMapper);
+
+        String nextPageAfter = null;
+        if (limit != null && items.size() > limit) {
+            items.subList(limit, items.size()).clear();
+            nextPageAfter = PageCursor.encode(keyExtractor.keyOf(items.get(limit - 1)));
+        }
+
+        int totalFilteredRecords = UNCOUNTED;
+        if (sqlCountRows != null) {
+            totalFilteredRecords = jt.queryForInt("select count(*) from (" + sqlCountRows + " limit " + APPROXIMATE_COUNT_LIMIT
+                    + ") as filtered", countArgs);
+        }
+
+        return new Page<>(items, totalFilteredRecords, nextPageAfter);
+    }
+}
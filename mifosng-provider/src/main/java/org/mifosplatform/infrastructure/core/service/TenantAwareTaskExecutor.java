@@ -0,0 +1,352 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.core.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.jobs.service.JobExecutionMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.MethodInvoker;
+
+/**
+ * Shared, bounded worker pool for work that has to be done once per tenant
+ * (schema upgrades, scheduler bootstrap, batch jobs).
+ *
+ * Tasks are queued per tenant and handed to the pool in round-robin order
+ * across tenants, with at most a number of tasks of the same tenant running at
+ * once, so that a tenant with a lot of work cannot starve the others. The size
+ * of the pool and the cap per tenant are read from the
+ * {@link #THREAD_COUNT_PROPERTY} and {@link #MAX_THREADS_PER_TENANT_PROPERTY}
+ * properties of the environment, such as system properties. The tenant of each
+ * task is set in {@link ThreadLocalContextUtil} on the worker thread for the
+ * duration of the task, and the {@link JobExecutionMetrics} bound to the
+ * submitting thread, if any, are bound to it and charged with the CPU time of
+ * the task, so that the CPU time of a job includes that of the tasks it hands
+ * to the pool.
+ *
+ * Worker threads waiting for tasks run those the pool has not started yet
+ * themselves rather than wait for a free thread, and a job invoked from a
+ * worker thread runs on that thread, so that work running on the pool never
+ * waits for the pool to make room for the work it hands to it.
+ */
+@Component
+public class TenantAwareTaskExecutor {
+
+    private final static Logger logger = LoggerFactory.getLogger(TenantAwareTaskExecutor.class);
+
+    public static final String THREAD_COUNT_PROPERTY = "mifosx.taskExecutor.threadCount";
+    public static final String MAX_THREADS_PER_TENANT_PROPERTY = "mifosx.taskExecutor.maxThreadsPerTenant";
+    public static final int DEFAULT_THREAD_COUNT = 16;
+    public static final int DEFAULT_MAX_THREADS_PER_TENANT = 4;
+
+    private final int threadCount;
+    private final int maxThreadsPerTenant;
+    private final ExecutorService executorService;
+    private final ThreadLocal<Boolean> workerThread = new ThreadLocal<>();
+
+    private final Map<Long, Deque<TenantTask<?>>> pendingTasksByTenant = new HashMap<>();
+    private final Map<Long, Integer> runningTasksByTenant = new HashMap<>();
+    private final Deque<Long> tenantRotation = new ArrayDeque<>();
+    private int runningTasks = 0;
+
+    @Autowired
+    public TenantAwareTaskExecutor(final Environment environment) {
+        this(environment.getProperty(THREAD_COUNT_PROPERTY, Integer.class, DEFAULT_THREAD_COUNT), environment.getProperty(
+                MAX_THREADS_PER_TENANT_PROPERTY, Integer.class, DEFAULT_MAX_THREADS_PER_TENANT));
+    }
+
+    public TenantAwareTaskExecutor(final int threadCount, final int maxThreadsPerTenant) {
+        Assert.isTrue(threadCount > 0, THREAD_COUNT_PROPERTY + " must be positive");
+        Assert.isTrue(maxThreadsPerTenant > 0, MAX_THREADS_PER_TENANT_PROPERTY + " must be positive");
+        this.threadCount = threadCount;
+        this.maxThreadsPerTenant = maxThreadsPerTenant;
+        this.executorService = Executors.newFixedThreadPool(threadCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executorService.shutdownNow();
+    }
+
+    public <T> Future<T> submit(final MifosPlatformTenant tenant, final Callable<T> task) {
+        final TenantTask<T> futureTask = new TenantTask<>(tenant, task);
+        synchronized (this) {
+            Deque<TenantTask<?>> pendingTasks = this.pendingTasksByTenant.get(tenant.getId());
+            if (pendingTasks == null) {
+                pendingTasks = new ArrayDeque<>();
+                this.pendingTasksByTenant.put(tenant.getId(), pendingTasks);
+                this.tenantRotation.addLast(tenant.getId());
+            }
+            pendingTasks.addLast(futureTask);
+            dispatch();
+        }
+        return futureTask;
+    }
+
+    /**
+     * Runs the tasks for the tenant and waits for all of them to finish. The
+     * returned futures are done, in the order of the tasks.
+     */
+    public <T> List<Future<T>> invokeAll(final MifosPlatformTenant tenant, final List<? extends Callable<T>> tasks) {
+        final List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            futures.add(submit(tenant, task));
+        }
+        for (final Future<T> future : futures) {
+            try {
+                awaitResult(future);
+            } catch (final InterruptedException e) {
+                for (final Future<T> pending : futures) {
+                    pending.cancel(true);
+                }
+                throw new IllegalStateException("Interrupted while waiting for the tasks of tenant " + tenant.getTenantIdentifier(), e);
+            } catch (final Exception e) {
+                // the future holds the failure for the caller
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * Runs the task once for each tenant and waits for all of them to finish.
+     * The task finds its tenant through {@link ThreadLocalContextUtil}. If any
+     * tenant fails, the first failure is rethrown once every tenant is done.
+     */
+    public void executeForEachTenant(final List<MifosPlatformTenant> tenants, final Runnable task) {
+        final List<Future<Object>> futures = new ArrayList<>(tenants.size());
+        for (final MifosPlatformTenant tenant : tenants) {
+            futures.add(submit(tenant, Executors.callable(task)));
+        }
+
+        RuntimeException firstFailure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                awaitResult(futures.get(i));
+            } catch (final Exception e) {
+                logger.error("Task failed for tenant " + tenants.get(i).getTenantIdentifier(), e);
+                if (firstFailure == null) {
+                    firstFailure = e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+                }
+            }
+        }
+        if (firstFailure != null) { throw firstFailure; }
+    }
+
+    /**
+     * Invokes <code>targetMethod</code> on <code>targetObject</code> on the
+     * shared pool for the tenant of the calling thread and blocks until it
+     * completes, rethrowing whatever the method threw. Used as the Quartz job
+     * target so batch jobs of all tenants share this pool. Called from a
+     * worker thread, the method is invoked on the calling thread.
+     */
+    public Object invokeForCurrentTenant(final Object targetObject, final String targetMethod) throws Exception {
+        if (isWorkerThread()) { return invoke(targetObject, targetMethod); }
+        return awaitResult(submit(ThreadLocalContextUtil.getTenant(), new Callable<Object>() {
+
+            @Override
+            public Object call() throws Exception {
+                return invoke(targetObject, targetMethod);
+            }
+        }));
+    }
+
+    /**
+     * Whether the calling thread is one of the pool, running a task.
+     */
+    public boolean isWorkerThread() {
+        return Boolean.TRUE.equals(this.workerThread.get());
+    }
+
+    private static Object invoke(final Object targetObject, final String targetMethod) throws Exception {
+        final MethodInvoker methodInvoker = new MethodInvoker();
+        methodInvoker.setTargetObject(targetObject);
+        methodInvoker.setTargetMethod(targetMethod);
+        methodInvoker.prepare();
+        try {
+            return methodInvoker.invoke();
+        } catch (final InvocationTargetException e) {
+            if (e.getTargetException() instanceof Exception) { throw (Exception) e.getTargetException(); }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the result of a task submitted to this executor. A worker
+     * thread runs the task itself when the pool has not started it yet, rather
+     * than wait for the pool to free a thread, which could be waiting on it in
+     * turn.
+     */
+    public <T> T await(final Future<T> future) throws InterruptedException, ExecutionException {
+        if (isWorkerThread() && future instanceof TenantTask && removePending((TenantTask<?>) future)) {
+            ((TenantTask<?>) future).run();
+        }
+        return future.get();
+    }
+
+    private <T> T awaitResult(final Future<T> future) throws Exception {
+        try {
+            return await(future);
+        } catch (final InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof Exception) { throw (Exception) e.getCause(); }
+            if (e.getCause() instanceof Error) { throw (Error) e.getCause(); }
+            throw e;
+        }
+    }
+
+    /**
+     * Hands pending tasks to the pool while there are free threads, visiting
+     * tenants in rotation and skipping tenants that are at their cap. Must be
+     * called while holding the lock on this executor.
+     */
+    private void dispatch() {
+        int tenantsToVisit = this.tenantRotation.size();
+        while (this.runningTasks < this.threadCount && tenantsToVisit > 0) {
+            final Long tenantId = this.tenantRotation.pollFirst();
+            this.tenantRotation.addLast(tenantId);
+            tenantsToVisit--;
+
+            final Deque<TenantTask<?>> pendingTasks = this.pendingTasksByTenant.get(tenantId);
+            final int runningTasksOfTenant = runningTasksOf(tenantId);
+            if (pendingTasks.isEmpty() || runningTasksOfTenant >= this.maxThreadsPerTenant) {
+                continue;
+            }
+
+            final Runnable task = pendingTasks.pollFirst();
+            this.runningTasksByTenant.put(tenantId, runningTasksOfTenant + 1);
+            this.runningTasks++;
+            tenantsToVisit = this.tenantRotation.size();
+
+            this.executorService.execute(new Runnable() {
+
+                @Override
+                public void run() {
+                    TenantAwareTaskExecutor.this.workerThread.set(Boolean.TRUE);
+                    try {
+                        task.run();
+                    } finally {
+                        TenantAwareTaskExecutor.this.workerThread.remove();
+                        taskCompleted(tenantId);
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized void taskCompleted(final Long tenantId) {
+        this.runningTasksByTenant.put(tenantId, runningTasksOf(tenantId) - 1);
+        this.runningTasks--;
+        forgetIfIdle(tenantId);
+        dispatch();
+    }
+
+    /**
+     * Takes the task off the queue of its tenant so that the caller can run
+     * it, unless the pool has started it already.
+     */
+    private synchronized boolean removePending(final TenantTask<?> task) {
+        final Deque<TenantTask<?>> pendingTasks = this.pendingTasksByTenant.get(task.tenantId);
+        if (pendingTasks == null || !pendingTasks.remove(task)) { return false; }
+        forgetIfIdle(task.tenantId);
+        return true;
+    }
+
+    private void forgetIfIdle(final Long tenantId) {
+        if (runningTasksOf(tenantId) == 0 && this.pendingTasksByTenant.get(tenantId).isEmpty()) {
+            this.runningTasksByTenant.remove(tenantId);
+            this.pendingTasksByTenant.remove(tenantId);
+            this.tenantRotation.remove(tenantId);
+        }
+    }
+
+    private int runningTasksOf(final Long tenantId) {
+        final Integer running = this.runningTasksByTenant.get(tenantId);
+        return running == null ? 0 : running;
+    }
+
+    private static final class TenantTask<T> extends FutureTask<T> {
+
+        private final Long tenantId;
+
+        public TenantTask(final MifosPlatformTenant tenant, final Callable<T> task) {
+            super(new TenantContextCallable<>(tenant, JobExecutionMetrics.bound(), task));
+            this.tenantId = tenant.getId();
+        }
+    }
+
+    private static final class TenantContextCallable<T> implements Callable<T> {
+
+        private final MifosPlatformTenant tenant;
+        private final JobExecutionMetrics metrics;
+        private final Callable<T> task;
+
+        public TenantContextCallable(final MifosPlatformTenant tenant, final JobExecutionMetrics metrics, final Callable<T> task) {
+            this.tenant = tenant;
+            this.metrics = metrics;
+            this.task = task;
+        }
+
+        /**
+         * Restores the tenant and metrics of the thread afterwards, as a
+         * caller running the task has its own. A thread already charging its
+         * CPU time to the metrics of the task, such as a worker running a task
+         * of its own job while it waits for it, does not measure it again.
+         */
+        @Override
+        public T call() throws Exception {
+            final MifosPlatformTenant tenantOfThread = ThreadLocalContextUtil.getTenant();
+            final JobExecutionMetrics metricsOfThread = JobExecutionMetrics.bound();
+            final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            final boolean measureCpuTime = this.metrics != null && this.metrics != metricsOfThread
+                    && threadMXBean.isCurrentThreadCpuTimeSupported();
+            final long cpuTimeAtStart = measureCpuTime ? threadMXBean.getCurrentThreadCpuTime() : 0;
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            JobExecutionMetrics.bind(this.metrics);
+            try {
+                return this.task.call();
+            } finally {
+                if (tenantOfThread == null) {
+                    ThreadLocalContextUtil.clearTenant();
+                } else {
+                    ThreadLocalContextUtil.setTenant(tenantOfThread);
+                }
+                if (metricsOfThread == null) {
+                    JobExecutionMetrics.unbind();
+                } else {
+                    JobExecutionMetrics.bind(metricsOfThread);
+                }
+                if (measureCpuTime) {
+                    this.metrics.recordCpuTime(threadMXBean.getCurrentThreadCpuTime() - cpuTimeAtStart);
+                }
+            }
+        }
+    }
+}
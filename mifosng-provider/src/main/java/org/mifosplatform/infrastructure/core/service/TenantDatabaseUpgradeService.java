@@ -5,6 +5,7 @@
  */
 package org.mifosplatform.infrastructure.core.service;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.annotation.PostConstruct;
@@ -24,23 +25,33 @@ import com.googlecode.flyway.core.Flyway;
 public class TenantDatabaseUpgradeService {
 
     private final TenantDetailsService tenantDetailsService;
+    private final TenantAwareTaskExecutor tenantAwareTaskExecutor;
 
     @Autowired
-    public TenantDatabaseUpgradeService(final TenantDetailsService detailsService) {
+    public TenantDatabaseUpgradeService(final TenantDetailsService detailsService, final TenantAwareTaskExecutor tenantAwareTaskExecutor) {
         this.tenantDetailsService = detailsService;
+        this.tenantAwareTaskExecutor = tenantAwareTaskExecutor;
     }
 
     @PostConstruct
     public void upgradeAllTenants() {
-        final List<MifosPlatformTenant> tenants = this.tenantDetailsService.findAllTenants();
-        for (final MifosPlatformTenant tenant : tenants) {
+        final List<MifosPlatformTenant> tenants = new ArrayList<>();
+        for (final MifosPlatformTenant tenant : this.tenantDetailsService.findAllTenants()) {
             if (tenant.isAutoUpdateEnabled()) {
+                tenants.add(tenant);
+            }
+        }
+        this.tenantAwareTaskExecutor.executeForEachTenant(tenants, new Runnable() {
+
+            @Override
+            public void run() {
+                final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
                 final Flyway flyway = new Flyway();
                 flyway.setDataSource(tenant.databaseURL(), tenant.getSchemaUsername(), tenant.getSchemaPassword());
                 flyway.setLocations("sql");
                 flyway.setOutOfOrder(true);
                 flyway.migrate();
             }
-        }
+        });
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import java.util.Map;
 
 import javax.sql.DataSource;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.tomcat.jdbc.pool.PoolConfiguration;
 import org.apache.tomcat.jdbc.pool.PoolProperties;
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
@@ -72,6 +73,9 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
         poolConfiguration.setUrl(jdbcUrl);
         poolConfiguration.setUsername(tenant.getSchemaUsername());
         poolConfiguration.setPassword(tenant.getSchemaPassword());
+        // lets the driver send JDBC batches as multi-row statements
+        poolConfiguration.setConnectionProperties(withConnectionProperty(poolConfiguration.getConnectionProperties(),
+                "rewriteBatchedStatements", "true"));
 
         poolConfiguration.setInitialSize(tenant.getInitialSize());
 
@@ -101,4 +105,17 @@ public class TomcatJdbcDataSourcePerTenantService implements RoutingDataSourceSe
 
         return new org.apache.tomcat.jdbc.pool.DataSource(poolConfiguration);
     }
+
+    /**
+     * Appends the property to the semicolon separated connection properties
+     * unless they set it already.
+     */
+    private static String withConnectionProperty(final String connectionProperties, final String name, final String value) {
+        if (StringUtils.isBlank(connectionProperties)) { return name + "=" + value; }
+        for (final String property : connectionProperties.split(";")) {
+            if (property.trim().startsWith(name + "=")) { return connectionProperties; }
+        }
+        final String separator = connectionProperties.trim().endsWith(";") ? "" : ";";
+        return connectionProperties + separator + name + "=" + value;
+    }
 }
\ No newline at end of file
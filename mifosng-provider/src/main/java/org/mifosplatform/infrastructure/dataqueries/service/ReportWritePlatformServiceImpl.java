@@ -27,6 +27,7 @@ import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext
 import org.mifosplatform.useradministration.domain.Permission;
 import org.mifosplatform.useradministration.domain.PermissionRepository;
 import org.mifosplatform.useradministration.exception.PermissionNotFoundException;
+import org.mifosplatform.useradministration.service.PermissionIndexInvalidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,18 +49,20 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
     private final ReportParameterUsageRepository reportParameterUsageRepository;
     private final ReportParameterRepository reportParameterRepository;
     private final PermissionRepository permissionRepository;
+    private final PermissionIndexInvalidator permissionIndexInvalidator;
 
     @Autowired
     public ReportWritePlatformServiceImpl(final PlatformSecurityContext context,
             final ReportCommandFromApiJsonDeserializer fromApiJsonDeserializer, final ReportRepository reportRepository,
             final ReportParameterRepository reportParameterRepository, final ReportParameterUsageRepository reportParameterUsageRepository,
-            final PermissionRepository permissionRepository) {
+            final PermissionRepository permissionRepository, final PermissionIndexInvalidator permissionIndexInvalidator) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.reportRepository = reportRepository;
         this.reportParameterRepository = reportParameterRepository;
         this.reportParameterUsageRepository = reportParameterUsageRepository;
         this.permissionRepository = permissionRepository;
+        this.permissionIndexInvalidator = permissionIndexInvalidator;
     }
 
     @Transactional
@@ -144,6 +147,7 @@ public class ReportWritePlatformServiceImpl implements ReportWritePlatformServic
 
         this.reportRepository.delete(report);
         this.permissionRepository.delete(permission);
+        this.permissionIndexInvalidator.invalidateAll();
 
         return new CommandProcessingResultBuilder() //
                 .withEntityId(reportId) //
@@ -26,6 +26,15 @@ public class SchedulerJobApiConstants {
     public static final String jobRunErrorLogParamName = "jobRunErrorLog";
     public static final String cronExpressionParamName = "cronExpression";
     public static final String schedulerStatusParamName = "active";
+    public static final String elapsedMillisParamName = "elapsedMillis";
+    public static final String cpuTimeMillisParamName = "cpuTimeMillis";
+    public static final String dbTimeMillisParamName = "dbTimeMillis";
+    public static final String rowsReadParamName = "rowsRead";
+    public static final String rowsWrittenParamName = "rowsWritten";
+    public static final String rowsPerSecondParamName = "rowsPerSecond";
+    public static final String chunkCountParamName = "chunkCount";
+    public static final String maxChunkLatencyMillisParamName = "maxChunkLatencyMillis";
+    public static final String chunkLatencyHistogramParamName = "chunkLatencyHistogram";
 
     public static final Set<String> JOB_DETAIL_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList(jobIdentifierParamName,
             displayNameParamName, nextRunTimeParamName, initializingErrorParamName, cronExpressionParamName, jobActiveStatusParamName,
@@ -35,6 +44,10 @@ public class SchedulerJobApiConstants {
             jobRunStartTimeParamName, jobRunEndTimeParamName, statusParamName, jobRunErrorMessageParamName, triggerTypeParamName,
             jobRunErrorLogParamName));
 
+    public static final Set<String> JOB_RUN_METRICS_RESPONSE_DATA_PARAMETERS = new HashSet<>(Arrays.asList(versionParamName,
+            elapsedMillisParamName, cpuTimeMillisParamName, dbTimeMillisParamName, rowsReadParamName, rowsWrittenParamName,
+            rowsPerSecondParamName, chunkCountParamName, maxChunkLatencyMillisParamName, chunkLatencyHistogramParamName));
+
     public static final Set<String> JOB_UPDATE_REQUEST_DATA_PARAMETERS = new HashSet<>(Arrays.asList(displayNameParamName,
             jobActiveStatusParamName, cronExpressionParamName));
 
@@ -46,5 +59,7 @@ public class SchedulerJobApiConstants {
     public static final String COMMAND = "command";
     public static final String JOB_ID = "jobId";
     public static final String JOB_RUN_HISTORY = "runhistory";
+    public static final String JOB_RUN_VERSION = "runVersion";
+    public static final String JOB_RUN_METRICS = "metrics";
     public static final String SCHEDULER_STATUS_PATH = "scheduler";
 }
@@ -27,6 +27,7 @@ import org.mifosplatform.infrastructure.core.serialization.ToApiJsonSerializer;
 import org.mifosplatform.infrastructure.core.service.Page;
 import org.mifosplatform.infrastructure.jobs.data.JobDetailData;
 import org.mifosplatform.infrastructure.jobs.data.JobDetailHistoryData;
+import org.mifosplatform.infrastructure.jobs.data.JobRunMetricsData;
 import org.mifosplatform.infrastructure.jobs.service.JobRegisterService;
 import org.mifosplatform.infrastructure.jobs.service.SchedulerJobRunnerReadService;
 import org.mifosplatform.infrastructure.security.exception.NoAuthorizationException;
@@ -48,6 +49,7 @@ public class SchedulerJobApiResource {
     private final ToApiJsonSerializer<JobDetailHistoryData> jobHistoryToApiJsonSerializer;
     private final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService;
     private final PlatformSecurityContext context;
+    private final ToApiJsonSerializer<JobRunMetricsData> jobRunMetricsToApiJsonSerializer;
 
     @Autowired
     public SchedulerJobApiResource(final SchedulerJobRunnerReadService schedulerJobRunnerReadService,
@@ -55,7 +57,7 @@ public class SchedulerJobApiResource {
             final ApiRequestParameterHelper apiRequestParameterHelper,
             final ToApiJsonSerializer<JobDetailHistoryData> jobHistoryToApiJsonSerializer,
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
-            final PlatformSecurityContext context) {
+            final PlatformSecurityContext context, final ToApiJsonSerializer<JobRunMetricsData> jobRunMetricsToApiJsonSerializer) {
         this.schedulerJobRunnerReadService = schedulerJobRunnerReadService;
         this.jobRegisterService = jobRegisterService;
         this.toApiJsonSerializer = toApiJsonSerializer;
@@ -63,6 +65,7 @@ public class SchedulerJobApiResource {
         this.apiRequestParameterHelper = apiRequestParameterHelper;
         this.commandsSourceWritePlatformService = commandsSourceWritePlatformService;
         this.context = context;
+        this.jobRunMetricsToApiJsonSerializer = jobRunMetricsToApiJsonSerializer;
     }
 
     @GET
@@ -96,6 +99,18 @@ public class SchedulerJobApiResource {
                 SchedulerJobApiConstants.JOB_HISTORY_RESPONSE_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("{" + SchedulerJobApiConstants.JOB_ID + "}/" + SchedulerJobApiConstants.JOB_RUN_HISTORY + "/{"
+            + SchedulerJobApiConstants.JOB_RUN_VERSION + "}/" + SchedulerJobApiConstants.JOB_RUN_METRICS)
+    public String retrieveRunMetrics(@Context final UriInfo uriInfo, @PathParam(SchedulerJobApiConstants.JOB_ID) final Long jobId,
+            @PathParam(SchedulerJobApiConstants.JOB_RUN_VERSION) final Long version) {
+        this.context.authenticatedUser().validateHasReadPermission(SchedulerJobApiConstants.SCHEDULER_RESOURCE_NAME);
+        final JobRunMetricsData jobRunMetricsData = this.schedulerJobRunnerReadService.retrieveJobRunMetrics(jobId, version);
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.jobRunMetricsToApiJsonSerializer.serialize(settings, jobRunMetricsData,
+                SchedulerJobApiConstants.JOB_RUN_METRICS_RESPONSE_DATA_PARAMETERS);
+    }
+
     @POST
     @Path("{" + SchedulerJobApiConstants.JOB_ID + "}")
     public Response executeJob(@PathParam(SchedulerJobApiConstants.JOB_ID) final Long jobId,
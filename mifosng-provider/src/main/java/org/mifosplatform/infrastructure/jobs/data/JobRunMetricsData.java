@@ -0,0 +1,59 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.data;
+
+import java.util.Map;
+
+/**
+ * Immutable data object representing the metrics of one run of a job.
+ */
+public class JobRunMetricsData {
+
+    @SuppressWarnings("unused")
+    private final Long version;
+
+    @SuppressWarnings("unused")
+    private final Long elapsedMillis;
+
+    @SuppressWarnings("unused")
+    private final Long cpuTimeMillis;
+
+    @SuppressWarnings("unused")
+    private final Long dbTimeMillis;
+
+    @SuppressWarnings("unused")
+    private final Long rowsRead;
+
+    @SuppressWarnings("unused")
+    private final Long rowsWritten;
+
+    @SuppressWarnings("unused")
+    private final Double rowsPerSecond;
+
+    @SuppressWarnings("unused")
+    private final Long chunkCount;
+
+    @SuppressWarnings("unused")
+    private final Long maxChunkLatencyMillis;
+
+    @SuppressWarnings("unused")
+    private final Map<String, Long> chunkLatencyHistogram;
+
+    public JobRunMetricsData(final Long version, final Long elapsedMillis, final Long cpuTimeMillis, final Long dbTimeMillis,
+            final Long rowsRead, final Long rowsWritten, final Long chunkCount, final Long maxChunkLatencyMillis,
+            final Map<String, Long> chunkLatencyHistogram) {
+        this.version = version;
+        this.elapsedMillis = elapsedMillis;
+        this.cpuTimeMillis = cpuTimeMillis;
+        this.dbTimeMillis = dbTimeMillis;
+        this.rowsRead = rowsRead;
+        this.rowsWritten = rowsWritten;
+        this.rowsPerSecond = elapsedMillis > 0 ? (rowsRead * 1000.0) / elapsedMillis : null;
+        this.chunkCount = chunkCount;
+        this.maxChunkLatencyMillis = maxChunkLatencyMillis;
+        this.chunkLatencyHistogram = chunkLatencyHistogram;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+
+import org.joda.time.LocalDate;
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+/**
+ * Progress of the latest run of a batch job: the key of the last entity it
+ * finished and how many entities it processed, so that a run that dies
+ * halfway can be resumed on the same business date.
+ */
+@Entity
+@Table(name = "job_checkpoint", uniqueConstraints = { @UniqueConstraint(columnNames = { "job_name" }, name = "uk_job_checkpoint_job_name") })
+public class ScheduledJobCheckpoint extends AbstractPersistable<Long> {
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "run_date", nullable = false)
+    @Temporal(TemporalType.DATE)
+    private Date runDate;
+
+    @Column(name = "last_processed_key")
+    private Long lastProcessedKey;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private Long failedCount;
+
+    @Column(name = "is_completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "lastmodified_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastModifiedDate;
+
+    protected ScheduledJobCheckpoint() {
+        //
+    }
+
+    public ScheduledJobCheckpoint(final String jobName, final LocalDate runDate) {
+        this.jobName = jobName;
+        restartOn(runDate);
+    }
+
+    public boolean isResumableOn(final LocalDate runDate) {
+        return !this.completed && runDate.equals(new LocalDate(this.runDate));
+    }
+
+    public void restartOn(final LocalDate runDate) {
+        this.runDate = runDate.toDate();
+        this.lastProcessedKey = null;
+        this.processedCount = Long.valueOf(0);
+        this.failedCount = Long.valueOf(0);
+        this.completed = false;
+        this.lastModifiedDate = new Date();
+    }
+
+    public void updateProgress(final Long lastProcessedKey, final int processed, final int failed) {
+        if (lastProcessedKey != null) {
+            this.lastProcessedKey = lastProcessedKey;
+        }
+        this.processedCount = this.processedCount + processed;
+        this.failedCount = this.failedCount + failed;
+        this.lastModifiedDate = new Date();
+    }
+
+    public void complete() {
+        this.completed = true;
+        this.lastModifiedDate = new Date();
+    }
+
+    public Long lastProcessedKey() {
+        return this.lastProcessedKey;
+    }
+
+    public Long lastProcessedKeyOrDefault(final Long defaultKey) {
+        return this.lastProcessedKey == null ? defaultKey : this.lastProcessedKey;
+    }
+
+    public Long processedCount() {
+        return this.processedCount;
+    }
+
+    public Long failedCount() {
+        return this.failedCount;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.JoinColumn;
+import javax.persistence.OneToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.mifosplatform.infrastructure.jobs.service.JobExecutionMetrics;
+import org.springframework.data.jpa.domain.AbstractPersistable;
+
+@Entity
+@Table(name = "job_run_metrics", uniqueConstraints = { @UniqueConstraint(columnNames = { "job_run_history_id" }, name = "uk_job_run_metrics_run_history") })
+public class ScheduledJobRunMetrics extends AbstractPersistable<Long> {
+
+    @OneToOne
+    @JoinColumn(name = "job_run_history_id", nullable = false)
+    private ScheduledJobRunHistory runHistory;
+
+    @Column(name = "elapsed_millis", nullable = false)
+    private Long elapsedMillis;
+
+    @Column(name = "cpu_time_millis", nullable = false)
+    private Long cpuTimeMillis;
+
+    @Column(name = "db_time_millis", nullable = false)
+    private Long dbTimeMillis;
+
+    @Column(name = "rows_read", nullable = false)
+    private Long rowsRead;
+
+    @Column(name = "rows_written", nullable = false)
+    private Long rowsWritten;
+
+    @Column(name = "chunk_count", nullable = false)
+    private Long chunkCount;
+
+    @Column(name = "max_chunk_latency_millis", nullable = false)
+    private Long maxChunkLatencyMillis;
+
+    @Column(name = "chunk_latency_histogram", length = 200)
+    private String chunkLatencyHistogram;
+
+    protected ScheduledJobRunMetrics() {
+        //
+    }
+
+    public ScheduledJobRunMetrics(final ScheduledJobRunHistory runHistory, final JobExecutionMetrics metrics) {
+        this.runHistory = runHistory;
+        this.elapsedMillis = metrics.elapsedMillis();
+        this.cpuTimeMillis = metrics.cpuTimeMillis();
+        this.dbTimeMillis = metrics.dbTimeMillis();
+        this.rowsRead = metrics.rowsRead();
+        this.rowsWritten = metrics.rowsWritten();
+        this.chunkCount = metrics.chunkCount();
+        this.maxChunkLatencyMillis = metrics.maxChunkLatencyMillis();
+        this.chunkLatencyHistogram = metrics.chunkLatencyHistogram();
+    }
+}
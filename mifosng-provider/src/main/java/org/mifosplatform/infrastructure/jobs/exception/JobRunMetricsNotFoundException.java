@@ -0,0 +1,20 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.exception;
+
+import org.mifosplatform.infrastructure.core.exception.AbstractPlatformResourceNotFoundException;
+
+/**
+ * A {@link RuntimeException} thrown when no metrics were recorded for a run of
+ * a job.
+ */
+public class JobRunMetricsNotFoundException extends AbstractPlatformResourceNotFoundException {
+
+    public JobRunMetricsNotFoundException(final Long jobId, final Long version) {
+        super("error.msg.sheduler.job.run.metrics.not.found", "No metrics recorded for run " + version + " of job with identifier "
+                + jobId, jobId, version);
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobCheckpoint;
+
+/**
+ * Lets a {@link org.mifosplatform.infrastructure.jobs.annotation.CronTarget}
+ * job record how far it got so that a run which dies halfway is resumed,
+ * rather than restarted, by the next trigger on the same business date.
+ *
+ * A job calls {@link #startOrResume(JobName)} when it starts, skips
+ * everything up to {@link ScheduledJobCheckpoint#lastProcessedKey()},
+ * periodically calls {@link #recordProgress} with the key of the last entity
+ * it finished (keys must be processed in ascending order) and calls
+ * {@link #complete} at the end. Progress is committed in its own transaction.
+ */
+public interface JobCheckpointService {
+
+    ScheduledJobCheckpoint startOrResume(JobName jobName);
+
+    ScheduledJobCheckpoint recordProgress(ScheduledJobCheckpoint checkpoint, Long lastProcessedKey, int processed, int failed);
+
+    void complete(ScheduledJobCheckpoint checkpoint);
+}
@@ -0,0 +1,61 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.core.service.DateUtils;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobCheckpoint;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class JobCheckpointServiceImpl implements JobCheckpointService {
+
+    private final static Logger logger = LoggerFactory.getLogger(JobCheckpointServiceImpl.class);
+
+    private final ScheduledJobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    public JobCheckpointServiceImpl(final ScheduledJobCheckpointRepository checkpointRepository) {
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public ScheduledJobCheckpoint startOrResume(final JobName jobName) {
+        final LocalDate today = DateUtils.getLocalDateOfTenant();
+        ScheduledJobCheckpoint checkpoint = this.checkpointRepository.findByJobName(jobName.name());
+        if (checkpoint == null) {
+            checkpoint = new ScheduledJobCheckpoint(jobName.name(), today);
+        } else if (checkpoint.isResumableOn(today)) {
+            logger.info(jobName + ": Resuming after key " + checkpoint.lastProcessedKey() + " with " + checkpoint.processedCount()
+                    + " already processed.");
+        } else {
+            checkpoint.restartOn(today);
+        }
+        return this.checkpointRepository.save(checkpoint);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public ScheduledJobCheckpoint recordProgress(final ScheduledJobCheckpoint checkpoint, final Long lastProcessedKey, final int processed,
+            final int failed) {
+        checkpoint.updateProgress(lastProcessedKey, processed, failed);
+        return this.checkpointRepository.save(checkpoint);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void complete(final ScheduledJobCheckpoint checkpoint) {
+        checkpoint.complete();
+        this.checkpointRepository.save(checkpoint);
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.jobs.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects the metrics of one run of a scheduled job: rows read and written,
+ * chunk count and latencies, and time spent in the database and on the CPU.
+ *
+ * {@link SchedulerJobListener} binds a new instance to the thread running
+ * the job and stores it along with the run history once the job is done.
+ * Jobs look it up with {@link #current()} and report on it as they process
+ * their chunks; recording is thread safe so that it can be handed to worker
+ * threads processing partitions of the job. Tasks the job hands to the
+ * {@link org.mifosplatform.infrastructure.core.service.TenantAwareTaskExecutor}
+ * find it bound to their worker thread, which charges it with their CPU time.
+ */
+public class JobExecutionMetrics {
+
+    /**
+     * Upper bounds in milliseconds of the chunk latency histogram buckets, a
+     * last bucket holds the chunks slower than the last bound.
+     */
+    public static final long[] CHUNK_LATENCY_BUCKET_BOUNDS = { 10, 50, 100, 500, 1000, 5000, 30000 };
+
+    private static final ThreadLocal<JobExecutionMetrics> metricsContext = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private volatile long elapsedNanos = -1;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong chunkCount = new AtomicLong();
+    private final AtomicLong maxChunkLatencyNanos = new AtomicLong();
+    private final AtomicLong dbTimeNanos = new AtomicLong();
+    private final AtomicLong cpuTimeNanos = new AtomicLong();
+    private final AtomicLongArray chunkLatencyHistogram = new AtomicLongArray(CHUNK_LATENCY_BUCKET_BOUNDS.length + 1);
+
+    public static void bind(final JobExecutionMetrics metrics) {
+        metricsContext.set(metrics);
+    }
+
+    public static JobExecutionMetrics bound() {
+        return metricsContext.get();
+    }
+
+    public static void unbind() {
+        metricsContext.remove();
+    }
+
+    /**
+     * The metrics of the job run by the calling thread, or a detached instance
+     * that nothing reads when the thread is not running a scheduled job, so
+     * that callers never have to check.
+     */
+    public static JobExecutionMetrics current() {
+        final JobExecutionMetrics metrics = metricsContext.get();
+        return metrics == null ? new JobExecutionMetrics() : metrics;
+    }
+
+    /**
+     * Records a processed chunk of <code>chunkRowsRead</code> input rows
+     * started at <code>chunkStartNanos</code>, as returned by
+     * {@link System#nanoTime()}.
+     */
+    public void recordChunk(final long chunkRowsRead, final long chunkStartNanos) {
+        final long latencyNanos = System.nanoTime() - chunkStartNanos;
+        this.rowsRead.addAndGet(chunkRowsRead);
+        this.chunkCount.incrementAndGet();
+        this.chunkLatencyHistogram.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMillis(latencyNanos)));
+
+        long max = this.maxChunkLatencyNanos.get();
+        while (latencyNanos > max && !this.maxChunkLatencyNanos.compareAndSet(max, latencyNanos)) {
+            max = this.maxChunkLatencyNanos.get();
+        }
+    }
+
+    public void recordRowsWritten(final long rows) {
+        this.rowsWritten.addAndGet(rows);
+    }
+
+    /**
+     * Adds the time elapsed since <code>startNanos</code>, as returned by
+     * {@link System#nanoTime()}, to the time spent in the database.
+     */
+    public void recordDbTime(final long startNanos) {
+        this.dbTimeNanos.addAndGet(System.nanoTime() - startNanos);
+    }
+
+    public void recordCpuTime(final long nanos) {
+        this.cpuTimeNanos.addAndGet(nanos);
+    }
+
+    public void finish() {
+        this.elapsedNanos = System.nanoTime() - this.startNanos;
+    }
+
+    private static int bucketOf(final long latencyMillis) {
+        int bucket = 0;
+        while (bucket < CHUNK_LATENCY_BUCKET_BOUNDS.length && latencyMillis > CHUNK_LATENCY_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    public long elapsedMillis() {
+        final long elapsed = this.elapsedNanos < 0 ? System.nanoTime() - this.startNanos : this.elapsedNanos;
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
+    }
+
+    public long rowsRead() {
+        return this.rowsRead.get();
+    }
+
+    public long rowsWritten() {
+        return this.rowsWritten.get();
+    }
+
+    public long chunkCount() {
+        return this.chunkCount.get();
+    }
+
+    public long maxChunkLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.maxChunkLatencyNanos.get());
+    }
+
+    public long dbTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.dbTimeNanos.get());
+    }
+
+    public long cpuTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.cpuTimeNanos.get());
+    }
+
+    /**
+     * The chunk counts of the latency histogram buckets, comma separated.
+     */
+    public String chunkLatencyHistogram() {
+        final StringBuilder histogram = new StringBuilder();
+        for (int i = 0; i < this.chunkLatencyHistogram.length(); i++) {
+            if (i > 0) {
+                histogram.append(',');
+            }
+            histogram.append(this.chunkLatencyHistogram.get(i));
+        }
+        return histogram.toString();
+    }
+}
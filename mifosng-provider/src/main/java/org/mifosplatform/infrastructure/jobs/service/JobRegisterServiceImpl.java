@@ -2,15 +2,16 @@ package org.mifosplatform.infrastructure.jobs.service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
 
 import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.exception.PlatformInternalServerException;
+import org.mifosplatform.infrastructure.core.service.TenantAwareTaskExecutor;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronMethodParser;
 import org.mifosplatform.infrastructure.jobs.annotation.CronMethodParser.ClassMethodNamesPair;
@@ -57,8 +58,9 @@ public class JobRegisterServiceImpl implements JobRegisterService {
     private SchedulerJobListener schedulerJobListener;
     private SchedulerStopListener schedulerStopListener;
     private SchedulerTriggerListener globalSchedulerTriggerListener;
+    private TenantAwareTaskExecutor tenantAwareTaskExecutor;
 
-    private final HashMap<String, Scheduler> schedulers = new HashMap<>(4);
+    private final ConcurrentHashMap<String, Scheduler> schedulers = new ConcurrentHashMap<>(4);
 
     @Autowired
     public void setApplicationContext(ApplicationContext applicationContext) {
@@ -90,22 +92,34 @@ public class JobRegisterServiceImpl implements JobRegisterService {
         this.globalSchedulerTriggerListener = globalTriggerListener;
     }
 
+    @Autowired
+    public void setTenantAwareTaskExecutor(TenantAwareTaskExecutor tenantAwareTaskExecutor) {
+        this.tenantAwareTaskExecutor = tenantAwareTaskExecutor;
+    }
+
     @PostConstruct
     public void loadAllJobs() {
         final List<MifosPlatformTenant> allTenants = this.tenantDetailsService.findAllTenants();
-        for (final MifosPlatformTenant tenant : allTenants) {
-            ThreadLocalContextUtil.setTenant(tenant);
-            final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService.retrieveAllJobs();
-            for (final ScheduledJobDetail jobDetails : scheduledJobDetails) {
-                scheduleJob(jobDetails);
-                jobDetails.updateTriggerMisfired(false);
-                this.schedularWritePlatformService.saveOrUpdate(jobDetails);
-            }
-            final SchedulerDetail schedulerDetail = this.schedularWritePlatformService.retriveSchedulerDetail();
-            if (schedulerDetail.isResetSchedulerOnBootup()) {
-                schedulerDetail.updateSuspendedState(false);
-                this.schedularWritePlatformService.updateSchedulerDetail(schedulerDetail);
+        this.tenantAwareTaskExecutor.executeForEachTenant(allTenants, new Runnable() {
+
+            @Override
+            public void run() {
+                loadAllJobsOfCurrentTenant();
             }
+        });
+    }
+
+    private void loadAllJobsOfCurrentTenant() {
+        final List<ScheduledJobDetail> scheduledJobDetails = this.schedularWritePlatformService.retrieveAllJobs();
+        for (final ScheduledJobDetail jobDetails : scheduledJobDetails) {
+            scheduleJob(jobDetails);
+            jobDetails.updateTriggerMisfired(false);
+            this.schedularWritePlatformService.saveOrUpdate(jobDetails);
+        }
+        final SchedulerDetail schedulerDetail = this.schedularWritePlatformService.retriveSchedulerDetail();
+        if (schedulerDetail.isResetSchedulerOnBootup()) {
+            schedulerDetail.updateSuspendedState(false);
+            this.schedularWritePlatformService.updateSchedulerDetail(schedulerDetail);
         }
     }
 
@@ -300,8 +314,11 @@ public class JobRegisterServiceImpl implements JobRegisterService {
         final Object targetObject = getBeanObject(Class.forName(jobDetails.className));
         final MethodInvokingJobDetailFactoryBean jobDetailFactoryBean = new MethodInvokingJobDetailFactoryBean();
         jobDetailFactoryBean.setName(scheduledJobDetail.getJobName() + "JobDetail" + tenant.getId());
-        jobDetailFactoryBean.setTargetObject(targetObject);
-        jobDetailFactoryBean.setTargetMethod(jobDetails.methodName);
+        // the job itself runs on the shared tenant aware pool, the quartz
+        // thread only waits for it to complete
+        jobDetailFactoryBean.setTargetObject(this.tenantAwareTaskExecutor);
+        jobDetailFactoryBean.setTargetMethod("invokeForCurrentTenant");
+        jobDetailFactoryBean.setArguments(new Object[] { targetObject, jobDetails.methodName });
         jobDetailFactoryBean.setGroup(scheduledJobDetail.getGroupName());
         jobDetailFactoryBean.setConcurrent(false);
         jobDetailFactoryBean.afterPropertiesSet();
@@ -8,6 +8,7 @@ import org.mifosplatform.infrastructure.core.data.GlobalEntityType;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobDetail;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunHistory;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunMetrics;
 import org.mifosplatform.infrastructure.jobs.domain.SchedulerDetail;
 
 public interface SchedularWritePlatformService {
@@ -18,7 +19,8 @@ public interface SchedularWritePlatformService {
 
     public void saveOrUpdate(ScheduledJobDetail scheduledJobDetails);
 
-    public void saveOrUpdate(ScheduledJobDetail scheduledJobDetails, ScheduledJobRunHistory scheduledJobRunHistory);
+    public void saveOrUpdate(ScheduledJobDetail scheduledJobDetails, ScheduledJobRunHistory scheduledJobRunHistory,
+            ScheduledJobRunMetrics scheduledJobRunMetrics);
 
     public Long fetchMaxVersionBy(String triggerKey);
 
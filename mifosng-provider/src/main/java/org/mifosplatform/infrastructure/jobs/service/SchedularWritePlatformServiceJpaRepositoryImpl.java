@@ -16,6 +16,8 @@ import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobDetail;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobDetailRepository;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunHistory;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunHistoryRepository;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunMetrics;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunMetricsRepository;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobStepException;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobStepExceptionRepository;
 import org.mifosplatform.infrastructure.jobs.domain.SchedulerDetail;
@@ -38,16 +40,20 @@ public class SchedularWritePlatformServiceJpaRepositoryImpl implements Schedular
 
     private final JobDetailDataValidator dataValidator;
 
+    private final ScheduledJobRunMetricsRepository scheduledJobRunMetricsRepository;
+
     @Autowired
     public SchedularWritePlatformServiceJpaRepositoryImpl(final ScheduledJobDetailRepository scheduledJobDetailsRepository,
             final ScheduledJobRunHistoryRepository scheduledJobRunHistoryRepository, final JobDetailDataValidator dataValidator,
             final SchedulerDetailRepository schedulerDetailRepository,
-            final ScheduledJobStepExceptionRepository scheduledJobStepExceptionRepository) {
+            final ScheduledJobStepExceptionRepository scheduledJobStepExceptionRepository,
+            final ScheduledJobRunMetricsRepository scheduledJobRunMetricsRepository) {
         this.scheduledJobDetailsRepository = scheduledJobDetailsRepository;
         this.scheduledJobRunHistoryRepository = scheduledJobRunHistoryRepository;
         this.schedulerDetailRepository = schedulerDetailRepository;
         this.scheduledJobStepExceptionRepository = scheduledJobStepExceptionRepository;
         this.dataValidator = dataValidator;
+        this.scheduledJobRunMetricsRepository = scheduledJobRunMetricsRepository;
     }
 
     @Override
@@ -68,9 +74,13 @@ public class SchedularWritePlatformServiceJpaRepositoryImpl implements Schedular
 
     @Transactional
     @Override
-    public void saveOrUpdate(final ScheduledJobDetail scheduledJobDetails, final ScheduledJobRunHistory scheduledJobRunHistory) {
+    public void saveOrUpdate(final ScheduledJobDetail scheduledJobDetails, final ScheduledJobRunHistory scheduledJobRunHistory,
+            final ScheduledJobRunMetrics scheduledJobRunMetrics) {
         this.scheduledJobDetailsRepository.save(scheduledJobDetails);
         this.scheduledJobRunHistoryRepository.save(scheduledJobRunHistory);
+        if (scheduledJobRunMetrics != null) {
+            this.scheduledJobRunMetricsRepository.save(scheduledJobRunMetrics);
+        }
     }
 
     @Override
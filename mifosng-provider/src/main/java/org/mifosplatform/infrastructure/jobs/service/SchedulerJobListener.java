@@ -5,6 +5,7 @@ import java.util.Date;
 import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobDetail;
 import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunHistory;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobRunMetrics;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
@@ -40,12 +41,12 @@ public class SchedulerJobListener implements JobListener {
 
     @Override
     public void jobToBeExecuted(@SuppressWarnings("unused") final JobExecutionContext context) {
-
+        JobExecutionMetrics.bind(new JobExecutionMetrics());
     }
 
     @Override
     public void jobExecutionVetoed(@SuppressWarnings("unused") final JobExecutionContext context) {
-
+        JobExecutionMetrics.unbind();
     }
 
     @Override
@@ -90,7 +91,15 @@ public class SchedulerJobListener implements JobListener {
                 new Date(), status, errorMessage, triggerType, errorLog);
         // scheduledJobDetails.addRunHistory(runHistory);
 
-        this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory);
+        final JobExecutionMetrics metrics = JobExecutionMetrics.bound();
+        JobExecutionMetrics.unbind();
+        ScheduledJobRunMetrics runMetrics = null;
+        if (metrics != null) {
+            metrics.finish();
+            runMetrics = new ScheduledJobRunMetrics(runHistory, metrics);
+        }
+
+        this.schedularService.saveOrUpdate(scheduledJobDetails, runHistory, runMetrics);
 
     }
 
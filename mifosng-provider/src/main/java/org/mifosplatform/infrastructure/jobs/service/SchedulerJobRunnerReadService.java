@@ -5,6 +5,7 @@ import java.util.List;
 import org.mifosplatform.infrastructure.core.service.Page;
 import org.mifosplatform.infrastructure.jobs.data.JobDetailData;
 import org.mifosplatform.infrastructure.jobs.data.JobDetailHistoryData;
+import org.mifosplatform.infrastructure.jobs.data.JobRunMetricsData;
 import org.mifosplatform.portfolio.group.service.SearchParameters;
 
 public interface SchedulerJobRunnerReadService {
@@ -15,6 +16,8 @@ public interface SchedulerJobRunnerReadService {
 
     public Page<JobDetailHistoryData> retrieveJobHistory(Long jobId, SearchParameters searchParameters);
 
+    public JobRunMetricsData retrieveJobRunMetrics(Long jobId, Long version);
+
     public boolean isUpdatesAllowed();
 
 }
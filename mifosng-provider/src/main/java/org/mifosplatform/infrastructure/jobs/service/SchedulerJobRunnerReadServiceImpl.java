@@ -3,14 +3,18 @@ package org.mifosplatform.infrastructure.jobs.service;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.mifosplatform.infrastructure.core.service.Page;
 import org.mifosplatform.infrastructure.core.service.PaginationHelper;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.jobs.data.JobDetailData;
 import org.mifosplatform.infrastructure.jobs.data.JobDetailHistoryData;
+import org.mifosplatform.infrastructure.jobs.data.JobRunMetricsData;
 import org.mifosplatform.infrastructure.jobs.exception.JobNotFoundException;
+import org.mifosplatform.infrastructure.jobs.exception.JobRunMetricsNotFoundException;
 import org.mifosplatform.infrastructure.jobs.exception.OperationNotAllowedException;
 import org.mifosplatform.portfolio.group.service.SearchParameters;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -79,6 +83,18 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
                 jobHistoryMapper);
     }
 
+    @Override
+    public JobRunMetricsData retrieveJobRunMetrics(final Long jobId, final Long version) {
+        if (!isJobExist(jobId)) { throw new JobNotFoundException(String.valueOf(jobId)); }
+        try {
+            final JobRunMetricsMapper jobRunMetricsMapper = new JobRunMetricsMapper();
+            final String sql = "select " + jobRunMetricsMapper.schema() + " where runHistory.job_id=? and runHistory.version=?";
+            return this.jdbcTemplate.queryForObject(sql, jobRunMetricsMapper, new Object[] { jobId, version });
+        } catch (final EmptyResultDataAccessException e) {
+            throw new JobRunMetricsNotFoundException(jobId, version);
+        }
+    }
+
     @Override
     public boolean isUpdatesAllowed() {
         final String sql = "select job.display_name from job job where job.currently_running=true and job.updates_allowed=false";
@@ -168,4 +184,46 @@ public class SchedulerJobRunnerReadServiceImpl implements SchedulerJobRunnerRead
 
     }
 
+    private static final class JobRunMetricsMapper implements RowMapper<JobRunMetricsData> {
+
+        public String schema() {
+            return " runHistory.version, metrics.elapsed_millis as elapsedMillis, metrics.cpu_time_millis as cpuTimeMillis, "
+                    + "metrics.db_time_millis as dbTimeMillis, metrics.rows_read as rowsRead, metrics.rows_written as rowsWritten, "
+                    + "metrics.chunk_count as chunkCount, metrics.max_chunk_latency_millis as maxChunkLatencyMillis, "
+                    + "metrics.chunk_latency_histogram as chunkLatencyHistogram "
+                    + " from job_run_history runHistory join job_run_metrics metrics on metrics.job_run_history_id = runHistory.id";
+        }
+
+        @Override
+        public JobRunMetricsData mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long version = rs.getLong("version");
+            final Long elapsedMillis = rs.getLong("elapsedMillis");
+            final Long cpuTimeMillis = rs.getLong("cpuTimeMillis");
+            final Long dbTimeMillis = rs.getLong("dbTimeMillis");
+            final Long rowsRead = rs.getLong("rowsRead");
+            final Long rowsWritten = rs.getLong("rowsWritten");
+            final Long chunkCount = rs.getLong("chunkCount");
+            final Long maxChunkLatencyMillis = rs.getLong("maxChunkLatencyMillis");
+            final Map<String, Long> chunkLatencyHistogram = chunkLatencyHistogram(rs.getString("chunkLatencyHistogram"));
+            return new JobRunMetricsData(version, elapsedMillis, cpuTimeMillis, dbTimeMillis, rowsRead, rowsWritten, chunkCount,
+                    maxChunkLatencyMillis, chunkLatencyHistogram);
+        }
+
+        /**
+         * Labels the bucket counts stored by
+         * {@link JobExecutionMetrics#chunkLatencyHistogram()} with their upper
+         * bounds.
+         */
+        private Map<String, Long> chunkLatencyHistogram(final String histogram) {
+            final Map<String, Long> chunkLatencyHistogram = new LinkedHashMap<>();
+            if (histogram == null || histogram.isEmpty()) { return chunkLatencyHistogram; }
+            final String[] counts = histogram.split(",");
+            final long[] bounds = JobExecutionMetrics.CHUNK_LATENCY_BUCKET_BOUNDS;
+            for (int i = 0; i < counts.length; i++) {
+                final String label = i < bounds.length ? "<=" + bounds[i] + "ms" : ">" + bounds[bounds.length - 1] + "ms";
+                chunkLatencyHistogram.put(label, Long.valueOf(counts[i]));
+            }
+            return chunkLatencyHistogram;
+        }
+    }
 }
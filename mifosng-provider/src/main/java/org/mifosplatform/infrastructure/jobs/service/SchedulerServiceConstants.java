@@ -19,5 +19,11 @@ public interface SchedulerServiceConstants {
     public static final int DEFAULT_THREAD_COUNT = 7;
     public static final int GROUP_THREAD_COUNT = 1;
     public static final String SCHEDULER_NAME = "schedulerName";
+    public static final int PARTITION_SIZE = 500;
+    public static final int PARTITION_WORKER_THREAD_COUNT = 4;
+    public static final int CHECKPOINT_INTERVAL = 100;
+    public static final int ACCRUAL_BATCH_LOAN_COUNT = 100;
+    public static final int OVERDUE_CHARGE_BATCH_LOAN_COUNT = 50;
+    public static final int RUNNING_BALANCE_CHUNK_SIZE = 1000;
 
 }
\ No newline at end of file
@@ -105,9 +105,9 @@ public class TenantAwareBasicAuthenticationFilter extends BasicAuthenticationFil
                 ThreadLocalContextUtil.setTenant(tenant);
 
                 if (!firstRequestProcessed) {
-                    final boolean ehcacheEnabled = this.configurationDomainService.isEhcacheEnabled();
-                    if (ehcacheEnabled) {
-                        this.cacheWritePlatformService.switchToCache(CacheType.SINGLE_NODE);
+                    final CacheType cacheType = this.configurationDomainService.retrieveCacheType();
+                    if (cacheType.isEhcache() || cacheType.isDistributedCache()) {
+                        this.cacheWritePlatformService.switchToCache(cacheType);
                     } else {
                         this.cacheWritePlatformService.switchToCache(CacheType.NO_CACHE);
                     }
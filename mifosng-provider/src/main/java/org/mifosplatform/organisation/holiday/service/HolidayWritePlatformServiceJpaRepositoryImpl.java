@@ -29,6 +29,7 @@ import org.mifosplatform.organisation.workingdays.service.WorkingDaysUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -65,6 +66,7 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
 
     @Transactional
     @Override
+    @CacheEvict(value = "loanSchedules", allEntries = true)
     public CommandProcessingResult createHoliday(final JsonCommand command) {
 
         try {
@@ -88,6 +90,7 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
 
     @Transactional
     @Override
+    @CacheEvict(value = "loanSchedules", allEntries = true)
     public CommandProcessingResult updateHoliday(final JsonCommand command) {
 
         try {
@@ -118,6 +121,7 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
 
     @Transactional
     @Override
+    @CacheEvict(value = "loanSchedules", allEntries = true)
     public CommandProcessingResult activateHoliday(final Long holidayId) {
         this.context.authenticatedUser();
         final Holiday holiday = this.holidayRepository.findOneWithNotFoundDetection(holidayId);
@@ -129,6 +133,7 @@ public class HolidayWritePlatformServiceJpaRepositoryImpl implements HolidayWrit
 
     @Transactional
     @Override
+    @CacheEvict(value = "loanSchedules", allEntries = true)
     public CommandProcessingResult deleteHoliday(final Long holidayId) {
         this.context.authenticatedUser();
         final Holiday holiday = this.holidayRepository.findOneWithNotFoundDetection(holidayId);
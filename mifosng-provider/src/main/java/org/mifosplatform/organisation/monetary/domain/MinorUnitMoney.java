@@ -0,0 +1,168 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.monetary.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount of money held as a <code>long</code> count of the minor units of
+ * its currency, for sums computed in loops where adding {@link Money} would
+ * create a new {@link Money} and {@link BigDecimal} for every term.
+ *
+ * Unlike {@link Money} it is mutable: {@link #plus(Money)} and
+ * {@link #minus(Money)} change the amount and return the same instance, which
+ * is converted with {@link #toMoney()} once the sum is complete. Every step
+ * rounds as {@link Money} does, amounts with digits beyond the currency are
+ * rounded half even and, for currencies without digits that are kept in
+ * multiples, positive amounts are rounded to the nearest multiple, so the
+ * result is the one the same steps give with {@link Money}.
+ *
+ * Steps that cannot be made on minor units, because the amount added has
+ * digits beyond the currency or the amount leaves the range where it is exact
+ * as a <code>double</code>, are made with {@link Money} instead. Once out of
+ * range the amount stays a {@link BigDecimal} until it is back within it.
+ */
+public final class MinorUnitMoney {
+
+    /**
+     * Amounts of at most 2^53 minor units are exact as a <code>double</code>,
+     * which is what {@link Money} rounds to multiples with, and the sum of two
+     * of them cannot overflow a <code>long</code>.
+     */
+    private static final long MAX_EXACT_MINOR_UNITS = 1L << 53;
+    private static final long NOT_IN_MINOR_UNITS = Long.MIN_VALUE;
+
+    private final MonetaryCurrency currency;
+    private final int digitsAfterDecimal;
+    private final int inMultiplesOf;
+
+    private long minorUnits;
+    private BigDecimal amountOutOfRange;
+
+    public static MinorUnitMoney zero(final MonetaryCurrency currency) {
+        return new MinorUnitMoney(currency);
+    }
+
+    public static MinorUnitMoney of(final Money money) {
+        return new MinorUnitMoney(money.getCurrency()).plus(money);
+    }
+
+    private MinorUnitMoney(final MonetaryCurrency currency) {
+        this.currency = currency;
+        this.digitsAfterDecimal = currency.getDigitsAfterDecimal();
+        final Integer multiplesOf = currency.getCurrencyInMultiplesOf();
+        this.inMultiplesOf = multiplesOf == null || this.digitsAfterDecimal != 0 ? 0 : Math.max(multiplesOf, 0);
+    }
+
+    public MinorUnitMoney plus(final Money moneyToAdd) {
+        return plus(checkCurrencyEqual(moneyToAdd).getAmount());
+    }
+
+    public MinorUnitMoney plus(final BigDecimal amountToAdd) {
+        if (amountToAdd == null || amountToAdd.signum() == 0) { return this; }
+
+        if (this.amountOutOfRange == null) {
+            final long minorUnitsToAdd = toMinorUnits(amountToAdd);
+            if (minorUnitsToAdd != NOT_IN_MINOR_UNITS) {
+                final long sum = this.minorUnits + minorUnitsToAdd;
+                if (Math.abs(sum) <= MAX_EXACT_MINOR_UNITS) {
+                    setMinorUnits(roundedToMultiple(sum));
+                    return this;
+                }
+            }
+        }
+
+        setAmount(Money.of(this.currency, getAmount().add(amountToAdd)).getAmount());
+        return this;
+    }
+
+    public MinorUnitMoney minus(final Money moneyToSubtract) {
+        return minus(checkCurrencyEqual(moneyToSubtract).getAmount());
+    }
+
+    public MinorUnitMoney minus(final BigDecimal amountToSubtract) {
+        if (amountToSubtract == null || amountToSubtract.signum() == 0) { return this; }
+        return plus(amountToSubtract.negate());
+    }
+
+    public boolean isZero() {
+        return signum() == 0;
+    }
+
+    public boolean isGreaterThanZero() {
+        return signum() > 0;
+    }
+
+    public boolean isLessThanZero() {
+        return signum() < 0;
+    }
+
+    public BigDecimal getAmount() {
+        if (this.amountOutOfRange != null) { return this.amountOutOfRange; }
+        return BigDecimal.valueOf(this.minorUnits, this.digitsAfterDecimal);
+    }
+
+    public Money toMoney() {
+        return Money.of(this.currency, getAmount());
+    }
+
+    private int signum() {
+        if (this.amountOutOfRange != null) { return this.amountOutOfRange.signum(); }
+        return Long.signum(this.minorUnits);
+    }
+
+    private Money checkCurrencyEqual(final Money money) {
+        if (!this.currency.getCode().equals(money.getCurrencyCode())) { throw new UnsupportedOperationException(
+                "currencies are different."); }
+        return money;
+    }
+
+    /**
+     * The amount in minor units, or {@link #NOT_IN_MINOR_UNITS} when it has
+     * digits beyond the currency or is out of range.
+     */
+    private long toMinorUnits(final BigDecimal amount) {
+        final BigDecimal amountInMinorUnits = amount.movePointRight(this.digitsAfterDecimal);
+        if (amountInMinorUnits.scale() > 0 && amountInMinorUnits.stripTrailingZeros().scale() > 0) { return NOT_IN_MINOR_UNITS; }
+        if (amountInMinorUnits.precision() - amountInMinorUnits.scale() > 18) { return NOT_IN_MINOR_UNITS; }
+
+        final long minorUnitsOfAmount = amountInMinorUnits.longValue();
+        if (Math.abs(minorUnitsOfAmount) > MAX_EXACT_MINOR_UNITS) { return NOT_IN_MINOR_UNITS; }
+        return minorUnitsOfAmount;
+    }
+
+    /**
+     * Rounds as {@link Money} does for a currency kept in multiples: positive
+     * amounts go to the nearest multiple, to the higher one when halfway.
+     */
+    private long roundedToMultiple(final long amountInMinorUnits) {
+        if (this.inMultiplesOf == 0 || amountInMinorUnits <= 0) { return amountInMinorUnits; }
+
+        final long floor = amountInMinorUnits - amountInMinorUnits % this.inMultiplesOf;
+        if (floor == amountInMinorUnits) { return amountInMinorUnits; }
+        final long ceiling = floor + this.inMultiplesOf;
+        return ceiling - amountInMinorUnits > amountInMinorUnits - floor ? floor : ceiling;
+    }
+
+    private void setMinorUnits(final long newMinorUnits) {
+        if (Math.abs(newMinorUnits) > MAX_EXACT_MINOR_UNITS) {
+            this.amountOutOfRange = BigDecimal.valueOf(newMinorUnits, this.digitsAfterDecimal);
+        } else {
+            this.minorUnits = newMinorUnits;
+            this.amountOutOfRange = null;
+        }
+    }
+
+    private void setAmount(final BigDecimal newAmount) {
+        final long newMinorUnits = toMinorUnits(newAmount);
+        if (newMinorUnits == NOT_IN_MINOR_UNITS) {
+            this.amountOutOfRange = newAmount;
+        } else {
+            this.minorUnits = newMinorUnits;
+            this.amountOutOfRange = null;
+        }
+    }
+}
@@ -178,6 +178,11 @@ public class Office extends AbstractPersistable<Long> {
         } else {
             this.hierarchy = ".";
         }
+
+        // the hierarchy of an office prefixes that of every office below it
+        for (final Office child : this.children) {
+            child.generateHierarchy();
+        }
     }
 
     private String hierarchyOf(final Long id) {
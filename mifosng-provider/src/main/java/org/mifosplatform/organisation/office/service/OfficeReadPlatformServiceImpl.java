@@ -130,17 +130,16 @@ public class OfficeReadPlatformServiceImpl implements OfficeReadPlatformService
     @Cacheable(value = "offices", key = "T(org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil).getTenant().getTenantIdentifier().concat(#root.target.context.authenticatedUser().getOffice().getHierarchy()+'of')")
     public Collection<OfficeData> retrieveAllOffices(final boolean includeAllOffices) {
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        String hierarchySearchString = null;
+        final OfficeMapper rm = new OfficeMapper();
         if (includeAllOffices) {
-            hierarchySearchString = "." + "%";
-        } else {
-            hierarchySearchString = hierarchy + "%";
+            final String sql = "select " + rm.officeSchema() + " order by o.hierarchy";
+            return this.jdbcTemplate.query(sql, rm);
         }
-        final OfficeMapper rm = new OfficeMapper();
-        final String sql = "select " + rm.officeSchema() + "where o.hierarchy like ? order by o.hierarchy";
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] { hierarchySearchString });
+        final String sql = "select " + rm.officeSchema()
+                + " join m_office_closure oc on oc.descendant_id = o.id where oc.ancestor_id = ? order by o.hierarchy";
+
+        return this.jdbcTemplate.query(sql, rm, new Object[] { currentUser.getOffice().getId() });
     }
 
     @Override
@@ -148,13 +147,11 @@ public class OfficeReadPlatformServiceImpl implements OfficeReadPlatformService
     public Collection<OfficeData> retrieveAllOfficesForDropdown() {
         final AppUser currentUser = this.context.authenticatedUser();
 
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
-
         final OfficeDropdownMapper rm = new OfficeDropdownMapper();
-        final String sql = "select " + rm.schema() + "where o.hierarchy like ? order by o.hierarchy";
+        final String sql = "select " + rm.schema()
+                + " join m_office_closure oc on oc.descendant_id = o.id where oc.ancestor_id = ? order by o.hierarchy";
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] { hierarchySearchString });
+        return this.jdbcTemplate.query(sql, rm, new Object[] { currentUser.getOffice().getId() });
     }
 
     @Override
@@ -211,14 +208,11 @@ public class OfficeReadPlatformServiceImpl implements OfficeReadPlatformService
 
         final AppUser currentUser = this.context.authenticatedUser();
 
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
-
         final OfficeTransactionMapper rm = new OfficeTransactionMapper();
-        final String sql = "select " + rm.schema()
-                + " where (fromoff.hierarchy like ? or tooff.hierarchy like ?) order by ot.transaction_date, ot.id";
+        final String sql = "select " + rm.schema() + " where exists (select 1 from m_office_closure oc where oc.ancestor_id = ? "
+                + "and oc.descendant_id in (ot.from_office_id, ot.to_office_id)) order by ot.transaction_date, ot.id";
 
-        return this.jdbcTemplate.query(sql, rm, new Object[] { hierarchySearchString, hierarchySearchString });
+        return this.jdbcTemplate.query(sql, rm, new Object[] { currentUser.getOffice().getId() });
     }
 
     @Override
@@ -11,6 +11,7 @@ import org.mifosplatform.infrastructure.core.api.JsonCommand;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.security.exception.NoAuthorizationException;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
@@ -31,6 +32,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -45,19 +47,21 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
     private final OfficeRepository officeRepository;
     private final OfficeTransactionRepository officeTransactionRepository;
     private final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     @Autowired
     public OfficeWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
             final OfficeCommandFromApiJsonDeserializer fromApiJsonDeserializer,
             final OfficeTransactionCommandFromApiJsonDeserializer moneyTransferCommandFromApiJsonDeserializer,
             final OfficeRepository officeRepository, final OfficeTransactionRepository officeMonetaryTransferRepository,
-            final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository) {
+            final ApplicationCurrencyRepositoryWrapper applicationCurrencyRepository, final RoutingDataSource dataSource) {
         this.context = context;
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.moneyTransferCommandFromApiJsonDeserializer = moneyTransferCommandFromApiJsonDeserializer;
         this.officeRepository = officeRepository;
         this.officeTransactionRepository = officeMonetaryTransferRepository;
         this.applicationCurrencyRepository = applicationCurrencyRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
     @Transactional
@@ -87,6 +91,8 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
 
             this.officeRepository.save(office);
 
+            addToOfficeClosure(office.getId(), parent == null ? null : parent.getId());
+
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
                     .withEntityId(office.getId()) //
@@ -129,6 +135,10 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
                 this.officeRepository.saveAndFlush(office);
             }
 
+            if (changes.containsKey("parentId")) {
+                moveInOfficeClosure(office.getId(), parentId);
+            }
+
             return new CommandProcessingResultBuilder() //
                     .withCommandId(command.commandId()) //
                     .withEntityId(office.getId()) //
@@ -197,6 +207,34 @@ public class OfficeWritePlatformServiceJpaRepositoryImpl implements OfficeWriteP
                 .build();
     }
 
+    /*
+     * m_office_closure links every office to itself and to each office above
+     * it, so that data can be scoped to the offices under an office by
+     * ancestor id rather than by matching hierarchy prefixes.
+     */
+    private void addToOfficeClosure(final Long officeId, final Long parentId) {
+        this.jdbcTemplate.update("insert into m_office_closure (ancestor_id, descendant_id, depth) values (?, ?, 0)", officeId, officeId);
+        if (parentId != null) {
+            this.jdbcTemplate.update("insert into m_office_closure (ancestor_id, descendant_id, depth) "
+                    + "select oc.ancestor_id, ?, oc.depth + 1 from m_office_closure oc where oc.descendant_id = ?", officeId, parentId);
+        }
+    }
+
+    /*
+     * unlinks the office and the offices under it from the offices above it
+     * and links them to the new parent and the offices above that instead
+     */
+    private void moveInOfficeClosure(final Long officeId, final Long parentId) {
+        this.jdbcTemplate.update("delete link from m_office_closure link "
+                + "join m_office_closure subtree on subtree.descendant_id = link.descendant_id "
+                + "left join m_office_closure sublink on sublink.ancestor_id = subtree.ancestor_id and sublink.descendant_id = link.ancestor_id "
+                + "where subtree.ancestor_id = ? and sublink.ancestor_id is null", officeId);
+        this.jdbcTemplate.update("insert into m_office_closure (ancestor_id, descendant_id, depth) "
+                + "select supertree.ancestor_id, subtree.descendant_id, supertree.depth + subtree.depth + 1 "
+                + "from m_office_closure supertree join m_office_closure subtree "
+                + "where supertree.descendant_id = ? and subtree.ancestor_id = ?", parentId, officeId);
+    }
+
     /*
      * Guaranteed to throw an exception no matter what the data integrity issue
      * is.
@@ -24,8 +24,11 @@ import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidation
 import org.mifosplatform.infrastructure.core.exception.PlatformDataIntegrityException;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobCheckpoint;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.JobCheckpointService;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.portfolio.account.PortfolioAccountType;
 import org.mifosplatform.portfolio.account.api.StandingInstructionApiConstants;
 import org.mifosplatform.portfolio.account.data.AccountTransferDTO;
@@ -66,6 +69,7 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
     private final StandingInstructionReadPlatformService standingInstructionReadPlatformService;
     private final AccountTransfersWritePlatformService accountTransfersWritePlatformService;
     private final JdbcTemplate jdbcTemplate;
+    private final JobCheckpointService jobCheckpointService;
 
     @Autowired
     public StandingInstructionWritePlatformServiceImpl(final StandingInstructionDataValidator standingInstructionDataValidator,
@@ -73,7 +77,8 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
             final AccountTransferDetailRepository accountTransferDetailRepository,
             final StandingInstructionRepository standingInstructionRepository,
             final StandingInstructionReadPlatformService standingInstructionReadPlatformService,
-            final AccountTransfersWritePlatformService accountTransfersWritePlatformService, final RoutingDataSource dataSource) {
+            final AccountTransfersWritePlatformService accountTransfersWritePlatformService, final RoutingDataSource dataSource,
+            final JobCheckpointService jobCheckpointService) {
         this.standingInstructionDataValidator = standingInstructionDataValidator;
         this.standingInstructionAssembler = standingInstructionAssembler;
         this.accountTransferDetailRepository = accountTransferDetailRepository;
@@ -81,6 +86,7 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
         this.standingInstructionReadPlatformService = standingInstructionReadPlatformService;
         this.accountTransfersWritePlatformService = accountTransfersWritePlatformService;
         this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jobCheckpointService = jobCheckpointService;
     }
 
     @Transactional
@@ -177,10 +183,21 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
     @Override
     @CronTarget(jobName = JobName.EXECUTE_STANDING_INSTRUCTIONS)
     public void executeStandingInstructions() throws JobExecutionException {
+        // instructions are executed in priority order, so the checkpoint only
+        // carries counts; instructions already run today are excluded through
+        // their last run date, which is what makes a rerun resume
+        ScheduledJobCheckpoint checkpoint = this.jobCheckpointService.startOrResume(JobName.EXECUTE_STANDING_INSTRUCTIONS);
         Collection<StandingInstructionData> instructionDatas = this.standingInstructionReadPlatformService
                 .retrieveAll(StandingInstructionStatus.ACTIVE.getValue());
         final StringBuilder sb = new StringBuilder();
+        int processed = 0;
+        int failed = 0;
         for (StandingInstructionData data : instructionDatas) {
+            if (processed + failed >= SchedulerServiceConstants.CHECKPOINT_INTERVAL) {
+                checkpoint = recordProgress(checkpoint, processed, failed);
+                processed = 0;
+                failed = 0;
+            }
             boolean isDueForTransfer = false;
             AccountTransferRecurrenceType recurrenceType = data.recurrenceType();
             StandingInstructionType instructionType = data.instructionType();
@@ -227,13 +244,35 @@ public class StandingInstructionWritePlatformServiceImpl implements StandingInst
                                 + " Standing instruction trasfer ", null, null, null, null, data.toTransferType(), null, null, data
                                 .transferType().getValue(), accountTransferDetails, null, null, null, null, fromSavingsAccount,
                         isRegularTransaction);
+                final int errorLength = sb.length();
                 transferAmount(sb, accountTransferDTO, data.getId());
+                if (sb.length() > errorLength) {
+                    failed++;
+                } else {
+                    processed++;
+                }
             }
         }
+        checkpoint = recordProgress(checkpoint, processed, failed);
+        this.jobCheckpointService.complete(checkpoint);
         if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
 
     }
 
+    /**
+     * The transfers counted are committed already, so a failure to record
+     * them is logged rather than failing the job; the checkpoint keeps the
+     * counts in memory for the next call to record.
+     */
+    private ScheduledJobCheckpoint recordProgress(final ScheduledJobCheckpoint checkpoint, final int processed, final int failed) {
+        try {
+            return this.jobCheckpointService.recordProgress(checkpoint, null, processed, failed);
+        } catch (final RuntimeException e) {
+            logger.error("Recording the progress of standing instructions failed", e);
+            return checkpoint;
+        }
+    }
+
     /**
      * @param sb
      * @param accountTransferDTO
@@ -62,6 +62,7 @@ import org.mifosplatform.portfolio.savings.domain.SavingsAccountCharge;
 import org.mifosplatform.portfolio.savings.domain.SavingsAccountChargeRepository;
 import org.mifosplatform.portfolio.savings.service.DepositApplicationProcessWritePlatformService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
@@ -199,6 +200,7 @@ public class CalendarWritePlatformServiceJpaRepositoryImpl implements CalendarWr
     }
 
     @Override
+    @CacheEvict(value = "loanSchedules", allEntries = true)
     public CommandProcessingResult updateCalendar(final JsonCommand command) {
 
         this.fromApiJsonDeserializer.validateForUpdate(command.json());
@@ -260,6 +262,7 @@ public class CalendarWritePlatformServiceJpaRepositoryImpl implements CalendarWr
     }
 
     @Override
+    @CacheEvict(value = "loanSchedules", allEntries = true)
     public CommandProcessingResult deleteCalendar(final Long calendarId) {
         final Calendar calendarForDelete = this.calendarRepository.findOne(calendarId);
         if (calendarForDelete == null) { throw new CalendarNotFoundException(calendarId); }
@@ -111,8 +111,7 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     @Override
     public Page<ClientData> retrieveAll(final SearchParameters searchParameters) {
 
-        final String userOfficeHierarchy = this.context.officeHierarchy();
-        final String underHierarchySearchString = userOfficeHierarchy + "%";
+        final Long userOfficeId = this.context.authenticatedUser().getOffice().getId();
 
         // if (searchParameters.isScopedByOfficeHierarchy()) {
         // this.context.validateAccessRights(searchParameters.getHierarchy());
@@ -122,7 +121,8 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         final StringBuilder sqlBuilder = new StringBuilder(200);
         sqlBuilder.append("select SQL_CALC_FOUND_ROWS ");
         sqlBuilder.append(this.clientMapper.schema());
-        sqlBuilder.append(" where (o.hierarchy like ? or transferToOffice.hierarchy like ?) ");
+        sqlBuilder.append(" where exists (select 1 from m_office_closure oc where oc.ancestor_id = ? ");
+        sqlBuilder.append(" and oc.descendant_id in (o.id, transferToOffice.id)) ");
 
         final String extraCriteria = buildSqlStringFromClientCriteria(searchParameters);
 
@@ -146,8 +146,8 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
         }
 
         final String sqlCountRows = "SELECT FOUND_ROWS()";
-        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), new Object[] {
-                underHierarchySearchString, underHierarchySearchString }, this.clientMapper);
+        return this.paginationHelper.fetchPage(this.jdbcTemplate, sqlCountRows, sqlBuilder.toString(), new Object[] { userOfficeId },
+                this.clientMapper);
     }
 
     private String buildSqlStringFromClientCriteria(final SearchParameters searchParameters) {
@@ -201,13 +201,11 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     @Override
     public ClientData retrieveOne(final Long clientId) {
         try {
-            final String hierarchy = this.context.officeHierarchy();
-            final String hierarchySearchString = hierarchy + "%";
+            final Long userOfficeId = this.context.authenticatedUser().getOffice().getId();
 
-            final String sql = "select " + this.clientMapper.schema()
-                    + " where ( o.hierarchy like ? or transferToOffice.hierarchy like ?) and c.id = ?";
-            final ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper, new Object[] { hierarchySearchString,
-                    hierarchySearchString, clientId });
+            final String sql = "select " + this.clientMapper.schema() + " where exists (select 1 from m_office_closure oc "
+                    + "where oc.ancestor_id = ? and oc.descendant_id in (o.id, transferToOffice.id)) and c.id = ?";
+            final ClientData clientData = this.jdbcTemplate.queryForObject(sql, this.clientMapper, new Object[] { userOfficeId, clientId });
 
             final String clientGroupsSql = "select " + this.clientGroupsMapper.parentGroupsSchema();
 
@@ -245,26 +243,23 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     public Collection<ClientData> retrieveClientMembersOfGroup(final Long groupId) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
 
-        final String sql = "select " + this.membersOfGroupMapper.schema() + " where o.hierarchy like ? and pgc.group_id = ?";
+        final String sql = "select " + this.membersOfGroupMapper.schema()
+                + " join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = ? where pgc.group_id = ?";
 
-        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { hierarchySearchString, groupId });
+        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { currentUser.getOffice().getId(), groupId });
     }
 
     @Override
     public Collection<ClientData> retrieveActiveClientMembersOfGroup(final Long groupId) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
 
         final String sql = "select " + this.membersOfGroupMapper.schema()
-                + " where o.hierarchy like ? and pgc.group_id = ? and c.status_enum = ? ";
+                + " join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = ? where pgc.group_id = ? and c.status_enum = ? ";
 
-        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper,
-                new Object[] { hierarchySearchString, groupId, ClientStatus.ACTIVE.getValue() });
+        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { currentUser.getOffice().getId(), groupId,
+                ClientStatus.ACTIVE.getValue() });
     }
 
     private static final class ClientMembersOfGroupMapper implements RowMapper<ClientData> {
@@ -401,15 +396,13 @@ public class ClientReadPlatformServiceImpl implements ClientReadPlatformService
     public Collection<ClientData> retrieveActiveClientMembersOfCenter(final Long centerId) {
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String hierarchySearchString = hierarchy + "%";
 
-        final String sql = "select "
-                + this.membersOfGroupMapper.schema()
-                + " left join m_group g on pgc.group_id=g.id where o.hierarchy like ? and g.parent_id = ? and c.status_enum = ? group by c.id";
+        final String sql = "select " + this.membersOfGroupMapper.schema()
+                + " join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = ?"
+                + " left join m_group g on pgc.group_id=g.id where g.parent_id = ? and c.status_enum = ? group by c.id";
 
-        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper,
-                new Object[] { hierarchySearchString, centerId, ClientStatus.ACTIVE.getValue() });
+        return this.jdbcTemplate.query(sql, this.membersOfGroupMapper, new Object[] { currentUser.getOffice().getId(), centerId,
+                ClientStatus.ACTIVE.getValue() });
     }
 
     private static final class ClientMapper implements RowMapper<ClientData> {
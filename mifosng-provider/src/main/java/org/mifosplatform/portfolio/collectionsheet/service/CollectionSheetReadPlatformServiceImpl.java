@@ -214,7 +214,8 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
                     .append("ln.interest_repaid_derived As interestPaid, ")
                     .append("ca.attendance_type_enum as attendanceTypeId ")
                     .append("FROM m_group gp ")
-                    .append("LEFT JOIN m_office of ON of.id = gp.office_id AND of.hierarchy like :officeHierarchy ")
+                    .append("LEFT JOIN m_office_closure oc ON oc.descendant_id = gp.office_id AND oc.ancestor_id = :officeId ")
+                    .append("LEFT JOIN m_office of ON of.id = oc.descendant_id ")
                     .append("JOIN m_group_level gl ON gl.id = gp.level_Id ")
                     .append("LEFT JOIN m_staff sf ON sf.id = gp.staff_id ")
                     .append("JOIN m_group_client gc ON gc.group_id = gp.id ")
@@ -308,8 +309,6 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
                 + transactionDate + "' is not a valid meeting date.", transactionDate); }
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String officeHierarchy = hierarchy + "%";
 
         final GroupGeneralData group = this.groupReadPlatformService.retrieveOne(groupId);
 
@@ -319,7 +318,7 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
         final CalendarEntityType entityType = (group.isChildGroup()) ? CalendarEntityType.CENTERS : CalendarEntityType.GROUPS;
 
         final SqlParameterSource namedParameters = new MapSqlParameterSource().addValue("dueDate", transactionDateStr)
-                .addValue("groupId", group.getId()).addValue("officeHierarchy", officeHierarchy)
+                .addValue("groupId", group.getId()).addValue("officeId", currentUser.getOffice().getId())
                 .addValue("entityTypeId", entityType.getValue());
 
         final Collection<JLGCollectionSheetFlatData> collectionSheetFlatDatas = this.namedParameterjdbcTemplate.query(
@@ -405,8 +404,6 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
         this.collectionSheetGenerateCommandFromApiJsonDeserializer.validateForGenerateCollectionSheet(query.json());
 
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
-        final String officeHierarchy = hierarchy + "%";
 
         final CenterData center = this.centerReadPlatformService.retrieveOne(centerId);
 
@@ -419,7 +416,7 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
         StringBuilder sql = new StringBuilder(mapper.collectionSheetSchema(true));
 
         final SqlParameterSource namedParameters = new MapSqlParameterSource().addValue("dueDate", dueDateStr)
-                .addValue("centerId", center.getId()).addValue("officeHierarchy", officeHierarchy)
+                .addValue("centerId", center.getId()).addValue("officeId", currentUser.getOffice().getId())
                 .addValue("entityTypeId", CalendarEntityType.CENTERS.getValue());
 
         final Collection<JLGCollectionSheetFlatData> collectionSheetFlatDatas = this.namedParameterjdbcTemplate.query(sql.toString(),
@@ -471,7 +468,8 @@ public class CollectionSheetReadPlatformServiceImpl implements CollectionSheetRe
                     .append("     ifnull(mss.deposit_amount,0) - ")              					// Mandatory savings dues
                     .append("     ifnull(mss.deposit_amount_completed_derived,0)) as dueAmount ")	// Mandatory savings paid
                     .append("FROM m_group gp ")
-                    .append("LEFT JOIN m_office of ON of.id = gp.office_id AND of.hierarchy like :officeHierarchy ")
+                    .append("LEFT JOIN m_office_closure oc ON oc.descendant_id = gp.office_id AND oc.ancestor_id = :officeId ")
+                    .append("LEFT JOIN m_office of ON of.id = oc.descendant_id ")
                     .append("JOIN m_group_level gl ON gl.id = gp.level_Id ")
                     .append("LEFT JOIN m_staff sf ON sf.id = gp.staff_id ")
                     .append("JOIN m_group_client gc ON gc.group_id = gp.id ")
@@ -23,13 +23,15 @@ public final class SearchParameters {
     private final String accountNo;
 
     private final Long staffId;
+    private final String after;
+    private final boolean approximateCount;
 
     public static SearchParameters from(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy) {
         final Long staffId = null;
         final String accountNo = null;
         return new SearchParameters(sqlSearch, officeId, externalId, name, hierarchy, null, null, null, null, null, null, staffId,
-                accountNo);
+                accountNo, null, false);
     }
 
     public static SearchParameters forClients(final String sqlSearch, final Long officeId, final String externalId,
@@ -41,7 +43,7 @@ public final class SearchParameters {
         final String accountNo = null;
 
         return new SearchParameters(sqlSearch, officeId, externalId, displayName, hierarchy, firstname, lastname, offset, maxLimitAllowed,
-                orderBy, sortOrder, staffId, accountNo);
+                orderBy, sortOrder, staffId, accountNo, null, false);
     }
 
     public static SearchParameters forGroups(final String sqlSearch, final Long officeId, final Long staffId, final String externalId,
@@ -52,7 +54,7 @@ public final class SearchParameters {
         final String accountNo = null;
 
         return new SearchParameters(sqlSearch, officeId, externalId, name, hierarchy, null, null, offset, maxLimitAllowed, orderBy,
-                sortOrder, staffId, accountNo);
+                sortOrder, staffId, accountNo, null, false);
     }
 
     public static SearchParameters forLoans(final String sqlSearch, final String externalId, final Integer offset, final Integer limit,
@@ -62,17 +64,17 @@ public final class SearchParameters {
         final Long staffId = null;
 
         return new SearchParameters(sqlSearch, null, externalId, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder,
-                staffId, accountNo);
+                staffId, accountNo, null, false);
     }
 
     public static SearchParameters forJournalEntries(final Long officeId, final Integer offset, final Integer limit, final String orderBy,
-            final String sortOrder) {
+            final String sortOrder, final String after, final boolean approximateCount) {
 
         final Integer maxLimitAllowed = getCheckedLimit(limit);
         final Long staffId = null;
 
         return new SearchParameters(null, officeId, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder, staffId,
-                null);
+                null, after, approximateCount);
     }
 
     public static SearchParameters forPagination(final Integer offset, final Integer limit, final String orderBy, final String sortOrder) {
@@ -80,7 +82,8 @@ public final class SearchParameters {
         final Integer maxLimitAllowed = getCheckedLimit(limit);
         final Long staffId = null;
 
-        return new SearchParameters(null, null, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder, staffId, null);
+        return new SearchParameters(null, null, null, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder, staffId, null,
+                null, false);
     }
 
     public static SearchParameters forSavings(final String sqlSearch, final String externalId, final Integer offset, final Integer limit,
@@ -91,7 +94,7 @@ public final class SearchParameters {
         final String accountNo = null;
 
         return new SearchParameters(sqlSearch, null, externalId, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder,
-                staffId, accountNo);
+                staffId, accountNo, null, false);
     }
 
     public static SearchParameters forAccountTransfer(final String sqlSearch, final String externalId, final Integer offset,
@@ -102,12 +105,13 @@ public final class SearchParameters {
         final String accountNo = null;
 
         return new SearchParameters(sqlSearch, null, externalId, null, null, null, null, offset, maxLimitAllowed, orderBy, sortOrder,
-                staffId, accountNo);
+                staffId, accountNo, null, false);
     }
 
     private SearchParameters(final String sqlSearch, final Long officeId, final String externalId, final String name,
             final String hierarchy, final String firstname, final String lastname, final Integer offset, final Integer limit,
-            final String orderBy, final String sortOrder, final Long staffId, final String accountNo) {
+            final String orderBy, final String sortOrder, final Long staffId, final String accountNo, final String after,
+            final boolean approximateCount) {
         this.sqlSearch = sqlSearch;
         this.officeId = officeId;
         this.externalId = externalId;
@@ -121,6 +125,8 @@ public final class SearchParameters {
         this.sortOrder = sortOrder;
         this.staffId = staffId;
         this.accountNo = accountNo;
+        this.after = after;
+        this.approximateCount = approximateCount;
     }
 
     public boolean isOrderByRequested() {
@@ -159,6 +165,19 @@ public final class SearchParameters {
         return this.offset != null;
     }
 
+    /**
+     * Keyset pagination is asked for by passing an <code>after</code> token,
+     * blank for the first page. Pages then follow the natural order of the
+     * listing, ignoring <code>offset</code> and <code>orderBy</code>.
+     */
+    public boolean isKeysetPaginated() {
+        return this.after != null;
+    }
+
+    public boolean isApproximateCountRequested() {
+        return this.approximateCount;
+    }
+
     public boolean isScopedByOfficeHierarchy() {
         return StringUtils.isNotBlank(this.hierarchy);
     }
@@ -219,4 +238,8 @@ public final class SearchParameters {
         return this.accountNo;
     }
 
+    public String getAfter() {
+        return this.after;
+    }
+
 }
\ No newline at end of file
@@ -5,10 +5,17 @@
  */
 package org.mifosplatform.portfolio.loanaccount.api;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -24,6 +31,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.commons.lang.StringUtils;
@@ -37,6 +46,7 @@ import org.mifosplatform.infrastructure.core.api.ApiRequestParameterHelper;
 import org.mifosplatform.infrastructure.core.api.JsonQuery;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
+import org.mifosplatform.infrastructure.core.exception.InvalidJsonException;
 import org.mifosplatform.infrastructure.core.exception.UnrecognizedQueryParamException;
 import org.mifosplatform.infrastructure.core.serialization.ApiRequestJsonSerializationSettings;
 import org.mifosplatform.infrastructure.core.serialization.DefaultToApiJsonSerializer;
@@ -73,8 +83,8 @@ import org.mifosplatform.portfolio.loanaccount.exception.LoanTemplateTypeRequire
 import org.mifosplatform.portfolio.loanaccount.exception.NotSupportedLoanTemplateTypeException;
 import org.mifosplatform.portfolio.loanaccount.guarantor.data.GuarantorData;
 import org.mifosplatform.portfolio.loanaccount.guarantor.service.GuarantorReadPlatformService;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleCacheData;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
-import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.service.LoanScheduleCalculationPlatformService;
 import org.mifosplatform.portfolio.loanaccount.service.LoanChargeReadPlatformService;
 import org.mifosplatform.portfolio.loanaccount.service.LoanReadPlatformService;
@@ -136,6 +146,7 @@ public class LoansApiResource {
     private final NoteReadPlatformServiceImpl noteReadPlatformService;
     private final PortfolioAccountReadPlatformService portfolioAccountReadPlatformService;
     private final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService;
+    private final DefaultToApiJsonSerializer<LoanScheduleCacheData> loanScheduleCacheToApiJsonSerializer;
 
     @Autowired
     public LoansApiResource(final PlatformSecurityContext context, final LoanReadPlatformService loanReadPlatformService,
@@ -152,7 +163,8 @@ public class LoansApiResource {
             final PortfolioCommandSourceWritePlatformService commandsSourceWritePlatformService,
             final CalendarReadPlatformService calendarReadPlatformService, final NoteReadPlatformServiceImpl noteReadPlatformService,
             final PortfolioAccountReadPlatformService portfolioAccountReadPlatformServiceImpl,
-            final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService) {
+            final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService,
+            final DefaultToApiJsonSerializer<LoanScheduleCacheData> loanScheduleCacheToApiJsonSerializer) {
         this.context = context;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanProductReadPlatformService = loanProductReadPlatformService;
@@ -174,6 +186,7 @@ public class LoansApiResource {
         this.noteReadPlatformService = noteReadPlatformService;
         this.portfolioAccountReadPlatformService = portfolioAccountReadPlatformServiceImpl;
         this.accountAssociationsReadPlatformService = accountAssociationsReadPlatformService;
+        this.loanScheduleCacheToApiJsonSerializer = loanScheduleCacheToApiJsonSerializer;
     }
 
     @GET
@@ -280,6 +293,20 @@ public class LoansApiResource {
         return this.toApiJsonSerializer.serialize(settings, newLoanAccount, this.LOAN_DATA_PARAMETERS);
     }
 
+    @GET
+    @Path("schedules/cache")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public String retrieveLoanScheduleCacheStatistics(@Context final UriInfo uriInfo) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final LoanScheduleCacheData statistics = this.calculationPlatformService.retrievePreviewCacheStatistics();
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        return this.loanScheduleCacheToApiJsonSerializer.serialize(settings, statistics, new HashSet<String>());
+    }
+
     @GET
     @Path("{loanId}")
     @Consumes({ MediaType.APPLICATION_JSON })
@@ -490,10 +517,10 @@ public class LoansApiResource {
             final JsonElement parsedQuery = this.fromJsonHelper.parse(apiRequestBodyAsJson);
             final JsonQuery query = JsonQuery.from(apiRequestBodyAsJson, parsedQuery, this.fromJsonHelper);
 
-            final LoanScheduleModel loanSchedule = this.calculationPlatformService.calculateLoanSchedule(query, true);
+            final LoanScheduleData loanSchedule = this.calculationPlatformService.previewLoanSchedule(query);
 
             final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
-            return this.loanScheduleToApiJsonSerializer.serialize(settings, loanSchedule.toData(), new HashSet<String>());
+            return this.loanScheduleToApiJsonSerializer.serialize(settings, loanSchedule, new HashSet<String>());
         }
 
         final CommandWrapper commandRequest = new CommandWrapperBuilder().createLoanApplication().withJson(apiRequestBodyAsJson).build();
@@ -503,6 +530,52 @@ public class LoansApiResource {
         return this.toApiJsonSerializer.serialize(result);
     }
 
+    /**
+     * Calculates the schedules of a JSON array of the queries accepted by
+     * <code>calculateLoanSchedule</code> and writes them back as a JSON array
+     * in the same order. The queries are all validated before any schedule is
+     * calculated.
+     */
+    @POST
+    @Path("schedules:calculate")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response calculateLoanSchedules(@Context final UriInfo uriInfo, final String apiRequestBodyAsJson) {
+
+        this.context.authenticatedUser().validateHasReadPermission(this.resourceNameForPermissions);
+
+        final JsonElement parsedQueries = this.fromJsonHelper.parse(apiRequestBodyAsJson);
+        if (parsedQueries == null || !parsedQueries.isJsonArray()) { throw new InvalidJsonException(); }
+
+        final List<JsonQuery> queries = new ArrayList<>();
+        for (final JsonElement parsedQuery : parsedQueries.getAsJsonArray()) {
+            queries.add(JsonQuery.from(parsedQuery.toString(), parsedQuery, this.fromJsonHelper));
+        }
+
+        final List<LoanScheduleData> loanSchedules = this.calculationPlatformService.calculateLoanSchedules(queries);
+
+        final ApiRequestJsonSerializationSettings settings = this.apiRequestParameterHelper.process(uriInfo.getQueryParameters());
+        final StreamingOutput result = new StreamingOutput() {
+
+            @Override
+            public void write(final OutputStream out) throws IOException {
+                final Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+                writer.write('[');
+                for (int i = 0; i < loanSchedules.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(LoansApiResource.this.loanScheduleToApiJsonSerializer.serialize(settings, loanSchedules.get(i),
+                            new HashSet<String>()));
+                }
+                writer.write(']');
+                writer.flush();
+            }
+        };
+
+        return Response.ok().entity(result).type(MediaType.APPLICATION_JSON).build();
+    }
+
     @PUT
     @Path("{loanId}")
     @Consumes({ MediaType.APPLICATION_JSON })
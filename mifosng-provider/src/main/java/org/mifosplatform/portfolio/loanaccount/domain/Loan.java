@@ -446,8 +446,26 @@ public class Loan extends AbstractPersistable<Long> {
 
     public ChangedTransactionDetail addLoanCharge(final LoanCharge loanCharge, final List<Long> existingTransactionIds,
             final List<Long> existingReversedTransactionIds) {
-        ChangedTransactionDetail changedTransactionDetail = null;
+        attachLoanCharge(loanCharge);
+        return reprocessAfterChargesAdded(existingTransactionIds, existingReversedTransactionIds, loanCharge.isDueAtDisbursement());
+    }
 
+    /**
+     * Adds several charges at once, reprocessing the repayment schedule and
+     * transactions a single time after all of them are attached rather than
+     * once per charge.
+     */
+    public ChangedTransactionDetail addLoanCharges(final List<LoanCharge> loanCharges, final List<Long> existingTransactionIds,
+            final List<Long> existingReversedTransactionIds) {
+        boolean allDueAtDisbursement = true;
+        for (final LoanCharge loanCharge : loanCharges) {
+            attachLoanCharge(loanCharge);
+            allDueAtDisbursement = allDueAtDisbursement && loanCharge.isDueAtDisbursement();
+        }
+        return reprocessAfterChargesAdded(existingTransactionIds, existingReversedTransactionIds, allDueAtDisbursement);
+    }
+
+    private void attachLoanCharge(final LoanCharge loanCharge) {
         validateLoanIsNotClosed(loanCharge);
 
         if (isDisbursed() && loanCharge.isDueAtDisbursement()) {
@@ -496,6 +514,11 @@ public class Loan extends AbstractPersistable<Long> {
         	this.charges = new HashSet<>();
         }
         this.charges.add(loanCharge);
+    }
+
+    private ChangedTransactionDetail reprocessAfterChargesAdded(final List<Long> existingTransactionIds,
+            final List<Long> existingReversedTransactionIds, final boolean dueAtDisbursement) {
+        ChangedTransactionDetail changedTransactionDetail = null;
         this.summary = updateSummaryWithTotalFeeChargesDueAtDisbursement(deriveSumTotalOfChargesDueAtDisbursement());
         final LoanRepaymentScheduleTransactionProcessor loanRepaymentScheduleTransactionProcessor = this.transactionProcessorFactory
                 .determineProcessor(this.transactionProcessingStrategy);
@@ -506,7 +529,7 @@ public class Loan extends AbstractPersistable<Long> {
         existingReversedTransactionIds.addAll(findExistingReversedTransactionIds());
         final LoanRepaymentScheduleProcessingWrapper wrapper = new LoanRepaymentScheduleProcessingWrapper();
         wrapper.reprocess(getCurrency(), getDisbursementDate(), this.repaymentScheduleInstallments, charges());
-        if (!loanCharge.isDueAtDisbursement()) {
+        if (!dueAtDisbursement) {
             final List<LoanTransaction> allNonContraTransactionsPostDisbursement = retreiveListOfTransactionsPostDisbursement();
             changedTransactionDetail = loanRepaymentScheduleTransactionProcessor.handleTransaction(getDisbursementDate(),
                     allNonContraTransactionsPostDisbursement, getCurrency(), this.repaymentScheduleInstallments, charges());
@@ -125,30 +125,45 @@ public class LoanCharge extends AbstractPersistable<Long> {
     public static LoanCharge createNewFromJson(final Loan loan, final Charge chargeDefinition, final JsonCommand command,
             final LocalDate dueDate) {
         final BigDecimal amount = command.bigDecimalValueOfParameterNamed("amount");
+        BigDecimal principal = null;
+        if (command.hasParameter("principal")) {
+            principal = command.bigDecimalValueOfParameterNamed("principal");
+        }
+        BigDecimal interest = null;
+        if (command.hasParameter("interest")) {
+            interest = command.bigDecimalValueOfParameterNamed("interest");
+        }
+        return createNew(loan, chargeDefinition, amount, principal, interest, dueDate);
+    }
 
+    /*
+     * principal and interest are the amounts percentage based charges are
+     * applied to, when null the loan principal and total interest are used
+     */
+    public static LoanCharge createNew(final Loan loan, final Charge chargeDefinition, final BigDecimal amount, final BigDecimal principal,
+            final BigDecimal interest, final LocalDate dueDate) {
         final ChargeTimeType chargeTime = null;
         final ChargeCalculationType chargeCalculation = null;
         final ChargePaymentMode chargePaymentMode = null;
         BigDecimal amountPercentageAppliedTo = BigDecimal.ZERO;
         switch (ChargeCalculationType.fromInt(chargeDefinition.getChargeCalculation())) {
             case PERCENT_OF_AMOUNT:
-                if (command.hasParameter("principal")) {
-                    amountPercentageAppliedTo = command.bigDecimalValueOfParameterNamed("principal");
+                if (principal != null) {
+                    amountPercentageAppliedTo = principal;
                 } else {
                     amountPercentageAppliedTo = loan.getPrincpal().getAmount();
                 }
             break;
             case PERCENT_OF_AMOUNT_AND_INTEREST:
-                if (command.hasParameter("principal") && command.hasParameter("interest")) {
-                    amountPercentageAppliedTo = command.bigDecimalValueOfParameterNamed("principal").add(
-                            command.bigDecimalValueOfParameterNamed("interest"));
+                if (principal != null && interest != null) {
+                    amountPercentageAppliedTo = principal.add(interest);
                 } else {
                     amountPercentageAppliedTo = loan.getPrincpal().getAmount().add(loan.getTotalInterest());
                 }
             break;
             case PERCENT_OF_INTEREST:
-                if (command.hasParameter("interest")) {
-                    amountPercentageAppliedTo = command.bigDecimalValueOfParameterNamed("interest");
+                if (interest != null) {
+                    amountPercentageAppliedTo = interest;
                 } else {
                     amountPercentageAppliedTo = loan.getTotalInterest();
                 }
@@ -0,0 +1,30 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.loanschedule.data;
+
+/**
+ * Immutable data object representing the hits and misses of the cache of
+ * loan schedule previews.
+ */
+@SuppressWarnings("unused")
+public class LoanScheduleCacheData {
+
+    private final long hits;
+    private final long misses;
+    private final Double hitRatio;
+
+    public static LoanScheduleCacheData instance(final long hits, final long misses) {
+        final long lookups = hits + misses;
+        final Double hitRatio = lookups == 0 ? null : Double.valueOf((double) hits / lookups);
+        return new LoanScheduleCacheData(hits, misses, hitRatio);
+    }
+
+    private LoanScheduleCacheData(final long hits, final long misses, final Double hitRatio) {
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRatio = hitRatio;
+    }
+}
@@ -53,6 +53,14 @@ public class OverdueLoanScheduleData {
     }
 
 
+    public BigDecimal getPrincipalOverdue() {
+        return this.principalOverdue;
+    }
+
+    public BigDecimal getInterestOverdue() {
+        return this.interestOverdue;
+    }
+
     public Integer getPeriodNumber() {
         return this.periodNumber;
     }
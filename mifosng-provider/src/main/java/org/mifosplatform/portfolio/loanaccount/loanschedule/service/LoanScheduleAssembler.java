@@ -9,8 +9,10 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
@@ -306,19 +308,7 @@ public class LoanScheduleAssembler {
         // Get holiday details
         final boolean isHolidayEnabled = this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled();
 
-        final Long clientId = this.fromApiJsonHelper.extractLongNamed("clientId", element);
-        final Long groupId = this.fromApiJsonHelper.extractLongNamed("groupId", element);
-
-        Client client = null;
-        Group group = null;
-        Long officeId = null;
-        if (clientId != null) {
-            client = this.clientRepository.findOneWithNotFoundDetection(clientId);
-            officeId = client.getOffice().getId();
-        } else if (groupId != null) {
-            group = this.groupRepository.findOneWithNotFoundDetection(groupId);
-            officeId = group.getOffice().getId();
-        }
+        final Long officeId = officeIdOf(element);
 
         final LocalDate expectedDisbursementDate = this.fromApiJsonHelper.extractLocalDateNamed("expectedDisbursementDate", element);
         final List<Holiday> holidays = this.holidayRepository.findByOfficeIdAndGreaterThanDate(officeId, expectedDisbursementDate.toDate(),
@@ -334,6 +324,76 @@ public class LoanScheduleAssembler {
     public LoanScheduleModel assembleLoanScheduleFrom(final LoanApplicationTerms loanApplicationTerms, final boolean isHolidayEnabled,
             final List<Holiday> holidays, final WorkingDays workingDays, final JsonElement element) {
 
+        final MonetaryCurrency currency = loanApplicationTerms.getCurrency();
+        final ApplicationCurrency applicationCurrency = this.applicationCurrencyRepository.findOneWithNotFoundDetection(currency);
+        return assembleLoanScheduleCalculationFrom(loanApplicationTerms, applicationCurrency, isHolidayEnabled, holidays, workingDays,
+                element).generate();
+    }
+
+    /**
+     * Assembles the schedule calculations of a batch of queries whose products
+     * have been loaded already. The holiday configuration and the working days
+     * are loaded once for the batch and the holidays once for each office, so
+     * that the schedules can then be generated without going to the database.
+     */
+    public List<LoanScheduleCalculation> assembleLoanScheduleCalculationsFrom(final List<JsonElement> elements,
+            final Map<Long, LoanProduct> loanProductsById) {
+
+        final boolean isHolidayEnabled = this.configurationDomainService.isRescheduleRepaymentsOnHolidaysEnabled();
+        final WorkingDays workingDays = this.workingDaysRepository.findOne();
+
+        final List<LoanApplicationTerms> loanApplicationTermsOfElements = new ArrayList<>(elements.size());
+        final List<Long> officeIdsOfElements = new ArrayList<>(elements.size());
+        final Map<Long, LocalDate> earliestDisbursementDateByOfficeId = new HashMap<>();
+        for (final JsonElement element : elements) {
+            final Long loanProductId = this.fromApiJsonHelper.extractLongNamed("productId", element);
+            final LoanApplicationTerms loanApplicationTerms = assembleLoanApplicationTermsFrom(element,
+                    loanProductsById.get(loanProductId));
+            final LocalDate expectedDisbursementDate = loanApplicationTerms.getExpectedDisbursementDate();
+            validateDisbursementDateIsOnNonWorkingDay(expectedDisbursementDate, workingDays);
+
+            final Long officeId = officeIdOf(element);
+            if (officeId != null) {
+                final LocalDate earliestDisbursementDate = earliestDisbursementDateByOfficeId.get(officeId);
+                if (earliestDisbursementDate == null || expectedDisbursementDate.isBefore(earliestDisbursementDate)) {
+                    earliestDisbursementDateByOfficeId.put(officeId, expectedDisbursementDate);
+                }
+            }
+            loanApplicationTermsOfElements.add(loanApplicationTerms);
+            officeIdsOfElements.add(officeId);
+        }
+
+        final Map<Long, List<Holiday>> holidaysByOfficeId = new HashMap<>();
+        for (final Map.Entry<Long, LocalDate> earliestDisbursementDate : earliestDisbursementDateByOfficeId.entrySet()) {
+            holidaysByOfficeId.put(earliestDisbursementDate.getKey(), this.holidayRepository.findByOfficeIdAndGreaterThanDate(
+                    earliestDisbursementDate.getKey(), earliestDisbursementDate.getValue().toDate(), HolidayStatusType.ACTIVE.getValue()));
+        }
+
+        final Map<String, ApplicationCurrency> applicationCurrenciesByCode = new HashMap<>();
+        final List<LoanScheduleCalculation> calculations = new ArrayList<>(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            final LoanApplicationTerms loanApplicationTerms = loanApplicationTermsOfElements.get(i);
+            final List<Holiday> holidays = holidaysNotEndedBefore(loanApplicationTerms.getExpectedDisbursementDate(),
+                    holidaysByOfficeId.get(officeIdsOfElements.get(i)));
+            validateDisbursementDateIsOnHoliday(loanApplicationTerms.getExpectedDisbursementDate(), isHolidayEnabled, holidays);
+
+            final MonetaryCurrency currency = loanApplicationTerms.getCurrency();
+            ApplicationCurrency applicationCurrency = applicationCurrenciesByCode.get(currency.getCode());
+            if (applicationCurrency == null) {
+                applicationCurrency = this.applicationCurrencyRepository.findOneWithNotFoundDetection(currency);
+                applicationCurrenciesByCode.put(currency.getCode(), applicationCurrency);
+            }
+
+            calculations.add(assembleLoanScheduleCalculationFrom(loanApplicationTerms, applicationCurrency, isHolidayEnabled, holidays,
+                    workingDays, elements.get(i)));
+        }
+        return calculations;
+    }
+
+    private LoanScheduleCalculation assembleLoanScheduleCalculationFrom(final LoanApplicationTerms loanApplicationTerms,
+            final ApplicationCurrency applicationCurrency, final boolean isHolidayEnabled, final List<Holiday> holidays,
+            final WorkingDays workingDays, final JsonElement element) {
+
         final Set<LoanCharge> loanCharges = this.loanChargeAssembler.fromParsedJson(element);
 
         final LoanScheduleGenerator loanScheduleGenerator = this.loanScheduleFactory.create(loanApplicationTerms.getInterestMethod());
@@ -341,10 +401,41 @@ public class LoanScheduleAssembler {
         final RoundingMode roundingMode = RoundingMode.HALF_EVEN;
         final MathContext mc = new MathContext(8, roundingMode);
 
-        final MonetaryCurrency currency = loanApplicationTerms.getCurrency();
-        final ApplicationCurrency applicationCurrency = this.applicationCurrencyRepository.findOneWithNotFoundDetection(currency);
-        return loanScheduleGenerator.generate(mc, applicationCurrency, loanApplicationTerms, loanCharges, isHolidayEnabled, holidays,
-                workingDays);
+        return new LoanScheduleCalculation(loanScheduleGenerator, mc, applicationCurrency, loanApplicationTerms, loanCharges,
+                isHolidayEnabled, holidays, workingDays);
+    }
+
+    private Long officeIdOf(final JsonElement element) {
+        final Long clientId = this.fromApiJsonHelper.extractLongNamed("clientId", element);
+        final Long groupId = this.fromApiJsonHelper.extractLongNamed("groupId", element);
+
+        Long officeId = null;
+        if (clientId != null) {
+            final Client client = this.clientRepository.findOneWithNotFoundDetection(clientId);
+            officeId = client.getOffice().getId();
+        } else if (groupId != null) {
+            final Group group = this.groupRepository.findOneWithNotFoundDetection(groupId);
+            officeId = group.getOffice().getId();
+        }
+        return officeId;
+    }
+
+    /**
+     * The holidays of an office loaded from an earlier date that
+     * {@link HolidayRepository#findByOfficeIdAndGreaterThanDate} would return
+     * for the given date.
+     */
+    private List<Holiday> holidaysNotEndedBefore(final LocalDate date, final List<Holiday> holidaysOfOffice) {
+        final List<Holiday> holidays = new ArrayList<>();
+        if (holidaysOfOffice == null) { return holidays; }
+        for (final Holiday holiday : holidaysOfOffice) {
+            final LocalDate fromDate = holiday.getFromDateLocalDate();
+            final LocalDate toDate = holiday.getToDateLocalDate();
+            if ((fromDate != null && !fromDate.isBefore(date)) || (toDate != null && !toDate.isBefore(date))) {
+                holidays.add(holiday);
+            }
+        }
+        return holidays;
     }
 
     private void validateDisbursementDateIsOnNonWorkingDay(final LocalDate disbursementDate, final WorkingDays workingDays) {
@@ -0,0 +1,160 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.loanschedule.service;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.cache.service.RuntimeDelegatingCacheManager;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleCacheData;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Holds the loan schedules calculated for schedule previews so that a preview
+ * asked for again with the same terms is not generated again.
+ *
+ * Schedules are kept in the <code>loanSchedules</code> cache of the platform
+ * cache manager, which is bounded and evicts the least recently used
+ * schedules, and follow the cache type of the platform: with no cache nothing
+ * is kept. They are keyed by the tenant, the current date, as the schedule
+ * data tells which periods are overdue, and a hash of the canonical form of
+ * the query, which holds every term the schedule is calculated from. Writes to
+ * what the schedule is calculated from besides the query, such as loan
+ * products, charges, holidays, calendars and the global configuration, evict
+ * all the schedules of the cache.
+ */
+@Component
+public class LoanScheduleCache {
+
+    public static final String CACHE_NAME = "loanSchedules";
+
+    private final RuntimeDelegatingCacheManager cacheManager;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    public LoanScheduleCache(@Qualifier("runtimeDelegatingCacheManager") final RuntimeDelegatingCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public String keyFor(final JsonElement query) {
+        final String tenantIdentifier = ThreadLocalContextUtil.getTenant().getTenantIdentifier();
+        return tenantIdentifier + ":" + new LocalDate().toString() + ":" + sha256Of(canonicalFormOf(query));
+    }
+
+    /**
+     * Returns the schedule kept for the key or <code>null</code> when there is
+     * none, counting the lookup as a hit or a miss.
+     */
+    public LoanScheduleData get(final String key) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        final ValueWrapper value = cache == null ? null : cache.get(key);
+        if (value == null || value.get() == null) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+        this.hits.incrementAndGet();
+        return (LoanScheduleData) value.get();
+    }
+
+    public void put(final String key, final LoanScheduleData loanSchedule) {
+        final Cache cache = this.cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.put(key, loanSchedule);
+        }
+    }
+
+    /**
+     * Hits and misses are counted on this node since it started.
+     */
+    public LoanScheduleCacheData retrieveStatistics() {
+        return LoanScheduleCacheData.instance(this.hits.get(), this.misses.get());
+    }
+
+    /**
+     * The query with the members of every object in name order, so that
+     * queries with the same terms given in another order have the same key.
+     */
+    private static String canonicalFormOf(final JsonElement element) {
+        final StringBuilder canonicalForm = new StringBuilder();
+        appendCanonicalFormOf(element, canonicalForm);
+        return canonicalForm.toString();
+    }
+
+    private static void appendCanonicalFormOf(final JsonElement element, final StringBuilder canonicalForm) {
+        if (element == null || element.isJsonNull()) {
+            canonicalForm.append("null");
+        } else if (element.isJsonObject()) {
+            final Map<String, JsonElement> members = new TreeMap<>();
+            for (final Map.Entry<String, JsonElement> member : ((JsonObject) element).entrySet()) {
+                members.put(member.getKey(), member.getValue());
+            }
+            canonicalForm.append('{');
+            String separator = "";
+            for (final Map.Entry<String, JsonElement> member : members.entrySet()) {
+                canonicalForm.append(separator);
+                appendQuoted(member.getKey(), canonicalForm);
+                canonicalForm.append(':');
+                appendCanonicalFormOf(member.getValue(), canonicalForm);
+                separator = ",";
+            }
+            canonicalForm.append('}');
+        } else if (element.isJsonArray()) {
+            canonicalForm.append('[');
+            String separator = "";
+            for (final JsonElement item : (JsonArray) element) {
+                canonicalForm.append(separator);
+                appendCanonicalFormOf(item, canonicalForm);
+                separator = ",";
+            }
+            canonicalForm.append(']');
+        } else {
+            canonicalForm.append(element.getAsJsonPrimitive().toString());
+        }
+    }
+
+    private static void appendQuoted(final String name, final StringBuilder canonicalForm) {
+        canonicalForm.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c == '"' || c == '\\') {
+                canonicalForm.append('\\');
+            }
+            canonicalForm.append(c);
+        }
+        canonicalForm.append('"');
+    }
+
+    private static String sha256Of(final String text) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes("UTF-8"));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (final UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.loanschedule.service;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.Set;
+
+import org.mifosplatform.organisation.holiday.domain.Holiday;
+import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
+import org.mifosplatform.organisation.workingdays.domain.WorkingDays;
+import org.mifosplatform.portfolio.loanaccount.domain.LoanCharge;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanApplicationTerms;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleGenerator;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
+
+/**
+ * Everything a loan schedule is generated from, loaded by the
+ * {@link LoanScheduleAssembler}, so that the schedule can be generated
+ * without going to the database, on any thread that has the tenant set.
+ */
+public final class LoanScheduleCalculation {
+
+    private final LoanScheduleGenerator loanScheduleGenerator;
+    private final MathContext mc;
+    private final ApplicationCurrency applicationCurrency;
+    private final LoanApplicationTerms loanApplicationTerms;
+    private final Set<LoanCharge> loanCharges;
+    private final boolean isHolidayEnabled;
+    private final List<Holiday> holidays;
+    private final WorkingDays workingDays;
+
+    public LoanScheduleCalculation(final LoanScheduleGenerator loanScheduleGenerator, final MathContext mc,
+            final ApplicationCurrency applicationCurrency, final LoanApplicationTerms loanApplicationTerms,
+            final Set<LoanCharge> loanCharges, final boolean isHolidayEnabled, final List<Holiday> holidays,
+            final WorkingDays workingDays) {
+        this.loanScheduleGenerator = loanScheduleGenerator;
+        this.mc = mc;
+        this.applicationCurrency = applicationCurrency;
+        this.loanApplicationTerms = loanApplicationTerms;
+        this.loanCharges = loanCharges;
+        this.isHolidayEnabled = isHolidayEnabled;
+        this.holidays = holidays;
+        this.workingDays = workingDays;
+    }
+
+    public LoanScheduleModel generate() {
+        return this.loanScheduleGenerator.generate(this.mc, this.applicationCurrency, this.loanApplicationTerms, this.loanCharges,
+                this.isHolidayEnabled, this.holidays, this.workingDays);
+    }
+}
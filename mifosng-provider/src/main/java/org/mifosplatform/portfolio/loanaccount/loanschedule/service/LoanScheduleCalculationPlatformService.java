@@ -5,10 +5,36 @@
  */
 package org.mifosplatform.portfolio.loanaccount.loanschedule.service;
 
+import java.util.List;
+
 import org.mifosplatform.infrastructure.core.api.JsonQuery;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleCacheData;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
 
 public interface LoanScheduleCalculationPlatformService {
 
+    /**
+     * The most queries {@link #calculateLoanSchedules(List)} accepts in one
+     * batch.
+     */
+    int MAX_LOAN_SCHEDULE_QUERIES = 500;
+
     LoanScheduleModel calculateLoanSchedule(JsonQuery query, Boolean validateParams);
+
+    /**
+     * Calculates the schedule of a loan application for preview, returning
+     * the schedule calculated before for the same query while it is cached.
+     */
+    LoanScheduleData previewLoanSchedule(JsonQuery query);
+
+    /**
+     * Calculates the schedules of a batch of loan applications, in parallel
+     * once all the queries are valid, returning them in the order of the
+     * queries. Batches of more than {@link #MAX_LOAN_SCHEDULE_QUERIES}
+     * queries are rejected.
+     */
+    List<LoanScheduleData> calculateLoanSchedules(List<JsonQuery> queries);
+
+    LoanScheduleCacheData retrievePreviewCacheStatistics();
 }
@@ -6,7 +6,9 @@
 package org.mifosplatform.portfolio.loanaccount.loanschedule.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.mifosplatform.infrastructure.core.api.JsonQuery;
 import org.mifosplatform.infrastructure.core.data.ApiParameterError;
@@ -14,6 +16,8 @@ import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
 import org.mifosplatform.portfolio.accountdetails.domain.AccountType;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleCacheData;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
 import org.mifosplatform.portfolio.loanaccount.loanschedule.domain.LoanScheduleModel;
 import org.mifosplatform.portfolio.loanaccount.serialization.CalculateLoanScheduleQueryFromApiJsonHelper;
 import org.mifosplatform.portfolio.loanaccount.serialization.LoanApplicationCommandFromApiJsonHelper;
@@ -25,6 +29,8 @@ import org.mifosplatform.portfolio.loanproduct.serialization.LoanProductDataVali
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.google.gson.JsonElement;
+
 @Service
 public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleCalculationPlatformService {
 
@@ -35,12 +41,15 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
     private final LoanProductDataValidator loanProductCommandFromApiJsonDeserializer;
     private final LoanReadPlatformService loanReadPlatformService;
     private final LoanApplicationCommandFromApiJsonHelper loanApiJsonDeserializer;
+    private final LoanScheduleCache loanScheduleCache;
+    private final ParallelLoanScheduleGenerator parallelLoanScheduleGenerator;
 
     @Autowired
     public LoanScheduleCalculationPlatformServiceImpl(final CalculateLoanScheduleQueryFromApiJsonHelper fromApiJsonDeserializer,
             final LoanScheduleAssembler loanScheduleAssembler, final FromJsonHelper fromJsonHelper,
             final LoanProductRepository loanProductRepository, final LoanProductDataValidator loanProductCommandFromApiJsonDeserializer,
-            final LoanReadPlatformService loanReadPlatformService, final LoanApplicationCommandFromApiJsonHelper loanApiJsonDeserializer) {
+            final LoanReadPlatformService loanReadPlatformService, final LoanApplicationCommandFromApiJsonHelper loanApiJsonDeserializer,
+            final LoanScheduleCache loanScheduleCache, final ParallelLoanScheduleGenerator parallelLoanScheduleGenerator) {
         this.fromApiJsonDeserializer = fromApiJsonDeserializer;
         this.loanScheduleAssembler = loanScheduleAssembler;
         this.fromJsonHelper = fromJsonHelper;
@@ -48,22 +57,101 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
         this.loanProductCommandFromApiJsonDeserializer = loanProductCommandFromApiJsonDeserializer;
         this.loanReadPlatformService = loanReadPlatformService;
         this.loanApiJsonDeserializer = loanApiJsonDeserializer;
+        this.loanScheduleCache = loanScheduleCache;
+        this.parallelLoanScheduleGenerator = parallelLoanScheduleGenerator;
     }
 
     @Override
     public LoanScheduleModel calculateLoanSchedule(final JsonQuery query, Boolean validateParams) {
 
+        validateLoanScheduleQuery(query, validateParams);
+
+        return this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson());
+    }
+
+    @Override
+    public LoanScheduleData previewLoanSchedule(final JsonQuery query) {
+
+        // the query is validated for every preview as the borrower cycle
+        // constraints change with the loans of the client or group
+        validateLoanScheduleQuery(query, true);
+
+        final String key = this.loanScheduleCache.keyFor(query.parsedJson());
+        LoanScheduleData loanSchedule = this.loanScheduleCache.get(key);
+        if (loanSchedule == null) {
+            loanSchedule = this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson()).toData();
+            this.loanScheduleCache.put(key, loanSchedule);
+        }
+        return loanSchedule;
+    }
+
+    @Override
+    public List<LoanScheduleData> calculateLoanSchedules(final List<JsonQuery> queries) {
+
+        validateLoanScheduleQueryCount(queries.size());
+
+        final Map<Long, LoanProduct> loanProductsById = new HashMap<>();
+        final List<JsonElement> elements = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            final JsonQuery query = queries.get(i);
+            try {
+                this.loanApiJsonDeserializer.validateForCreate(query.json());
+                this.fromApiJsonDeserializer.validate(query.json());
+
+                final Long productId = this.fromJsonHelper.extractLongNamed("productId", query.parsedJson());
+                LoanProduct loanProduct = loanProductsById.get(productId);
+                if (loanProduct == null) {
+                    loanProduct = findLoanProduct(productId);
+                    loanProductsById.put(productId, loanProduct);
+                }
+                validateLoanScheduleQueryAgainst(loanProduct, query);
+            } catch (final PlatformApiDataValidationException e) {
+                throw new PlatformApiDataValidationException("validation.msg.loan.schedules.query.validation.errors.exist",
+                        "Validation errors exist in loan schedule query " + i + ".", e.getErrors());
+            }
+            elements.add(query.parsedJson());
+        }
+
+        final List<LoanScheduleCalculation> calculations = this.loanScheduleAssembler.assembleLoanScheduleCalculationsFrom(elements,
+                loanProductsById);
+        return this.parallelLoanScheduleGenerator.generate(calculations);
+    }
+
+    @Override
+    public LoanScheduleCacheData retrievePreviewCacheStatistics() {
+        return this.loanScheduleCache.retrieveStatistics();
+    }
+
+    private void validateLoanScheduleQueryCount(final int queryCount) {
+
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors).resource("loan.schedules");
+
+        baseDataValidator.reset().parameter("queries").value(queryCount).notGreaterThanMax(MAX_LOAN_SCHEDULE_QUERIES);
+        if (!dataValidationErrors.isEmpty()) { throw new PlatformApiDataValidationException(dataValidationErrors); }
+    }
+
+    private void validateLoanScheduleQuery(final JsonQuery query, final Boolean validateParams) {
+
         if (validateParams) {
             this.loanApiJsonDeserializer.validateForCreate(query.json());
         }
         this.fromApiJsonDeserializer.validate(query.json());
 
-        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
-        final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors).resource("loan");
-
         final Long productId = this.fromJsonHelper.extractLongNamed("productId", query.parsedJson());
+        validateLoanScheduleQueryAgainst(findLoanProduct(productId), query);
+    }
+
+    private LoanProduct findLoanProduct(final Long productId) {
         final LoanProduct loanProduct = this.loanProductRepository.findOne(productId);
         if (loanProduct == null) { throw new LoanProductNotFoundException(productId); }
+        return loanProduct;
+    }
+
+    private void validateLoanScheduleQueryAgainst(final LoanProduct loanProduct, final JsonQuery query) {
+
+        final List<ApiParameterError> dataValidationErrors = new ArrayList<>();
+        final DataValidatorBuilder baseDataValidator = new DataValidatorBuilder(dataValidationErrors).resource("loan");
 
         if (loanProduct.useBorrowerCycle()) {
             final Long clientId = this.fromJsonHelper.extractLongNamed("clientId", query.parsedJson());
@@ -80,7 +168,5 @@ public class LoanScheduleCalculationPlatformServiceImpl implements LoanScheduleC
             this.loanProductCommandFromApiJsonDeserializer.validateMinMaxConstraints(query.parsedJson(), baseDataValidator, loanProduct);
         }
         if (!dataValidationErrors.isEmpty()) { throw new PlatformApiDataValidationException(dataValidationErrors); }
-
-        return this.loanScheduleAssembler.assembleLoanScheduleFrom(query.parsedJson());
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.loanschedule.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.PreDestroy;
+
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.portfolio.loanaccount.loanschedule.data.LoanScheduleData;
+import org.springframework.stereotype.Component;
+
+/**
+ * Generates the schedules of a batch of {@link LoanScheduleCalculation}s on a
+ * fork-join pool with a thread per core, splitting the batch in halves down to
+ * {@link #CALCULATIONS_PER_TASK} calculations per task.
+ *
+ * The calculations hold everything the schedules are generated from, so the
+ * worker threads do not go to the database. They only need the tenant of the
+ * caller for the tenant date, which is set for each task.
+ */
+@Component
+public class ParallelLoanScheduleGenerator {
+
+    public static final int CALCULATIONS_PER_TASK = 8;
+
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @PreDestroy
+    public void shutdown() {
+        this.forkJoinPool.shutdownNow();
+    }
+
+    /**
+     * Returns the schedule data of the calculations in their order. If
+     * schedules cannot be generated, the exception of one of them is thrown.
+     */
+    public List<LoanScheduleData> generate(final List<LoanScheduleCalculation> calculations) {
+        final LoanScheduleData[] loanSchedules = new LoanScheduleData[calculations.size()];
+        this.forkJoinPool.invoke(new GenerationTask(ThreadLocalContextUtil.getTenant(), calculations, loanSchedules, 0,
+                calculations.size()));
+        return Arrays.asList(loanSchedules);
+    }
+
+    private static final class GenerationTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final MifosPlatformTenant tenant;
+        private final List<LoanScheduleCalculation> calculations;
+        private final LoanScheduleData[] loanSchedules;
+        private final int from;
+        private final int to;
+
+        public GenerationTask(final MifosPlatformTenant tenant, final List<LoanScheduleCalculation> calculations,
+                final LoanScheduleData[] loanSchedules, final int from, final int to) {
+            this.tenant = tenant;
+            this.calculations = calculations;
+            this.loanSchedules = loanSchedules;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= CALCULATIONS_PER_TASK) {
+                generateInRange();
+            } else {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new GenerationTask(this.tenant, this.calculations, this.loanSchedules, this.from, middle), new GenerationTask(
+                        this.tenant, this.calculations, this.loanSchedules, middle, this.to));
+            }
+        }
+
+        private void generateInRange() {
+            // a worker thread may be running the task of another request
+            final MifosPlatformTenant tenantOfThread = ThreadLocalContextUtil.getTenant();
+            ThreadLocalContextUtil.setTenant(this.tenant);
+            try {
+                for (int i = this.from; i < this.to; i++) {
+                    this.loanSchedules[i] = this.calculations.get(i).generate().toData();
+                }
+            } finally {
+                if (tenantOfThread == null) {
+                    ThreadLocalContextUtil.clearTenant();
+                } else {
+                    ThreadLocalContextUtil.setTenant(tenantOfThread);
+                }
+            }
+        }
+    }
+}
@@ -2,77 +2,94 @@ package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import javax.sql.DataSource;
 
 import org.joda.time.Days;
 import org.joda.time.LocalDate;
+import org.mifosplatform.accounting.journalentry.data.ChargePaymentDTO;
+import org.mifosplatform.accounting.journalentry.data.LoanDTO;
+import org.mifosplatform.accounting.journalentry.data.LoanTransactionDTO;
 import org.mifosplatform.accounting.journalentry.service.JournalEntryWritePlatformService;
 import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobCheckpoint;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.JobCheckpointService;
+import org.mifosplatform.infrastructure.jobs.service.JobExecutionMetrics;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.portfolio.common.domain.DaysInMonthType;
 import org.mifosplatform.portfolio.common.domain.DaysInYearType;
 import org.mifosplatform.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanTransactionEnumData;
 import org.mifosplatform.portfolio.loanaccount.domain.LoanTransactionType;
 import org.mifosplatform.portfolio.loanproduct.service.LoanEnumerations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 @Service
 public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlatformService {
 
+    private final static Logger logger = LoggerFactory.getLogger(LoanAccrualWritePlatformServiceImpl.class);
+
+    private static final String INSERT_ACCRUAL_TRANSACTION_SQL = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,interest_portion_derived,"
+            + "fee_charges_portion_derived,penalty_charges_portion_derived) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_REPAYMENT_SCHEDULE_ACCRUAL_SQL = "UPDATE m_loan_repayment_schedule SET accrual_interest_derived=?, accrual_fee_charges_derived=?, "
+            + "accrual_penalty_charges_derived=? WHERE  id=?";
+    private static final String UPDATE_LOAN_ACCRUED_TILL_SQL = "UPDATE m_loan  SET accrued_till=?  WHERE  id=?";
+
     private final LoanReadPlatformService loanReadPlatformService;
     private final JdbcTemplate jdbcTemplate;
     private final DataSource dataSource;
     private final JournalEntryWritePlatformService journalEntryWritePlatformService;
     private final JpaTransactionManager transactionManager;
+    private final JobCheckpointService jobCheckpointService;
 
     @Autowired
     public LoanAccrualWritePlatformServiceImpl(final RoutingDataSource dataSource, final LoanReadPlatformService loanReadPlatformService,
-            final JournalEntryWritePlatformService journalEntryWritePlatformService, final JpaTransactionManager transactionManager) {
+            final JournalEntryWritePlatformService journalEntryWritePlatformService, final JpaTransactionManager transactionManager,
+            final JobCheckpointService jobCheckpointService) {
         this.loanReadPlatformService = loanReadPlatformService;
         this.dataSource = dataSource;
         this.jdbcTemplate = new JdbcTemplate(this.dataSource);
         this.journalEntryWritePlatformService = journalEntryWritePlatformService;
         this.transactionManager = transactionManager;
+        this.jobCheckpointService = jobCheckpointService;
     }
 
     @Override
     @CronTarget(jobName = JobName.ADD_ACCRUAL_ENTRIES)
     public void addAccrualAccounting() throws JobExecutionException {
-        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retriveScheduleAccrualData();
-        StringBuilder sb = new StringBuilder();
-        Set<Long> loansIds = new HashSet<>();
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
-            try {
-                if (!loansIds.contains(accrualData.getLoanId())) {
-                    addAccrualAccounting(accrualData);
-                }
-            } catch (Exception e) {
-                loansIds.add(accrualData.getLoanId());
-                Throwable realCause = e;
-                if (e.getCause() != null) {
-                    realCause = e.getCause();
-                }
-                sb.append("failed to add accural transaction for repayment with id " + accrualData.getRepaymentScheduleId()
-                        + " with message " + realCause.getMessage());
-            }
-        }
+        final StringBuilder sb = new StringBuilder();
+        this.loanReadPlatformService.retriveScheduleAccrualData(SchedulerServiceConstants.ACCRUAL_BATCH_LOAN_COUNT,
+                new LoanScheduleAccrualDataHandler() {
+
+                    @Override
+                    public void handle(final Map<Long, List<LoanScheduleAccrualData>> accrualDatasByLoan) {
+                        addAccrualsForLoans(null, accrualDatasByLoan, sb);
+                    }
+                });
 
         if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
     }
@@ -80,48 +97,265 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
     @Override
     @CronTarget(jobName = JobName.ADD_PERIODIC_ACCRUAL_ENTRIES)
     public void addPeriodicAccruals() throws JobExecutionException {
-        String errors = addPeriodicAccruals(LocalDate.now());
-        if (errors.length() > 0) { throw new JobExecutionException(errors); }
+        final PeriodicAccrualHandler handler = new PeriodicAccrualHandler(LocalDate.now(),
+                this.jobCheckpointService.startOrResume(JobName.ADD_PERIODIC_ACCRUAL_ENTRIES));
+        addPeriodicAccruals(handler);
+        this.jobCheckpointService.complete(handler.checkpoint());
+        if (handler.errors().length() > 0) { throw new JobExecutionException(handler.errors()); }
     }
 
     @Override
     public String addPeriodicAccruals(final LocalDate tilldate) {
-        Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas = this.loanReadPlatformService.retrivePeriodicAccrualData(tilldate);
-        return addPeriodicAccruals(tilldate, loanScheduleAccrualDatas);
+        final PeriodicAccrualHandler handler = new PeriodicAccrualHandler(tilldate, null);
+        addPeriodicAccruals(handler);
+        return handler.errors();
     }
 
-    private String addPeriodicAccruals(final LocalDate tilldate, Collection<LoanScheduleAccrualData> loanScheduleAccrualDatas) {
-        StringBuilder sb = new StringBuilder();
-        Set<Long> loansIds = new HashSet<>();
-        LocalDate accruredTill = null;
-        for (final LoanScheduleAccrualData accrualData : loanScheduleAccrualDatas) {
+    /**
+     * Loans are read in ascending id order, so when a checkpoint is passed
+     * loans up to its last processed key are skipped and progress is recorded
+     * after every batch of loans.
+     */
+    private void addPeriodicAccruals(final PeriodicAccrualHandler handler) {
+        final Long afterLoanId = handler.checkpoint() == null ? null : handler.checkpoint().lastProcessedKey();
+        this.loanReadPlatformService.retrivePeriodicAccrualData(handler.tilldate(), afterLoanId,
+                SchedulerServiceConstants.ACCRUAL_BATCH_LOAN_COUNT, handler);
+    }
+
+    /**
+     * Adds the periodic accruals of each batch of loans and records progress
+     * on the checkpoint, if any, after the batch. The accruals of a batch are
+     * committed before its progress is recorded, so a failure to record it
+     * is logged rather than failing the job: the checkpoint keeps the
+     * progress in memory for the next batch to record, and a rerun finds the
+     * accruals of the batch no longer pending.
+     */
+    private final class PeriodicAccrualHandler implements LoanScheduleAccrualDataHandler {
+
+        private final LocalDate tilldate;
+        private final StringBuilder sb = new StringBuilder();
+        private ScheduledJobCheckpoint checkpoint;
+
+        public PeriodicAccrualHandler(final LocalDate tilldate, final ScheduledJobCheckpoint checkpoint) {
+            this.tilldate = tilldate;
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        public void handle(final Map<Long, List<LoanScheduleAccrualData>> accrualDatasByLoan) {
+            final int failedLoans = addAccrualsForLoans(this.tilldate, accrualDatasByLoan, this.sb);
+            final int processedLoans = accrualDatasByLoan.size() - failedLoans;
+            if (this.checkpoint == null) { return; }
+
+            Long lastLoanId = null;
+            for (final Long loanId : accrualDatasByLoan.keySet()) {
+                lastLoanId = loanId;
+            }
             try {
-                if (!loansIds.contains(accrualData.getLoanId())) {
-                    if (accrualData.getDueDateAsLocaldate().isAfter(tilldate)) {
-                        if (accruredTill == null) {
-                            accruredTill = accrualData.getAccruedTill();
-                        }
-                        addAccrualTillSpecificDate(tilldate, accrualData, accruredTill);
-                    } else {
-                        addAccrualAccounting(accrualData);
-                        accruredTill = accrualData.getDueDateAsLocaldate();
-                    }
-                }
-            } catch (Exception e) {
-                loansIds.add(accrualData.getLoanId());
-                Throwable realCause = e;
-                if (e.getCause() != null) {
-                    realCause = e.getCause();
+                this.checkpoint = LoanAccrualWritePlatformServiceImpl.this.jobCheckpointService.recordProgress(this.checkpoint,
+                        lastLoanId, processedLoans, failedLoans);
+            } catch (final RuntimeException e) {
+                logger.error("Recording the progress of periodic accruals up to loan " + lastLoanId + " failed", e);
+            }
+        }
+
+        public LocalDate tilldate() {
+            return this.tilldate;
+        }
+
+        public ScheduledJobCheckpoint checkpoint() {
+            return this.checkpoint;
+        }
+
+        public String errors() {
+            return this.sb.toString();
+        }
+    }
+
+    /**
+     * Adds the pending accruals of a batch of loans in a single transaction,
+     * writing the accrual transactions, schedule and loan updates and journal
+     * entries with JDBC batches. If the batch fails it is rolled back and its
+     * loans are retried one at a time, so that only the loans at fault are
+     * left out.
+     * 
+     * @return the number of loans for which accruals could not be added
+     */
+    private int addAccrualsForLoans(final LocalDate tilldate, final Map<Long, List<LoanScheduleAccrualData>> accrualDatasByLoan,
+            final StringBuilder sb) {
+        final JobExecutionMetrics metrics = JobExecutionMetrics.current();
+        final long startNanos = System.nanoTime();
+        int rowsRead = 0;
+        for (final List<LoanScheduleAccrualData> loanAccrualDatas : accrualDatasByLoan.values()) {
+            rowsRead += loanAccrualDatas.size();
+        }
+        final List<PendingAccrual> accruals = new ArrayList<>();
+        final TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            for (final List<LoanScheduleAccrualData> loanAccrualDatas : accrualDatasByLoan.values()) {
+                collectAccrualsForLoan(tilldate, loanAccrualDatas, accruals);
+            }
+            final long dbStartNanos = System.nanoTime();
+            writeAccruals(accruals);
+            metrics.recordDbTime(dbStartNanos);
+        } catch (Exception e) {
+            this.transactionManager.rollback(transactionStatus);
+            logger.warn("Adding accruals for a batch of " + accrualDatasByLoan.size() + " loans failed, retrying loan by loan: "
+                    + e.getMessage());
+            int failedLoans = 0;
+            for (final List<LoanScheduleAccrualData> loanAccrualDatas : accrualDatasByLoan.values()) {
+                if (!addAccrualsForLoan(tilldate, loanAccrualDatas, sb, metrics)) {
+                    failedLoans++;
                 }
-                sb.append("failed to add accural transaction for repayment with id " + accrualData.getRepaymentScheduleId()
-                        + " with message " + realCause.getMessage());
             }
+            metrics.recordChunk(rowsRead, startNanos);
+            return failedLoans;
         }
-        return sb.toString();
+        this.transactionManager.commit(transactionStatus);
+        metrics.recordRowsWritten(accruals.size());
+        metrics.recordChunk(rowsRead, startNanos);
+        return 0;
+    }
+
+    /**
+     * Adds the pending accruals of one loan in a single transaction. If any
+     * installment fails nothing is added for the loan.
+     */
+    private boolean addAccrualsForLoan(final LocalDate tilldate, final List<LoanScheduleAccrualData> loanAccrualDatas,
+            final StringBuilder sb, final JobExecutionMetrics metrics) {
+        final TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        final List<PendingAccrual> accruals = new ArrayList<>();
+        LoanScheduleAccrualData accrualData = null;
+        try {
+            LocalDate accruredTill = null;
+            for (final LoanScheduleAccrualData loanAccrualData : loanAccrualDatas) {
+                accrualData = loanAccrualData;
+                accruredTill = collectAccrual(tilldate, accrualData, accruredTill, accruals);
+            }
+            final long dbStartNanos = System.nanoTime();
+            writeAccruals(accruals);
+            metrics.recordDbTime(dbStartNanos);
+        } catch (Exception e) {
+            this.transactionManager.rollback(transactionStatus);
+            Throwable realCause = e;
+            if (e.getCause() != null) {
+                realCause = e.getCause();
+            }
+            sb.append("failed to add accural transaction for repayment with id " + accrualData.getRepaymentScheduleId()
+                    + " with message " + realCause.getMessage());
+            return false;
+        }
+        this.transactionManager.commit(transactionStatus);
+        metrics.recordRowsWritten(accruals.size());
+        return true;
+    }
+
+    private void collectAccrualsForLoan(final LocalDate tilldate, final List<LoanScheduleAccrualData> loanAccrualDatas,
+            final List<PendingAccrual> accruals) {
+        LocalDate accruredTill = null;
+        for (final LoanScheduleAccrualData accrualData : loanAccrualDatas) {
+            accruredTill = collectAccrual(tilldate, accrualData, accruredTill, accruals);
+        }
+    }
+
+    /**
+     * Works out the accrual of one installment. Accruals are periodic up to
+     * <code>tilldate</code> when it is given, and up to the installment due
+     * date otherwise.
+     * 
+     * @return the date the loan is accrued till for the next installment
+     */
+    private LocalDate collectAccrual(final LocalDate tilldate, final LoanScheduleAccrualData accrualData, final LocalDate accruredTill,
+            final List<PendingAccrual> accruals) {
+        if (tilldate != null && accrualData.getDueDateAsLocaldate().isAfter(tilldate)) {
+            final LocalDate startDate = accruredTill == null ? accrualData.getAccruedTill() : accruredTill;
+            addAccrualTillSpecificDate(tilldate, accrualData, startDate, accruals);
+            return startDate;
+        }
+        addAccrualAccounting(accrualData, accruals);
+        return accrualData.getDueDateAsLocaldate();
+    }
+
+    private void writeAccruals(final List<PendingAccrual> accruals) {
+        if (accruals.isEmpty()) { return; }
+
+        final List<Long> transactionIds = insertAccrualTransactions(accruals);
+        final List<Object[]> scheduleUpdates = new ArrayList<>(accruals.size());
+        final Map<Long, Date> accruedTillByLoan = new LinkedHashMap<>();
+        final Map<Long, List<LoanTransactionDTO>> transactionsByLoan = new LinkedHashMap<>();
+        final Map<Long, LoanScheduleAccrualData> accrualDataByLoan = new LinkedHashMap<>();
+        final LoanTransactionEnumData transactionType = LoanEnumerations.transactionType(LoanTransactionType.ACCRUAL);
+        final List<ChargePaymentDTO> noChargePayments = Collections.emptyList();
+        for (int i = 0; i < accruals.size(); i++) {
+            final PendingAccrual accrual = accruals.get(i);
+            final LoanScheduleAccrualData accrualData = accrual.accrualData;
+            final Long loanId = accrualData.getLoanId();
+            scheduleUpdates.add(new Object[] { accrual.totalAccInterest, accrual.totalAccFee, accrual.totalAccPenalty,
+                    accrualData.getRepaymentScheduleId() });
+            accruedTillByLoan.put(loanId, accrual.accruredTill.toDate());
+
+            List<LoanTransactionDTO> loanTransactions = transactionsByLoan.get(loanId);
+            if (loanTransactions == null) {
+                loanTransactions = new ArrayList<>();
+                transactionsByLoan.put(loanId, loanTransactions);
+                accrualDataByLoan.put(loanId, accrualData);
+            }
+            loanTransactions.add(new LoanTransactionDTO(accrualData.getOfficeId(), null, transactionIds.get(i).toString(), accrualData
+                    .getDueDateAsLocaldate().toDate(), transactionType, accrual.amount, null, accrual.interestportion,
+                    accrual.feeportion, accrual.penaltyportion, null, false, noChargePayments, noChargePayments, false));
+        }
+        this.jdbcTemplate.batchUpdate(UPDATE_REPAYMENT_SCHEDULE_ACCRUAL_SQL, scheduleUpdates);
+
+        final List<Object[]> loanUpdates = new ArrayList<>(accruedTillByLoan.size());
+        for (final Map.Entry<Long, Date> accruedTill : accruedTillByLoan.entrySet()) {
+            loanUpdates.add(new Object[] { accruedTill.getValue(), accruedTill.getKey() });
+        }
+        this.jdbcTemplate.batchUpdate(UPDATE_LOAN_ACCRUED_TILL_SQL, loanUpdates);
+
+        final List<LoanDTO> loanDTOs = new ArrayList<>(transactionsByLoan.size());
+        for (final Map.Entry<Long, List<LoanTransactionDTO>> loanTransactions : transactionsByLoan.entrySet()) {
+            final LoanScheduleAccrualData accrualData = accrualDataByLoan.get(loanTransactions.getKey());
+            loanDTOs.add(new LoanDTO(accrualData.getLoanId(), accrualData.getLoanProductId(), accrualData.getOfficeId(), accrualData
+                    .getCurrencyData().code(), false, false, true, loanTransactions.getValue()));
+        }
+        this.journalEntryWritePlatformService.createJournalEntriesForLoanAccruals(loanDTOs);
+    }
+
+    /**
+     * Batch inserts the accrual transactions and returns their generated ids
+     * in the same order.
+     */
+    private List<Long> insertAccrualTransactions(final List<PendingAccrual> accruals) {
+        return this.jdbcTemplate.execute(new ConnectionCallback<List<Long>>() {
+
+            @Override
+            public List<Long> doInConnection(final Connection con) throws SQLException {
+                final PreparedStatement ps = con.prepareStatement(INSERT_ACCRUAL_TRANSACTION_SQL, Statement.RETURN_GENERATED_KEYS);
+                ResultSet generatedKeys = null;
+                try {
+                    for (final PendingAccrual accrual : accruals) {
+                        new ArgumentPreparedStatementSetter(accrual.toTransactionParameters()).setValues(ps);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    generatedKeys = ps.getGeneratedKeys();
+                    final List<Long> transactionIds = new ArrayList<>(accruals.size());
+                    while (generatedKeys.next()) {
+                        transactionIds.add(generatedKeys.getLong(1));
+                    }
+                    if (transactionIds.size() != accruals.size()) { throw new SQLException("Expected " + accruals.size()
+                            + " generated accrual transaction ids but got " + transactionIds.size()); }
+                    return transactionIds;
+                } finally {
+                    JdbcUtils.closeResultSet(generatedKeys);
+                    JdbcUtils.closeStatement(ps);
+                }
+            }
+        });
     }
 
     private void addAccrualTillSpecificDate(final LocalDate tilldate, final LoanScheduleAccrualData accrualData,
-            final LocalDate accruredTill) throws Exception {
+            final LocalDate accruredTill, final List<PendingAccrual> accruals) {
         int totalNumberOfDays = Days.daysBetween(accrualData.getFromDateAsLocaldate(), accrualData.getDueDateAsLocaldate()).getDays();
         LocalDate startDate = accruredTill;
         if (startDate == null) {
@@ -186,8 +420,8 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
             }
         }
         if (amount.compareTo(BigDecimal.ZERO) != 0) {
-            addAccrualAccounting(accrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
-                    totalAccPenalty, tilldate);
+            accruals.add(new PendingAccrual(accrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee,
+                    penaltyportion, totalAccPenalty, tilldate));
         }
     }
 
@@ -223,8 +457,7 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
         return numberOfDays;
     }
 
-    @Transactional
-    public void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData) throws Exception {
+    private void addAccrualAccounting(final LoanScheduleAccrualData scheduleAccrualData, final List<PendingAccrual> accruals) {
 
         BigDecimal amount = BigDecimal.ZERO;
         BigDecimal interestportion = null;
@@ -268,80 +501,42 @@ public class LoanAccrualWritePlatformServiceImpl implements LoanAccrualWritePlat
                 penaltyportion = null;
             }
         }
-        addAccrualAccounting(scheduleAccrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee, penaltyportion,
-                totalAccPenalty, scheduleAccrualData.getDueDateAsLocaldate());
+        accruals.add(new PendingAccrual(scheduleAccrualData, amount, interestportion, totalAccInterest, feeportion, totalAccFee,
+                penaltyportion, totalAccPenalty, scheduleAccrualData.getDueDateAsLocaldate()));
     }
 
-    private void addAccrualAccounting(LoanScheduleAccrualData scheduleAccrualData, BigDecimal amount, BigDecimal interestportion,
-            BigDecimal totalAccInterest, BigDecimal feeportion, BigDecimal totalAccFee, BigDecimal penaltyportion,
-            BigDecimal totalAccPenalty, final LocalDate accruredTill) throws Exception {
-        TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
-        try {
-            String transactionSql = "INSERT INTO m_loan_transaction  (loan_id,office_id,is_reversed,transaction_type_enum,transaction_date,amount,interest_portion_derived,"
-                    + "fee_charges_portion_derived,penalty_charges_portion_derived) VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?)";
-            this.jdbcTemplate.update(transactionSql, scheduleAccrualData.getLoanId(), scheduleAccrualData.getOfficeId(),
-                    LoanTransactionType.ACCRUAL.getValue(), accruredTill.toDate(), amount, interestportion, feeportion, penaltyportion);
-            final Long transactonId = this.jdbcTemplate.queryForLong("SELECT LAST_INSERT_ID()");
-
-            Map<String, Object> transactionMap = toMapData(transactonId, amount, interestportion, feeportion, penaltyportion,
-                    scheduleAccrualData);
-
-            String repaymetUpdatesql = "UPDATE m_loan_repayment_schedule SET accrual_interest_derived=?, accrual_fee_charges_derived=?, "
-                    + "accrual_penalty_charges_derived=? WHERE  id=?";
-            this.jdbcTemplate.update(repaymetUpdatesql, totalAccInterest, totalAccFee, totalAccPenalty,
-                    scheduleAccrualData.getRepaymentScheduleId());
-
-            String updateLoan = "UPDATE m_loan  SET accrued_till=?  WHERE  id=?";
-            this.jdbcTemplate.update(updateLoan, accruredTill.toDate(), scheduleAccrualData.getLoanId());
-            final Map<String, Object> accountingBridgeData = deriveAccountingBridgeData(scheduleAccrualData, transactionMap);
-            this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
-        } catch (Exception e) {
-            this.transactionManager.rollback(transactionStatus);
-            throw e;
+    /**
+     * An accrual worked out for one installment, waiting to be written.
+     */
+    private static final class PendingAccrual {
+
+        private final LoanScheduleAccrualData accrualData;
+        private final BigDecimal amount;
+        private final BigDecimal interestportion;
+        private final BigDecimal totalAccInterest;
+        private final BigDecimal feeportion;
+        private final BigDecimal totalAccFee;
+        private final BigDecimal penaltyportion;
+        private final BigDecimal totalAccPenalty;
+        private final LocalDate accruredTill;
+
+        public PendingAccrual(final LoanScheduleAccrualData accrualData, final BigDecimal amount, final BigDecimal interestportion,
+                final BigDecimal totalAccInterest, final BigDecimal feeportion, final BigDecimal totalAccFee,
+                final BigDecimal penaltyportion, final BigDecimal totalAccPenalty, final LocalDate accruredTill) {
+            this.accrualData = accrualData;
+            this.amount = amount;
+            this.interestportion = interestportion;
+            this.totalAccInterest = totalAccInterest;
+            this.feeportion = feeportion;
+            this.totalAccFee = totalAccFee;
+            this.penaltyportion = penaltyportion;
+            this.totalAccPenalty = totalAccPenalty;
+            this.accruredTill = accruredTill;
         }
-        this.transactionManager.commit(transactionStatus);
-    }
 
-    public Map<String, Object> deriveAccountingBridgeData(final LoanScheduleAccrualData loanScheduleAccrualData,
-            final Map<String, Object> transactionMap) {
-
-        final Map<String, Object> accountingBridgeData = new LinkedHashMap<>();
-        accountingBridgeData.put("loanId", loanScheduleAccrualData.getLoanId());
-        accountingBridgeData.put("loanProductId", loanScheduleAccrualData.getLoanProductId());
-        accountingBridgeData.put("officeId", loanScheduleAccrualData.getOfficeId());
-        accountingBridgeData.put("currency", loanScheduleAccrualData.getCurrencyData());
-        accountingBridgeData.put("cashBasedAccountingEnabled", false);
-        accountingBridgeData.put("upfrontAccrualBasedAccountingEnabled", false);
-        accountingBridgeData.put("periodicAccrualBasedAccountingEnabled", true);
-        accountingBridgeData.put("isAccountTransfer", false);
-
-        final List<Map<String, Object>> newLoanTransactions = new ArrayList<>();
-        newLoanTransactions.add(transactionMap);
-
-        accountingBridgeData.put("newLoanTransactions", newLoanTransactions);
-        return accountingBridgeData;
-    }
-
-    public Map<String, Object> toMapData(final Long id, final BigDecimal amount, final BigDecimal interestportion,
-            final BigDecimal feeportion, final BigDecimal penaltyportion, final LoanScheduleAccrualData loanScheduleAccrualData) {
-        final Map<String, Object> thisTransactionData = new LinkedHashMap<>();
-
-        final LoanTransactionEnumData transactionType = LoanEnumerations.transactionType(LoanTransactionType.ACCRUAL);
-
-        thisTransactionData.put("id", id);
-        thisTransactionData.put("officeId", loanScheduleAccrualData.getOfficeId());
-        thisTransactionData.put("type", transactionType);
-        thisTransactionData.put("reversed", false);
-        thisTransactionData.put("date", loanScheduleAccrualData.getDueDateAsLocaldate());
-        thisTransactionData.put("currency", loanScheduleAccrualData.getCurrencyData());
-        thisTransactionData.put("amount", amount);
-        thisTransactionData.put("principalPortion", null);
-        thisTransactionData.put("interestPortion", interestportion);
-        thisTransactionData.put("feeChargesPortion", feeportion);
-        thisTransactionData.put("penaltyChargesPortion", penaltyportion);
-        thisTransactionData.put("overPaymentPortion", null);
-
-        return thisTransactionData;
+        public Object[] toTransactionParameters() {
+            return new Object[] { this.accrualData.getLoanId(), this.accrualData.getOfficeId(), LoanTransactionType.ACCRUAL.getValue(),
+                    this.accruredTill.toDate(), this.amount, this.interestportion, this.feeportion, this.penaltyportion };
+        }
     }
-
 }
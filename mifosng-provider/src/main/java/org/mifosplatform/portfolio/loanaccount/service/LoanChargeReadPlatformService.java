@@ -6,6 +6,7 @@
 package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.mifosplatform.portfolio.charge.data.ChargeData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanChargeData;
@@ -23,5 +24,9 @@ public interface LoanChargeReadPlatformService {
 
     Collection<LoanInstallmentChargeData> retrieveInstallmentLoanCharges(Long loanChargeId, boolean onlyPaymentPendingCharges);
 
-    Collection<Integer> retrieveOverdueInstallmentChargeFrequencyNumber(Long loanId, Long chargeId, Integer periodNumber);
+    /**
+     * Frequency numbers of the active overdue installment charges of a loan,
+     * by installment number and then by charge definition id.
+     */
+    Map<Integer, Map<Long, Collection<Integer>>> retrieveOverdueInstallmentChargeFrequencyNumbers(Long loanId);
 }
@@ -8,8 +8,11 @@ package org.mifosplatform.portfolio.loanaccount.service;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.joda.time.LocalDate;
 import org.mifosplatform.infrastructure.core.data.EnumOptionData;
@@ -25,6 +28,7 @@ import org.mifosplatform.portfolio.loanaccount.data.LoanChargeData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanInstallmentChargeData;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
@@ -226,15 +230,30 @@ public class LoanChargeReadPlatformServiceImpl implements LoanChargeReadPlatform
     }
 
     @Override
-    public Collection<Integer> retrieveOverdueInstallmentChargeFrequencyNumber(final Long loanId, final Long chargeId,
-            final Integer periodNumber) {
-        String sql = "select oic.frequency_number from m_loan_overdue_installment_charge oic  inner join m_loan_charge lc on lc.id=oic.loan_charge_id inner join m_loan_repayment_schedule rs on rs.id = oic.loan_schedule_id inner join m_loan loan on loan.id=rs.loan_id "
-                + "where lc.is_active = 1 and loan.id = ? and rs.installment=?";
-        Object[] params = { loanId, periodNumber };
-        if (chargeId != null) {
-            sql += " and lc.charge_id = ? ";
-            params = new Object[] { loanId, periodNumber, chargeId };
-        }
-        return this.jdbcTemplate.queryForList(sql, Integer.class, params);
+    public Map<Integer, Map<Long, Collection<Integer>>> retrieveOverdueInstallmentChargeFrequencyNumbers(final Long loanId) {
+        final String sql = "select rs.installment as installment, lc.charge_id as chargeId, oic.frequency_number as frequencyNumber "
+                + "from m_loan_overdue_installment_charge oic inner join m_loan_charge lc on lc.id=oic.loan_charge_id "
+                + "inner join m_loan_repayment_schedule rs on rs.id = oic.loan_schedule_id where lc.is_active = 1 and rs.loan_id = ?";
+        final Map<Integer, Map<Long, Collection<Integer>>> frequencyNumbers = new HashMap<>();
+        this.jdbcTemplate.query(sql, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                final Integer installment = rs.getInt("installment");
+                final Long chargeId = rs.getLong("chargeId");
+                Map<Long, Collection<Integer>> frequencyNumbersByCharge = frequencyNumbers.get(installment);
+                if (frequencyNumbersByCharge == null) {
+                    frequencyNumbersByCharge = new HashMap<>();
+                    frequencyNumbers.put(installment, frequencyNumbersByCharge);
+                }
+                Collection<Integer> chargeFrequencyNumbers = frequencyNumbersByCharge.get(chargeId);
+                if (chargeFrequencyNumbers == null) {
+                    chargeFrequencyNumbers = new ArrayList<>();
+                    frequencyNumbersByCharge.put(chargeId, chargeFrequencyNumbers);
+                }
+                chargeFrequencyNumbers.add(rs.getInt("frequencyNumber"));
+            }
+        }, loanId);
+        return frequencyNumbers;
     }
 }
@@ -14,7 +14,6 @@ import org.mifosplatform.portfolio.calendar.data.CalendarData;
 import org.mifosplatform.portfolio.group.service.SearchParameters;
 import org.mifosplatform.portfolio.loanaccount.data.DisbursementData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanAccountData;
-import org.mifosplatform.portfolio.loanaccount.data.LoanScheduleAccrualData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanTermVariationsData;
 import org.mifosplatform.portfolio.loanaccount.data.LoanTransactionData;
 import org.mifosplatform.portfolio.loanaccount.data.RepaymentScheduleRelatedLoanData;
@@ -80,11 +79,11 @@ public interface LoanReadPlatformService {
 
     Collection<LoanTermVariationsData> retrieveLoanTermVariations(Long loanId, Integer termType);
 
-    Collection<LoanScheduleAccrualData> retriveScheduleAccrualData();
+    void retriveScheduleAccrualData(int loansPerBatch, LoanScheduleAccrualDataHandler handler);
 
     LoanTransactionData retrieveRecoveryPaymentTemplate(Long loanId);
 
     LoanTransactionData retrieveLoanWriteoffTemplate(Long loanId);
 
-    Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(LocalDate tillDate);
+    void retrivePeriodicAccrualData(LocalDate tillDate, Long afterLoanId, int loansPerBatch, LoanScheduleAccrualDataHandler handler);
 }
\ No newline at end of file
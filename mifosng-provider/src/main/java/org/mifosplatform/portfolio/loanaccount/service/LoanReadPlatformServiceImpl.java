@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -1242,7 +1243,7 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
         final MusoniOverdueLoanScheduleMapper rm = new MusoniOverdueLoanScheduleMapper();
         final String sql = "select " + rm.schema() + " where DATE_SUB(CURDATE(),INTERVAL ? DAY) > ls.duedate "
                 + " and ls.completed_derived <> 1 and mc.charge_applies_to_enum =1 "
-                + " and mc.charge_time_enum = 9 and ml.loan_status_id = 300 ";
+                + " and mc.charge_time_enum = 9 and ml.loan_status_id = 300 order by ls.loan_id, ls.installment ";
         return this.jdbcTemplate.query(sql, rm, new Object[] { penaltyWaitPeriod });
     }
 
@@ -1322,39 +1323,84 @@ public class LoanReadPlatformServiceImpl implements LoanReadPlatformService {
     }
 
     @Override
-    public Collection<LoanScheduleAccrualData> retriveScheduleAccrualData() {
+    public void retriveScheduleAccrualData(final int loansPerBatch, final LoanScheduleAccrualDataHandler handler) {
 
         LoanScheduleAccrualMapper mapper = new LoanScheduleAccrualMapper();
         final StringBuilder sqlBuilder = new StringBuilder(400);
         sqlBuilder
-                .append("select ")
-                .append(mapper.schema())
                 .append(" where ((if(ls.fee_charges_waived_derived is null , ls.fee_charges_amount,(ls.fee_charges_amount-ls.fee_charges_waived_derived)) <> if(ls.accrual_fee_charges_derived is null,0, ls.accrual_fee_charges_derived))")
                 .append(" or (if(ls.penalty_charges_waived_derived is null , ls.penalty_charges_amount,(ls.penalty_charges_amount-ls.penalty_charges_waived_derived)) <> if(ls.accrual_penalty_charges_derived is null,0,ls.accrual_penalty_charges_derived))")
                 .append(" or (if(ls.interest_waived_derived is null , ls.interest_amount,(ls.interest_amount-ls.interest_waived_derived)) <> if(ls.accrual_interest_derived is null,0,ls.accrual_interest_derived)))")
-                .append("  and loan.loan_status_id=? and mpl.accounting_type=? and loan.is_npa=0 and ls.duedate <= CURDATE() order by loan.id,ls.duedate");
-        return this.jdbcTemplate.query(sqlBuilder.toString(), mapper, new Object[] { LoanStatus.ACTIVE.getValue(),
-                AccountingRuleType.ACCRUAL_PERIODIC.getValue() });
+                .append("  and loan.loan_status_id=:active and mpl.accounting_type=:type and loan.is_npa=0 and ls.duedate <= CURDATE()");
+        Map<String, Object> paramMap = new HashMap<>(5);
+        paramMap.put("active", LoanStatus.ACTIVE.getValue());
+        paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
+
+        retrieveAccrualDataInPages(mapper.schema(), sqlBuilder.toString(), paramMap, mapper, Long.valueOf(0), loansPerBatch, handler);
     }
 
     @Override
-    public Collection<LoanScheduleAccrualData> retrivePeriodicAccrualData(final LocalDate tillDate) {
+    public void retrivePeriodicAccrualData(final LocalDate tillDate, final Long afterLoanId, final int loansPerBatch,
+            final LoanScheduleAccrualDataHandler handler) {
 
         LoanSchedulePeriodicAccrualMapper mapper = new LoanSchedulePeriodicAccrualMapper();
         final StringBuilder sqlBuilder = new StringBuilder(400);
         sqlBuilder
-                .append("select ")
-                .append(mapper.schema())
                 .append(" where ((if(ls.fee_charges_waived_derived is null , ls.fee_charges_amount,(ls.fee_charges_amount-ls.fee_charges_waived_derived)) <> if(ls.accrual_fee_charges_derived is null,0, ls.accrual_fee_charges_derived))")
                 .append(" or (if(ls.penalty_charges_waived_derived is null , ls.penalty_charges_amount,(ls.penalty_charges_amount-ls.penalty_charges_waived_derived)) <> if(ls.accrual_penalty_charges_derived is null,0,ls.accrual_penalty_charges_derived))")
                 .append(" or (if(ls.interest_waived_derived is null , ls.interest_amount,(ls.interest_amount-ls.interest_waived_derived)) <> if(ls.accrual_interest_derived is null,0,ls.accrual_interest_derived)))")
-                .append("  and loan.loan_status_id=:active and mpl.accounting_type=:type and loan.is_npa=0 and (ls.duedate <= :tilldate or (ls.duedate > :tilldate and ls.fromdate < :tilldate)) order by loan.id,ls.duedate");
-        Map<String, Object> paramMap = new HashMap<>(3);
+                .append("  and loan.loan_status_id=:active and mpl.accounting_type=:type and loan.is_npa=0 and (ls.duedate <= :tilldate or (ls.duedate > :tilldate and ls.fromdate < :tilldate))");
+        Map<String, Object> paramMap = new HashMap<>(6);
         paramMap.put("active", LoanStatus.ACTIVE.getValue());
         paramMap.put("type", AccountingRuleType.ACCRUAL_PERIODIC.getValue());
         paramMap.put("tilldate", formatter.print(tillDate));
 
-        return this.namedParameterJdbcTemplate.query(sqlBuilder.toString(), paramMap, mapper);
+        retrieveAccrualDataInPages(mapper.schema(), sqlBuilder.toString(), paramMap, mapper,
+                afterLoanId == null ? Long.valueOf(0) : afterLoanId, loansPerBatch, handler);
+    }
+
+    /**
+     * Reads the pending accruals a page of <code>loansPerBatch</code> loans at
+     * a time, using keyset pagination on the loan id, and hands each page to
+     * the handler once it has been read in full, so that no result set is
+     * open while the handler writes accruals and memory use does not depend
+     * on the size of the portfolio.
+     */
+    private void retrieveAccrualDataInPages(final String schema, final String whereClause, final Map<String, Object> paramMap,
+            final RowMapper<LoanScheduleAccrualData> mapper, final Long afterLoanId, final int loansPerBatch,
+            final LoanScheduleAccrualDataHandler handler) {
+
+        final String lastLoanIdOfPageSql = "select max(x.id) from (select distinct loan.id as id from m_loan_repayment_schedule ls"
+                + " join m_loan loan on loan.id = ls.loan_id join m_product_loan mpl on mpl.id = loan.product_id" + whereClause
+                + " and loan.id > :afterLoanId order by loan.id limit :loansPerBatch) x";
+        final String pageSql = "select " + schema + whereClause
+                + " and loan.id > :afterLoanId and loan.id <= :lastLoanId order by loan.id,ls.duedate";
+        paramMap.put("loansPerBatch", loansPerBatch);
+
+        Long lastLoanId = afterLoanId;
+        while (true) {
+            paramMap.put("afterLoanId", lastLoanId);
+            final Long lastLoanIdOfPage = this.namedParameterJdbcTemplate.queryForObject(lastLoanIdOfPageSql, paramMap, Long.class);
+            if (lastLoanIdOfPage == null) {
+                break;
+            }
+            paramMap.put("lastLoanId", lastLoanIdOfPage);
+            final List<LoanScheduleAccrualData> accrualDatas = this.namedParameterJdbcTemplate.query(pageSql, paramMap, mapper);
+
+            final Map<Long, List<LoanScheduleAccrualData>> accrualDatasByLoan = new LinkedHashMap<>();
+            for (final LoanScheduleAccrualData accrualData : accrualDatas) {
+                List<LoanScheduleAccrualData> loanAccrualDatas = accrualDatasByLoan.get(accrualData.getLoanId());
+                if (loanAccrualDatas == null) {
+                    loanAccrualDatas = new ArrayList<>();
+                    accrualDatasByLoan.put(accrualData.getLoanId(), loanAccrualDatas);
+                }
+                loanAccrualDatas.add(accrualData);
+            }
+            if (!accrualDatasByLoan.isEmpty()) {
+                handler.handle(accrualDatasByLoan);
+            }
+            lastLoanId = lastLoanIdOfPage;
+        }
     }
 
     private static final class LoanSchedulePeriodicAccrualMapper implements RowMapper<LoanScheduleAccrualData> {
@@ -0,0 +1,25 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.List;
+import java.util.Map;
+
+import org.mifosplatform.portfolio.loanaccount.data.LoanScheduleAccrualData;
+
+/**
+ * Receives pending accruals as they are read from the database, a batch of
+ * complete loans at a time.
+ */
+public interface LoanScheduleAccrualDataHandler {
+
+    /**
+     * @param accrualDatasByLoan
+     *            installments with pending accruals keyed by loan id, in
+     *            ascending loan id and due date order
+     */
+    void handle(Map<Long, List<LoanScheduleAccrualData>> accrualDatasByLoan);
+}
@@ -0,0 +1,23 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.List;
+
+/**
+ * Keeps track of loans whose derived summary columns on <code>m_loan</code>
+ * need to be recomputed by the UPDATE_LOAN_SUMMARY job.
+ */
+public interface LoanSummaryDirtyTrackingService {
+
+    void markLoanSummaryDirty(Long loanId);
+
+    Long retrieveLatestDirtyMarkerId();
+
+    List<Long> retrieveDirtyLoanIds(Long afterLoanId, Long uptoMarkerId, int limit);
+
+    void clearDirtyLoanIds(List<Long> loanIds, Long uptoMarkerId);
+}
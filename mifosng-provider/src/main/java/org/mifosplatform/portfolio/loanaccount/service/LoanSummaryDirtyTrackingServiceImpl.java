@@ -0,0 +1,62 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.loanaccount.service;
+
+import java.util.List;
+
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Markers are appended to <code>m_loan_summary_dirty</code> in the same
+ * transaction as the loan change that caused them. The job only clears markers
+ * up to the highest marker id it saw when it started, so a loan touched while
+ * the job is running stays dirty for the next run.
+ */
+@Service
+public class LoanSummaryDirtyTrackingServiceImpl implements LoanSummaryDirtyTrackingService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    public LoanSummaryDirtyTrackingServiceImpl(final RoutingDataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+    }
+
+    @Override
+    public void markLoanSummaryDirty(final Long loanId) {
+        if (loanId == null) { return; }
+        this.jdbcTemplate.update("insert into m_loan_summary_dirty (loan_id) values (?)", loanId);
+    }
+
+    @Override
+    public Long retrieveLatestDirtyMarkerId() {
+        final Long markerId = this.jdbcTemplate.queryForObject("select max(id) from m_loan_summary_dirty", Long.class);
+        return markerId == null ? Long.valueOf(0) : markerId;
+    }
+
+    @Override
+    public List<Long> retrieveDirtyLoanIds(final Long afterLoanId, final Long uptoMarkerId, final int limit) {
+        final String sql = "select distinct d.loan_id from m_loan_summary_dirty d where d.loan_id > ? and d.id <= ? order by d.loan_id limit ?";
+        return this.jdbcTemplate.queryForList(sql, Long.class, afterLoanId, uptoMarkerId, limit);
+    }
+
+    @Override
+    public void clearDirtyLoanIds(final List<Long> loanIds, final Long uptoMarkerId) {
+        if (loanIds.isEmpty()) { return; }
+        final MapSqlParameterSource parameters = new MapSqlParameterSource();
+        parameters.addValue("loanIds", loanIds);
+        parameters.addValue("uptoMarkerId", uptoMarkerId);
+        this.namedParameterJdbcTemplate.update("delete from m_loan_summary_dirty where loan_id in (:loanIds) and id <= :uptoMarkerId",
+                parameters);
+    }
+}
@@ -6,9 +6,12 @@
 package org.mifosplatform.portfolio.loanaccount.service;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -30,10 +33,12 @@ import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
 import org.mifosplatform.infrastructure.core.exception.AbstractPlatformDomainRuleException;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
-import org.mifosplatform.infrastructure.core.serialization.FromJsonHelper;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.JobExecutionMetrics;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.holiday.domain.Holiday;
 import org.mifosplatform.organisation.holiday.domain.HolidayRepositoryWrapper;
@@ -128,12 +133,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
-import com.google.gson.JsonElement;
-
 @Service
 public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatformService {
 
@@ -163,8 +175,11 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     private final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService;
     private final LoanChargeReadPlatformService loanChargeReadPlatformService;
     private final LoanReadPlatformService loanReadPlatformService;
-    private final FromJsonHelper fromApiJsonHelper;
     private final AccountTransferRepository accountTransferRepository;
+    private final LoanSummaryDirtyTrackingService loanSummaryDirtyTrackingService;
+    private final JpaTransactionManager transactionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     @Autowired
     public LoanWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -183,7 +198,9 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             final AccountTransfersReadPlatformService accountTransfersReadPlatformService,
             final AccountAssociationsReadPlatformService accountAssociationsReadPlatformService,
             final LoanChargeReadPlatformService loanChargeReadPlatformService, final LoanReadPlatformService loanReadPlatformService,
-            final FromJsonHelper fromApiJsonHelper, final AccountTransferRepository accountTransferRepository) {
+            final AccountTransferRepository accountTransferRepository,
+            final LoanSummaryDirtyTrackingService loanSummaryDirtyTrackingService, final JpaTransactionManager transactionManager,
+            final RoutingDataSource dataSource, final TransactionTemplate transactionTemplate) {
         this.context = context;
         this.loanEventApiJsonValidator = loanEventApiJsonValidator;
         this.loanAssembler = loanAssembler;
@@ -208,8 +225,11 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         this.accountAssociationsReadPlatformService = accountAssociationsReadPlatformService;
         this.loanChargeReadPlatformService = loanChargeReadPlatformService;
         this.loanReadPlatformService = loanReadPlatformService;
-        this.fromApiJsonHelper = fromApiJsonHelper;
         this.accountTransferRepository = accountTransferRepository;
+        this.loanSummaryDirtyTrackingService = loanSummaryDirtyTrackingService;
+        this.transactionManager = transactionManager;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
     }
 
     private LoanLifecycleStateMachine defaultLoanLifecycleStateMachine() {
@@ -551,6 +571,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
             final Map<String, Object> accountingBridgeData = loan.deriveAccountingBridgeData(applicationCurrency.toData(),
                     existingTransactionIds, existingReversedTransactionIds, isAccountTransfer);
             this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
+            this.loanSummaryDirtyTrackingService.markLoanSummaryDirty(loan.getId());
         }
 
         return new CommandProcessingResultBuilder() //
@@ -1021,6 +1042,11 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     }
 
     private void addCharge(final Loan loan, final Charge chargeDefinition, final LoanCharge loanCharge) {
+        validateAddCharge(loan, chargeDefinition, loanCharge);
+        addCharges(loan, Arrays.asList(loanCharge));
+    }
+
+    private void validateAddCharge(final Loan loan, final Charge chargeDefinition, final LoanCharge loanCharge) {
 
         if (!loan.hasCurrencyCodeOf(chargeDefinition.getCurrencyCode())) {
             final String errorMessage = "Charge and Loan must have the same currency.";
@@ -1035,12 +1061,21 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                 throw new LinkedAccountRequiredException("loanCharge.add", errorMessage, loanCharge.name());
             }
         }
+    }
+
+    /**
+     * Adds already validated charges to a loan, reprocessing its schedule and
+     * transactions and posting its journal entries once for all of them.
+     */
+    private void addCharges(final Loan loan, final List<LoanCharge> loanCharges) {
 
         final List<Long> existingTransactionIds = new ArrayList<>();
         final List<Long> existingReversedTransactionIds = new ArrayList<>();
-        this.loanChargeRepository.save(loanCharge);
+        for (final LoanCharge loanCharge : loanCharges) {
+            this.loanChargeRepository.save(loanCharge);
+        }
 
-        final ChangedTransactionDetail changedTransactionDetail = loan.addLoanCharge(loanCharge, existingTransactionIds,
+        final ChangedTransactionDetail changedTransactionDetail = loan.addLoanCharges(loanCharges, existingTransactionIds,
                 existingReversedTransactionIds);
 
         /**
@@ -1050,8 +1085,10 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
          **/
         if (loan.status().isActive()) {
             if (loan.isNoneOrCashOrUpfrontAccrualAccountingEnabledOnLoanProduct()) {
-                final LoanTransaction applyLoanChargeTransaction = loan.handleChargeAppliedTransaction(loanCharge, null);
-                this.loanTransactionRepository.save(applyLoanChargeTransaction);
+                for (final LoanCharge loanCharge : loanCharges) {
+                    final LoanTransaction applyLoanChargeTransaction = loan.handleChargeAppliedTransaction(loanCharge, null);
+                    this.loanTransactionRepository.save(applyLoanChargeTransaction);
+                }
             }
             /***
              * TODO Vishwas Batch save is giving me a
@@ -1559,6 +1596,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         final Map<String, Object> accountingBridgeData = loan.deriveAccountingBridgeData(applicationCurrency.toData(),
                 existingTransactionIds, existingReversedTransactionIds, isAccountTransfer);
         this.journalEntryWritePlatformService.createJournalEntriesForLoan(accountingBridgeData);
+        this.loanSummaryDirtyTrackingService.markLoanSummaryDirty(loan.getId());
     }
 
     @Transactional
@@ -1736,7 +1774,12 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
         this.loanRepository.save(loansToUpdate);
     }
 
-    @Transactional
+    /**
+     * Each chunk of schedule updates commits in a transaction of its own, and
+     * a holiday is marked processed once all of its chunks have committed.
+     * Installments already moved are no longer due within the holiday, so a
+     * rerun after a failure only updates the installments left.
+     */
     @Override
     @CronTarget(jobName = JobName.APPLY_HOLIDAYS_TO_LOANS)
     public void applyHolidaysToLoans() {
@@ -1759,23 +1802,65 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                 officeIds.add(office.getId());
             }
 
-            // get all loans
-            final List<Loan> loans = new ArrayList<>();
-            // get all individual and jlg loans
-            loans.addAll(this.loanRepository.findByClientOfficeIdsAndLoanStatus(officeIds, loanStatuses));
-            // FIXME: AA optimize to get all client and group loans belongs to a
-            // office id
-            // get all group loans
-            loans.addAll(this.loanRepository.findByGroupOfficeIdsAndLoanStatus(officeIds, loanStatuses));
-
-            for (final Loan loan : loans) {
-                // apply holiday
-                loan.applyHolidayToRepaymentScheduleDates(holiday);
+            applyHolidayToRepaymentScheduleDates(holiday, officeIds, loanStatuses);
+            this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    holiday.processed();
+                    LoanWritePlatformServiceJpaRepositoryImpl.this.holidayRepository.save(holiday);
+                }
+            });
+        }
+    }
+
+    /**
+     * Moves the due dates of the installments falling on the holiday to its
+     * repayments rescheduled to date, and the from dates of the installments
+     * following them, with the same outcome as
+     * {@link Loan#applyHolidayToRepaymentScheduleDates(Holiday)} but touching
+     * only the affected schedule rows instead of loading every loan of the
+     * offices.
+     */
+    private void applyHolidayToRepaymentScheduleDates(final Holiday holiday, final Collection<Long> officeIds,
+            final Collection<Integer> loanStatuses) {
+        final String sql = "select ls.id as id, ls.loan_id as loanId, ls.installment as installment from m_loan_repayment_schedule ls "
+                + "join m_loan l on l.id = ls.loan_id left join m_client c on c.id = l.client_id left join m_group g on g.id = l.group_id "
+                + "where l.loan_status_id in (:loanStatuses) and (c.office_id in (:officeIds) or g.office_id in (:officeIds)) "
+                + "and ls.duedate between :fromDate and :toDate order by ls.loan_id, ls.installment";
+        final MapSqlParameterSource parameters = new MapSqlParameterSource();
+        parameters.addValue("loanStatuses", loanStatuses);
+        parameters.addValue("officeIds", officeIds);
+        parameters.addValue("fromDate", holiday.getFromDateLocalDate().toDate());
+        parameters.addValue("toDate", holiday.getToDateLocalDate().toDate());
+
+        final Date rescheduledTo = holiday.getRepaymentsRescheduledToLocalDate().toDate();
+        final List<Object[]> dueDateUpdates = new ArrayList<>();
+        final List<Object[]> fromDateUpdates = new ArrayList<>();
+        this.namedParameterJdbcTemplate.query(sql, parameters, new RowCallbackHandler() {
+
+            @Override
+            public void processRow(final ResultSet rs) throws SQLException {
+                dueDateUpdates.add(new Object[] { rescheduledTo, rs.getLong("id") });
+                fromDateUpdates.add(new Object[] { rescheduledTo, rs.getLong("loanId"), rs.getInt("installment") + 1 });
             }
-            this.loanRepository.save(loans);
-            holiday.processed();
+        });
+
+        final JdbcOperations jdbcTemplate = this.namedParameterJdbcTemplate.getJdbcOperations();
+        for (int fromIndex = 0; fromIndex < dueDateUpdates.size(); fromIndex += SchedulerServiceConstants.PARTITION_SIZE) {
+            final int toIndex = Math.min(fromIndex + SchedulerServiceConstants.PARTITION_SIZE, dueDateUpdates.size());
+            final List<Object[]> dueDateUpdatesOfChunk = dueDateUpdates.subList(fromIndex, toIndex);
+            final List<Object[]> fromDateUpdatesOfChunk = fromDateUpdates.subList(fromIndex, toIndex);
+            this.transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+
+                @Override
+                protected void doInTransactionWithoutResult(@SuppressWarnings("unused") final TransactionStatus status) {
+                    jdbcTemplate.batchUpdate("update m_loan_repayment_schedule set duedate = ? where id = ?", dueDateUpdatesOfChunk);
+                    jdbcTemplate.batchUpdate("update m_loan_repayment_schedule set fromdate = ? where loan_id = ? and installment = ?",
+                            fromDateUpdatesOfChunk);
+                }
+            });
         }
-        this.holidayRepository.save(holidays);
     }
 
     private void checkForProductMixRestrictions(final Loan loan) {
@@ -1821,65 +1906,170 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
     public void applyChargeForOverdueLoans() throws JobExecutionException {
 
         final Long penaltyWaitPeriodValue = this.configurationDomainService.retrievePenaltyWaitPeriod();
+        final Long penaltyPostingWaitPeriodValue = this.configurationDomainService.retrieveGraceOnPenaltyPostingPeriod();
         final Collection<OverdueLoanScheduleData> overdueLoanScheduledInstallments = this.loanReadPlatformService
                 .retrieveAllLoansWithOverdueInstallments(penaltyWaitPeriodValue);
 
         if (!overdueLoanScheduledInstallments.isEmpty()) {
-            final StringBuilder sb = new StringBuilder();
+            final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan = new LinkedHashMap<>();
             for (final OverdueLoanScheduleData overdueInstallment : overdueLoanScheduledInstallments) {
-                try {
-
-                    final JsonElement parsedCommand = this.fromApiJsonHelper.parse(overdueInstallment.toString());
+                List<OverdueLoanScheduleData> loanOverdueInstallments = overdueInstallmentsByLoan.get(overdueInstallment.getLoanId());
+                if (loanOverdueInstallments == null) {
+                    loanOverdueInstallments = new ArrayList<>();
+                    overdueInstallmentsByLoan.put(overdueInstallment.getLoanId(), loanOverdueInstallments);
+                }
+                loanOverdueInstallments.add(overdueInstallment);
+            }
 
-                    final JsonCommand command = JsonCommand.from(overdueInstallment.toString(), parsedCommand, this.fromApiJsonHelper,
-                            null, null, null, null, null, overdueInstallment.getLoanId(), null, null, null, null);
+            final StringBuilder sb = new StringBuilder();
+            final List<Long> loanIds = new ArrayList<>(overdueInstallmentsByLoan.keySet());
+            for (int fromIndex = 0; fromIndex < loanIds.size(); fromIndex += SchedulerServiceConstants.OVERDUE_CHARGE_BATCH_LOAN_COUNT) {
+                final int toIndex = Math.min(fromIndex + SchedulerServiceConstants.OVERDUE_CHARGE_BATCH_LOAN_COUNT, loanIds.size());
+                applyChargeToOverdueLoans(loanIds.subList(fromIndex, toIndex), overdueInstallmentsByLoan, penaltyWaitPeriodValue,
+                        penaltyPostingWaitPeriodValue, sb);
+            }
+            if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+        }
+    }
 
-                    applyChargeToOverdueLoanInstallment(overdueInstallment.getLoanId(), overdueInstallment.getChargeId(),
-                            overdueInstallment.getPeriodNumber(), command);
+    /**
+     * Applies the overdue installment charges of a batch of loans in a single
+     * transaction. If the batch fails it is rolled back and its loans are
+     * retried one at a time, so that only the loans at fault are left out.
+     */
+    private void applyChargeToOverdueLoans(final List<Long> loanIds, final Map<Long, List<OverdueLoanScheduleData>> overdueInstallmentsByLoan,
+            final Long penaltyWaitPeriodValue, final Long penaltyPostingWaitPeriodValue, final StringBuilder sb) {
+        final JobExecutionMetrics metrics = JobExecutionMetrics.current();
+        final long startNanos = System.nanoTime();
+        int rowsRead = 0;
+        for (final Long loanId : loanIds) {
+            rowsRead += overdueInstallmentsByLoan.get(loanId).size();
+        }
+        int chargesApplied = 0;
+        final TransactionStatus transactionStatus = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            final Map<Long, Charge> chargeDefinitions = new HashMap<>();
+            for (final Long loanId : loanIds) {
+                chargesApplied += applyChargeToOverdueLoanInstallments(loanId, overdueInstallmentsByLoan.get(loanId), chargeDefinitions,
+                        penaltyWaitPeriodValue, penaltyPostingWaitPeriodValue);
+            }
+            // the loans and charges are only flushed on commit, so its
+            // failures are those of the batch
+            this.transactionManager.commit(transactionStatus);
+        } catch (final Exception e) {
+            if (!transactionStatus.isCompleted()) {
+                this.transactionManager.rollback(transactionStatus);
+            }
+            if (loanIds.size() == 1) {
+                appendOverdueChargeFailure(loanIds.get(0), e, sb);
+                metrics.recordChunk(rowsRead, startNanos);
+                return;
+            }
+            logger.warn("Apply Charges due for overdue loans failed for a batch of " + loanIds.size()
+                    + " loans, retrying loan by loan: " + e.getMessage());
+            for (final Long loanId : loanIds) {
+                applyChargeToOverdueLoans(Arrays.asList(loanId), overdueInstallmentsByLoan, penaltyWaitPeriodValue,
+                        penaltyPostingWaitPeriodValue, sb);
+            }
+            return;
+        }
+        metrics.recordRowsWritten(chargesApplied);
+        metrics.recordChunk(rowsRead, startNanos);
+    }
 
-                } catch (final PlatformApiDataValidationException e) {
-                    final List<ApiParameterError> errors = e.getErrors();
-                    for (final ApiParameterError error : errors) {
-                        logger.error("Apply Charges due for overdue loans failed for account:" + overdueInstallment.getLoanId()
-                                + " with message " + error.getDeveloperMessage());
-                        sb.append("Apply Charges due for overdue loans failed for account:").append(overdueInstallment.getLoanId())
-                                .append(" with message ").append(error.getDeveloperMessage());
-                    }
-                } catch (final AbstractPlatformDomainRuleException ex) {
-                    logger.error("Apply Charges due for overdue loans failed for account:" + overdueInstallment.getLoanId()
-                            + " with message " + ex.getDefaultUserMessage());
-                    sb.append("Apply Charges due for overdue loans failed for account:").append(overdueInstallment.getLoanId())
-                            .append(" with message ").append(ex.getDefaultUserMessage());
-                } catch (Exception e) {
-                    Throwable realCause = e;
-                    if (e.getCause() != null) {
-                        realCause = e.getCause();
-                    }
-                    logger.error("Apply Charges due for overdue loans failed for account:" + overdueInstallment.getLoanId()
-                            + " with message " + realCause.getMessage());
-                    sb.append("Apply Charges due for overdue loans failed for account:").append(overdueInstallment.getLoanId())
-                            .append(" with message ").append(realCause.getMessage());
-                }
+    private void appendOverdueChargeFailure(final Long loanId, final Exception e, final StringBuilder sb) {
+        if (e instanceof PlatformApiDataValidationException) {
+            final List<ApiParameterError> errors = ((PlatformApiDataValidationException) e).getErrors();
+            for (final ApiParameterError error : errors) {
+                logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message "
+                        + error.getDeveloperMessage());
+                sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
+                        .append(error.getDeveloperMessage());
             }
-            if (sb.length() > 0) { throw new JobExecutionException(sb.toString()); }
+        } else if (e instanceof AbstractPlatformDomainRuleException) {
+            final String message = ((AbstractPlatformDomainRuleException) e).getDefaultUserMessage();
+            logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message " + message);
+            sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
+                    .append(message);
+        } else {
+            Throwable realCause = e;
+            if (e.getCause() != null) {
+                realCause = e.getCause();
+            }
+            logger.error("Apply Charges due for overdue loans failed for account:" + loanId + " with message " + realCause.getMessage());
+            sb.append("Apply Charges due for overdue loans failed for account:").append(loanId).append(" with message ")
+                    .append(realCause.getMessage());
         }
     }
 
-    @Transactional
-    public void applyChargeToOverdueLoanInstallment(final Long loanId, final Long loanChargeId, final Integer periodNumber,
-            final JsonCommand command) {
+    /**
+     * Works out every penalty still to be applied to the overdue installments
+     * of a loan, using a single lookup of the penalties already applied, and
+     * adds all of them to the loan at once.
+     * 
+     * @return the number of penalties applied
+     */
+    private int applyChargeToOverdueLoanInstallments(final Long loanId, final List<OverdueLoanScheduleData> overdueInstallments,
+            final Map<Long, Charge> chargeDefinitions, final Long penaltyWaitPeriodValue, final Long penaltyPostingWaitPeriodValue) {
+
+        final Map<Integer, Map<Long, Collection<Integer>>> appliedFrequencyNumbers = this.loanChargeReadPlatformService
+                .retrieveOverdueInstallmentChargeFrequencyNumbers(loanId);
 
-        final Charge chargeDefinition = this.chargeRepository.findOneWithNotFoundDetection(loanChargeId);
+        Loan loan = null;
+        final List<LoanCharge> loanCharges = new ArrayList<>();
+        for (final OverdueLoanScheduleData overdueInstallment : overdueInstallments) {
+            Charge chargeDefinition = chargeDefinitions.get(overdueInstallment.getChargeId());
+            if (chargeDefinition == null) {
+                chargeDefinition = this.chargeRepository.findOneWithNotFoundDetection(overdueInstallment.getChargeId());
+                chargeDefinitions.put(chargeDefinition.getId(), chargeDefinition);
+            }
 
-        Collection<Integer> frequencyNumbers = loanChargeReadPlatformService.retrieveOverdueInstallmentChargeFrequencyNumber(loanId,
-                chargeDefinition.getId(), periodNumber);
+            final Map<Integer, LocalDate> scheduleDates = overdueChargeScheduleDates(chargeDefinition,
+                    new LocalDate(overdueInstallment.getDueDate()), penaltyWaitPeriodValue, penaltyPostingWaitPeriodValue);
+            final Map<Long, Collection<Integer>> appliedFrequencyNumbersByCharge = appliedFrequencyNumbers.get(overdueInstallment
+                    .getPeriodNumber());
+            if (appliedFrequencyNumbersByCharge != null && appliedFrequencyNumbersByCharge.containsKey(chargeDefinition.getId())) {
+                scheduleDates.keySet().removeAll(appliedFrequencyNumbersByCharge.get(chargeDefinition.getId()));
+            }
+            if (scheduleDates.isEmpty()) {
+                continue;
+            }
 
-        Integer feeFrequency = chargeDefinition.feeFrequency();
+            if (loan == null) {
+                loan = this.loanAssembler.assembleFrom(loanId);
+                checkClientOrGroupActive(loan);
+            }
+            final LoanRepaymentScheduleInstallment installment = loan.fetchRepaymentScheduleInstallment(overdueInstallment
+                    .getPeriodNumber());
+            for (final Map.Entry<Integer, LocalDate> entry : scheduleDates.entrySet()) {
+                final LoanCharge loanCharge = LoanCharge.createNew(loan, chargeDefinition, overdueInstallment.getAmount(),
+                        overdueInstallment.getPrincipalOverdue(), overdueInstallment.getInterestOverdue(), entry.getValue());
+
+                final LoanOverdueInstallmentCharge overdueInstallmentCharge = new LoanOverdueInstallmentCharge(loanCharge, installment,
+                        entry.getKey());
+                loanCharge.updateOverdueInstallmentCharge(overdueInstallmentCharge);
+
+                validateAddCharge(loan, chargeDefinition, loanCharge);
+                loanCharges.add(loanCharge);
+            }
+        }
+
+        if (!loanCharges.isEmpty()) {
+            addCharges(loan, loanCharges);
+        }
+        return loanCharges.size();
+    }
+
+    /**
+     * The dates of the penalties due for an installment, by frequency number:
+     * a single penalty for one off charges, and one for every fee period
+     * elapsed since the installment became overdue otherwise.
+     */
+    private Map<Integer, LocalDate> overdueChargeScheduleDates(final Charge chargeDefinition, final LocalDate dueDate,
+            final Long penaltyWaitPeriodValue, final Long penaltyPostingWaitPeriodValue) {
+        final Integer feeFrequency = chargeDefinition.feeFrequency();
         final ScheduledDateGenerator scheduledDateGenerator = new DefaultScheduledDateGenerator();
-        Map<Integer, LocalDate> scheduleDates = new HashMap<>();
-        final Long penaltyWaitPeriodValue = this.configurationDomainService.retrievePenaltyWaitPeriod();
-        final Long penaltyPostingWaitPeriodValue = this.configurationDomainService.retrieveGraceOnPenaltyPostingPeriod();
-        final LocalDate dueDate = command.localDateValueOfParameterNamed("dueDate");
+        final Map<Integer, LocalDate> scheduleDates = new HashMap<>();
         Long diff = penaltyWaitPeriodValue + 1 - penaltyPostingWaitPeriodValue;
         if (diff < 0) {
             diff = 0L;
@@ -1897,29 +2087,7 @@ public class LoanWritePlatformServiceJpaRepositoryImpl implements LoanWritePlatf
                 startDate = scheduleDate;
             }
         }
-
-        for (Integer frequency : frequencyNumbers) {
-            scheduleDates.remove(frequency);
-        }
-
-        Loan loan = null;
-        LoanRepaymentScheduleInstallment installment = null;
-        if (!scheduleDates.isEmpty()) {
-            loan = this.loanAssembler.assembleFrom(loanId);
-            checkClientOrGroupActive(loan);
-            installment = loan.fetchRepaymentScheduleInstallment(periodNumber);
-        }
-
-        for (Map.Entry<Integer, LocalDate> entry : scheduleDates.entrySet()) {
-
-            final LoanCharge loanCharge = LoanCharge.createNewFromJson(loan, chargeDefinition, command, entry.getValue());
-
-            LoanOverdueInstallmentCharge overdueInstallmentCharge = new LoanOverdueInstallmentCharge(loanCharge, installment,
-                    entry.getKey());
-            loanCharge.updateOverdueInstallmentCharge(overdueInstallmentCharge);
-
-            addCharge(loan, chargeDefinition, loanCharge);
-        }
+        return scheduleDates;
     }
 
     @Override
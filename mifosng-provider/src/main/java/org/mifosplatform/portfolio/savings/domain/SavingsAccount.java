@@ -253,7 +253,27 @@ public class SavingsAccount extends AbstractPersistable<Long> {
     @Temporal(TemporalType.DATE)
     @Column(name = "start_interest_calculation_date")
     protected Date startInterestCalculationDate;
-    
+
+    /**
+     * The posting date of the last posting period, counted from the start of
+     * interest calculation, whose interest and that of all the periods before
+     * it is posted as calculated. Interest is calculated from this date on
+     * with the balance and interest posted up to it while the hash of the
+     * transactions before it and of the interest settings is unchanged.
+     */
+    @Temporal(TemporalType.DATE)
+    @Column(name = "interest_checkpoint_date", nullable = true)
+    private Date interestCheckpointDate;
+
+    @Column(name = "interest_checkpoint_balance", scale = 6, precision = 19, nullable = true)
+    private BigDecimal interestCheckpointBalance;
+
+    @Column(name = "interest_checkpoint_posted", scale = 6, precision = 19, nullable = true)
+    private BigDecimal interestCheckpointPosted;
+
+    @Column(name = "interest_checkpoint_hash", nullable = true)
+    private Long interestCheckpointHash;
+
     @OneToOne(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     protected DepositAccountRecurringDetail depositAccountRecurringDetail;
 
@@ -537,9 +557,6 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         final SavingsInterestCalculationDaysInYearType daysInYearType = SavingsInterestCalculationDaysInYearType
                 .fromInt(this.interestCalculationDaysInYearType);
 
-        final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(getStartInterestCalculationDate(),
-                upToInterestCalculationDate, postingPeriodType);
-
         final List<PostingPeriod> allPostingPeriods = new ArrayList<>();
         
         Money periodStartingBalance;
@@ -574,27 +591,149 @@ public class SavingsAccount extends AbstractPersistable<Long> {
         final Collection<Long> interestPostTransactions = this.savingsHelper.fetchPostInterestTransactionIds(getId());
         final Money minBalanceForInterestCalculation = Money.of(getCurrency(), minBalanceForInterestCalculation());
 
-        for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
+        final List<SavingsAccountTransaction> orderedNonInterestPostingTransactions = retreiveOrderedNonInterestPostingTransactions();
 
-            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance,
-                    retreiveOrderedNonInterestPostingTransactions(), this.currency, compoundingPeriodType, interestCalculationType,
-                    interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
-                    isInterestTransfer, minBalanceForInterestCalculation);
+        // posting periods up to a valid interest checkpoint are not calculated
+        // again, transactions whose balance ends before it are skipped when
+        // the posting periods are created
+        LocalDate interestCalculationFromDate = getStartInterestCalculationDate();
+        Money interestPostedBeforeCalculation = Money.zero(this.currency);
+        final boolean fromInterestCheckpoint = isInterestCheckpointValidFor(upToInterestCalculationDate);
+        if (fromInterestCheckpoint) {
+            interestCalculationFromDate = new LocalDate(this.interestCheckpointDate);
+            periodStartingBalance = Money.of(this.currency, this.interestCheckpointBalance);
+            interestPostedBeforeCalculation = Money.of(this.currency, this.interestCheckpointPosted);
+        }
 
-            periodStartingBalance = postingPeriod.closingBalance();
+        final List<LocalDateInterval> postingPeriodIntervals = this.savingsHelper.determineInterestPostingPeriods(interestCalculationFromDate,
+                upToInterestCalculationDate, postingPeriodType);
 
-            allPostingPeriods.add(postingPeriod);
-        }
+        allPostingPeriods.addAll(PostingPeriod.createAllFrom(postingPeriodIntervals, periodStartingBalance,
+                orderedNonInterestPostingTransactions, this.currency, compoundingPeriodType, interestCalculationType,
+                interestRateAsFraction, daysInYearType.getValue(), upToInterestCalculationDate, interestPostTransactions,
+                isInterestTransfer, minBalanceForInterestCalculation));
 
         this.savingsHelper.calculateInterestForAllPostingPeriods(this.currency, allPostingPeriods, getLockedInUntilLocalDate(),
-                isTransferInterestToOtherAccount());
+                isTransferInterestToOtherAccount(), interestPostedBeforeCalculation);
 
-        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods);
+        this.summary.updateFromInterestPeriodSummaries(this.currency, allPostingPeriods, interestPostedBeforeCalculation);
         this.summary.updateSummary(this.currency, this.savingsAccountTransactionSummaryWrapper, this.transactions);
 
+        if (isInterestCheckpointSupported()) {
+            moveInterestCheckpointOn(allPostingPeriods, upToInterestCalculationDate, interestPostedBeforeCalculation, fromInterestCheckpoint);
+        }
+
         return allPostingPeriods;
     }
 
+    /**
+     * Interest is carried from one posting period to the next through the
+     * balance and the interest posted, which is only the case for savings
+     * accounts that keep their interest. Deposit accounts calculate interest at
+     * rates that depend on the deposit and may transfer it to a linked
+     * account.
+     */
+    private boolean isInterestCheckpointSupported() {
+        return depositAccountType().isSavingsDeposit() && !isTransferInterestToOtherAccount();
+    }
+
+    private boolean isInterestCheckpointValidFor(final LocalDate upToInterestCalculationDate) {
+        if (this.interestCheckpointDate == null || this.interestCheckpointHash == null || !isInterestCheckpointSupported()) { return false; }
+
+        final LocalDate interestCheckpointLocalDate = new LocalDate(this.interestCheckpointDate);
+        if (interestCheckpointLocalDate.isAfter(upToInterestCalculationDate)) { return false; }
+
+        return this.interestCheckpointHash.longValue() == interestCheckpointHashFor(interestCheckpointLocalDate);
+    }
+
+    /**
+     * Moves the interest checkpoint to the end of the posting periods, from the
+     * first one on, whose interest is posted as calculated. A full calculation
+     * that finds no such period drops the checkpoint as the interest posted is
+     * to be corrected from the start.
+     */
+    private void moveInterestCheckpointOn(final List<PostingPeriod> postingPeriods, final LocalDate upToInterestCalculationDate,
+            final Money interestPostedBeforePeriods, final boolean fromInterestCheckpoint) {
+
+        final Map<LocalDate, SavingsAccountTransaction> interestPostingTransactionsByDate = new HashMap<>();
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.isInterestPostingAndNotReversed()
+                    && !interestPostingTransactionsByDate.containsKey(transaction.transactionLocalDate())) {
+                interestPostingTransactionsByDate.put(transaction.transactionLocalDate(), transaction);
+            }
+        }
+
+        PostingPeriod lastPostedPeriod = null;
+        Money interestPosted = interestPostedBeforePeriods;
+        for (final PostingPeriod postingPeriod : postingPeriods) {
+            final LocalDate postingDate = postingPeriod.dateOfPostingTransaction();
+            if (postingDate.isAfter(upToInterestCalculationDate)) {
+                break;
+            }
+            final SavingsAccountTransaction postingTransaction = interestPostingTransactionsByDate.get(postingDate);
+            if (postingTransaction == null || postingTransaction.hasNotAmount(postingPeriod.interest())) {
+                break;
+            }
+            lastPostedPeriod = postingPeriod;
+            interestPosted = interestPosted.plus(postingPeriod.interest());
+        }
+
+        if (lastPostedPeriod != null) {
+            final LocalDate interestCheckpointLocalDate = lastPostedPeriod.dateOfPostingTransaction();
+            this.interestCheckpointDate = interestCheckpointLocalDate.toDate();
+            this.interestCheckpointBalance = lastPostedPeriod.closingBalance().getAmount();
+            this.interestCheckpointPosted = interestPosted.getAmount();
+            this.interestCheckpointHash = interestCheckpointHashFor(interestCheckpointLocalDate);
+        } else if (!fromInterestCheckpoint) {
+            this.interestCheckpointDate = null;
+            this.interestCheckpointBalance = null;
+            this.interestCheckpointPosted = null;
+            this.interestCheckpointHash = null;
+        }
+    }
+
+    /**
+     * A hash of the interest settings and of the transactions dated before
+     * <code>interestCheckpointLocalDate</code>, along with the interest posted
+     * on it. Transactions are hashed independently of their order so that
+     * neither sorting nor the copies made to adjust overdrafts change it,
+     * while any backdated transaction, reversal or change of the interest
+     * settings does and forces a full calculation.
+     */
+    private long interestCheckpointHashFor(final LocalDate interestCheckpointLocalDate) {
+        final LocalDate startInterestCalculationLocalDate = getStartInterestCalculationDate();
+        final BigDecimal minBalance = minBalanceForInterestCalculation();
+
+        long hash = this.nominalAnnualInterestRate.movePointRight(6).longValue();
+        hash = hash * 31 + this.interestCompoundingPeriodType;
+        hash = hash * 31 + this.interestPostingPeriodType;
+        hash = hash * 31 + this.interestCalculationType;
+        hash = hash * 31 + this.interestCalculationDaysInYearType;
+        hash = hash * 31 + (minBalance == null ? -1 : minBalance.movePointRight(6).longValue());
+        hash = hash * 31 + startInterestCalculationLocalDate.getYear() * 10000L + startInterestCalculationLocalDate.getMonthOfYear() * 100L
+                + startInterestCalculationLocalDate.getDayOfMonth();
+
+        long transactionsHash = 0;
+        for (final SavingsAccountTransaction transaction : this.transactions) {
+            if (transaction.isReversed()) {
+                continue;
+            }
+            final LocalDate transactionDate = transaction.transactionLocalDate();
+            if (transactionDate.isBefore(interestCheckpointLocalDate)
+                    || (transactionDate.isEqual(interestCheckpointLocalDate) && transaction.isInterestPostingAndNotReversed())) {
+                transactionsHash += mixed(transaction.interestCheckpointHash());
+            }
+        }
+
+        return hash * 31 + transactionsHash;
+    }
+
+    private static long mixed(final long hash) {
+        long mixed = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94d049bb133111ebL;
+        return mixed ^ (mixed >>> 31);
+    }
+
     @SuppressWarnings("unused")
     protected BigDecimal getEffectiveInterestRateAsFraction(final MathContext mc, final LocalDate upToInterestCalculationDate) {
         return this.nominalAnnualInterestRate.divide(BigDecimal.valueOf(100l), mc);
@@ -22,6 +22,12 @@ public interface SavingsAccountRepository extends JpaRepository<SavingsAccount,
     @Query("from SavingsAccount s_acc where s_acc.status = :status")
     Page<SavingsAccount> findSavingAccountByStatus(@Param("status") Integer status, Pageable pageable);
 
+    @Query("select s_acc.id from SavingsAccount s_acc where s_acc.status = :status and s_acc.id > :lastId order by s_acc.id")
+    List<Long> findSavingAccountIdsByStatusAfter(@Param("status") Integer status, @Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("from SavingsAccount s_acc where s_acc.id in :ids order by s_acc.id")
+    List<SavingsAccount> findByIdIn(@Param("ids") List<Long> ids);
+
     @Query("from SavingsAccount sa where sa.client.id = :clientId and sa.group.id = :groupId")
     List<SavingsAccount> findByClientIdAndGroupId(@Param("clientId") Long clientId, @Param("groupId") Long groupId);
 
@@ -12,6 +12,7 @@ import javax.persistence.Column;
 import javax.persistence.Embeddable;
 import javax.persistence.Transient;
 
+import org.mifosplatform.organisation.monetary.domain.MinorUnitMoney;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.Money;
 import org.mifosplatform.portfolio.savings.domain.interest.PostingPeriod;
@@ -80,13 +81,24 @@ public final class SavingsAccountSummary {
     }
 
     public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods) {
+        updateFromInterestPeriodSummaries(currency, allPostingPeriods, Money.zero(currency));
+    }
+
+    /**
+     * Sets the interest earned to <code>interestEarnedBeforePeriods</code>,
+     * the interest of the posting periods that were not calculated again, and
+     * the interest of <code>allPostingPeriods</code>.
+     */
+    public void updateFromInterestPeriodSummaries(final MonetaryCurrency currency, final List<PostingPeriod> allPostingPeriods,
+            final Money interestEarnedBeforePeriods) {
 
-        Money totalEarned = Money.zero(currency);
+        final MinorUnitMoney totalEarned = MinorUnitMoney.zero(currency).plus(interestEarnedBeforePeriods);
 
         for (final PostingPeriod period : allPostingPeriods) {
-            Money interestEarned = period.interest();
-            interestEarned = interestEarned == null ? Money.zero(currency) : interestEarned;
-            totalEarned = totalEarned.plus(interestEarned);
+            final Money interestEarned = period.interest();
+            if (interestEarned != null) {
+                totalEarned.plus(interestEarned);
+            }
         }
 
         this.totalInterestEarned = totalEarned.getAmount();
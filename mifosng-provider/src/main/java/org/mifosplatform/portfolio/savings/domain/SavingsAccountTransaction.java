@@ -486,6 +486,25 @@ public final class SavingsAccountTransaction extends AbstractPersistable<Long> {
         return balanceInterval.containsPortionOf(periodInterval);
     }
 
+    public boolean hasBalanceEndingBefore(final LocalDate date) {
+        final LocalDate endOfBalanceDate = getEndOfBalanceLocalDate();
+        return endOfBalanceDate != null && endOfBalanceDate.isBefore(date);
+    }
+
+    /**
+     * A hash of the date, type and amount of the transaction, which are what
+     * interest is calculated from. It is the same for transactions with the
+     * same values so that a transaction copied to adjust its overdraft does
+     * not change the hash of an interest checkpoint.
+     */
+    long interestCheckpointHash() {
+        final LocalDate transactionDate = getTransactionLocalDate();
+        long hash = transactionDate.getYear() * 10000L + transactionDate.getMonthOfYear() * 100L + transactionDate.getDayOfMonth();
+        hash = hash * 31 + this.typeOf;
+        hash = hash * 31 + this.amount.movePointRight(6).longValue();
+        return hash;
+    }
+
     public boolean isIdentifiedBy(final Long transactionId) {
         return getId().equals(transactionId);
     }
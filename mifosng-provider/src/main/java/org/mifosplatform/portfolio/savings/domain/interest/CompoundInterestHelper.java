@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import org.joda.time.LocalDate;
+import org.mifosplatform.organisation.monetary.domain.MinorUnitMoney;
 import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
 import org.mifosplatform.organisation.monetary.domain.Money;
 
@@ -23,19 +24,30 @@ public class CompoundInterestHelper {
      */
     public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
             LocalDate lockUntil, Boolean interestTransferEnabled) {
+        return calculateInterestForAllPostingPeriods(currency, allPeriods, lockUntil, interestTransferEnabled, BigDecimal.ZERO);
+    }
+
+    /**
+     * @param interestEarnedBeforePeriods
+     *            - interest earned in the posting periods before
+     *            <code>allPeriods</code> that is included in compounding, used
+     *            when the earlier periods are not calculated again
+     */
+    public Money calculateInterestForAllPostingPeriods(final MonetaryCurrency currency, final List<PostingPeriod> allPeriods,
+            LocalDate lockUntil, Boolean interestTransferEnabled, final BigDecimal interestEarnedBeforePeriods) {
 
         // sum up the 'rounded' values that are posted each posting period
-        Money interestEarned = Money.zero(currency);
+        final MinorUnitMoney interestEarned = MinorUnitMoney.zero(currency);
 
         // total interest earned in previous periods but not yet recognised
-        BigDecimal interestEarnedButNotPosted = BigDecimal.ZERO;
+        BigDecimal interestEarnedButNotPosted = interestEarnedBeforePeriods;
         for (final PostingPeriod postingPeriod : allPeriods) {
 
             final BigDecimal interestEarnedThisPeriod = postingPeriod.calculateInterest(interestEarnedButNotPosted);
 
             final Money moneyToBePostedForPeriod = Money.of(currency, interestEarnedThisPeriod);
 
-            interestEarned = interestEarned.plus(moneyToBePostedForPeriod);
+            interestEarned.plus(moneyToBePostedForPeriod);
             // these checks are for fixed deposit account for not include
             // interest for accounts which has post interest to linked savings
             // account and if already transfered then it includes in interest
@@ -46,6 +58,6 @@ public class CompoundInterestHelper {
             }
         }
 
-        return interestEarned;
+        return interestEarned.toMoney();
     }
 }
\ No newline at end of file
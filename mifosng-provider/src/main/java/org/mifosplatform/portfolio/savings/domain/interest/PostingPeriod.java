@@ -48,12 +48,76 @@ public class PostingPeriod {
             final SavingsInterestCalculationType interestCalculationType, final BigDecimal interestRateAsFraction, final long daysInYear,
             final LocalDate upToInterestCalculationDate, Collection<Long> interestPostTransactions, boolean isInterestTransfer,
             final Money minBalanceForInterestCalculation) {
+        return createFrom(periodInterval, periodStartingBalance, orderedListOfTransactions, 0, orderedListOfTransactions.size(),
+                currency, interestCompoundingPeriodType, interestCalculationType, interestRateAsFraction, daysInYear,
+                upToInterestCalculationDate, interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation);
+    }
+
+    /**
+     * Creates the posting periods of <code>periodIntervals</code>, which
+     * follow each other, in one sweep over
+     * <code>orderedListOfTransactions</code> instead of a pass over all the
+     * transactions for each period. The transactions must be ordered by date
+     * and have their balance dates set, as they are once the daily balances of
+     * the account are recalculated.
+     * 
+     * A transaction whose balance ends before a period takes no part in it
+     * nor in any later period, and one made after the posting date of a period
+     * takes no part in it, so each period only looks at the transactions
+     * between those two bounds, which both move forward.
+     */
+    public static List<PostingPeriod> createAllFrom(final List<LocalDateInterval> periodIntervals, final Money periodStartingBalance,
+            final List<SavingsAccountTransaction> orderedListOfTransactions, final MonetaryCurrency currency,
+            final SavingsCompoundingInterestPeriodType interestCompoundingPeriodType,
+            final SavingsInterestCalculationType interestCalculationType, final BigDecimal interestRateAsFraction, final long daysInYear,
+            final LocalDate upToInterestCalculationDate, Collection<Long> interestPostTransactions, boolean isInterestTransfer,
+            final Money minBalanceForInterestCalculation) {
+
+        final List<PostingPeriod> postingPeriods = new ArrayList<>(periodIntervals.size());
+        final int numberOfTransactions = orderedListOfTransactions.size();
+
+        Money startingBalance = periodStartingBalance;
+        int fromTransaction = 0;
+        int toTransaction = 0;
+        for (final LocalDateInterval periodInterval : periodIntervals) {
+            final LocalDate dateOfPostingTransaction = periodInterval.endDate().plusDays(1);
+
+            while (fromTransaction < numberOfTransactions
+                    && orderedListOfTransactions.get(fromTransaction).hasBalanceEndingBefore(periodInterval.startDate())) {
+                fromTransaction++;
+            }
+            if (toTransaction < fromTransaction) {
+                toTransaction = fromTransaction;
+            }
+            while (toTransaction < numberOfTransactions
+                    && !orderedListOfTransactions.get(toTransaction).transactionLocalDate().isAfter(dateOfPostingTransaction)) {
+                toTransaction++;
+            }
+
+            final PostingPeriod postingPeriod = createFrom(periodInterval, startingBalance, orderedListOfTransactions, fromTransaction,
+                    toTransaction, currency, interestCompoundingPeriodType, interestCalculationType, interestRateAsFraction, daysInYear,
+                    upToInterestCalculationDate, interestPostTransactions, isInterestTransfer, minBalanceForInterestCalculation);
+
+            startingBalance = postingPeriod.closingBalance();
+            postingPeriods.add(postingPeriod);
+        }
+
+        return postingPeriods;
+    }
+
+    private static PostingPeriod createFrom(final LocalDateInterval periodInterval, final Money periodStartingBalance,
+            final List<SavingsAccountTransaction> orderedListOfTransactions, final int fromTransaction, final int toTransaction,
+            final MonetaryCurrency currency, final SavingsCompoundingInterestPeriodType interestCompoundingPeriodType,
+            final SavingsInterestCalculationType interestCalculationType, final BigDecimal interestRateAsFraction, final long daysInYear,
+            final LocalDate upToInterestCalculationDate, Collection<Long> interestPostTransactions, boolean isInterestTransfer,
+            final Money minBalanceForInterestCalculation) {
 
         final List<EndOfDayBalance> accountEndOfDayBalances = new ArrayList<>();
         boolean interestTransfered = false;
         Money openingDayBalance = periodStartingBalance;
         Money closeOfDayBalance = openingDayBalance;
-        for (final SavingsAccountTransaction transaction : orderedListOfTransactions) {
+        for (int i = fromTransaction; i < toTransaction; i++) {
+            final SavingsAccountTransaction transaction = orderedListOfTransactions.get(i);
 
             if (transaction.fallsWithin(periodInterval)) {
                 // the balance of the transaction falls entirely within this
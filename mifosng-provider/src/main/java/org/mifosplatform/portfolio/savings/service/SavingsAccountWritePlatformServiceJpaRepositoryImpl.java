@@ -15,13 +15,19 @@ import static org.mifosplatform.portfolio.savings.SavingsApiConstants.withdrawBa
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang.StringUtils;
 import org.joda.time.LocalDate;
@@ -34,13 +40,20 @@ import org.mifosplatform.infrastructure.core.data.CommandProcessingResult;
 import org.mifosplatform.infrastructure.core.data.CommandProcessingResultBuilder;
 import org.mifosplatform.infrastructure.core.data.DataValidatorBuilder;
 import org.mifosplatform.infrastructure.core.data.GlobalEntityType;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
 import org.mifosplatform.infrastructure.core.exception.PlatformApiDataValidationException;
 import org.mifosplatform.infrastructure.core.exception.PlatformServiceUnavailableException;
 import org.mifosplatform.infrastructure.core.service.DateUtils;
+import org.mifosplatform.infrastructure.core.service.TenantAwareTaskExecutor;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
+import org.mifosplatform.infrastructure.jobs.domain.ScheduledJobCheckpoint;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
+import org.mifosplatform.infrastructure.jobs.service.JobCheckpointService;
+import org.mifosplatform.infrastructure.jobs.service.JobExecutionMetrics;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
 import org.mifosplatform.infrastructure.jobs.service.SchedularWritePlatformService;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.infrastructure.security.service.PlatformSecurityContext;
 import org.mifosplatform.organisation.holiday.service.HolidayWritePlatformService;
 import org.mifosplatform.organisation.monetary.domain.ApplicationCurrency;
@@ -89,7 +102,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 @Service
@@ -116,6 +132,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     private final SavingsAccountChargeRepositoryWrapper savingsAccountChargeRepository;
     private final HolidayWritePlatformService holidayWritePlatformService;
     private final WorkingDaysWritePlatformService workingDaysWritePlatformService;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointService jobCheckpointService;
+    private final TenantAwareTaskExecutor tenantAwareTaskExecutor;
 
     @Autowired
     public SavingsAccountWritePlatformServiceJpaRepositoryImpl(final PlatformSecurityContext context,
@@ -135,7 +154,8 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
             final SavingsAccountChargeAssembler savingsAccountChargeAssembler,
             final SavingsAccountChargeRepositoryWrapper savingsAccountChargeRepository,
             final HolidayWritePlatformService holidayWritePlatformService,
-            final WorkingDaysWritePlatformService workingDaysWritePlatformService) {
+            final WorkingDaysWritePlatformService workingDaysWritePlatformService, final TransactionTemplate transactionTemplate,
+            final JobCheckpointService jobCheckpointService, final TenantAwareTaskExecutor tenantAwareTaskExecutor) {
         this.context = context;
         this.savingAccountRepository = savingAccountRepository;
         this.savingsAccountTransactionRepository = savingsAccountTransactionRepository;
@@ -155,6 +175,9 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         this.savingsAccountChargeRepository = savingsAccountChargeRepository;
         this.holidayWritePlatformService = holidayWritePlatformService;
         this.workingDaysWritePlatformService = workingDaysWritePlatformService;
+        this.transactionTemplate = transactionTemplate;
+        this.jobCheckpointService = jobCheckpointService;
+        this.tenantAwareTaskExecutor = tenantAwareTaskExecutor;
     }
 
     @Transactional
@@ -383,20 +406,20 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
     }
     
     @Transactional
-    private boolean postInterestInBatch(final Page<SavingsAccount> accounts) {
-    	boolean hasExceptionOccurred = false;
+    private int postInterestInBatch(final List<SavingsAccount> accounts) {
+    	int failedAccounts = 0;
     	for(final SavingsAccount savingsAccount : accounts) {
     		this.savingAccountAssembler.assignSavingAccountHelpers(savingsAccount);
     		try{
     			postInterest(savingsAccount);
     		} catch (PlatformApiDataValidationException padve) {
-    			hasExceptionOccurred = true;
+    			failedAccounts++;
     			this.schedularWritePlatformService.persistStepError(padve,
     					GlobalEntityType.SAVINGS_ACCOUNT,
     					JobName.POST_INTEREST_FOR_SAVINGS.getValue());
     		}
     	}
-    	return hasExceptionOccurred;
+    	return failedAccounts;
     }
 
     @Transactional
@@ -424,37 +447,190 @@ public class SavingsAccountWritePlatformServiceJpaRepositoryImpl implements Savi
         }
     }
 
+    /**
+     * Active accounts are split into id ranges using keyset pagination (id
+     * greater than the last id of the previous range) so that reading a range
+     * costs the same regardless of how far into the table it is. Each range is
+     * posted on the shared {@link TenantAwareTaskExecutor} in its own
+     * transaction; when that transaction fails, the accounts of the range are
+     * posted again one transaction each so that one bad account does not roll
+     * back the others.
+     *
+     * Ranges can complete out of order, so the job checkpoint only advances
+     * past a range once every range before it has completed; a rerun on the
+     * same day resumes after the last account of that range.
+     */
     @CronTarget(jobName = JobName.POST_INTEREST_FOR_SAVINGS)
     @Override
     public void postInterestForAccounts() throws JobExecutionException {
-    	final int maxPageSize = 500;
-    	boolean hasErrorOccurred = false;
-    	boolean tempHasErrorOccurred = false;
-    	int pageNumber = 0;
-    	
-        Page<SavingsAccount> savingsAccounts = this.savingAccountRepository.findSavingAccountByStatus(SavingsAccountStatusType.ACTIVE
-                .getValue(), new PageRequest(pageNumber, maxPageSize));
-        logger.info("Posting interest for " + savingsAccounts.getTotalElements() + " Savings Accounts : In Progress...");
-        hasErrorOccurred = postInterestInBatch(savingsAccounts);
-        logger.info("Processed batch with " + savingsAccounts.getNumberOfElements() + " accounts.");
-        
-        while(savingsAccounts.hasNextPage()) {
-        	pageNumber++;
-        	savingsAccounts = this.savingAccountRepository.findSavingAccountByStatus(SavingsAccountStatusType.ACTIVE
-                    .getValue(), new PageRequest(pageNumber, maxPageSize));
-        	tempHasErrorOccurred = postInterestInBatch(savingsAccounts);
-        	logger.info("Processed batch with " + savingsAccounts.getNumberOfElements() + " accounts.");
-        	
-        	if(tempHasErrorOccurred == Boolean.TRUE)
-        		hasErrorOccurred = tempHasErrorOccurred;
+        final MifosPlatformTenant tenant = ThreadLocalContextUtil.getTenant();
+        final JobExecutionMetrics metrics = JobExecutionMetrics.current();
+        final int workerCount = SchedulerServiceConstants.PARTITION_WORKER_THREAD_COUNT;
+        final Deque<SavingsInterestPostingPartition> unrecordedPartitions = new ArrayDeque<>();
+        final Deque<Future<Boolean>> pendingPartitions = new ArrayDeque<>();
+        ScheduledJobCheckpoint checkpoint = this.jobCheckpointService.startOrResume(JobName.POST_INTEREST_FOR_SAVINGS);
+        boolean hasErrorOccurred = false;
+        int completedPartitions = 0;
+        Long lastAccountId = checkpoint.lastProcessedKeyOrDefault(0L);
+
+        logger.info("Posting interest for Savings Accounts : In Progress...");
+        try {
+            List<Long> accountIds = retrieveNextActiveSavingsAccountPartition(lastAccountId);
+            while (!accountIds.isEmpty()) {
+                lastAccountId = accountIds.get(accountIds.size() - 1);
+                final SavingsInterestPostingPartition partition = new SavingsInterestPostingPartition(metrics, accountIds);
+                unrecordedPartitions.addLast(partition);
+                pendingPartitions.addLast(this.tenantAwareTaskExecutor.submit(tenant, partition));
+
+                // do not read further ahead than the workers can keep up with
+                if (pendingPartitions.size() >= workerCount * 2) {
+                    hasErrorOccurred = awaitInterestPostingPartition(pendingPartitions.pollFirst()) || hasErrorOccurred;
+                    completedPartitions++;
+                    checkpoint = recordCompletedPartitions(checkpoint, unrecordedPartitions);
+                    logger.info("Completed " + completedPartitions + " partitions, last account id read: " + lastAccountId);
+                }
+                accountIds = retrieveNextActiveSavingsAccountPartition(lastAccountId);
+            }
+
+            while (!pendingPartitions.isEmpty()) {
+                hasErrorOccurred = awaitInterestPostingPartition(pendingPartitions.pollFirst()) || hasErrorOccurred;
+                completedPartitions++;
+                checkpoint = recordCompletedPartitions(checkpoint, unrecordedPartitions);
+            }
+        } finally {
+            for (final Future<Boolean> pendingPartition : pendingPartitions) {
+                pendingPartition.cancel(true);
+            }
         }
-        
-        if(hasErrorOccurred)
+        this.jobCheckpointService.complete(checkpoint);
+        logger.info("Posting interest for Savings Accounts : Completed " + completedPartitions + " partitions.");
+
+        if (hasErrorOccurred)
         	throw new JobExecutionException("One or more steps in the job failed."
         			+ "Please check your database for the table job_error_log"
         			+ "for more details.");
     }
 
+    private List<Long> retrieveNextActiveSavingsAccountPartition(final Long lastAccountId) {
+        return this.savingAccountRepository.findSavingAccountIdsByStatusAfter(SavingsAccountStatusType.ACTIVE.getValue(), lastAccountId,
+                new PageRequest(0, SchedulerServiceConstants.PARTITION_SIZE));
+    }
+
+    /**
+     * Advances the checkpoint over the leading run of completed partitions,
+     * in the order they were read.
+     */
+    private ScheduledJobCheckpoint recordCompletedPartitions(final ScheduledJobCheckpoint checkpoint,
+            final Deque<SavingsInterestPostingPartition> unrecordedPartitions) {
+        Long lastAccountId = null;
+        int processed = 0;
+        int failed = 0;
+        while (!unrecordedPartitions.isEmpty() && unrecordedPartitions.peekFirst().isCompleted()) {
+            final SavingsInterestPostingPartition partition = unrecordedPartitions.pollFirst();
+            lastAccountId = partition.lastAccountId();
+            processed += partition.accountCount() - partition.failedAccounts();
+            failed += partition.failedAccounts();
+        }
+        if (lastAccountId == null) { return checkpoint; }
+        return this.jobCheckpointService.recordProgress(checkpoint, lastAccountId, processed, failed);
+    }
+
+    private boolean awaitInterestPostingPartition(final Future<Boolean> partition) throws JobExecutionException {
+        try {
+            return this.tenantAwareTaskExecutor.await(partition);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JobExecutionException("Interest posting was interrupted before all partitions completed.");
+        } catch (final ExecutionException e) {
+            logger.error("Interest posting failed for a partition of savings accounts", e.getCause());
+            return true;
+        }
+    }
+
+    /**
+     * Posts interest for one id range of savings accounts in a single
+     * transaction on a worker thread, returning true if any account failed.
+     * If the transaction of the range fails, each of its accounts is posted
+     * again in a transaction of its own.
+     */
+    private final class SavingsInterestPostingPartition implements Callable<Boolean> {
+
+        private final JobExecutionMetrics metrics;
+        private final List<Long> accountIds;
+        private volatile int failedAccounts;
+        private volatile boolean completed;
+
+        public SavingsInterestPostingPartition(final JobExecutionMetrics metrics, final List<Long> accountIds) {
+            this.metrics = metrics;
+            this.accountIds = accountIds;
+        }
+
+        @Override
+        public Boolean call() {
+            final long startNanos = System.nanoTime();
+            // until the partition has been posted, count all its accounts as
+            // failed
+            this.failedAccounts = this.accountIds.size();
+            try {
+                try {
+                    this.failedAccounts = postInterestInTransaction(this.accountIds);
+                } catch (final RuntimeException e) {
+                    logger.warn("Interest posting failed for the partition of " + this.accountIds.size()
+                            + " accounts ending at account id " + lastAccountId() + ", posting its accounts one at a time.", e);
+                    this.failedAccounts = postInterestForEachAccount();
+                }
+                logger.info("Processed partition with " + this.accountIds.size() + " accounts ending at account id " + lastAccountId()
+                        + ".");
+                return this.failedAccounts > 0;
+            } finally {
+                this.metrics.recordChunk(this.accountIds.size(), startNanos);
+                this.metrics.recordRowsWritten(this.accountIds.size() - this.failedAccounts);
+                this.completed = true;
+            }
+        }
+
+        private int postInterestForEachAccount() {
+            int failed = 0;
+            for (final Long accountId : this.accountIds) {
+                try {
+                    failed += postInterestInTransaction(Collections.singletonList(accountId));
+                } catch (final RuntimeException e) {
+                    failed++;
+                    logger.error("Interest posting failed for savings account with id " + accountId, e);
+                }
+            }
+            return failed;
+        }
+
+        private int postInterestInTransaction(final List<Long> accountIds) {
+            return SavingsAccountWritePlatformServiceJpaRepositoryImpl.this.transactionTemplate.execute(new TransactionCallback<Integer>() {
+
+                @Override
+                public Integer doInTransaction(@SuppressWarnings("unused") final TransactionStatus status) {
+                    final List<SavingsAccount> accounts = SavingsAccountWritePlatformServiceJpaRepositoryImpl.this.savingAccountRepository
+                            .findByIdIn(accountIds);
+                    return postInterestInBatch(accounts);
+                }
+            });
+        }
+
+        public boolean isCompleted() {
+            return this.completed;
+        }
+
+        public Long lastAccountId() {
+            return this.accountIds.get(this.accountIds.size() - 1);
+        }
+
+        public int accountCount() {
+            return this.accountIds.size();
+        }
+
+        public int failedAccounts() {
+            return this.failedAccounts;
+        }
+    }
+
     @Override
     public CommandProcessingResult undoTransaction(final Long savingsId, final Long transactionId,
             final boolean allowAccountTransferModification) {
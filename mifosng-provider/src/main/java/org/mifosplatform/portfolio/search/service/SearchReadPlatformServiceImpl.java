@@ -56,12 +56,11 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
     @Override
     public Collection<SearchData> retriveMatchingData(final SearchConditions searchConditions) {
         final AppUser currentUser = this.context.authenticatedUser();
-        final String hierarchy = currentUser.getOffice().getHierarchy();
 
         final SearchMapper rm = new SearchMapper();
 
         final MapSqlParameterSource params = new MapSqlParameterSource();
-        params.addValue("hierarchy", hierarchy + "%");
+        params.addValue("officeId", currentUser.getOffice().getId());
         params.addValue("search", searchConditions.getSearchQuery());
         params.addValue("partialSearch", "%" + searchConditions.getSearchQuery() + "%");
 
@@ -75,51 +74,51 @@ public class SearchReadPlatformServiceImpl implements SearchReadPlatformService
             final String union = " union ";
             final String clientExactMatchSql = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
                     + " , c.office_id as parentId, o.name as parentName, c.status_enum as entityStatusEnum "
-                    + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and (c.account_no like :search or c.display_name like :search or c.external_id like :search)) ";
+                    + " from m_client c join m_office o on o.id = c.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId where (c.account_no like :search or c.display_name like :search or c.external_id like :search)) ";
 
             final String clientMatchSql = " (select 'CLIENT' as entityType, c.id as entityId, c.display_name as entityName, c.external_id as entityExternalId, c.account_no as entityAccountNo "
                     + " , c.office_id as parentId, o.name as parentName, c.status_enum as entityStatusEnum  "
-                    + " from m_client c join m_office o on o.id = c.office_id where o.hierarchy like :hierarchy and (c.account_no like :partialSearch and c.account_no not like :search) or "
+                    + " from m_client c join m_office o on o.id = c.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId where (c.account_no like :partialSearch and c.account_no not like :search) or "
                     + "(c.display_name like :partialSearch and c.display_name not like :search) or "
                     + "(c.external_id like :partialSearch and c.external_id not like :search))";
 
             final String loanExactMatchSql = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
                     + " , c.id as parentId, c.display_name as parentName, l.loan_status_id as entityStatusEnum "
-                    + " from m_loan l join m_client c on l.client_id = c.id join m_office o on o.id = c.office_id join m_product_loan pl on pl.id=l.product_id where o.hierarchy like :hierarchy and (l.account_no like :search or l.external_id like :search)) ";
+                    + " from m_loan l join m_client c on l.client_id = c.id join m_office o on o.id = c.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId join m_product_loan pl on pl.id=l.product_id where (l.account_no like :search or l.external_id like :search)) ";
 
             final String loanMatchSql = " (select 'LOAN' as entityType, l.id as entityId, pl.name as entityName, l.external_id as entityExternalId, l.account_no as entityAccountNo "
                     + " , c.id as parentId, c.display_name as parentName, l.loan_status_id as entityStatusEnum "
-                    + " from m_loan l join m_client c on l.client_id = c.id join m_office o on o.id = c.office_id join m_product_loan pl on pl.id=l.product_id where o.hierarchy like :hierarchy and "
+                    + " from m_loan l join m_client c on l.client_id = c.id join m_office o on o.id = c.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId join m_product_loan pl on pl.id=l.product_id where "
 					+ " ((l.account_no like :partialSearch and l.account_no not like :search) or (l.external_id like :partialSearch and l.external_id not like :search))) ";
 
 			final String savingExactMatchSql = " (select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo " 
 					+ " , c.id as parentId, c.display_name as parentName, s.status_enum as entityStatusEnum "
-					+ " from m_savings_account s join m_client c on s.client_id = c.id join m_office o on o.id = c.office_id join m_savings_product sp on sp.id=s.product_id "
-					+ " where o.hierarchy like :hierarchy and (s.account_no like :search or s.external_id like :search)) ";
+					+ " from m_savings_account s join m_client c on s.client_id = c.id join m_office o on o.id = c.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId join m_savings_product sp on sp.id=s.product_id "
+					+ " where (s.account_no like :search or s.external_id like :search)) ";
 			
 			final String savingMatchSql = " (select 'SAVING' as entityType, s.id as entityId, sp.name as entityName, s.external_id as entityExternalId, s.account_no as entityAccountNo " 
 					+ " , c.id as parentId, c.display_name as parentName, s.status_enum as entityStatusEnum "
-					+ " from m_savings_account s join m_client c on s.client_id = c.id join m_office o on o.id = c.office_id join m_savings_product sp on sp.id=s.product_id "
-					+ " where o.hierarchy like :hierarchy and (s.account_no like :partialSearch and s.account_no not like :search) or "
+					+ " from m_savings_account s join m_client c on s.client_id = c.id join m_office o on o.id = c.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId join m_savings_product sp on sp.id=s.product_id "
+					+ " where (s.account_no like :partialSearch and s.account_no not like :search) or "
 					+ "(s.external_id like :partialSearch and s.external_id not like :search)) ";
 
 			final String clientIdentifierExactMatchSql = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
                     + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName, c.status_enum as entityStatusEnum "
-                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
-                    + " where o.hierarchy like :hierarchy and ci.document_key like :search) ";
+                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId "
+                    + " where ci.document_key like :search) ";
 
             final String clientIdentifierMatchSql = " (select 'CLIENTIDENTIFIER' as entityType, ci.id as entityId, ci.document_key as entityName, "
                     + " null as entityExternalId, null as entityAccountNo, c.id as parentId, c.display_name as parentName, c.status_enum as entityStatusEnum "
-                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id "
-                    + " where o.hierarchy like :hierarchy and ci.document_key like :partialSearch and ci.document_key not like :search) ";
+                    + " from m_client_identifier ci join m_client c on ci.client_id=c.id join m_office o on o.id = c.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId "
+                    + " where ci.document_key like :partialSearch and ci.document_key not like :search) ";
 
             final String groupExactMatchSql = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, NULL as entityAccountNo "
                     + " , g.office_id as parentId, o.name as parentName, g.status_enum as entityStatusEnum "
-                    + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and (g.display_name like :search or g.external_id like :search)) ";
+                    + " from m_group g join m_office o on o.id = g.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId where (g.display_name like :search or g.external_id like :search)) ";
 
             final String groupMatchSql = " (select IF(g.level_id=1,'CENTER','GROUP') as entityType, g.id as entityId, g.display_name as entityName, g.external_id as entityExternalId, NULL as entityAccountNo "
                     + " , g.office_id as parentId, o.name as parentName, g.status_enum as entityStatusEnum "
-                    + " from m_group g join m_office o on o.id = g.office_id where o.hierarchy like :hierarchy and (g.display_name like :partialSearch and g.display_name not like :search) or (g.external_id like :partialSearch and g.external_id not like :search)) ";
+                    + " from m_group g join m_office o on o.id = g.office_id join m_office_closure oc on oc.descendant_id = o.id and oc.ancestor_id = :officeId where (g.display_name like :partialSearch and g.display_name not like :search) or (g.external_id like :partialSearch and g.external_id not like :search)) ";
 
             final StringBuffer sql = new StringBuffer();
 
@@ -45,6 +45,7 @@ import org.mifosplatform.portfolio.transfer.exception.ClientNotAwaitingTransferA
 import org.mifosplatform.portfolio.transfer.exception.TransferNotSupportedException;
 import org.mifosplatform.portfolio.transfer.exception.TransferNotSupportedException.TRANSFER_NOT_SUPPORTED_REASON;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -241,6 +242,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
      **/
     @Transactional
     @Override
+    @CacheEvict(value = "loanSchedules", allEntries = true)
     public CommandProcessingResult proposeAndAcceptClientTransfer(final Long clientId, final JsonCommand jsonCommand) {
         // validation
         this.transfersDataValidator.validateForProposeAndAcceptClientTransfer(jsonCommand.json());
@@ -303,6 +305,7 @@ public class TransferWritePlatformServiceJpaRepositoryImpl implements TransferWr
      **/
     @Transactional
     @Override
+    @CacheEvict(value = "loanSchedules", allEntries = true)
     public CommandProcessingResult acceptClientTransfer(final Long clientId, final JsonCommand jsonCommand) {
         // validation
         this.transfersDataValidator.validateForAcceptClientTransfer(jsonCommand.json());
@@ -10,8 +10,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.joda.time.LocalDate;
@@ -26,9 +28,11 @@ import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
 import org.mifosplatform.infrastructure.jobs.annotation.CronTarget;
 import org.mifosplatform.infrastructure.jobs.exception.JobExecutionException;
 import org.mifosplatform.infrastructure.jobs.service.JobName;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
 import org.mifosplatform.organisation.holiday.domain.Holiday;
 import org.mifosplatform.organisation.holiday.domain.HolidayRepositoryWrapper;
 import org.mifosplatform.portfolio.calendar.service.CalendarReadPlatformService;
+import org.mifosplatform.portfolio.loanaccount.service.LoanSummaryDirtyTrackingService;
 import org.mifosplatform.portfolio.savings.DepositAccountType;
 import org.mifosplatform.portfolio.savings.data.DepositAccountData;
 import org.mifosplatform.portfolio.savings.data.SavingsAccountAnnualFeeData;
@@ -42,6 +46,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -59,6 +65,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
     private final ConfigurationDomainService configurationDomainService;
     private final HolidayRepositoryWrapper holidayRepository;
     private final PaginationHelper<FutureChargeScheduleInstallment> paginationHelper;
+    private final LoanSummaryDirtyTrackingService loanSummaryDirtyTrackingService;
 
     @Autowired
     public ScheduledJobRunnerServiceImpl(final RoutingDataSourceServiceFactory dataSourceServiceFactory,
@@ -68,7 +75,8 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
             final DepositAccountWritePlatformService depositAccountWritePlatformService,
             final ConfigurationDomainService configurationDomainService,
             final HolidayRepositoryWrapper holidayRepository,
-            final CalendarReadPlatformService calendarReadPlatformService) {
+            final CalendarReadPlatformService calendarReadPlatformService,
+            final LoanSummaryDirtyTrackingService loanSummaryDirtyTrackingService) {
         this.dataSourceServiceFactory = dataSourceServiceFactory;
         this.savingsAccountWritePlatformService = savingsAccountWritePlatformService;
         this.savingsAccountChargeReadPlatformService = savingsAccountChargeReadPlatformService;
@@ -78,15 +86,39 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         this.configurationDomainService = configurationDomainService;
         this.holidayRepository = holidayRepository;
         this.paginationHelper = new PaginationHelper<>();
+        this.loanSummaryDirtyTrackingService = loanSummaryDirtyTrackingService;
     }
 
-    @Transactional
+    /**
+     * Only loans marked dirty by the loan write services since the last run are
+     * recomputed. Each chunk of loans is updated by a single statement which
+     * commits on its own, so locks on <code>m_loan</code> are held for one
+     * chunk at a time.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_SUMMARY)
     public void updateLoanSummaryDetails() {
 
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
+        final NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        final String updateSql = loanSummaryUpdateSql();
+        final int chunkSize = this.configurationDomainService.retrieveLoanSummaryJobChunkSize().intValue();
+        final Long uptoMarkerId = this.loanSummaryDirtyTrackingService.retrieveLatestDirtyMarkerId();
+
+        int result = 0;
+        Long lastLoanId = 0L;
+        List<Long> loanIds = this.loanSummaryDirtyTrackingService.retrieveDirtyLoanIds(lastLoanId, uptoMarkerId, chunkSize);
+        while (!loanIds.isEmpty()) {
+            result += namedParameterJdbcTemplate.update(updateSql, new MapSqlParameterSource("loanIds", loanIds));
+            this.loanSummaryDirtyTrackingService.clearDirtyLoanIds(loanIds, uptoMarkerId);
+            lastLoanId = loanIds.get(loanIds.size() - 1);
+            loanIds = this.loanSummaryDirtyTrackingService.retrieveDirtyLoanIds(lastLoanId, uptoMarkerId, chunkSize);
+        }
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+    }
 
+    private String loanSummaryUpdateSql() {
         final StringBuilder updateSqlBuilder = new StringBuilder(900);
         updateSqlBuilder.append("update m_loan ");
         updateSqlBuilder.append("join (");
@@ -111,6 +143,7 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder.append(" FROM m_loan ml ");
         updateSqlBuilder.append("INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
         updateSqlBuilder.append("WHERE ml.disbursedon_date is not null ");
+        updateSqlBuilder.append("AND ml.id in (:loanIds) ");
         updateSqlBuilder.append("GROUP BY ml.id ");
         updateSqlBuilder.append(") x on x.loanId = m_loan.id ");
 
@@ -158,49 +191,183 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         updateSqlBuilder
                 .append(" (x.penalty_charges_charged_derived - (x.penalty_charges_repaid_derived + x.penalty_charges_waived_derived + x.penalty_charges_writtenoff_derived))");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
-
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        return updateSqlBuilder.toString();
     }
 
-    @Transactional
+    /**
+     * Walks <code>m_loan</code> in loan id ranges and, for each range, compares
+     * the ageing computed from the repayment schedule with the rows already in
+     * <code>m_loan_arrears_aging</code>. Only rows that are new, changed or no
+     * longer in arrears are written.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_LOAN_ARREARS_AGEING)
     public void updateLoanArrearsAgeingDetails() {
 
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
+        final LoanArrearsAgeingMapper rm = new LoanArrearsAgeingMapper();
 
-        jdbcTemplate.execute("truncate table m_loan_arrears_aging");
-
-        final StringBuilder updateSqlBuilder = new StringBuilder(900);
-
-        updateSqlBuilder
-                .append("INSERT INTO m_loan_arrears_aging(`loan_id`,`principal_overdue_derived`,`interest_overdue_derived`,`fee_charges_overdue_derived`,`penalty_charges_overdue_derived`,`total_overdue_derived`,`overdue_since_date_derived`)");
-        updateSqlBuilder.append("select ml.id as loanId,");
-        updateSqlBuilder
+        final StringBuilder computeSqlBuilder = new StringBuilder(900);
+        computeSqlBuilder.append("select ml.id as loan_id,");
+        computeSqlBuilder
                 .append("SUM((ifnull(mr.principal_amount,0) - ifnull(mr.principal_completed_derived, 0))) as principal_overdue_derived,");
-        updateSqlBuilder
+        computeSqlBuilder
                 .append("SUM((ifnull(mr.interest_amount,0)  - ifnull(mr.interest_completed_derived, 0))) as interest_overdue_derived,");
-        updateSqlBuilder
+        computeSqlBuilder
                 .append("SUM((ifnull(mr.fee_charges_amount,0)  - ifnull(mr.fee_charges_completed_derived, 0))) as fee_charges_overdue_derived,");
-        updateSqlBuilder
+        computeSqlBuilder
                 .append("SUM((ifnull(mr.penalty_charges_amount,0)  - ifnull(mr.penalty_charges_completed_derived, 0))) as penalty_charges_overdue_derived,");
-        updateSqlBuilder.append("SUM((ifnull(mr.principal_amount,0) - ifnull(mr.principal_completed_derived, 0))) +");
-        updateSqlBuilder.append("SUM((ifnull(mr.interest_amount,0)  - ifnull(mr.interest_completed_derived, 0))) +");
-        updateSqlBuilder.append("SUM((ifnull(mr.fee_charges_amount,0)  - ifnull(mr.fee_charges_completed_derived, 0))) +");
-        updateSqlBuilder
+        computeSqlBuilder.append("SUM((ifnull(mr.principal_amount,0) - ifnull(mr.principal_completed_derived, 0))) +");
+        computeSqlBuilder.append("SUM((ifnull(mr.interest_amount,0)  - ifnull(mr.interest_completed_derived, 0))) +");
+        computeSqlBuilder.append("SUM((ifnull(mr.fee_charges_amount,0)  - ifnull(mr.fee_charges_completed_derived, 0))) +");
+        computeSqlBuilder
                 .append("SUM((ifnull(mr.penalty_charges_amount,0)  - ifnull(mr.penalty_charges_completed_derived, 0))) as total_overdue_derived,");
-        updateSqlBuilder.append("MIN(mr.duedate) as overdue_since_date_derived ");
-        updateSqlBuilder.append(" FROM m_loan ml ");
-        updateSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
-        updateSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
-        updateSqlBuilder.append(" and mr.completed_derived is false ");
-        updateSqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
-        updateSqlBuilder.append(" GROUP BY ml.id");
+        computeSqlBuilder.append("MIN(mr.duedate) as overdue_since_date_derived ");
+        computeSqlBuilder.append(" FROM m_loan ml ");
+        computeSqlBuilder.append(" INNER JOIN m_loan_repayment_schedule mr on mr.loan_id = ml.id ");
+        computeSqlBuilder.append(" WHERE ml.loan_status_id = 300 "); // active
+        computeSqlBuilder.append(" and ml.id > ? and ml.id <= ? ");
+        computeSqlBuilder.append(" and mr.completed_derived is false ");
+        computeSqlBuilder.append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(ml.grace_on_arrears_ageing,0) day) ");
+        computeSqlBuilder.append(" GROUP BY ml.id");
+        final String computeSql = computeSqlBuilder.toString();
+
+        final String existingSql = "select laa.loan_id, laa.principal_overdue_derived, laa.interest_overdue_derived, "
+                + "laa.fee_charges_overdue_derived, laa.penalty_charges_overdue_derived, laa.total_overdue_derived, "
+                + "laa.overdue_since_date_derived from m_loan_arrears_aging laa where laa.loan_id > ? and laa.loan_id <= ?";
+        final String insertSql = "INSERT INTO m_loan_arrears_aging(`principal_overdue_derived`,`interest_overdue_derived`,"
+                + "`fee_charges_overdue_derived`,`penalty_charges_overdue_derived`,`total_overdue_derived`,`overdue_since_date_derived`,"
+                + "`loan_id`) values (?, ?, ?, ?, ?, ?, ?)";
+        final String updateSql = "UPDATE m_loan_arrears_aging SET principal_overdue_derived = ?, interest_overdue_derived = ?, "
+                + "fee_charges_overdue_derived = ?, penalty_charges_overdue_derived = ?, total_overdue_derived = ?, "
+                + "overdue_since_date_derived = ? WHERE loan_id = ?";
+        final String deleteSql = "DELETE FROM m_loan_arrears_aging WHERE loan_id = ?";
+
+        int inserted = 0;
+        int updated = 0;
+        int deleted = 0;
+        int chunks = 0;
+        Long lowerLoanId = 0L;
+        Long upperLoanId = retrieveLoanIdRangeUpperBound(jdbcTemplate, lowerLoanId);
+        while (upperLoanId != null) {
+            final long chunkStartTime = System.currentTimeMillis();
+
+            final Map<Long, LoanArrearsAgeing> computed = new HashMap<>();
+            for (final LoanArrearsAgeing ageing : jdbcTemplate.query(computeSql, rm, lowerLoanId, upperLoanId)) {
+                computed.put(ageing.loanId, ageing);
+            }
+            final Map<Long, LoanArrearsAgeing> existing = new HashMap<>();
+            for (final LoanArrearsAgeing ageing : jdbcTemplate.query(existingSql, rm, lowerLoanId, upperLoanId)) {
+                existing.put(ageing.loanId, ageing);
+            }
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
+            final List<Object[]> inserts = new ArrayList<>();
+            final List<Object[]> updates = new ArrayList<>();
+            final List<Object[]> deletes = new ArrayList<>();
+            for (final LoanArrearsAgeing ageing : computed.values()) {
+                final LoanArrearsAgeing current = existing.get(ageing.loanId);
+                if (current == null) {
+                    inserts.add(ageing.toSqlParameters());
+                } else if (!ageing.hasSameAgeingAs(current)) {
+                    updates.add(ageing.toSqlParameters());
+                }
+            }
+            for (final Long loanId : existing.keySet()) {
+                if (!computed.containsKey(loanId)) {
+                    deletes.add(new Object[] { loanId });
+                }
+            }
 
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(insertSql, inserts);
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(updateSql, updates);
+            }
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(deleteSql, deletes);
+            }
+            inserted += inserts.size();
+            updated += updates.size();
+            deleted += deletes.size();
+            chunks++;
+
+            logger.debug(ThreadLocalContextUtil.getTenant().getName() + ": Arrears ageing for loans " + (lowerLoanId + 1) + " to "
+                    + upperLoanId + " took " + (System.currentTimeMillis() - chunkStartTime) + " ms (" + inserts.size() + " inserted, "
+                    + updates.size() + " updated, " + deletes.size() + " deleted)");
+
+            lowerLoanId = upperLoanId;
+            upperLoanId = retrieveLoanIdRangeUpperBound(jdbcTemplate, lowerLoanId);
+        }
+
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Arrears ageing processed in " + chunks + " chunks: " + inserted
+                + " inserted, " + updated + " updated, " + deleted + " deleted");
+    }
+
+    /**
+     * Returns the highest loan id of the next range of loans after
+     * <code>lowerLoanId</code>, or null when there are no more loans.
+     */
+    private Long retrieveLoanIdRangeUpperBound(final JdbcTemplate jdbcTemplate, final Long lowerLoanId) {
+        final String sql = "select max(x.id) from (select ml.id from m_loan ml where ml.id > ? order by ml.id limit ?) x";
+        return jdbcTemplate.queryForObject(sql, Long.class, lowerLoanId, SchedulerServiceConstants.PARTITION_SIZE);
+    }
+
+    private static final class LoanArrearsAgeing {
+
+        private final Long loanId;
+        private final BigDecimal principalOverdue;
+        private final BigDecimal interestOverdue;
+        private final BigDecimal feeChargesOverdue;
+        private final BigDecimal penaltyChargesOverdue;
+        private final BigDecimal totalOverdue;
+        private final LocalDate overdueSinceDate;
+
+        public LoanArrearsAgeing(final Long loanId, final BigDecimal principalOverdue, final BigDecimal interestOverdue,
+                final BigDecimal feeChargesOverdue, final BigDecimal penaltyChargesOverdue, final BigDecimal totalOverdue,
+                final LocalDate overdueSinceDate) {
+            this.loanId = loanId;
+            this.principalOverdue = principalOverdue;
+            this.interestOverdue = interestOverdue;
+            this.feeChargesOverdue = feeChargesOverdue;
+            this.penaltyChargesOverdue = penaltyChargesOverdue;
+            this.totalOverdue = totalOverdue;
+            this.overdueSinceDate = overdueSinceDate;
+        }
+
+        public boolean hasSameAgeingAs(final LoanArrearsAgeing other) {
+            return isSameAmount(this.principalOverdue, other.principalOverdue) && isSameAmount(this.interestOverdue, other.interestOverdue)
+                    && isSameAmount(this.feeChargesOverdue, other.feeChargesOverdue)
+                    && isSameAmount(this.penaltyChargesOverdue, other.penaltyChargesOverdue)
+                    && isSameAmount(this.totalOverdue, other.totalOverdue)
+                    && (this.overdueSinceDate == null ? other.overdueSinceDate == null : this.overdueSinceDate.equals(other.overdueSinceDate));
+        }
+
+        public Object[] toSqlParameters() {
+            return new Object[] { this.principalOverdue, this.interestOverdue, this.feeChargesOverdue, this.penaltyChargesOverdue,
+                    this.totalOverdue, this.overdueSinceDate == null ? null : this.overdueSinceDate.toDate(), this.loanId };
+        }
+
+        private static boolean isSameAmount(final BigDecimal amount, final BigDecimal otherAmount) {
+            if (amount == null || otherAmount == null) { return amount == otherAmount; }
+            return amount.compareTo(otherAmount) == 0;
+        }
+    }
+
+    private static final class LoanArrearsAgeingMapper implements RowMapper<LoanArrearsAgeing> {
+
+        @Override
+        public LoanArrearsAgeing mapRow(final ResultSet rs, @SuppressWarnings("unused") final int rowNum) throws SQLException {
+            final Long loanId = rs.getLong("loan_id");
+            final BigDecimal principalOverdue = rs.getBigDecimal("principal_overdue_derived");
+            final BigDecimal interestOverdue = rs.getBigDecimal("interest_overdue_derived");
+            final BigDecimal feeChargesOverdue = rs.getBigDecimal("fee_charges_overdue_derived");
+            final BigDecimal penaltyChargesOverdue = rs.getBigDecimal("penalty_charges_overdue_derived");
+            final BigDecimal totalOverdue = rs.getBigDecimal("total_overdue_derived");
+            final LocalDate overdueSinceDate = JdbcSupport.getLocalDate(rs, "overdue_since_date_derived");
+            return new LoanArrearsAgeing(loanId, principalOverdue, interestOverdue, feeChargesOverdue, penaltyChargesOverdue, totalOverdue,
+                    overdueSinceDate);
+        }
     }
 
     @Transactional
@@ -392,29 +559,74 @@ public class ScheduledJobRunnerServiceImpl implements ScheduledJobRunnerService
         logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Finished updating Charge Installment dates.");
     }
     
-    @Transactional
+    /**
+     * Walks <code>m_loan</code> in loan id ranges and only flips
+     * <code>is_npa</code> on loans whose NPA state differs from the one
+     * computed from the repayment schedule.
+     */
     @Override
     @CronTarget(jobName = JobName.UPDATE_NPA)
     public void updateNPA() {
 
         final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSourceServiceFactory.determineDataSourceService().retrieveDataSource());
+        final NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
 
-        jdbcTemplate.update("UPDATE m_loan ml SET ml.is_npa=0");
+        final StringBuilder computeSqlBuilder = new StringBuilder(500);
+        computeSqlBuilder.append("select loan.id from m_loan_repayment_schedule mr ");
+        computeSqlBuilder
+                .append(" INNER JOIN  m_loan loan on mr.loan_id = loan.id INNER JOIN m_product_loan mpl on mpl.id = loan.product_id  ");
+        computeSqlBuilder.append("WHERE loan.loan_status_id = 300 and mr.completed_derived is false ");
+        computeSqlBuilder.append(" and loan.id > ? and loan.id <= ? ");
+        computeSqlBuilder
+                .append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(mpl.overdue_days_for_npa,0) day) group by loan.id");
+        final String computeSql = computeSqlBuilder.toString();
+        final String existingSql = "select ml.id from m_loan ml where ml.is_npa = 1 and ml.id > ? and ml.id <= ?";
+
+        int marked = 0;
+        int cleared = 0;
+        int chunks = 0;
+        Long lowerLoanId = 0L;
+        Long upperLoanId = retrieveLoanIdRangeUpperBound(jdbcTemplate, lowerLoanId);
+        while (upperLoanId != null) {
+            final long chunkStartTime = System.currentTimeMillis();
+
+            final Set<Long> npaLoanIds = new HashSet<>(jdbcTemplate.queryForList(computeSql, Long.class, lowerLoanId, upperLoanId));
+            final Set<Long> existingNpaLoanIds = new HashSet<>(jdbcTemplate.queryForList(existingSql, Long.class, lowerLoanId,
+                    upperLoanId));
+
+            final List<Long> loanIdsToMark = new ArrayList<>();
+            for (final Long loanId : npaLoanIds) {
+                if (!existingNpaLoanIds.contains(loanId)) {
+                    loanIdsToMark.add(loanId);
+                }
+            }
+            final List<Long> loanIdsToClear = new ArrayList<>();
+            for (final Long loanId : existingNpaLoanIds) {
+                if (!npaLoanIds.contains(loanId)) {
+                    loanIdsToClear.add(loanId);
+                }
+            }
 
-        final StringBuilder updateSqlBuilder = new StringBuilder(900);
+            if (!loanIdsToMark.isEmpty()) {
+                marked += namedParameterJdbcTemplate.update("UPDATE m_loan SET is_npa=1 where id in (:loanIds)", new MapSqlParameterSource(
+                        "loanIds", loanIdsToMark));
+            }
+            if (!loanIdsToClear.isEmpty()) {
+                cleared += namedParameterJdbcTemplate.update("UPDATE m_loan SET is_npa=0 where id in (:loanIds)", new MapSqlParameterSource(
+                        "loanIds", loanIdsToClear));
+            }
+            chunks++;
 
-        updateSqlBuilder.append("UPDATE m_loan as ml,");
-        updateSqlBuilder.append(" (select loan.id from m_loan_repayment_schedule mr ");
-        updateSqlBuilder
-                .append(" INNER JOIN  m_loan loan on mr.loan_id = loan.id INNER JOIN m_product_loan mpl on mpl.id = loan.product_id  ");
-        updateSqlBuilder.append("WHERE loan.loan_status_id = 300 and mr.completed_derived is false ");
-        updateSqlBuilder
-                .append(" and mr.duedate < SUBDATE(CURDATE(),INTERVAL  ifnull(mpl.overdue_days_for_npa,0) day) group by loan.id)  as sl ");
-        updateSqlBuilder.append("SET ml.is_npa=1 where ml.id=sl.id");
+            logger.debug(ThreadLocalContextUtil.getTenant().getName() + ": NPA for loans " + (lowerLoanId + 1) + " to " + upperLoanId
+                    + " took " + (System.currentTimeMillis() - chunkStartTime) + " ms (" + loanIdsToMark.size() + " marked, "
+                    + loanIdsToClear.size() + " cleared)");
 
-        final int result = jdbcTemplate.update(updateSqlBuilder.toString());
+            lowerLoanId = upperLoanId;
+            upperLoanId = retrieveLoanIdRangeUpperBound(jdbcTemplate, lowerLoanId);
+        }
 
-        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": Results affected by update: " + result);
+        logger.info(ThreadLocalContextUtil.getTenant().getName() + ": NPA processed in " + chunks + " chunks: " + marked + " marked, "
+                + cleared + " cleared");
     }
 
     @Override
@@ -97,6 +97,8 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
     @Temporal(TemporalType.DATE)
     private Date lastTimePasswordUpdated;
 
+    private transient volatile PermissionIndex permissionIndex;
+
     public static AppUser fromJson(final Office userOffice, final Staff linkedStaff, final Set<Role> allRoles, final JsonCommand command) {
 
         final String username = command.stringValueOfParameterNamed("username");
@@ -176,6 +178,7 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
         if (!allRoles.isEmpty()) {
             this.roles.clear();
             this.roles = allRoles;
+            this.permissionIndex = null;
         }
     }
 
@@ -377,25 +380,11 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
 
     public boolean hasNotPermissionForReport(final String reportName) {
 
-        if (hasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", "REPORTING_SUPER_USER", "READ_" + reportName)) { return true; }
-
-        return false;
+        return !permissionIndex().hasReportPermissionTo(reportName);
     }
 
     public boolean hasNotPermissionForDatatable(final String datatable, final String accessType) {
-
-        final String matchPermission = accessType + "_" + datatable;
-
-        if (accessType.equalsIgnoreCase("READ")) {
-
-            if (hasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", matchPermission)) { return true; }
-
-            return false;
-        }
-
-        if (hasNotPermissionForAnyOf("ALL_FUNCTIONS", matchPermission)) { return true; }
-
-        return false;
+        return !permissionIndex().hasDatatablePermissionTo(datatable, accessType);
     }
 
     public boolean hasNotPermissionForAnyOf(final String... permissionCodes) {
@@ -412,11 +401,9 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
 
     public void validateHasReadPermission(final String resourceType) {
 
-        final String authorizationMessage = "User has no authority to view " + resourceType.toLowerCase() + "s";
-        final String matchPermission = "READ_" + resourceType.toUpperCase();
-
-        if (!hasNotPermissionForAnyOf("ALL_FUNCTIONS", "ALL_FUNCTIONS_READ", matchPermission)) { return; }
+        if (permissionIndex().hasReadPermissionTo(resourceType)) { return; }
 
+        final String authorizationMessage = "User has no authority to view " + resourceType.toLowerCase() + "s";
         throw new NoAuthorizationException(authorizationMessage);
     }
 
@@ -425,27 +412,20 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
     }
 
     private boolean hasPermissionTo(final String permissionCode) {
-        boolean hasPermission = hasAllFunctionsPermission();
-        if (!hasPermission) {
-            for (final Role role : this.roles) {
-                if (role.hasPermissionTo(permissionCode)) {
-                    hasPermission = true;
-                    break;
-                }
-            }
-        }
-        return hasPermission;
+        return permissionIndex().hasPermissionTo(permissionCode);
     }
 
-    private boolean hasAllFunctionsPermission() {
-        boolean match = false;
-        for (final Role role : this.roles) {
-            if (role.hasPermissionTo("ALL_FUNCTIONS")) {
-                match = true;
-                break;
-            }
+    /**
+     * The permissions of the user compiled from its roles, compiled again once
+     * roles or permissions have been changed since.
+     */
+    private PermissionIndex permissionIndex() {
+        PermissionIndex index = this.permissionIndex;
+        if (index == null || index.isStale()) {
+            index = PermissionIndex.compile(this.roles);
+            this.permissionIndex = index;
         }
-        return match;
+        return index;
     }
 
     public boolean hasIdOf(final Long userId) {
@@ -495,8 +475,7 @@ public class AppUser extends AbstractPersistable<Long> implements PlatformUser {
 
     public void validateHasCheckerPermissionTo(final String function) {
 
-        final String checkerPermissionName = function.toUpperCase() + "_CHECKER";
-        if (hasNotPermissionTo("CHECKER_SUPER_USER") && hasNotPermissionTo(checkerPermissionName)) {
+        if (!permissionIndex().hasCheckerPermissionTo(function)) {
             final String authorizationMessage = "User has no authority to be a checker for: " + function;
             throw new NoAuthorizationException(authorizationMessage);
         }
@@ -0,0 +1,211 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.useradministration.domain;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The permissions granted to an {@link AppUser} through its roles, compiled
+ * into a bit set over a dictionary of permission codes so that checking a
+ * permission is a lookup instead of a walk over the roles and their
+ * permissions.
+ *
+ * The dictionary is shared by all users and tenants and only grows with the
+ * codes of the permissions granted to the users compiled so far, a code no
+ * user has been granted has no bit and is denied without being added. The
+ * read, report, checker and datatable permission codes derived from names are
+ * remembered once they have a bit so that checking them does not build the
+ * code again.
+ *
+ * An index is stale once roles or permissions have been changed after it was
+ * compiled, the role and permission write services report such changes
+ * through the PermissionIndexInvalidator, which calls {@link #invalidateAll()}
+ * on every node.
+ */
+public final class PermissionIndex {
+
+    private static final AtomicInteger bitSequence = new AtomicInteger();
+    private static final ConcurrentMap<String, Integer> bitsByCode = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ConcurrentMap<String, Integer>> datatableBitsByAccessType = new ConcurrentHashMap<>();
+    private static final AtomicLong versionSequence = new AtomicLong();
+
+    private static final int ALL_FUNCTIONS = register("ALL_FUNCTIONS");
+    private static final int ALL_FUNCTIONS_READ = register("ALL_FUNCTIONS_READ");
+    private static final int REPORTING_SUPER_USER = register("REPORTING_SUPER_USER");
+    private static final int CHECKER_SUPER_USER = register("CHECKER_SUPER_USER");
+
+    private static final int NO_BIT = -1;
+
+    private final BitSet grantedBits;
+    private final long version;
+
+    public static PermissionIndex compile(final Collection<Role> roles) {
+        final long version = versionSequence.get();
+        final BitSet grantedBits = new BitSet(bitSequence.get());
+        for (final Role role : roles) {
+            for (final Permission permission : role.getPermissions()) {
+                grantedBits.set(register(permission.getCode()));
+            }
+        }
+        return new PermissionIndex(grantedBits, version);
+    }
+
+    /**
+     * Marks every compiled index stale, again once the calling transaction
+     * completes so that an index compiled concurrently from the roles as they
+     * were before the commit is not used afterwards.
+     */
+    public static void invalidateAll() {
+        versionSequence.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    versionSequence.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    private PermissionIndex(final BitSet grantedBits, final long version) {
+        this.grantedBits = grantedBits;
+        this.version = version;
+    }
+
+    public boolean isStale() {
+        return this.version != versionSequence.get();
+    }
+
+    public boolean hasAllFunctions() {
+        return isGranted(ALL_FUNCTIONS);
+    }
+
+    public boolean hasPermissionTo(final String permissionCode) {
+        return hasAllFunctions() || isGranted(bitOf(permissionCode));
+    }
+
+    public boolean hasCheckerPermissionTo(final String function) {
+        return hasAllFunctions() || isGranted(CHECKER_SUPER_USER) || isGranted(DerivedCode.CHECKER.bitOf(function));
+    }
+
+    /**
+     * Whether the user can read resources of <code>resourceType</code>, which
+     * takes the <code>READ_</code> permission of the resource type or one of
+     * the permissions to read everything.
+     */
+    public boolean hasReadPermissionTo(final String resourceType) {
+        return hasAnyReadPermission() || isGranted(DerivedCode.READ.bitOf(resourceType));
+    }
+
+    public boolean hasReportPermissionTo(final String reportName) {
+        return hasAnyReadPermission() || isGranted(REPORTING_SUPER_USER) || isGranted(DerivedCode.REPORT.bitOf(reportName));
+    }
+
+    public boolean hasDatatablePermissionTo(final String datatable, final String accessType) {
+        final boolean granted = hasAllFunctions() || isGranted(datatableBitOf(datatable, accessType));
+        if (!granted && accessType.equalsIgnoreCase("READ")) { return isGranted(ALL_FUNCTIONS_READ); }
+        return granted;
+    }
+
+    private boolean hasAnyReadPermission() {
+        return hasAllFunctions() || isGranted(ALL_FUNCTIONS_READ);
+    }
+
+    private boolean isGranted(final int bit) {
+        return bit != NO_BIT && this.grantedBits.get(bit);
+    }
+
+    private static int register(final String permissionCode) {
+        Integer bit = bitsByCode.get(permissionCode);
+        if (bit == null) {
+            synchronized (bitsByCode) {
+                bit = bitsByCode.get(permissionCode);
+                if (bit == null) {
+                    bit = bitSequence.getAndIncrement();
+                    bitsByCode.put(permissionCode, bit);
+                }
+            }
+        }
+        return bit;
+    }
+
+    private static int bitOf(final String permissionCode) {
+        final Integer bit = bitsByCode.get(permissionCode);
+        return bit == null ? NO_BIT : bit;
+    }
+
+    private static int datatableBitOf(final String datatable, final String accessType) {
+        ConcurrentMap<String, Integer> bitsByDatatable = datatableBitsByAccessType.get(accessType);
+        if (bitsByDatatable == null) {
+            final ConcurrentMap<String, Integer> newBitsByDatatable = new ConcurrentHashMap<>();
+            bitsByDatatable = datatableBitsByAccessType.putIfAbsent(accessType, newBitsByDatatable);
+            if (bitsByDatatable == null) {
+                bitsByDatatable = newBitsByDatatable;
+            }
+        }
+
+        final Integer cachedBit = bitsByDatatable.get(datatable);
+        if (cachedBit != null) { return cachedBit; }
+
+        final int bit = bitOf(accessType + "_" + datatable);
+        if (bit != NO_BIT) {
+            bitsByDatatable.put(datatable, bit);
+        }
+        return bit;
+    }
+
+    /**
+     * Permission codes derived from a name, their bits are remembered by name
+     * once the code has one as bits are never taken back.
+     */
+    private enum DerivedCode {
+        READ {
+
+            @Override
+            String codeOf(final String resourceType) {
+                return "READ_" + resourceType.toUpperCase();
+            }
+        },
+        REPORT {
+
+            @Override
+            String codeOf(final String reportName) {
+                return "READ_" + reportName;
+            }
+        },
+        CHECKER {
+
+            @Override
+            String codeOf(final String function) {
+                return function.toUpperCase() + "_CHECKER";
+            }
+        };
+
+        private final ConcurrentMap<String, Integer> bitsByName = new ConcurrentHashMap<>();
+
+        abstract String codeOf(String name);
+
+        int bitOf(final String name) {
+            final Integer cachedBit = this.bitsByName.get(name);
+            if (cachedBit != null) { return cachedBit; }
+
+            final int bit = PermissionIndex.bitOf(codeOf(name));
+            if (bit != NO_BIT) {
+                this.bitsByName.put(name, bit);
+            }
+            return bit;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.useradministration.service;
+
+import javax.annotation.PostConstruct;
+
+import org.mifosplatform.infrastructure.cache.service.MultiNodeCacheManager;
+import org.mifosplatform.infrastructure.cache.service.MultiNodeCacheManager.InvalidationListener;
+import org.mifosplatform.useradministration.domain.PermissionIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the compiled {@link PermissionIndex}es of every node stale when roles
+ * or permissions change: those of this node straight away and, with the multi
+ * node cache, those of the other nodes through the cache invalidation log.
+ */
+@Component
+public class PermissionIndexInvalidator {
+
+    public static final String INVALIDATION_NAME = "permissionIndexes";
+
+    private final MultiNodeCacheManager multiNodeCacheManager;
+
+    @Autowired
+    public PermissionIndexInvalidator(final MultiNodeCacheManager multiNodeCacheManager) {
+        this.multiNodeCacheManager = multiNodeCacheManager;
+    }
+
+    @PostConstruct
+    public void invalidateWithOtherNodes() {
+        this.multiNodeCacheManager.addInvalidationListener(INVALIDATION_NAME, new InvalidationListener() {
+
+            @Override
+            public void invalidated(@SuppressWarnings("unused") final String key) {
+                PermissionIndex.invalidateAll();
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        PermissionIndex.invalidateAll();
+        this.multiNodeCacheManager.invalidate(INVALIDATION_NAME, null);
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.accounting.journalentry.service;
+
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.contains;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.accounting.common.AccountingEnumerations;
+import org.mifosplatform.accounting.glaccount.domain.GLAccountType;
+import org.mifosplatform.accounting.journalentry.data.JournalEntryData;
+import org.mifosplatform.accounting.journalentry.domain.JournalEntryType;
+import org.mifosplatform.infrastructure.core.domain.MifosPlatformTenant;
+import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
+import org.mifosplatform.infrastructure.core.service.TenantAwareTaskExecutor;
+import org.mifosplatform.infrastructure.core.service.ThreadLocalContextUtil;
+import org.mifosplatform.infrastructure.jobs.service.SchedulerServiceConstants;
+import org.mockito.InOrder;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Checks that running balances rewound for a backdated entry are recomputed
+ * from the backdated date until a run gets to the end, even when a later
+ * window fails and the checkpoint already holds the windows written before.
+ */
+@SuppressWarnings("unchecked")
+public class JournalEntryRunningBalanceUpdateServiceImplTest {
+
+    private static final Date BACKDATED_ENTRY_DATE = Date.valueOf("2014-03-01");
+    private static final Date CHECKPOINT_ENTRY_DATE = Date.valueOf("2014-03-10");
+    private static final Long CHECKPOINT_ENTRY_ID = 500L;
+    private static final int WINDOW_SIZE = SchedulerServiceConstants.RUNNING_BALANCE_CHUNK_SIZE
+            * SchedulerServiceConstants.PARTITION_WORKER_THREAD_COUNT;
+
+    private JdbcTemplate jdbcTemplate;
+    private TenantAwareTaskExecutor tenantAwareTaskExecutor;
+    private JournalEntryRunningBalanceUpdateServiceImpl runningBalanceUpdateService;
+
+    @Before
+    public void setUp() {
+        this.jdbcTemplate = mock(JdbcTemplate.class);
+        this.tenantAwareTaskExecutor = new TenantAwareTaskExecutor(2, 2);
+        this.runningBalanceUpdateService = new JournalEntryRunningBalanceUpdateServiceImpl(mock(RoutingDataSource.class), null, null,
+                null, mock(JpaTransactionManager.class), this.tenantAwareTaskExecutor);
+        ReflectionTestUtils.setField(this.runningBalanceUpdateService, "jdbcTemplate", this.jdbcTemplate);
+        ReflectionTestUtils.setField(this.runningBalanceUpdateService, "namedParameterJdbcTemplate",
+                mock(NamedParameterJdbcTemplate.class));
+        ThreadLocalContextUtil.setTenant(new MifosPlatformTenant(1L, "default", "Default", "mifostenant-default", "localhost", "3306",
+                "root", "mysql", null, false, 5, false, 30000, false, 60, false, 50, 40, 20, 10, 60, 34000, 60000));
+    }
+
+    @After
+    public void tearDown() {
+        this.tenantAwareTaskExecutor.shutdown();
+        ThreadLocalContextUtil.clearTenant();
+    }
+
+    @Test
+    public void backdatedEntryKeepsTheDateToRecomputeFromWhenALaterWindowFails() throws Exception {
+        final ResultSet checkpointPosition = checkpointPositionRow();
+        when(this.jdbcTemplate.queryForObject(startsWith("select MIN"), eq(java.util.Date.class))).thenReturn(BACKDATED_ENTRY_DATE);
+        when(this.jdbcTemplate.query(contains("from acc_gl_running_balance_checkpoint cp order by"), any(RowMapper.class)))
+                .thenAnswer(rowMappedFrom(checkpointPosition));
+        when(this.jdbcTemplate.queryForObject(startsWith("select count(je.id)"), eq(Long.class), Matchers.<Object> anyVararg()))
+                .thenReturn(1L);
+        when(this.jdbcTemplate.query(startsWith("select je.id as id"), any(RowMapper.class), Matchers.<Object> anyVararg())).thenReturn(
+                entries(1L, WINDOW_SIZE), entries(WINDOW_SIZE + 1L, 10));
+        when(this.jdbcTemplate.batchUpdate(startsWith("UPDATE acc_gl_journal_entry"), anyListOf(Object[].class))).thenReturn(new int[0])
+                .thenThrow(new DataAccessResourceFailureException("Lost connection in the second window"));
+
+        try {
+            this.runningBalanceUpdateService.updateRunningBalance();
+            fail("The failure of the second window should have been rethrown");
+        } catch (final DataAccessResourceFailureException e) {
+            // expected
+        }
+
+        final InOrder inOrder = inOrder(this.jdbcTemplate);
+        inOrder.verify(this.jdbcTemplate).update(contains("INSERT INTO acc_gl_running_balance_recompute"), eq(BACKDATED_ENTRY_DATE));
+        inOrder.verify(this.jdbcTemplate).update(contains("DELETE FROM acc_gl_running_balance_checkpoint"), eq(BACKDATED_ENTRY_DATE));
+        inOrder.verify(this.jdbcTemplate, times(2)).batchUpdate(startsWith("UPDATE acc_gl_journal_entry"), anyListOf(Object[].class));
+        verify(this.jdbcTemplate, never()).update(contains("DELETE FROM acc_gl_running_balance_recompute"),
+                Matchers.<Object> anyVararg());
+    }
+
+    @Test
+    public void runAfterAFailedWindowStartsOverFromTheDateToRecomputeFrom() throws Exception {
+        final ResultSet recomputeFromDate = recomputeFromDateRow();
+        final ResultSet checkpointPosition = checkpointPositionRow();
+        when(this.jdbcTemplate.query(contains("from acc_gl_running_balance_recompute"), any(RowMapper.class))).thenAnswer(
+                rowMappedFrom(recomputeFromDate));
+        when(this.jdbcTemplate.query(contains("from acc_gl_running_balance_checkpoint cp order by"), any(RowMapper.class)))
+                .thenAnswer(rowMappedFrom(checkpointPosition));
+        when(this.jdbcTemplate.query(startsWith("select je.id as id"), any(RowMapper.class), Matchers.<Object> anyVararg())).thenReturn(
+                entries(1L, 10));
+
+        this.runningBalanceUpdateService.updateRunningBalance();
+
+        final InOrder inOrder = inOrder(this.jdbcTemplate);
+        inOrder.verify(this.jdbcTemplate).update(contains("INSERT INTO acc_gl_running_balance_recompute"), eq(BACKDATED_ENTRY_DATE));
+        inOrder.verify(this.jdbcTemplate).update(contains("DELETE FROM acc_gl_running_balance_checkpoint"), eq(BACKDATED_ENTRY_DATE));
+        inOrder.verify(this.jdbcTemplate).query(startsWith("select je.id as id"), any(RowMapper.class), eq(BACKDATED_ENTRY_DATE),
+                eq(BACKDATED_ENTRY_DATE), eq(0L), eq(WINDOW_SIZE));
+        inOrder.verify(this.jdbcTemplate).update(contains("DELETE FROM acc_gl_running_balance_recompute"), eq(BACKDATED_ENTRY_DATE));
+        verify(this.jdbcTemplate, never()).query(contains("from acc_gl_running_balance_checkpoint cp order by"), any(RowMapper.class));
+    }
+
+    private static ResultSet checkpointPositionRow() throws Exception {
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.getDate("entryDate")).thenReturn(CHECKPOINT_ENTRY_DATE);
+        when(rs.getLong("journalEntryId")).thenReturn(CHECKPOINT_ENTRY_ID);
+        return rs;
+    }
+
+    private static ResultSet recomputeFromDateRow() throws Exception {
+        final ResultSet rs = mock(ResultSet.class);
+        when(rs.getDate("recomputeFromDate")).thenReturn(BACKDATED_ENTRY_DATE);
+        return rs;
+    }
+
+    private static Answer<List<Object>> rowMappedFrom(final ResultSet rs) {
+        return new Answer<List<Object>>() {
+
+            @Override
+            public List<Object> answer(final InvocationOnMock invocation) throws Throwable {
+                final RowMapper<Object> rowMapper = (RowMapper<Object>) invocation.getArguments()[1];
+                return Collections.singletonList(rowMapper.mapRow(rs, 0));
+            }
+        };
+    }
+
+    /**
+     * Debits to an asset account of one office, a day apart, starting on the
+     * backdated date.
+     */
+    private static List<JournalEntryData> entries(final long firstId, final int count) {
+        final List<JournalEntryData> entries = new ArrayList<>(count);
+        final LocalDate firstDate = new LocalDate(BACKDATED_ENTRY_DATE);
+        for (int i = 0; i < count; i++) {
+            final long id = firstId + i;
+            entries.add(new JournalEntryData(id, 1L, null, null, 10L, null, AccountingEnumerations.gLAccountType(GLAccountType.ASSET
+                    .getValue()), firstDate.plusDays((int) id), AccountingEnumerations.journalEntryType(JournalEntryType.DEBIT
+                    .getValue()), BigDecimal.TEN, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                    null));
+        }
+        return entries;
+    }
+}
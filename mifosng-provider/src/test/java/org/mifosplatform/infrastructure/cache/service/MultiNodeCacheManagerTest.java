@@ -0,0 +1,132 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.infrastructure.cache.service;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.cache.service.CacheInvalidationLog.CacheInvalidation;
+import org.mifosplatform.infrastructure.cache.service.MultiNodeCacheManager.InvalidationListener;
+import org.springframework.cache.Cache;
+import org.springframework.cache.ehcache.EhCacheCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Checks that evictions made on one node are recorded in the invalidation log
+ * and that polling the log evicts what the other nodes recorded, reading the
+ * last {@link MultiNodeCacheManager#REREAD_MILLIS} milliseconds again without
+ * applying an invalidation twice.
+ */
+public class MultiNodeCacheManagerTest {
+
+    private static final long START = 1400000000000L;
+
+    private EhCacheCacheManager ehcacheCacheManager;
+    private CacheInvalidationLog invalidationLog;
+    private Cache localCache;
+    private MultiNodeCacheManager multiNodeCacheManager;
+
+    @Before
+    public void setUp() {
+        this.ehcacheCacheManager = mock(EhCacheCacheManager.class);
+        this.invalidationLog = mock(CacheInvalidationLog.class);
+        this.localCache = mock(Cache.class);
+        when(this.localCache.getName()).thenReturn("codes");
+        when(this.ehcacheCacheManager.getCache("codes")).thenReturn(this.localCache);
+
+        this.multiNodeCacheManager = new MultiNodeCacheManager(this.ehcacheCacheManager, this.invalidationLog);
+        ReflectionTestUtils.setField(this.multiNodeCacheManager, "pollFrom", at(0));
+        ReflectionTestUtils.setField(this.multiNodeCacheManager, "purgedOn", at(0));
+    }
+
+    @Test
+    public void evictionsAreRecordedForTheOtherNodes() {
+        final Cache cache = this.multiNodeCacheManager.getCache("codes");
+
+        cache.evict("defaultcv");
+        cache.clear();
+
+        verify(this.localCache).evict("defaultcv");
+        verify(this.localCache).clear();
+        verify(this.invalidationLog).record("codes", "defaultcv");
+        verify(this.invalidationLog).record("codes", null);
+    }
+
+    @Test
+    public void pollEvictsWhatTheOtherNodesInvalidated() {
+        when(this.invalidationLog.findRecordedByOtherNodesSince(at(0))).thenReturn(
+                Arrays.asList(invalidation(1L, "codes", "defaultcv", 1000), invalidation(2L, "codes", null, 2000)));
+
+        poll();
+
+        verify(this.localCache).evict("defaultcv");
+        verify(this.localCache).clear();
+        verify(this.invalidationLog, never()).record(anyString(), anyString());
+    }
+
+    @Test
+    public void invalidationsOfTheRereadWindowAreReadAgainAndAppliedOnce() {
+        when(this.invalidationLog.findRecordedByOtherNodesSince(at(0))).thenReturn(
+                Collections.singletonList(invalidation(1L, "codes", "first", 10000)));
+        // the second insert committed after the first one was polled
+        when(this.invalidationLog.findRecordedByOtherNodesSince(at(10000 - MultiNodeCacheManager.REREAD_MILLIS))).thenReturn(
+                Arrays.asList(invalidation(1L, "codes", "first", 10000), invalidation(2L, "codes", "second", 7000)));
+
+        poll();
+        poll();
+
+        verify(this.invalidationLog).findRecordedByOtherNodesSince(at(10000 - MultiNodeCacheManager.REREAD_MILLIS));
+        verify(this.localCache, times(1)).evict("first");
+        verify(this.localCache, times(1)).evict("second");
+    }
+
+    @Test
+    public void pollHandsInvalidationsOfStateOutsideTheCachesToItsListener() {
+        final InvalidationListener listener = mock(InvalidationListener.class);
+        this.multiNodeCacheManager.addInvalidationListener("globalConfigurationSnapshots", listener);
+        when(this.invalidationLog.findRecordedByOtherNodesSince(at(0))).thenReturn(
+                Collections.singletonList(invalidation(1L, "globalConfigurationSnapshots", "default", 1000)));
+
+        poll();
+
+        verify(listener).invalidated("default");
+        verify(this.ehcacheCacheManager, never()).getCache("globalConfigurationSnapshots");
+    }
+
+    @Test
+    public void invalidationsOfStateOutsideTheCachesAreOnlyRecordedWhilePolling() {
+        this.multiNodeCacheManager.invalidate("globalConfigurationSnapshots", "default");
+        verify(this.invalidationLog, never()).record(anyString(), anyString());
+
+        ReflectionTestUtils.setField(this.multiNodeCacheManager, "poller", mock(ScheduledExecutorService.class));
+        this.multiNodeCacheManager.invalidate("globalConfigurationSnapshots", "default");
+        verify(this.invalidationLog).record("globalConfigurationSnapshots", "default");
+    }
+
+    private void poll() {
+        ReflectionTestUtils.invokeMethod(this.multiNodeCacheManager, "poll");
+    }
+
+    private static Date at(final long millisAfterStart) {
+        return new Date(START + millisAfterStart);
+    }
+
+    private static CacheInvalidation invalidation(final Long id, final String cacheName, final String cacheKey,
+            final long millisAfterStart) {
+        return new CacheInvalidation(id, cacheName, cacheKey, at(millisAfterStart));
+    }
+}
@@ -7,9 +7,7 @@ import java.util.ArrayList;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mifosplatform.infrastructure.core.service.RoutingDataSource;
 import org.mifosplatform.mix.service.XBRLResultServiceImpl;
-import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -19,8 +17,7 @@ public class ReadTaxonomyMappingServiceImplTest {
 
     @Before
     public void setUp() throws Exception {
-        final RoutingDataSource dataSource = Mockito.mock(RoutingDataSource.class);
-        this.readService = new XBRLResultServiceImpl(dataSource, null, null);
+        this.readService = new XBRLResultServiceImpl(null, null, null);
 
     }
 
@@ -0,0 +1,125 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.organisation.monetary.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that sums made with {@link MinorUnitMoney} give the same amounts, to
+ * the scale, as the same steps made with {@link Money}.
+ */
+public class MinorUnitMoneyTest {
+
+    private final MonetaryCurrency usDollars = new MonetaryCurrency("USD", 2, null);
+    private final MonetaryCurrency dinars = new MonetaryCurrency("KWD", 3, null);
+    private final MonetaryCurrency cfaFrancs = new MonetaryCurrency("XOF", 0, null);
+    private final MonetaryCurrency cfaFrancsInFifties = new MonetaryCurrency("XOF", 0, 50);
+    private final MonetaryCurrency sixDigits = new MonetaryCurrency("XXX", 6, null);
+
+    @Test
+    public void sumsOfAmountsWithTheDigitsOfTheCurrencyMatchMoney() {
+        assertSameAsMoneyForRandomSteps(this.usDollars, 2, 1);
+        assertSameAsMoneyForRandomSteps(this.dinars, 3, 2);
+        assertSameAsMoneyForRandomSteps(this.cfaFrancs, 0, 3);
+        assertSameAsMoneyForRandomSteps(this.sixDigits, 6, 4);
+    }
+
+    @Test
+    public void sumsOfAmountsWithMoreDigitsThanTheCurrencyMatchMoney() {
+        assertSameAsMoneyForRandomSteps(this.usDollars, 6, 5);
+        assertSameAsMoneyForRandomSteps(this.dinars, 8, 6);
+        assertSameAsMoneyForRandomSteps(this.cfaFrancs, 4, 7);
+    }
+
+    @Test
+    public void sumsInMultiplesMatchMoney() {
+        assertSameAsMoneyForRandomSteps(this.cfaFrancsInFifties, 0, 8);
+        assertSameAsMoneyForRandomSteps(this.cfaFrancsInFifties, 3, 9);
+    }
+
+    @Test
+    public void amountsWithMoreDigitsThanTheCurrencyAreRoundedHalfEven() {
+        assertAmount("0.00", MinorUnitMoney.zero(this.usDollars).plus(new BigDecimal("0.005")));
+        assertAmount("0.02", MinorUnitMoney.zero(this.usDollars).plus(new BigDecimal("0.015")));
+        assertAmount("1.02", MinorUnitMoney.zero(this.usDollars).plus(new BigDecimal("1.01")).plus(new BigDecimal("0.005")));
+        assertAmount("-0.02", MinorUnitMoney.zero(this.usDollars).minus(new BigDecimal("0.015")));
+    }
+
+    @Test
+    public void positiveAmountsInMultiplesAreRoundedToTheNearestMultipleAndUpWhenHalfway() {
+        assertAmount("0", MinorUnitMoney.zero(this.cfaFrancsInFifties).plus(new BigDecimal("24")));
+        assertAmount("50", MinorUnitMoney.zero(this.cfaFrancsInFifties).plus(new BigDecimal("25")));
+        assertAmount("150", MinorUnitMoney.zero(this.cfaFrancsInFifties).plus(new BigDecimal("130")));
+        assertAmount("100", MinorUnitMoney.zero(this.cfaFrancsInFifties).plus(new BigDecimal("150")).minus(new BigDecimal("30")));
+        assertAmount("-30", MinorUnitMoney.zero(this.cfaFrancsInFifties).minus(new BigDecimal("30")));
+    }
+
+    @Test
+    public void amountsOutOfTheRangeOfMinorUnitsFallBackToMoneyAndComeBack() {
+        final BigDecimal large = new BigDecimal("99999999999999.99");
+        final MinorUnitMoney sum = MinorUnitMoney.zero(this.usDollars).plus(large).plus(large);
+        assertAmount(Money.of(this.usDollars, large).plus(large).getAmount().toPlainString(), sum);
+
+        sum.minus(large).minus(new BigDecimal("99999999999999.98"));
+        assertAmount("0.01", sum);
+        assertTrue(sum.isGreaterThanZero());
+
+        sum.minus(new BigDecimal("0.01"));
+        assertTrue(sum.isZero());
+        assertFalse(sum.isLessThanZero());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void moneyOfAnotherCurrencyCannotBeAdded() {
+        MinorUnitMoney.zero(this.usDollars).plus(Money.of(this.dinars, BigDecimal.ONE));
+    }
+
+    private void assertSameAsMoneyForRandomSteps(final MonetaryCurrency currency, final int digitsOfAmounts, final long seed) {
+        final Random random = new Random(seed);
+
+        Money expected = Money.zero(currency);
+        final MinorUnitMoney actual = MinorUnitMoney.zero(currency);
+        for (int step = 0; step < 10000; step++) {
+            final BigDecimal amount = BigDecimal.valueOf(random.nextInt(2000000) - 500000, digitsOfAmounts);
+            switch (random.nextInt(4)) {
+                case 0:
+                    expected = expected.plus(amount);
+                    actual.plus(amount);
+                break;
+                case 1:
+                    expected = expected.minus(amount);
+                    actual.minus(amount);
+                break;
+                case 2:
+                    final Money money = Money.of(currency, amount);
+                    expected = expected.plus(money);
+                    actual.plus(money);
+                break;
+                default:
+                    final Money other = Money.of(currency, amount);
+                    expected = expected.minus(other);
+                    actual.minus(other);
+                break;
+            }
+            assertEquals("step " + step, expected.getAmount(), actual.getAmount());
+            assertEquals("step " + step, expected.isGreaterThanZero(), actual.isGreaterThanZero());
+            assertEquals("step " + step, expected.isLessThanZero(), actual.isLessThanZero());
+        }
+        assertEquals(expected.getAmount(), actual.toMoney().getAmount());
+    }
+
+    private void assertAmount(final String expected, final MinorUnitMoney actual) {
+        assertEquals(expected, actual.getAmount().toPlainString());
+        assertEquals(expected, actual.toMoney().getAmount().toPlainString());
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.organisation.office.domain.Office;
+import org.mifosplatform.portfolio.account.service.AccountTransfersReadPlatformService;
+import org.mifosplatform.portfolio.savings.DepositAccountType;
+import org.mifosplatform.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.SavingsInterestCalculationDaysInYearType;
+import org.mifosplatform.portfolio.savings.SavingsInterestCalculationType;
+import org.mifosplatform.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.domain.interest.PostingPeriod;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Checks that interest calculated from the interest checkpoint of a savings
+ * account is the interest of a full calculation, and that changes to what the
+ * posting periods before the checkpoint are calculated from force a full
+ * calculation.
+ */
+public class SavingsAccountInterestCheckpointTest {
+
+    private static final MathContext MC = new MathContext(8);
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+
+    private static final LocalDate ACTIVATION_DATE = new LocalDate(2014, 1, 1);
+    private static final LocalDate CHECKPOINT_DATE = new LocalDate(2014, 3, 1);
+    private static final LocalDate CALCULATION_DATE = new LocalDate(2014, 5, 1);
+
+    private SavingsAccount savingsAccount;
+
+    @Before
+    public void setUp() {
+        this.savingsAccount = new TestSavingsAccount();
+        this.savingsAccount.setHelpers(new SavingsAccountTransactionSummaryWrapper(), new SavingsHelper(
+                mock(AccountTransfersReadPlatformService.class)));
+
+        deposit(ACTIVATION_DATE, 1000);
+        // on the last day of the first posting period and the first day of
+        // the second one
+        deposit(new LocalDate(2014, 1, 31), 500);
+        deposit(new LocalDate(2014, 2, 1), 250);
+        withdraw(new LocalDate(2014, 2, 15), 300);
+
+        // interest is posted once and the checkpoint set when the posted
+        // interest is found on the next run
+        this.savingsAccount.postInterest(MC, CHECKPOINT_DATE, false);
+        this.savingsAccount.postInterest(MC, CHECKPOINT_DATE, false);
+
+        assertEquals(CHECKPOINT_DATE.toDate(), ReflectionTestUtils.getField(this.savingsAccount, "interestCheckpointDate"));
+    }
+
+    @Test
+    public void interestFromTheCheckpointIsTheInterestOfAFullCalculation() {
+        // on the checkpoint date and on the posting period boundaries after it
+        deposit(CHECKPOINT_DATE, 400);
+        deposit(new LocalDate(2014, 3, 31), 100);
+        withdraw(new LocalDate(2014, 4, 1), 200);
+
+        final List<PostingPeriod> periodsFromCheckpoint = this.savingsAccount.calculateInterestUsing(MC, CALCULATION_DATE, false);
+        final Object interestEarnedFromCheckpoint = totalInterestEarned();
+
+        assertEquals(new LocalDate(2014, 4, 1), periodsFromCheckpoint.get(0).dateOfPostingTransaction());
+
+        final List<PostingPeriod> allPeriods = calculateInterestFromTheStart();
+
+        assertSamePeriodsFrom(CHECKPOINT_DATE, allPeriods, periodsFromCheckpoint);
+        assertEquals(totalInterestEarned(), interestEarnedFromCheckpoint);
+    }
+
+    @Test
+    public void backdatedTransactionForcesAFullCalculation() {
+        deposit(new LocalDate(2014, 2, 10), 700);
+
+        assertFullCalculation();
+    }
+
+    @Test
+    public void reversedTransactionForcesAFullCalculation() {
+        for (final SavingsAccountTransaction transaction : this.savingsAccount.transactions) {
+            if (transaction.isWithdrawal()) {
+                transaction.reverse();
+            }
+        }
+
+        assertFullCalculation();
+    }
+
+    @Test
+    public void changeOfTheInterestSettingsForcesAFullCalculation() {
+        this.savingsAccount.nominalAnnualInterestRate = BigDecimal.valueOf(12);
+
+        assertFullCalculation();
+    }
+
+    private void assertFullCalculation() {
+        final List<PostingPeriod> periods = this.savingsAccount.calculateInterestUsing(MC, CALCULATION_DATE, false);
+        final Object interestEarned = totalInterestEarned();
+
+        // every posting period from the activation is calculated again
+        final List<PostingPeriod> allPeriods = calculateInterestFromTheStart();
+
+        assertSamePeriodsFrom(ACTIVATION_DATE, allPeriods, periods);
+        assertEquals(totalInterestEarned(), interestEarned);
+    }
+
+    private List<PostingPeriod> calculateInterestFromTheStart() {
+        ReflectionTestUtils.setField(this.savingsAccount, "interestCheckpointDate", null);
+        ReflectionTestUtils.setField(this.savingsAccount, "interestCheckpointBalance", null);
+        ReflectionTestUtils.setField(this.savingsAccount, "interestCheckpointPosted", null);
+        ReflectionTestUtils.setField(this.savingsAccount, "interestCheckpointHash", null);
+        assertNull(ReflectionTestUtils.getField(this.savingsAccount, "interestCheckpointDate"));
+
+        return this.savingsAccount.calculateInterestUsing(MC, CALCULATION_DATE, false);
+    }
+
+    /**
+     * The posting periods of <code>allPeriods</code> posted after
+     * <code>fromDate</code> are to be the same as <code>periods</code>.
+     */
+    private static void assertSamePeriodsFrom(final LocalDate fromDate, final List<PostingPeriod> allPeriods,
+            final List<PostingPeriod> periods) {
+        final List<PostingPeriod> allPeriodsFromDate = new ArrayList<>();
+        for (final PostingPeriod period : allPeriods) {
+            if (period.dateOfPostingTransaction().isAfter(fromDate)) {
+                allPeriodsFromDate.add(period);
+            }
+        }
+
+        assertEquals(allPeriodsFromDate.size(), periods.size());
+        for (int i = 0; i < periods.size(); i++) {
+            final PostingPeriod expected = allPeriodsFromDate.get(i);
+            final PostingPeriod actual = periods.get(i);
+            assertEquals(expected.dateOfPostingTransaction(), actual.dateOfPostingTransaction());
+            assertEquals(expected.openingBalance().getAmount(), actual.openingBalance().getAmount());
+            assertEquals(expected.closingBalance().getAmount(), actual.closingBalance().getAmount());
+            assertEquals(expected.interest().getAmount(), actual.interest().getAmount());
+        }
+    }
+
+    private Object totalInterestEarned() {
+        return ReflectionTestUtils.getField(this.savingsAccount.summary, "totalInterestEarned");
+    }
+
+    private void deposit(final LocalDate date, final int amount) {
+        this.savingsAccount.transactions.add(SavingsAccountTransaction.deposit(this.savingsAccount, null, null, date,
+                Money.of(CURRENCY, BigDecimal.valueOf(amount)), new Date()));
+    }
+
+    private void withdraw(final LocalDate date, final int amount) {
+        this.savingsAccount.transactions.add(SavingsAccountTransaction.withdrawal(this.savingsAccount, null, null, date,
+                Money.of(CURRENCY, BigDecimal.valueOf(amount)), new Date()));
+    }
+
+    /**
+     * An active savings account with daily interest posted monthly, without a
+     * client or group to take the office of the interest postings from.
+     */
+    private static final class TestSavingsAccount extends SavingsAccount {
+
+        TestSavingsAccount() {
+            this.currency = CURRENCY;
+            this.status = SavingsAccountStatusType.ACTIVE.getValue();
+            this.activatedOnDate = ACTIVATION_DATE.toDate();
+            this.nominalAnnualInterestRate = BigDecimal.valueOf(10);
+            this.interestCompoundingPeriodType = SavingsCompoundingInterestPeriodType.DAILY.getValue();
+            this.interestPostingPeriodType = SavingsPostingInterestPeriodType.MONTHLY.getValue();
+            this.interestCalculationType = SavingsInterestCalculationType.DAILY_BALANCE.getValue();
+            this.interestCalculationDaysInYearType = SavingsInterestCalculationDaysInYearType.DAYS_365.getValue();
+            this.summary = new SavingsAccountSummary();
+            ReflectionTestUtils.setField(this, "depositType", DepositAccountType.SAVINGS_DEPOSIT.getValue());
+            ReflectionTestUtils.setField(this, "minBalanceForInterestCalculation", BigDecimal.ZERO);
+        }
+
+        @Override
+        public Office office() {
+            return null;
+        }
+    }
+}
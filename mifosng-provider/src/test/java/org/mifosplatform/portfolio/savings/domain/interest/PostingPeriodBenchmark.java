@@ -0,0 +1,113 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain.interest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.core.domain.LocalDateInterval;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.SavingsInterestCalculationType;
+import org.mifosplatform.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransaction;
+import org.mifosplatform.portfolio.savings.domain.SavingsHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares creating the posting periods of a savings account one period at a
+ * time, each period going over all the transactions, with creating them in one
+ * sweep over the transactions, on a synthetic account with
+ * {@link #NUMBER_OF_TRANSACTIONS} deposits and withdrawals over
+ * {@link #NUMBER_OF_YEARS} years.
+ *
+ * Run with <code>main</code> from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PostingPeriodBenchmark {
+
+    private static final int NUMBER_OF_TRANSACTIONS = 5000;
+    private static final int NUMBER_OF_YEARS = 10;
+
+    private final MonetaryCurrency currency = new MonetaryCurrency("USD", 2, null);
+    private final BigDecimal interestRateAsFraction = BigDecimal.valueOf(0.05);
+    private final Collection<Long> interestPostTransactions = Collections.emptyList();
+
+    @Param({ "MONTHLY", "QUATERLY" })
+    private String postingPeriodType;
+
+    private LocalDate upToInterestCalculationDate;
+    private List<LocalDateInterval> postingPeriodIntervals;
+    private List<SavingsAccountTransaction> orderedTransactions;
+    private Money minBalanceForInterestCalculation;
+
+    @Setup
+    public void createAccount() {
+        final LocalDate activationDate = new LocalDate(2004, 1, 1);
+        this.upToInterestCalculationDate = activationDate.plusYears(NUMBER_OF_YEARS).minusDays(1);
+        final Random random = new Random(42);
+        final List<LocalDate> transactionDates = SavingsAccountTransactionFixture.randomTransactionDates(activationDate,
+                this.upToInterestCalculationDate, NUMBER_OF_TRANSACTIONS, random);
+        this.orderedTransactions = SavingsAccountTransactionFixture.orderedTransactionsOn(transactionDates, this.currency,
+                this.upToInterestCalculationDate, random);
+
+        this.postingPeriodIntervals = new SavingsHelper(null).determineInterestPostingPeriods(activationDate,
+                this.upToInterestCalculationDate, SavingsPostingInterestPeriodType.valueOf(this.postingPeriodType));
+        this.minBalanceForInterestCalculation = Money.zero(this.currency);
+    }
+
+    @Benchmark
+    public List<PostingPeriod> scanAllTransactionsPerPeriod() {
+        final List<PostingPeriod> postingPeriods = new ArrayList<>(this.postingPeriodIntervals.size());
+        Money periodStartingBalance = Money.zero(this.currency);
+        for (final LocalDateInterval periodInterval : this.postingPeriodIntervals) {
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, this.orderedTransactions,
+                    this.currency, SavingsCompoundingInterestPeriodType.DAILY, SavingsInterestCalculationType.DAILY_BALANCE,
+                    this.interestRateAsFraction, 365, this.upToInterestCalculationDate, this.interestPostTransactions, false,
+                    this.minBalanceForInterestCalculation);
+            periodStartingBalance = postingPeriod.closingBalance();
+            postingPeriods.add(postingPeriod);
+        }
+        return postingPeriods;
+    }
+
+    @Benchmark
+    public List<PostingPeriod> sweepTransactionsOnce() {
+        return PostingPeriod.createAllFrom(this.postingPeriodIntervals, Money.zero(this.currency), this.orderedTransactions,
+                this.currency, SavingsCompoundingInterestPeriodType.DAILY, SavingsInterestCalculationType.DAILY_BALANCE,
+                this.interestRateAsFraction, 365, this.upToInterestCalculationDate, this.interestPostTransactions, false,
+                this.minBalanceForInterestCalculation);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PostingPeriodBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain.interest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+import org.mifosplatform.infrastructure.core.domain.LocalDateInterval;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.portfolio.savings.SavingsCompoundingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.SavingsInterestCalculationType;
+import org.mifosplatform.portfolio.savings.SavingsPostingInterestPeriodType;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransaction;
+import org.mifosplatform.portfolio.savings.domain.SavingsHelper;
+
+/**
+ * Checks that creating the posting periods in one sweep over the transactions
+ * gives the periods created one at a time over all the transactions.
+ */
+public class PostingPeriodTest {
+
+    private static final MonetaryCurrency CURRENCY = new MonetaryCurrency("USD", 2, null);
+    private static final BigDecimal INTEREST_RATE_AS_FRACTION = BigDecimal.valueOf(0.05);
+    private static final Collection<Long> INTEREST_POST_TRANSACTIONS = Collections.emptyList();
+
+    private static final LocalDate ACTIVATION_DATE = new LocalDate(2014, 1, 1);
+    // in the middle of a posting period so that the last one is cut short
+    private static final LocalDate UP_TO_INTEREST_CALCULATION_DATE = new LocalDate(2014, 11, 15);
+
+    @Test
+    public void monthlyPeriodsWithTransactionsOnPeriodBoundaries() {
+        assertSamePeriods(SavingsPostingInterestPeriodType.MONTHLY, transactionsOnPeriodBoundaries(), false);
+    }
+
+    @Test
+    public void quarterlyPeriodsWithTransactionsOnPeriodBoundaries() {
+        assertSamePeriods(SavingsPostingInterestPeriodType.QUATERLY, transactionsOnPeriodBoundaries(), false);
+    }
+
+    @Test
+    public void interestTransferIsFlaggedOnThePeriodsWithATransactionOnTheirPostingDate() {
+        assertSamePeriods(SavingsPostingInterestPeriodType.MONTHLY, transactionsOnPeriodBoundaries(), true);
+        assertSamePeriods(SavingsPostingInterestPeriodType.QUATERLY, transactionsOnPeriodBoundaries(), true);
+    }
+
+    @Test
+    public void periodsWithRandomTransactions() {
+        final Random random = new Random(42);
+        final List<LocalDate> transactionDates = SavingsAccountTransactionFixture.randomTransactionDates(ACTIVATION_DATE,
+                UP_TO_INTEREST_CALCULATION_DATE, 500, random);
+
+        assertSamePeriods(SavingsPostingInterestPeriodType.MONTHLY, transactionsOn(transactionDates), false);
+        assertSamePeriods(SavingsPostingInterestPeriodType.QUATERLY, transactionsOn(transactionDates), false);
+    }
+
+    private static void assertSamePeriods(final SavingsPostingInterestPeriodType postingPeriodType,
+            final List<SavingsAccountTransaction> orderedTransactions, final boolean isInterestTransfer) {
+        final List<LocalDateInterval> postingPeriodIntervals = new SavingsHelper(null).determineInterestPostingPeriods(ACTIVATION_DATE,
+                UP_TO_INTEREST_CALCULATION_DATE, postingPeriodType);
+        final Money minBalanceForInterestCalculation = Money.zero(CURRENCY);
+
+        final List<PostingPeriod> expectedPeriods = new ArrayList<>();
+        Money periodStartingBalance = Money.zero(CURRENCY);
+        for (final LocalDateInterval periodInterval : postingPeriodIntervals) {
+            final PostingPeriod postingPeriod = PostingPeriod.createFrom(periodInterval, periodStartingBalance, orderedTransactions,
+                    CURRENCY, SavingsCompoundingInterestPeriodType.DAILY, SavingsInterestCalculationType.DAILY_BALANCE,
+                    INTEREST_RATE_AS_FRACTION, 365, UP_TO_INTEREST_CALCULATION_DATE, INTEREST_POST_TRANSACTIONS, isInterestTransfer,
+                    minBalanceForInterestCalculation);
+            periodStartingBalance = postingPeriod.closingBalance();
+            expectedPeriods.add(postingPeriod);
+        }
+
+        final List<PostingPeriod> periods = PostingPeriod.createAllFrom(postingPeriodIntervals, Money.zero(CURRENCY), orderedTransactions,
+                CURRENCY, SavingsCompoundingInterestPeriodType.DAILY, SavingsInterestCalculationType.DAILY_BALANCE,
+                INTEREST_RATE_AS_FRACTION, 365, UP_TO_INTEREST_CALCULATION_DATE, INTEREST_POST_TRANSACTIONS, isInterestTransfer,
+                minBalanceForInterestCalculation);
+
+        assertEquals(expectedPeriods.size(), periods.size());
+        for (int i = 0; i < periods.size(); i++) {
+            final PostingPeriod expected = expectedPeriods.get(i);
+            final PostingPeriod actual = periods.get(i);
+            final String period = postingPeriodType + " period posted on " + expected.dateOfPostingTransaction();
+            assertEquals(period, expected.dateOfPostingTransaction(), actual.dateOfPostingTransaction());
+            assertEquals(period, expected.openingBalance().getAmount(), actual.openingBalance().getAmount());
+            assertEquals(period, expected.closingBalance().getAmount(), actual.closingBalance().getAmount());
+            assertEquals(period, expected.isInterestTransfered(), actual.isInterestTransfered());
+            assertEquals(period, expected.calculateInterest(BigDecimal.ZERO), actual.calculateInterest(BigDecimal.ZERO));
+        }
+    }
+
+    /**
+     * Transactions on the first and last days of monthly and quarterly posting
+     * periods, several on the same day, and months without any.
+     */
+    private static List<SavingsAccountTransaction> transactionsOnPeriodBoundaries() {
+        return transactionsOn(Arrays.asList(ACTIVATION_DATE, ACTIVATION_DATE, new LocalDate(2014, 1, 31), new LocalDate(2014, 2, 1),
+                new LocalDate(2014, 2, 28), new LocalDate(2014, 3, 31), new LocalDate(2014, 3, 31), new LocalDate(2014, 4, 1),
+                new LocalDate(2014, 6, 30), new LocalDate(2014, 7, 1), new LocalDate(2014, 7, 1), new LocalDate(2014, 9, 30),
+                new LocalDate(2014, 10, 1), new LocalDate(2014, 10, 31), new LocalDate(2014, 11, 1), UP_TO_INTEREST_CALCULATION_DATE));
+    }
+
+    private static List<SavingsAccountTransaction> transactionsOn(final List<LocalDate> transactionDates) {
+        return SavingsAccountTransactionFixture.orderedTransactionsOn(transactionDates, CURRENCY, UP_TO_INTEREST_CALCULATION_DATE,
+                new Random(42));
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package org.mifosplatform.portfolio.savings.domain.interest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.LocalDate;
+import org.mifosplatform.infrastructure.core.domain.LocalDateInterval;
+import org.mifosplatform.organisation.monetary.domain.MonetaryCurrency;
+import org.mifosplatform.organisation.monetary.domain.Money;
+import org.mifosplatform.portfolio.savings.domain.SavingsAccountTransaction;
+
+/**
+ * Builds the ordered transactions of a savings account that posting periods
+ * are created from, shared by {@link PostingPeriodTest} and
+ * {@link PostingPeriodBenchmark}.
+ */
+final class SavingsAccountTransactionFixture {
+
+    private SavingsAccountTransactionFixture() {
+        //
+    }
+
+    /**
+     * <code>numberOfTransactions</code> dates from
+     * <code>activationDate</code>, which is the first of them, up to
+     * <code>upToInterestCalculationDate</code>, in order.
+     */
+    static List<LocalDate> randomTransactionDates(final LocalDate activationDate, final LocalDate upToInterestCalculationDate,
+            final int numberOfTransactions, final Random random) {
+        final int numberOfDays = LocalDateInterval.create(activationDate, upToInterestCalculationDate).daysInPeriodInclusiveOfEndDate();
+
+        final List<LocalDate> transactionDates = new ArrayList<>(numberOfTransactions);
+        transactionDates.add(activationDate);
+        for (int i = 1; i < numberOfTransactions; i++) {
+            transactionDates.add(activationDate.plusDays(random.nextInt(numberOfDays)));
+        }
+        Collections.sort(transactionDates);
+        return transactionDates;
+    }
+
+    /**
+     * Deposits and withdrawals of random amounts on the ordered
+     * <code>transactionDates</code>, never withdrawing more than the balance.
+     * Their balances are derived as they are when the daily balances of an
+     * account are recalculated: running balance, then balance end dates in
+     * reverse.
+     */
+    static List<SavingsAccountTransaction> orderedTransactionsOn(final List<LocalDate> transactionDates,
+            final MonetaryCurrency currency, final LocalDate upToInterestCalculationDate, final Random random) {
+        final List<SavingsAccountTransaction> orderedTransactions = new ArrayList<>(transactionDates.size());
+        final Date createdDate = new Date();
+        Money runningBalance = Money.zero(currency);
+        for (final LocalDate transactionDate : transactionDates) {
+            final Money amount = Money.of(currency, BigDecimal.valueOf(10 + random.nextInt(500)));
+            final SavingsAccountTransaction transaction;
+            if (runningBalance.isGreaterThan(amount) && random.nextInt(3) == 0) {
+                transaction = SavingsAccountTransaction.withdrawal(null, null, null, transactionDate, amount, createdDate);
+                runningBalance = runningBalance.minus(amount);
+            } else {
+                transaction = SavingsAccountTransaction.deposit(null, null, null, transactionDate, amount, createdDate);
+                runningBalance = runningBalance.plus(amount);
+            }
+            transaction.updateRunningBalance(runningBalance);
+            orderedTransactions.add(transaction);
+        }
+
+        LocalDate endOfBalanceDate = upToInterestCalculationDate;
+        for (int i = orderedTransactions.size() - 1; i >= 0; i--) {
+            final SavingsAccountTransaction transaction = orderedTransactions.get(i);
+            transaction.updateCumulativeBalanceAndDates(currency, endOfBalanceDate);
+            endOfBalanceDate = transaction.transactionLocalDate().minusDays(1);
+        }
+
+        return orderedTransactions;
+    }
+}